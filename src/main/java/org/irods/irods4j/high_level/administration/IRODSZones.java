@@ -1,6 +1,7 @@
 package org.irods.irods4j.high_level.administration;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -241,4 +242,36 @@ public class IRODSZones {
 		return Optional.of(info);
 	}
 
+	public static List<ZoneInfo> listZones(RcComm comm) throws IOException, IRODSException {
+		if (null == comm) {
+			throw new IllegalArgumentException("RcComm is null");
+		}
+
+		var input = new Genquery2Input_PI();
+		input.query_string = "select ZONE_NAME, ZONE_ID, ZONE_TYPE, ZONE_CONNECTION, ZONE_COMMENT order by ZONE_NAME limit 10000";
+
+		var output = new Reference<String>();
+		var ec = IRODSApi.rcGenQuery2(comm, input, output);
+		if (ec < 0) {
+			throw new IRODSException(ec, "rcGenQuery2 error");
+		}
+
+		var typeRef = new TypeReference<List<List<String>>>() {
+		};
+		var rows = JsonUtil.fromJsonString(output.value, typeRef);
+
+		var zones = new ArrayList<ZoneInfo>(rows.size());
+		for (var row : rows) {
+			var info = new ZoneInfo();
+			info.name = row.get(0);
+			info.id = Integer.parseInt(row.get(1));
+			info.type = "local".equals(row.get(2)) ? ZoneType.LOCAL : ZoneType.REMOTE;
+			info.connectionInfo = row.get(3);
+			info.comment = row.get(4);
+			zones.add(info);
+		}
+
+		return zones;
+	}
+
 }
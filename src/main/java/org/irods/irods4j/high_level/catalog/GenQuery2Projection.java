@@ -0,0 +1,501 @@
+package org.irods.irods4j.high_level.catalog;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+import org.irods.irods4j.common.JsonUtil;
+import org.irods.irods4j.common.Reference;
+import org.irods.irods4j.low_level.api.IRODSApi;
+import org.irods.irods4j.low_level.api.IRODSApi.RcComm;
+import org.irods.irods4j.low_level.api.IRODSErrorCodes;
+import org.irods.irods4j.low_level.api.IRODSException;
+import org.irods.irods4j.low_level.protocol.packing_instructions.Genquery2Input_PI;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * A GenQuery2 select clause bound to a set of typed columns and a function
+ * which maps each row to an object.
+ * <p>
+ * A projection is defined once using a {@link Builder} and can be executed many
+ * times with different where-clauses. Each row of the resultset is parsed
+ * directly from the server's JSON response and handed to the row mapper through
+ * a {@link Row}, so callers never work with the intermediate list of strings.
+ * <p>
+ * For example:
+ *
+ * <pre>
+ * var builder = new GenQuery2Projection.Builder();
+ * var id = builder.int64("DATA_ID");
+ * var name = builder.string("DATA_NAME");
+ * var size = builder.int64("DATA_SIZE");
+ * var projection = builder.bind(comm, row -&gt; new Entry(row.get(id), row.get(name), row.get(size)));
+ *
+ * List&lt;Entry&gt; entries = projection.execute(comm, "where COLL_NAME = '/tempZone/home/rods' limit 100");
+ * </pre>
+ *
+ * Instances are immutable and safe to share between threads.
+ *
+ * @param <T> The type each row is mapped to.
+ *
+ * @since 0.8.0
+ */
+public final class GenQuery2Projection<T> {
+
+	// Matches a column wrapped in an aggregate function (e.g. max(DATA_ID)).
+	private static final Pattern AGGREGATE_FN = Pattern.compile("^\\s*\\w+\\s*\\(\\s*(\\w+)\\s*\\)\\s*$");
+
+	private Builder builder;
+	private List<Column<?>> columns;
+	private Function<Row, T> rowMapper;
+	private String selectClause;
+
+	/**
+	 * A typed column within a projection.
+	 * <p>
+	 * Instances are created by a {@link Builder} and can only be used to read rows
+	 * produced by a projection created from the same builder.
+	 *
+	 * @param <V> The type the column's values are decoded to.
+	 *
+	 * @since 0.8.0
+	 */
+	public static final class Column<V> {
+
+		private Builder owner;
+		private int index;
+		private String name;
+		private Function<String, V> decoder;
+
+		private Column(Builder owner, int index, String name, Function<String, V> decoder) {
+			this.owner = owner;
+			this.index = index;
+			this.name = name;
+			this.decoder = decoder;
+		}
+
+		/**
+		 * Returns the name of the column as it appears in the select clause.
+		 *
+		 * @since 0.8.0
+		 */
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * Returns the zero-based position of the column in the select clause.
+		 *
+		 * @since 0.8.0
+		 */
+		public int getIndex() {
+			return index;
+		}
+
+	}
+
+	/**
+	 * Provides typed access to the values of the row being mapped.
+	 * <p>
+	 * A row is only valid for the duration of the row mapper invocation.
+	 *
+	 * @since 0.8.0
+	 */
+	public static final class Row {
+
+		private Builder owner;
+		private String[] values;
+
+		private Row(Builder owner, int columnCount) {
+			this.owner = owner;
+			this.values = new String[columnCount];
+		}
+
+		/**
+		 * Returns the decoded value of a column.
+		 *
+		 * @param <V>    The type of the value.
+		 * @param column The column to read.
+		 *
+		 * @throws IllegalArgumentException If the column is null or does not belong to
+		 *                                  the projection.
+		 *
+		 * @since 0.8.0
+		 */
+		public <V> V get(Column<V> column) {
+			if (null == column) {
+				throw new IllegalArgumentException("Column is null");
+			}
+
+			if (column.owner != owner) {
+				throw new IllegalArgumentException("Column does not belong to this projection");
+			}
+
+			return column.decoder.apply(values[column.index]);
+		}
+
+		/**
+		 * Returns the raw string value of a column.
+		 *
+		 * @param index The zero-based position of the column in the select clause.
+		 *
+		 * @since 0.8.0
+		 */
+		public String getString(int index) {
+			return values[index];
+		}
+
+	}
+
+	/**
+	 * Defines the columns of a projection.
+	 * <p>
+	 * Columns are added to the select clause in the order they are declared.
+	 * Numeric decoders map empty values (i.e. SQL NULL) to null.
+	 *
+	 * @since 0.8.0
+	 */
+	public static final class Builder {
+
+		private List<Column<?>> columns = new ArrayList<>();
+		private boolean bound;
+
+		/**
+		 * Declares a column whose values are returned as strings.
+		 *
+		 * @param name The GenQuery2 column (e.g. {@code DATA_NAME}).
+		 *
+		 * @since 0.8.0
+		 */
+		public Column<String> string(String name) {
+			return column(name, v -> v);
+		}
+
+		/**
+		 * Declares a column whose values are decoded as {@link Integer}.
+		 *
+		 * @param name The GenQuery2 column (e.g. {@code DATA_REPL_NUM}).
+		 *
+		 * @since 0.8.0
+		 */
+		public Column<Integer> int32(String name) {
+			return column(name, v -> v.isEmpty() ? null : Integer.valueOf(v));
+		}
+
+		/**
+		 * Declares a column whose values are decoded as {@link Long}.
+		 *
+		 * @param name The GenQuery2 column (e.g. {@code DATA_SIZE}).
+		 *
+		 * @since 0.8.0
+		 */
+		public Column<Long> int64(String name) {
+			return column(name, v -> v.isEmpty() ? null : Long.valueOf(v));
+		}
+
+		/**
+		 * Declares a column holding seconds since epoch, decoded as {@link Instant}.
+		 *
+		 * @param name The GenQuery2 column (e.g. {@code DATA_MODIFY_TIME}).
+		 *
+		 * @since 0.8.0
+		 */
+		public Column<Instant> epochSeconds(String name) {
+			return column(name, v -> v.isEmpty() ? null : Instant.ofEpochSecond(Long.parseLong(v)));
+		}
+
+		/**
+		 * Declares a column with a custom decoder.
+		 *
+		 * @param name    The GenQuery2 column.
+		 * @param decoder The function which converts the raw string value.
+		 *
+		 * @since 0.8.0
+		 */
+		public <V> Column<V> column(String name, Function<String, V> decoder) {
+			if (bound) {
+				throw new IllegalStateException("Projection has already been bound");
+			}
+
+			if (null == name || name.isEmpty()) {
+				throw new IllegalArgumentException("Column name is null or empty");
+			}
+
+			if (null == decoder) {
+				throw new IllegalArgumentException("Decoder is null");
+			}
+
+			var column = new Column<V>(this, columns.size(), name, decoder);
+			columns.add(column);
+			return column;
+		}
+
+		/**
+		 * Creates the projection after verifying that every column is known to the
+		 * server.
+		 * <p>
+		 * The verification uses {@link IRODSQuery#getColumnMappings(RcComm)}. The
+		 * mappings do not carry type information, so only the existence of the columns
+		 * is verified. Columns wrapped in an aggregate function are verified using the
+		 * wrapped column.
+		 *
+		 * @param comm      A connection to an iRODS server.
+		 * @param rowMapper The function which maps each row to an object.
+		 *
+		 * @throws IOException    If a network error occurs.
+		 * @throws IRODSException If a column is not supported by the server, or the
+		 *                        iRODS API operation fails.
+		 *
+		 * @since 0.8.0
+		 */
+		public <T> GenQuery2Projection<T> bind(RcComm comm, Function<Row, T> rowMapper)
+				throws IOException, IRODSException {
+			if (null == comm) {
+				throw new IllegalArgumentException("RcComm is null");
+			}
+
+			throwIfInvalidBuilderState(rowMapper);
+
+			var mappings = IRODSQuery.getColumnMappings(comm);
+			for (var c : columns) {
+				var name = c.name;
+				var m = AGGREGATE_FN.matcher(name);
+				if (m.matches()) {
+					name = m.group(1);
+				}
+
+				if (!mappings.containsKey(name)) {
+					throw new IRODSException(IRODSErrorCodes.SYS_INVALID_INPUT_PARAM,
+							String.format("Column not supported by GenQuery2 [%s]", c.name));
+				}
+			}
+
+			return bind(rowMapper);
+		}
+
+		/**
+		 * Creates the projection without contacting the server.
+		 *
+		 * @param rowMapper The function which maps each row to an object.
+		 *
+		 * @since 0.8.0
+		 */
+		public <T> GenQuery2Projection<T> bind(Function<Row, T> rowMapper) {
+			throwIfInvalidBuilderState(rowMapper);
+			bound = true;
+			return new GenQuery2Projection<>(this, rowMapper);
+		}
+
+		private void throwIfInvalidBuilderState(Function<?, ?> rowMapper) {
+			if (null == rowMapper) {
+				throw new IllegalArgumentException("Row mapper is null");
+			}
+
+			if (columns.isEmpty()) {
+				throw new IllegalStateException("Projection does not define any columns");
+			}
+		}
+
+	}
+
+	private GenQuery2Projection(Builder builder, Function<Row, T> rowMapper) {
+		this.builder = builder;
+		this.columns = Collections.unmodifiableList(new ArrayList<>(builder.columns));
+		this.rowMapper = rowMapper;
+
+		var sb = new StringBuilder("select ");
+		for (int i = 0; i < columns.size(); ++i) {
+			if (i > 0) {
+				sb.append(", ");
+			}
+			sb.append(columns.get(i).name);
+		}
+		this.selectClause = sb.toString();
+	}
+
+	/**
+	 * Returns the columns of the projection in select order.
+	 *
+	 * @since 0.8.0
+	 */
+	public List<Column<?>> getColumns() {
+		return columns;
+	}
+
+	/**
+	 * Returns the select clause derived from the columns (e.g.
+	 * {@code select DATA_ID, DATA_NAME}).
+	 *
+	 * @since 0.8.0
+	 */
+	public String getSelectClause() {
+		return selectClause;
+	}
+
+	/**
+	 * Executes the projection and returns the mapped rows.
+	 *
+	 * The query is executed against the zone which the connected iRODS server
+	 * resides.
+	 *
+	 * @param comm  A connection to an iRODS server.
+	 * @param query Everything following the select clause (e.g. the where-clause,
+	 *              order by, and limit). May be empty.
+	 *
+	 * @return The mapped rows.
+	 *
+	 * @throws IOException    If a network error occurs.
+	 * @throws IRODSException If the iRODS API operation fails.
+	 *
+	 * @since 0.8.0
+	 */
+	public List<T> execute(RcComm comm, String query) throws IOException, IRODSException {
+		var results = new ArrayList<T>();
+		executeImpl(comm, Optional.empty(), query, obj -> results.add(obj));
+		return results;
+	}
+
+	/**
+	 * Executes the projection and returns the mapped rows.
+	 *
+	 * The query is executed against the zone specified.
+	 *
+	 * @param comm  A connection to an iRODS server.
+	 * @param zone  The zone to execute the query against.
+	 * @param query Everything following the select clause (e.g. the where-clause,
+	 *              order by, and limit). May be empty.
+	 *
+	 * @return The mapped rows.
+	 *
+	 * @throws IOException    If a network error occurs.
+	 * @throws IRODSException If the iRODS API operation fails.
+	 *
+	 * @since 0.8.0
+	 */
+	public List<T> execute(RcComm comm, String zone, String query) throws IOException, IRODSException {
+		if (null == zone || zone.isEmpty()) {
+			throw new IllegalArgumentException("Zone is null or empty");
+		}
+
+		var results = new ArrayList<T>();
+		executeImpl(comm, Optional.of(zone), query, obj -> results.add(obj));
+		return results;
+	}
+
+	/**
+	 * Executes the projection and passes each mapped row to a handler.
+	 *
+	 * To continue processing rows, return true from the {@code rowHandler}. To end
+	 * processing of the rows early, return false from the {@code rowHandler}.
+	 *
+	 * @param comm       A connection to an iRODS server.
+	 * @param zone       The zone to execute the query against. If empty, the local
+	 *                   zone is used.
+	 * @param query      Everything following the select clause (e.g. the
+	 *                   where-clause, order by, and limit). May be empty.
+	 * @param rowHandler The callback used to process a single mapped row.
+	 *
+	 * @throws IOException    If a network error occurs.
+	 * @throws IRODSException If the iRODS API operation fails.
+	 *
+	 * @since 0.8.0
+	 */
+	public void execute(RcComm comm, Optional<String> zone, String query, Function<T, Boolean> rowHandler)
+			throws IOException, IRODSException {
+		if (null == zone) {
+			throw new IllegalArgumentException("Zone is null");
+		}
+
+		if (null == rowHandler) {
+			throw new IllegalArgumentException("Row handler is null");
+		}
+
+		executeImpl(comm, zone, query, rowHandler);
+	}
+
+	/**
+	 * Decodes a GenQuery2 resultset produced by this projection's select clause.
+	 *
+	 * @param json The JSON resultset returned by the server.
+	 *
+	 * @return The mapped rows.
+	 *
+	 * @throws IOException If the resultset cannot be parsed or does not match the
+	 *                     projection.
+	 *
+	 * @since 0.8.0
+	 */
+	public List<T> decode(String json) throws IOException {
+		if (null == json) {
+			throw new IllegalArgumentException("JSON string is null");
+		}
+
+		var results = new ArrayList<T>();
+		decode(json, obj -> results.add(obj));
+		return results;
+	}
+
+	private void executeImpl(RcComm comm, Optional<String> zone, String query, Function<T, Boolean> rowHandler)
+			throws IOException, IRODSException {
+		if (null == comm) {
+			throw new IllegalArgumentException("RcComm is null");
+		}
+
+		if (null == query) {
+			throw new IllegalArgumentException("Query string is null");
+		}
+
+		var input = new Genquery2Input_PI();
+		input.query_string = query.isEmpty() ? selectClause : selectClause + ' ' + query;
+		zone.ifPresent(z -> input.zone = z);
+
+		var output = new Reference<String>();
+
+		var ec = IRODSApi.rcGenQuery2(comm, input, output);
+		if (ec < 0) {
+			throw new IRODSException(ec, "rcGenQuery2 error");
+		}
+
+		decode(output.value, rowHandler);
+	}
+
+	private void decode(String json, Function<T, Boolean> rowHandler) throws IOException {
+		var row = new Row(builder, columns.size());
+
+		try (JsonParser parser = JsonUtil.getJsonMapper().getFactory().createParser(json)) {
+			if (JsonToken.START_ARRAY != parser.nextToken()) {
+				throw new IOException("Resultset is not a JSON array");
+			}
+
+			while (JsonToken.START_ARRAY == parser.nextToken()) {
+				var c = 0;
+				for (var t = parser.nextToken(); JsonToken.END_ARRAY != t; t = parser.nextToken()) {
+					if (c >= row.values.length) {
+						throw new IOException("Row contains more columns than the projection");
+					}
+					row.values[c++] = parser.getValueAsString("");
+				}
+
+				if (c != row.values.length) {
+					throw new IOException("Row contains fewer columns than the projection");
+				}
+
+				if (!rowHandler.apply(rowMapper.apply(row))) {
+					return;
+				}
+			}
+
+			if (JsonToken.END_ARRAY != parser.currentToken()) {
+				throw new IOException("Resultset is malformed");
+			}
+		}
+	}
+
+}
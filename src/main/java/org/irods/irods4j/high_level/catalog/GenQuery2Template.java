@@ -0,0 +1,417 @@
+package org.irods.irods4j.high_level.catalog;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.irods.irods4j.low_level.api.IRODSApi.RcComm;
+import org.irods.irods4j.low_level.api.IRODSException;
+
+/**
+ * A GenQuery2 query string containing named parameters.
+ * <p>
+ * A template is parsed once and can then be bound to values any number of
+ * times. Parameters are written as a colon followed by a name (e.g.
+ * {@code :coll_name}). Colons which appear inside of single-quoted literals are
+ * not treated as parameters. For example:
+ *
+ * <pre>
+ * static final GenQuery2Template QUERY = GenQuery2Template
+ * 		.compile("select DATA_SIZE where COLL_NAME = :coll_name and DATA_NAME = :data_name");
+ *
+ * var rows = QUERY.bind().set("coll_name", collName).set("data_name", dataName).execute(comm);
+ * </pre>
+ *
+ * String values are rendered as single-quoted literals with embedded single
+ * quotes escaped, collections of strings are rendered as a comma-separated list
+ * of single-quoted literals (for use with {@code in (...)}), and integers are
+ * rendered as-is. GenQuery2 only accepts quoted literals in conditions, so
+ * integers must only be bound to {@code limit} and {@code offset}. Bind numeric
+ * values compared in conditions (e.g. {@code DATA_REPL_NUM}) as strings.
+ * <p>
+ * Templates are immutable and safe to share between threads. Instances of
+ * {@link Binding} are not.
+ *
+ * @since 0.8.0
+ */
+public final class GenQuery2Template {
+
+	private String template;
+
+	// The literal text surrounding the parameters. There is always one more
+	// fragment than there are parameter occurrences.
+	private String[] fragments;
+
+	// The slot of each parameter occurrence, in order of appearance.
+	private int[] occurrences;
+
+	// Maps each unique parameter name to its slot.
+	private Map<String, Integer> slots;
+
+	private List<String> parameterNames;
+
+	// The max number of query shapes for which generated SQL is cached.
+	private static final int MAX_CACHED_SQL = 64;
+
+	// Maps the shape of a bound query to the SQL generated for it. See
+	// Binding#shapeKey().
+	private final Map<String, String> generatedSQL = new ConcurrentHashMap<>();
+
+	private GenQuery2Template(String template) {
+		this.template = template;
+
+		var fragments = new ArrayList<String>();
+		var occurrences = new ArrayList<Integer>();
+		var slots = new HashMap<String, Integer>();
+		var names = new ArrayList<String>();
+
+		var fragmentStart = 0;
+		var inLiteral = false;
+
+		for (int i = 0; i < template.length(); ++i) {
+			var c = template.charAt(i);
+
+			if ('\'' == c) {
+				inLiteral = !inLiteral;
+				continue;
+			}
+
+			if (inLiteral || ':' != c || i + 1 == template.length() || !isIdentifierStart(template.charAt(i + 1))) {
+				continue;
+			}
+
+			var end = i + 2;
+			while (end < template.length() && isIdentifierPart(template.charAt(end))) {
+				++end;
+			}
+
+			var name = template.substring(i + 1, end);
+			var slot = slots.get(name);
+			if (null == slot) {
+				slot = names.size();
+				slots.put(name, slot);
+				names.add(name);
+			}
+
+			fragments.add(template.substring(fragmentStart, i));
+			occurrences.add(slot);
+			fragmentStart = end;
+			i = end - 1;
+		}
+
+		if (inLiteral) {
+			throw new IllegalArgumentException("Query template contains an unterminated string literal");
+		}
+
+		fragments.add(template.substring(fragmentStart));
+
+		this.fragments = fragments.toArray(String[]::new);
+		this.occurrences = occurrences.stream().mapToInt(Integer::intValue).toArray();
+		this.slots = slots;
+		this.parameterNames = Collections.unmodifiableList(names);
+	}
+
+	/**
+	 * Parses a query template.
+	 *
+	 * @param template The GenQuery2 query string containing named parameters.
+	 *
+	 * @throws IllegalArgumentException If the template is null, empty, or
+	 *                                  malformed.
+	 *
+	 * @since 0.8.0
+	 */
+	public static GenQuery2Template compile(String template) {
+		if (null == template || template.isEmpty()) {
+			throw new IllegalArgumentException("Query template is null or empty");
+		}
+
+		return new GenQuery2Template(template);
+	}
+
+	/**
+	 * Returns the template as it was passed to {@link #compile(String)}.
+	 *
+	 * @since 0.8.0
+	 */
+	public String getTemplate() {
+		return template;
+	}
+
+	/**
+	 * Returns the names of the parameters in order of first appearance.
+	 *
+	 * @since 0.8.0
+	 */
+	public List<String> getParameterNames() {
+		return parameterNames;
+	}
+
+	/**
+	 * Returns a new binding for this template.
+	 *
+	 * @since 0.8.0
+	 */
+	public Binding bind() {
+		return new Binding();
+	}
+
+	/**
+	 * Holds the values of a template's parameters and renders the final query
+	 * string.
+	 * <p>
+	 * A binding can be reused by setting new values. The buffer used to render the
+	 * query string is reused between calls.
+	 *
+	 * @since 0.8.0
+	 */
+	public final class Binding {
+
+		private Object[] values = new Object[parameterNames.size()];
+		private StringBuilder sb = new StringBuilder(template.length() + 64);
+
+		private Binding() {
+		}
+
+		/**
+		 * Binds a string to a parameter. The value is rendered as a single-quoted
+		 * literal.
+		 *
+		 * @param name  The name of the parameter.
+		 * @param value The value of the parameter.
+		 *
+		 * @since 0.8.0
+		 */
+		public Binding set(String name, String value) {
+			if (null == value) {
+				throw new IllegalArgumentException("Parameter value is null");
+			}
+
+			values[slotOf(name)] = value;
+			return this;
+		}
+
+		/**
+		 * Binds an integer to a parameter. The value is rendered without quotes.
+		 * <p>
+		 * This overload is only for {@code limit} and {@code offset}. GenQuery2
+		 * rejects unquoted values in conditions, so numeric values compared in
+		 * conditions must be bound via {@link #set(String, String)}.
+		 *
+		 * @param name  The name of the parameter.
+		 * @param value The value of the parameter.
+		 *
+		 * @since 0.8.0
+		 */
+		public Binding set(String name, long value) {
+			values[slotOf(name)] = Long.valueOf(value);
+			return this;
+		}
+
+		/**
+		 * Binds a collection of strings to a parameter. The values are rendered as a
+		 * comma-separated list of single-quoted literals.
+		 *
+		 * @param name   The name of the parameter.
+		 * @param values The values of the parameter. Must not be empty.
+		 *
+		 * @since 0.8.0
+		 */
+		public Binding set(String name, Collection<String> values) {
+			if (null == values || values.isEmpty()) {
+				throw new IllegalArgumentException("Parameter values is null or empty");
+			}
+
+			for (var v : values) {
+				if (null == v) {
+					throw new IllegalArgumentException("Parameter values contains null");
+				}
+			}
+
+			this.values[slotOf(name)] = values;
+			return this;
+		}
+
+		/**
+		 * Renders the query string.
+		 *
+		 * @throws IllegalStateException If a parameter has not been bound.
+		 *
+		 * @since 0.8.0
+		 */
+		public String toQueryString() {
+			sb.setLength(0);
+
+			for (int i = 0; i < occurrences.length; ++i) {
+				sb.append(fragments[i]);
+
+				var value = values[occurrences[i]];
+				if (null == value) {
+					throw new IllegalStateException(
+							String.format("Parameter not bound [%s]", parameterNames.get(occurrences[i])));
+				}
+
+				if (value instanceof String s) {
+					appendLiteral(s);
+				} else if (value instanceof Long l) {
+					sb.append(l.longValue());
+				} else {
+					var first = true;
+					for (var s : (Collection<?>) value) {
+						if (!first) {
+							sb.append(", ");
+						}
+						appendLiteral((String) s);
+						first = false;
+					}
+				}
+			}
+
+			sb.append(fragments[fragments.length - 1]);
+
+			return sb.toString();
+		}
+
+		/**
+		 * Executes the query against the zone which the connected iRODS server
+		 * resides.
+		 *
+		 * @param comm A connection to an iRODS server.
+		 *
+		 * @return The resultset as a list of rows.
+		 *
+		 * @throws IOException    If a network error occurs.
+		 * @throws IRODSException If the iRODS API operation fails.
+		 *
+		 * @since 0.8.0
+		 */
+		public List<List<String>> execute(RcComm comm) throws IOException, IRODSException {
+			return IRODSQuery.executeGenQuery2(comm, toQueryString());
+		}
+
+		/**
+		 * Executes the query against the zone specified.
+		 *
+		 * @param comm A connection to an iRODS server.
+		 * @param zone The zone to execute the query against.
+		 *
+		 * @return The resultset as a list of rows.
+		 *
+		 * @throws IOException    If a network error occurs.
+		 * @throws IRODSException If the iRODS API operation fails.
+		 *
+		 * @since 0.8.0
+		 */
+		public List<List<String>> execute(RcComm comm, String zone) throws IOException, IRODSException {
+			return IRODSQuery.executeGenQuery2(comm, zone, toQueryString());
+		}
+
+		/**
+		 * Returns the SQL generated by the server for the bound query.
+		 * <p>
+		 * The SQL produced by GenQuery2 does not embed the values of string literals,
+		 * but it does depend on the number of elements bound to each list and on the
+		 * values of integers. The result is cached by the template for each such
+		 * combination and returned on later calls without contacting the server.
+		 *
+		 * @param comm A connection to an iRODS server.
+		 *
+		 * @throws IOException    If a network error occurs.
+		 * @throws IRODSException If the iRODS API operation fails.
+		 *
+		 * @since 0.8.0
+		 */
+		public String getGeneratedSQL(RcComm comm) throws IOException, IRODSException {
+			var key = shapeKey();
+			var sql = generatedSQL.get(key);
+			if (null == sql) {
+				sql = IRODSQuery.getGeneratedSQL(comm, toQueryString());
+				if (generatedSQL.size() < MAX_CACHED_SQL) {
+					generatedSQL.put(key, sql);
+				}
+			}
+			return sql;
+		}
+
+		/**
+		 * Returns the SQL generated for the bound query, if it has been requested via
+		 * {@link #getGeneratedSQL(RcComm)} by a binding of the same shape.
+		 *
+		 * @throws IllegalStateException If a parameter has not been bound.
+		 *
+		 * @since 0.8.0
+		 */
+		public Optional<String> getCachedGeneratedSQL() {
+			return Optional.ofNullable(generatedSQL.get(shapeKey()));
+		}
+
+		// Returns a key which identifies the parts of the bound values which affect
+		// the generated SQL: the number of elements of each list and the value of
+		// each integer.
+		private String shapeKey() {
+			var key = new StringBuilder();
+
+			for (int i = 0; i < values.length; ++i) {
+				var value = values[i];
+				if (null == value) {
+					throw new IllegalStateException(String.format("Parameter not bound [%s]", parameterNames.get(i)));
+				}
+
+				if (value instanceof String) {
+					key.append('s');
+				} else if (value instanceof Long l) {
+					key.append('i').append(l.longValue());
+				} else {
+					key.append('n').append(((Collection<?>) value).size());
+				}
+				key.append(',');
+			}
+
+			return key.toString();
+		}
+
+		private int slotOf(String name) {
+			if (null == name || name.isEmpty()) {
+				throw new IllegalArgumentException("Parameter name is null or empty");
+			}
+
+			var slot = slots.get(name);
+			if (null == slot) {
+				throw new IllegalArgumentException(String.format("Parameter does not exist [%s]", name));
+			}
+
+			return slot;
+		}
+
+		// Escapes embedded single quotes in the same way as
+		// LogicalPath.singleQuotesToHex, but without creating intermediate strings.
+		private void appendLiteral(String s) {
+			sb.append('\'');
+			for (int i = 0; i < s.length(); ++i) {
+				var c = s.charAt(i);
+				if ('\'' == c) {
+					sb.append("\\x27");
+				} else {
+					sb.append(c);
+				}
+			}
+			sb.append('\'');
+		}
+
+	}
+
+	private static boolean isIdentifierStart(char c) {
+		return Character.isLetter(c) || '_' == c;
+	}
+
+	private static boolean isIdentifierPart(char c) {
+		return Character.isLetterOrDigit(c) || '_' == c;
+	}
+
+}
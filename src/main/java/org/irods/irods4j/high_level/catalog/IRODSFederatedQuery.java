@@ -0,0 +1,223 @@
+package org.irods.irods4j.high_level.catalog;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.irods.irods4j.high_level.administration.IRODSZones;
+import org.irods.irods4j.high_level.connection.IRODSConnectionPool;
+import org.irods.irods4j.low_level.api.IRODSException;
+
+/**
+ * A class providing functions for executing the same GenQuery2 query against
+ * multiple zones in parallel.
+ * <p>
+ * Each zone is queried on its own connection from an
+ * {@link IRODSConnectionPool}. Failures and timeouts are reported per zone, so
+ * that a slow or unreachable zone does not prevent the results of the other
+ * zones from being returned.
+ *
+ * @since 0.8.0
+ */
+public class IRODSFederatedQuery {
+
+	private static final Logger log = LogManager.getLogger();
+
+	/**
+	 * Holds the outcome of a federated query.
+	 *
+	 * @since 0.8.0
+	 */
+	public static final class FederatedQueryResult {
+
+		private Map<String, List<List<String>>> rows = new LinkedHashMap<>();
+		private Map<String, Exception> failures = new LinkedHashMap<>();
+		private List<String> timedOutZones = new ArrayList<>();
+
+		private FederatedQueryResult() {
+		}
+
+		/**
+		 * Returns the rows of each zone which completed successfully, keyed by zone.
+		 * The zones appear in the order they were requested.
+		 *
+		 * @since 0.8.0
+		 */
+		public Map<String, List<List<String>>> getRows() {
+			return Collections.unmodifiableMap(rows);
+		}
+
+		/**
+		 * Returns the rows of all successful zones merged into a single list. Each row
+		 * is prefixed with the name of the zone it came from.
+		 *
+		 * @since 0.8.0
+		 */
+		public List<List<String>> getRowsTaggedByZone() {
+			var merged = new ArrayList<List<String>>();
+			rows.forEach((zone, zoneRows) -> {
+				for (var row : zoneRows) {
+					var tagged = new ArrayList<String>(row.size() + 1);
+					tagged.add(zone);
+					tagged.addAll(row);
+					merged.add(tagged);
+				}
+			});
+			return merged;
+		}
+
+		/**
+		 * Returns the error raised by each zone which failed, keyed by zone.
+		 *
+		 * @since 0.8.0
+		 */
+		public Map<String, Exception> getFailures() {
+			return Collections.unmodifiableMap(failures);
+		}
+
+		/**
+		 * Returns the zones which did not respond within the timeout.
+		 *
+		 * @since 0.8.0
+		 */
+		public List<String> getTimedOutZones() {
+			return Collections.unmodifiableList(timedOutZones);
+		}
+
+		/**
+		 * Checks if every zone completed successfully.
+		 *
+		 * @since 0.8.0
+		 */
+		public boolean isComplete() {
+			return failures.isEmpty() && timedOutZones.isEmpty();
+		}
+
+	}
+
+	/**
+	 * Executes a GenQuery2 query against every zone known to the local zone.
+	 * <p>
+	 * The list of zones is retrieved using {@link IRODSZones#listZones}.
+	 *
+	 * @param pool     The connection pool providing connections for the zones.
+	 * @param executor The executor used to run the queries.
+	 * @param query    The GenQuery2 query string.
+	 * @param timeout  The maximum amount of time to wait for each zone.
+	 * @param unit     The unit of the timeout.
+	 *
+	 * @return The results, failures, and timeouts of each zone.
+	 *
+	 * @throws IOException
+	 * @throws IRODSException
+	 * @throws InterruptedException
+	 *
+	 * @since 0.8.0
+	 */
+	public static FederatedQueryResult execute(IRODSConnectionPool pool, ExecutorService executor, String query,
+			long timeout, TimeUnit unit) throws IOException, IRODSException, InterruptedException {
+		throwIfNull(pool, "Connection pool is null");
+
+		var zones = new ArrayList<String>();
+		try (var conn = pool.getConnection()) {
+			IRODSZones.listZones(conn.getRcComm()).forEach(z -> zones.add(z.name));
+		} catch (IOException | IRODSException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+
+		return execute(pool, executor, query, zones, timeout, unit);
+	}
+
+	/**
+	 * Executes a GenQuery2 query against a list of zones.
+	 * <p>
+	 * The query for each zone is submitted to the executor and runs on its own
+	 * connection from the pool. The timeout applies to each zone individually and
+	 * is measured from the time all queries were submitted. A zone which times out
+	 * keeps its connection until the server responds, at which point the
+	 * connection is returned to the pool and the rows are discarded.
+	 *
+	 * @param pool     The connection pool providing connections for the zones.
+	 * @param executor The executor used to run the queries.
+	 * @param query    The GenQuery2 query string.
+	 * @param zones    The zones to execute the query in.
+	 * @param timeout  The maximum amount of time to wait for each zone.
+	 * @param unit     The unit of the timeout.
+	 *
+	 * @return The results, failures, and timeouts of each zone.
+	 *
+	 * @throws InterruptedException
+	 *
+	 * @since 0.8.0
+	 */
+	public static FederatedQueryResult execute(IRODSConnectionPool pool, ExecutorService executor, String query,
+			List<String> zones, long timeout, TimeUnit unit) throws InterruptedException {
+		throwIfNull(pool, "Connection pool is null");
+		throwIfNull(executor, "Executor service is null");
+		throwIfNull(zones, "Zones is null");
+		throwIfNull(unit, "Time unit is null");
+
+		if (null == query || query.isEmpty()) {
+			throw new IllegalArgumentException("Query is null or empty");
+		}
+
+		if (timeout < 0) {
+			throw new IllegalArgumentException("Timeout is less than 0");
+		}
+
+		var futures = new LinkedHashMap<String, Future<List<List<String>>>>();
+		for (var zone : zones) {
+			if (null == zone || zone.isEmpty()) {
+				throw new IllegalArgumentException("Zone is null or empty");
+			}
+
+			futures.put(zone, executor.submit(() -> {
+				try (var conn = pool.getConnection()) {
+					return IRODSQuery.executeGenQuery2(conn.getRcComm(), zone, query);
+				}
+			}));
+		}
+
+		var result = new FederatedQueryResult();
+		var deadline = System.nanoTime() + unit.toNanos(timeout);
+
+		for (var entry : futures.entrySet()) {
+			var zone = entry.getKey();
+			var future = entry.getValue();
+
+			try {
+				var remaining = Math.max(0, deadline - System.nanoTime());
+				result.rows.put(zone, future.get(remaining, TimeUnit.NANOSECONDS));
+			} catch (TimeoutException | CancellationException e) {
+				log.debug("Query timed out for zone [{}].", zone);
+				future.cancel(false);
+				result.timedOutZones.add(zone);
+			} catch (ExecutionException e) {
+				log.debug("Query failed for zone [{}]: {}", zone, e.getCause().getMessage());
+				result.failures.put(zone, (e.getCause() instanceof Exception ex) ? ex : e);
+			}
+		}
+
+		return result;
+	}
+
+	private static void throwIfNull(Object object, String msg) {
+		if (null == object) {
+			throw new IllegalArgumentException(msg);
+		}
+	}
+
+}
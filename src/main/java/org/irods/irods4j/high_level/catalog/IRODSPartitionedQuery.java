@@ -0,0 +1,569 @@
+package org.irods.irods4j.high_level.catalog;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.irods.irods4j.high_level.connection.IRODSConnectionPool;
+import org.irods.irods4j.low_level.api.IRODSApi.RcComm;
+import org.irods.irods4j.low_level.api.IRODSException;
+
+/**
+ * A class providing functions for scanning large portions of the iRODS catalog
+ * in parallel.
+ * <p>
+ * A partitioned query splits the value space of a numeric key column, such as
+ * {@code DATA_ID} or {@code COLL_ID}, into contiguous ranges. Each range is
+ * scanned using keyset pagination on its own connection from an
+ * {@link IRODSConnectionPool}.
+ *
+ * @since 0.8.0
+ */
+public class IRODSPartitionedQuery {
+
+	private static final Logger log = LogManager.getLogger();
+
+	/**
+	 * Describes a partitioned GenQuery2 query.
+	 * <p>
+	 * The resulting query has the following form:
+	 *
+	 * <pre>
+	 * select &lt;keyColumn&gt;, &lt;columns&gt; where &lt;keyColumn&gt; &gt;= 'lo' and &lt;keyColumn&gt; &lt;= 'hi' [and (&lt;condition&gt;)]
+	 * </pre>
+	 *
+	 * The value of the key column is always the first column of each row. The
+	 * condition is wrapped in parentheses, so it may contain {@code or}.
+	 *
+	 * @since 0.8.0
+	 */
+	public static final class PartitionedQueryArgs {
+
+		/**
+		 * The numeric column used to partition the query (e.g. {@code DATA_ID}).
+		 *
+		 * @since 0.8.0
+		 */
+		public String keyColumn;
+
+		/**
+		 * The comma-separated list of additional columns to select. May be null or
+		 * empty.
+		 * <p>
+		 * Rows which share a key are ordered by these columns, so they must be plain
+		 * columns rather than aggregates.
+		 *
+		 * @since 0.8.0
+		 */
+		public String columns;
+
+		/**
+		 * An additional condition appended to the where-clause of every query (e.g.
+		 * {@code DATA_REPL_STATUS = '1'}). May be null or empty.
+		 *
+		 * @since 0.8.0
+		 */
+		public String condition;
+
+		/**
+		 * The zone to execute the queries in. If empty, the local zone is used.
+		 *
+		 * @since 0.8.0
+		 */
+		public Optional<String> zone = Optional.empty();
+
+		/**
+		 * The number of ranges the key space is split into.
+		 *
+		 * @since 0.8.0
+		 */
+		public int numberOfPartitions = 4;
+
+		/**
+		 * The number of rows requested per page.
+		 *
+		 * @since 0.8.0
+		 */
+		public int rowsPerPage = 1024;
+
+		/**
+		 * The maximum number of rows held in memory when results are consumed through
+		 * {@link IRODSPartitionedQuery#stream(IRODSConnectionPool, ExecutorService, PartitionedQueryArgs)}.
+		 *
+		 * @since 0.8.0
+		 */
+		public int queueCapacity = 8192;
+
+	}
+
+	/**
+	 * A callback which receives the rows of a single partition.
+	 *
+	 * @since 0.8.0
+	 */
+	@FunctionalInterface
+	public static interface PartitionRowHandler {
+
+		/**
+		 * Invoked once for each row.
+		 *
+		 * @param partition The zero-based index of the partition the row belongs to.
+		 * @param row       The row. The first column holds the value of the key
+		 *                  column.
+		 *
+		 * @return true to continue scanning the partition, false to stop.
+		 *
+		 * @since 0.8.0
+		 */
+		boolean apply(int partition, List<String> row);
+
+	}
+
+	/**
+	 * Describes the inclusive range of key values scanned by a partition.
+	 *
+	 * @since 0.8.0
+	 */
+	public static final class Partition {
+
+		private int index;
+		private long lowerBound;
+		private long upperBound;
+
+		private Partition(int index, long lowerBound, long upperBound) {
+			this.index = index;
+			this.lowerBound = lowerBound;
+			this.upperBound = upperBound;
+		}
+
+		/**
+		 * Returns the zero-based index of the partition.
+		 *
+		 * @since 0.8.0
+		 */
+		public int index() {
+			return index;
+		}
+
+		/**
+		 * Returns the smallest key value covered by the partition.
+		 *
+		 * @since 0.8.0
+		 */
+		public long lowerBound() {
+			return lowerBound;
+		}
+
+		/**
+		 * Returns the largest key value covered by the partition.
+		 *
+		 * @since 0.8.0
+		 */
+		public long upperBound() {
+			return upperBound;
+		}
+
+	}
+
+	/**
+	 * Samples the bounds of the key column and splits the key space into
+	 * contiguous ranges.
+	 * <p>
+	 * The number of partitions returned may be less than requested when the key
+	 * space is small. An empty list is returned if no rows satisfy the query.
+	 *
+	 * @param comm A connection to the iRODS server.
+	 * @param args The partitioned query.
+	 *
+	 * @return The list of partitions, ordered by key.
+	 *
+	 * @throws IOException
+	 * @throws IRODSException
+	 *
+	 * @since 0.8.0
+	 */
+	public static List<Partition> computePartitions(RcComm comm, PartitionedQueryArgs args)
+			throws IOException, IRODSException {
+		throwIfNull(comm, "RcComm is null");
+		throwIfInvalidArgs(args);
+
+		var query = new StringBuilder();
+		query.append(String.format("select min(%s), max(%s)", args.keyColumn, args.keyColumn));
+		if (null != args.condition && !args.condition.isEmpty()) {
+			query.append(" where (").append(args.condition).append(')');
+		}
+
+		var rows = executeGenQuery2(comm, args, query.toString());
+		var partitions = new ArrayList<Partition>();
+		if (rows.isEmpty() || rows.get(0).get(0).isEmpty()) {
+			return partitions;
+		}
+
+		var min = Long.parseLong(rows.get(0).get(0));
+		var max = Long.parseLong(rows.get(0).get(1));
+
+		// Split the key space evenly. The last partition absorbs any remainder.
+		var span = max - min + 1;
+		var width = Math.max(1, (span + args.numberOfPartitions - 1) / args.numberOfPartitions);
+		for (long lo = min; lo <= max; lo += width) {
+			var hi = Math.min(max, lo + width - 1);
+			partitions.add(new Partition(partitions.size(), lo, hi));
+			if (hi == max) {
+				break;
+			}
+		}
+
+		return partitions;
+	}
+
+	/**
+	 * Executes a partitioned query, invoking a callback for each row.
+	 * <p>
+	 * Each partition is scanned by a task submitted to the executor. Each task
+	 * uses its own connection from the pool. The row handler is invoked
+	 * concurrently by multiple threads, therefore it must be thread-safe. Rows
+	 * within a single partition are delivered in key order.
+	 * <p>
+	 * This function returns once all partitions have been scanned. If a partition
+	 * fails, the remaining partitions are stopped and the first error is rethrown.
+	 *
+	 * @param pool       The connection pool providing connections for the
+	 *                   partitions.
+	 * @param executor   The executor used to scan the partitions.
+	 * @param args       The partitioned query.
+	 * @param rowHandler The callback which receives the rows.
+	 *
+	 * @throws IOException
+	 * @throws IRODSException
+	 * @throws InterruptedException
+	 *
+	 * @since 0.8.0
+	 */
+	public static void execute(IRODSConnectionPool pool, ExecutorService executor, PartitionedQueryArgs args,
+			PartitionRowHandler rowHandler) throws IOException, IRODSException, InterruptedException {
+		throwIfNull(pool, "Connection pool is null");
+		throwIfNull(executor, "Executor service is null");
+		throwIfInvalidArgs(args);
+		throwIfNull(rowHandler, "Row handler is null");
+
+		var partitions = computePartitions(pool, args);
+		var stop = new AtomicBoolean();
+		var futures = new ArrayList<Future<Void>>();
+
+		for (var p : partitions) {
+			futures.add(executor.submit(() -> {
+				try {
+					scanPartition(pool, args, p, stop, row -> rowHandler.apply(p.index, row));
+				} catch (Exception e) {
+					stop.set(true);
+					throw e;
+				}
+				return null;
+			}));
+		}
+
+		Exception error = null;
+		for (var f : futures) {
+			try {
+				f.get();
+			} catch (ExecutionException e) {
+				if (null == error) {
+					error = (e.getCause() instanceof Exception ex) ? ex : e;
+				}
+			}
+		}
+
+		if (error instanceof IOException e) {
+			throw e;
+		}
+
+		if (error instanceof IRODSException e) {
+			throw e;
+		}
+
+		if (null != error) {
+			throw new IllegalStateException(error);
+		}
+	}
+
+	/**
+	 * Executes a partitioned query and merges the rows of all partitions into a
+	 * single stream.
+	 * <p>
+	 * The partitions are scanned in the background by tasks submitted to the
+	 * executor. Rows are handed to the stream through a bounded queue, so scanning
+	 * pauses when the consumer falls behind. The order of rows across partitions is
+	 * unspecified.
+	 * <p>
+	 * The stream must be closed once it is no longer needed. Closing the stream
+	 * stops all partitions which have not finished yet. If a partition fails, the
+	 * error is rethrown by the stream as an {@link IllegalStateException}.
+	 *
+	 * @param pool     The connection pool providing connections for the
+	 *                 partitions.
+	 * @param executor The executor used to scan the partitions.
+	 * @param args     The partitioned query.
+	 *
+	 * @return A stream over the rows of all partitions.
+	 *
+	 * @throws IOException
+	 * @throws IRODSException
+	 *
+	 * @since 0.8.0
+	 */
+	public static Stream<List<String>> stream(IRODSConnectionPool pool, ExecutorService executor,
+			PartitionedQueryArgs args) throws IOException, IRODSException {
+		throwIfNull(pool, "Connection pool is null");
+		throwIfNull(executor, "Executor service is null");
+		throwIfInvalidArgs(args);
+
+		if (args.queueCapacity <= 0) {
+			throw new IllegalArgumentException("Queue capacity is less than or equal to 0");
+		}
+
+		var partitions = computePartitions(pool, args);
+		var iter = new MergingIterator(args.queueCapacity, partitions.size());
+
+		for (var p : partitions) {
+			executor.submit(() -> {
+				try {
+					scanPartition(pool, args, p, iter.stop, iter::offer);
+				} catch (Exception e) {
+					iter.fail(e);
+				} finally {
+					iter.partitionDone();
+				}
+			});
+		}
+
+		var spliterator = Spliterators.spliteratorUnknownSize(iter, Spliterator.NONNULL);
+		return StreamSupport.stream(spliterator, false).onClose(() -> iter.stop.set(true));
+	}
+
+	private static final class MergingIterator implements Iterator<List<String>> {
+
+		// Signals the end of a partition.
+		private static final List<String> END_OF_PARTITION = new ArrayList<>();
+
+		private BlockingQueue<List<String>> queue;
+		private AtomicInteger remainingPartitions;
+		private AtomicBoolean stop = new AtomicBoolean();
+		private volatile Exception error;
+		private List<String> next;
+
+		MergingIterator(int capacity, int partitions) {
+			queue = new ArrayBlockingQueue<>(capacity);
+			remainingPartitions = new AtomicInteger(partitions);
+		}
+
+		// Invoked by the producers. Returns false when the consumer is no longer
+		// interested in rows.
+		boolean offer(List<String> row) {
+			try {
+				while (!stop.get()) {
+					if (queue.offer(row, 100, TimeUnit.MILLISECONDS)) {
+						return true;
+					}
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return false;
+		}
+
+		void fail(Exception e) {
+			if (null == error) {
+				error = e;
+			}
+			stop.set(true);
+		}
+
+		void partitionDone() {
+			// The end-of-partition marker must always be delivered so that the
+			// consumer can detect completion. Once the stream has been stopped, the
+			// rows still in the queue are of no interest and can be discarded.
+			try {
+				while (!queue.offer(END_OF_PARTITION, 100, TimeUnit.MILLISECONDS)) {
+					if (stop.get()) {
+						queue.clear();
+					}
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			while (null == next) {
+				if (null != error) {
+					throw new IllegalStateException(error);
+				}
+
+				if (0 == remainingPartitions.get()) {
+					return false;
+				}
+
+				try {
+					var row = queue.take();
+					if (END_OF_PARTITION == row) {
+						remainingPartitions.decrementAndGet();
+					} else {
+						next = row;
+					}
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					stop.set(true);
+					throw new IllegalStateException(e);
+				}
+			}
+
+			return true;
+		}
+
+		@Override
+		public List<String> next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			var row = next;
+			next = null;
+			return row;
+		}
+
+	}
+
+	@FunctionalInterface
+	private static interface RowSink {
+		boolean accept(List<String> row);
+	}
+
+	private static List<Partition> computePartitions(IRODSConnectionPool pool, PartitionedQueryArgs args)
+			throws IOException, IRODSException {
+		try (var conn = pool.getConnection()) {
+			return computePartitions(conn.getRcComm(), args);
+		} catch (IOException | IRODSException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static void scanPartition(IRODSConnectionPool pool, PartitionedQueryArgs args, Partition partition,
+			AtomicBoolean stop, RowSink sink) throws Exception {
+		log.debug("Scanning partition [index={}, lowerBound={}, upperBound={}].", partition.index,
+				partition.lowerBound, partition.upperBound);
+
+		try (var conn = pool.getConnection()) {
+			var comm = conn.getRcComm();
+			var columns = (null == args.columns || args.columns.isEmpty()) ? "" : ", " + args.columns;
+			var condition = (null == args.condition || args.condition.isEmpty()) ? "" : " and (" + args.condition + ")";
+
+			// Rows sharing a key are ordered by the remaining columns so that paging
+			// through them with offsets is deterministic. Rows which are identical in
+			// every column are indistinguishable, so their relative order does not
+			// matter.
+			var tieOrder = columns.isEmpty() ? args.keyColumn : args.keyColumn + columns;
+
+			// Keyset pagination. Each page starts immediately after the largest key of
+			// the previous page. Multiple rows may share a key (e.g. replicas share a
+			// DATA_ID), so the rows holding the last key of a full page are fetched
+			// separately using offsets. This keeps pages from splitting a group of rows.
+			var lowerBoundOp = ">=";
+			var lowerBound = partition.lowerBound;
+
+			while (!stop.get()) {
+				var query = String.format("select %s%s where %s %s '%d' and %s <= '%d'%s order by %s limit %d",
+						args.keyColumn, columns, args.keyColumn, lowerBoundOp, lowerBound, args.keyColumn,
+						partition.upperBound, condition, args.keyColumn, args.rowsPerPage);
+				var rows = executeGenQuery2(comm, args, query);
+
+				if (rows.size() < args.rowsPerPage) {
+					for (var row : rows) {
+						if (stop.get() || !sink.accept(row)) {
+							return;
+						}
+					}
+					return;
+				}
+
+				var lastKey = rows.get(rows.size() - 1).get(0);
+				for (var row : rows) {
+					if (lastKey.equals(row.get(0))) {
+						break;
+					}
+					if (stop.get() || !sink.accept(row)) {
+						return;
+					}
+				}
+
+				for (int offset = 0;; offset += args.rowsPerPage) {
+					query = String.format("select %s%s where %s = '%s'%s order by %s limit %d offset %d",
+							args.keyColumn, columns, args.keyColumn, lastKey, condition, tieOrder, args.rowsPerPage,
+							offset);
+					rows = executeGenQuery2(comm, args, query);
+					for (var row : rows) {
+						if (stop.get() || !sink.accept(row)) {
+							return;
+						}
+					}
+					if (rows.size() < args.rowsPerPage) {
+						break;
+					}
+				}
+
+				lowerBoundOp = ">";
+				lowerBound = Long.parseLong(lastKey);
+			}
+		}
+	}
+
+	private static List<List<String>> executeGenQuery2(RcComm comm, PartitionedQueryArgs args, String query)
+			throws IOException, IRODSException {
+		return args.zone.isPresent()
+			? IRODSQuery.executeGenQuery2(comm, args.zone.get(), query)
+			: IRODSQuery.executeGenQuery2(comm, query);
+	}
+
+	private static void throwIfNull(Object object, String msg) {
+		if (null == object) {
+			throw new IllegalArgumentException(msg);
+		}
+	}
+
+	private static void throwIfInvalidArgs(PartitionedQueryArgs args) {
+		throwIfNull(args, "Partitioned query arguments is null");
+
+		if (null == args.keyColumn || args.keyColumn.isEmpty()) {
+			throw new IllegalArgumentException("Key column is null or empty");
+		}
+
+		throwIfNull(args.zone, "Zone is null");
+
+		if (args.numberOfPartitions <= 0) {
+			throw new IllegalArgumentException("Number of partitions is less than or equal to 0");
+		}
+
+		if (args.rowsPerPage <= 0) {
+			throw new IllegalArgumentException("Rows per page is less than or equal to 0");
+		}
+	}
+
+}
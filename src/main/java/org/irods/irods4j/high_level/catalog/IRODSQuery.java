@@ -6,6 +6,8 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
 import java.util.function.Function;
 
 import org.irods.irods4j.common.JsonUtil;
@@ -464,6 +466,99 @@ public class IRODSQuery {
 		});
 	}
 
+	/**
+	 * Returns a {@link Flow.Publisher} which executes a GenQuery2 query and pages
+	 * through the results on demand.
+	 * 
+	 * The query is executed against the zone which the connected iRODS server
+	 * resides.
+	 * 
+	 * Pages are fetched using the {@code limit} and {@code offset} clauses,
+	 * therefore the query string must not contain them. A page is only fetched
+	 * once the subscriber has consumed all previously fetched rows and requested
+	 * more. The connection must not be used for anything else until the
+	 * subscription completes or is cancelled.
+	 * 
+	 * @param comm        A connection to an iRODS server.
+	 * @param query       The GenQuery2 string to execute.
+	 * @param rowsPerPage The number of rows to fetch per request.
+	 * @param executor    The executor used to deliver rows to the subscriber.
+	 * 
+	 * @return A publisher supporting a single subscriber.
+	 * 
+	 * @since 0.8.0
+	 */
+	public static Flow.Publisher<List<String>> publishGenQuery2(RcComm comm, String query, int rowsPerPage,
+			Executor executor) {
+		return publishGenQuery2Impl(comm, Optional.empty(), query, rowsPerPage, executor);
+	}
+
+	/**
+	 * Returns a {@link Flow.Publisher} which executes a GenQuery2 query and pages
+	 * through the results on demand.
+	 * 
+	 * The query is executed against the zone specified.
+	 * 
+	 * Pages are fetched using the {@code limit} and {@code offset} clauses,
+	 * therefore the query string must not contain them. A page is only fetched
+	 * once the subscriber has consumed all previously fetched rows and requested
+	 * more. The connection must not be used for anything else until the
+	 * subscription completes or is cancelled.
+	 * 
+	 * @param comm        A connection to an iRODS server.
+	 * @param zone        The zone to execute the query against.
+	 * @param query       The GenQuery2 string to execute.
+	 * @param rowsPerPage The number of rows to fetch per request.
+	 * @param executor    The executor used to deliver rows to the subscriber.
+	 * 
+	 * @return A publisher supporting a single subscriber.
+	 * 
+	 * @since 0.8.0
+	 */
+	public static Flow.Publisher<List<String>> publishGenQuery2(RcComm comm, String zone, String query,
+			int rowsPerPage, Executor executor) {
+		if (null == zone || zone.isEmpty()) {
+			throw new IllegalArgumentException("Zone is null or empty");
+		}
+
+		return publishGenQuery2Impl(comm, Optional.of(zone), query, rowsPerPage, executor);
+	}
+
+	/**
+	 * Returns a {@link Flow.Publisher} which executes a GenQuery1 query and pages
+	 * through the results on demand.
+	 * 
+	 * A page is only fetched once the subscriber has consumed all previously
+	 * fetched rows and requested more. The page size is controlled by
+	 * {@link GenQuery1QueryArgs#setMaxRowsPerPage(int)}. Cancelling the
+	 * subscription closes the query on the server. The connection must not be used
+	 * for anything else until the subscription completes or is cancelled.
+	 * 
+	 * @param comm      A connection to an iRODS server.
+	 * @param queryArgs The structure describing the query to execute.
+	 * @param executor  The executor used to deliver rows to the subscriber.
+	 * 
+	 * @return A publisher supporting a single subscriber.
+	 * 
+	 * @since 0.8.0
+	 */
+	public static Flow.Publisher<List<String>> publishGenQuery1(RcComm comm, GenQuery1QueryArgs queryArgs,
+			Executor executor) {
+		if (null == comm) {
+			throw new IllegalArgumentException("RcComm is null");
+		}
+
+		if (null == queryArgs) {
+			throw new IllegalArgumentException("Query arguments is null");
+		}
+
+		if (null == executor) {
+			throw new IllegalArgumentException("Executor is null");
+		}
+
+		return new QueryResultPublisher(new GenQuery1PageSource(comm, queryArgs.getGenQueryInp_PI()), executor);
+	}
+
 	/**
 	 * Executes a GenQuery1 query.
 	 * 
@@ -577,6 +672,142 @@ public class IRODSQuery {
 		executeSpecificQueryImpl(comm, Optional.empty(), specificQueryName, bindArgs, rowHandler);
 	}
 
+	private static Flow.Publisher<List<String>> publishGenQuery2Impl(RcComm comm, Optional<String> zone,
+			String query, int rowsPerPage, Executor executor) {
+		if (null == comm) {
+			throw new IllegalArgumentException("RcComm is null");
+		}
+
+		if (null == query || query.isEmpty()) {
+			throw new IllegalArgumentException("Query string is null or empty");
+		}
+
+		if (rowsPerPage <= 0) {
+			throw new IllegalArgumentException("Rows per page is less than or equal to 0");
+		}
+
+		if (null == executor) {
+			throw new IllegalArgumentException("Executor is null");
+		}
+
+		return new QueryResultPublisher(new GenQuery2PageSource(comm, zone, query, rowsPerPage), executor);
+	}
+
+	private static final class GenQuery2PageSource implements QueryResultPublisher.PageSource {
+
+		private RcComm comm;
+		private Optional<String> zone;
+		private String query;
+		private int rowsPerPage;
+		private long offset;
+		private boolean exhausted;
+
+		GenQuery2PageSource(RcComm comm, Optional<String> zone, String query, int rowsPerPage) {
+			this.comm = comm;
+			this.zone = zone;
+			this.query = query;
+			this.rowsPerPage = rowsPerPage;
+		}
+
+		@Override
+		public List<List<String>> nextPage() throws IOException, IRODSException {
+			var pageQuery = String.format("%s limit %d offset %d", query, rowsPerPage, offset);
+			var rows = zone.isPresent()
+				? executeGenQuery2(comm, zone.get(), pageQuery)
+				: executeGenQuery2(comm, pageQuery);
+
+			offset += rows.size();
+			exhausted = rows.size() < rowsPerPage;
+
+			return rows;
+		}
+
+		@Override
+		public boolean isExhausted() {
+			return exhausted;
+		}
+
+		@Override
+		public void close() {
+			// GenQuery2 does not hold any server-side state between pages.
+			exhausted = true;
+		}
+
+	}
+
+	private static final class GenQuery1PageSource implements QueryResultPublisher.PageSource {
+
+		private RcComm comm;
+		private GenQueryInp_PI input;
+		private Reference<GenQueryOut_PI> output = new Reference<>();
+		private boolean exhausted;
+
+		GenQuery1PageSource(RcComm comm, GenQueryInp_PI input) {
+			this.comm = comm;
+			this.input = input;
+		}
+
+		@Override
+		public List<List<String>> nextPage() throws IOException, IRODSException {
+			var ec = IRODSApi.rcGenQuery(comm, input, output);
+			if (ec < 0) {
+				if (IRODSErrorCodes.CAT_NO_ROWS_FOUND == ec) {
+					exhausted = true;
+					return Collections.emptyList();
+				}
+				throw new IRODSException(ec, "rcGenQuery error");
+			}
+
+			var rows = new ArrayList<List<String>>(output.value.rowCnt);
+			for (var r = 0; r < output.value.rowCnt; ++r) {
+				var row = new ArrayList<String>(output.value.attriCnt);
+				for (var c = 0; c < output.value.attriCnt; ++c) {
+					row.add(output.value.SqlResult_PI.get(c).value.get(r));
+				}
+				rows.add(row);
+			}
+
+			// There's no more data.
+			if (output.value.continueInx <= 0) {
+				exhausted = true;
+			}
+
+			// Move to the next page.
+			input.continueInx = output.value.continueInx;
+
+			return rows;
+		}
+
+		@Override
+		public boolean isExhausted() {
+			return exhausted;
+		}
+
+		@Override
+		public void close() {
+			if (exhausted) {
+				return;
+			}
+
+			exhausted = true;
+
+			if (input.continueInx <= 0) {
+				return;
+			}
+
+			// Setting the max number of rows to zero instructs the server to close the
+			// query and free any resources associated with it.
+			input.maxRows = 0;
+
+			try {
+				IRODSApi.rcGenQuery(comm, input, output);
+			} catch (Exception e) {
+				// Nothing else can be done at this point.
+			}
+		}
+
+	}
+
 	private static void executeSpecificQueryImpl(RcComm comm, Optional<String> zone, String specificQueryName,
 			List<String> bindArgs, Function<List<String>, Boolean> rowHandler) throws IOException, IRODSException {
 		if (null == comm) {
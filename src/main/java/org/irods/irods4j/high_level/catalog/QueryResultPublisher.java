@@ -0,0 +1,205 @@
+package org.irods.irods4j.high_level.catalog;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.irods.irods4j.low_level.api.IRODSException;
+
+/**
+ * A {@link Flow.Publisher} which fetches pages of query results on demand.
+ * <p>
+ * A page is requested from the server only after the subscriber has consumed
+ * all previously fetched rows and signaled demand for more. Cancelling the
+ * subscription stops paging and releases any server-side resources held by the
+ * query.
+ * <p>
+ * The underlying connection is not thread-safe, therefore the publisher
+ * supports a single subscriber. All subscriber callbacks are invoked by tasks
+ * submitted to the executor, one at a time.
+ *
+ * @since 0.8.0
+ */
+class QueryResultPublisher implements Flow.Publisher<List<String>> {
+
+	private static final Logger log = LogManager.getLogger();
+
+	/**
+	 * Fetches the pages of a query. Implementations are not required to be
+	 * thread-safe.
+	 */
+	static interface PageSource {
+
+		/**
+		 * Returns the next page of rows. An empty list is returned once the results
+		 * have been exhausted.
+		 */
+		List<List<String>> nextPage() throws IOException, IRODSException;
+
+		/**
+		 * Checks if all rows have been fetched.
+		 */
+		boolean isExhausted();
+
+		/**
+		 * Releases any server-side resources held by the query.
+		 */
+		void close();
+
+	}
+
+	private PageSource source;
+	private Executor executor;
+	private AtomicBoolean subscribed = new AtomicBoolean();
+
+	QueryResultPublisher(PageSource source, Executor executor) {
+		this.source = source;
+		this.executor = executor;
+	}
+
+	@Override
+	public void subscribe(Flow.Subscriber<? super List<String>> subscriber) {
+		if (null == subscriber) {
+			throw new NullPointerException("Subscriber is null");
+		}
+
+		if (!subscribed.compareAndSet(false, true)) {
+			subscriber.onSubscribe(new Flow.Subscription() {
+				@Override
+				public void request(long n) {
+				}
+
+				@Override
+				public void cancel() {
+				}
+			});
+			subscriber.onError(new IllegalStateException("Publisher only supports a single subscriber"));
+			return;
+		}
+
+		var subscription = new QuerySubscription(subscriber);
+		subscriber.onSubscribe(subscription);
+	}
+
+	private final class QuerySubscription implements Flow.Subscription {
+
+		private Flow.Subscriber<? super List<String>> subscriber;
+		private AtomicLong demand = new AtomicLong();
+		private AtomicInteger pendingSignals = new AtomicInteger();
+		private volatile boolean cancelled;
+		private volatile Throwable invalidRequest;
+
+		// Only accessed by the drain loop.
+		private ArrayDeque<List<String>> rows = new ArrayDeque<>();
+		private boolean terminated;
+
+		QuerySubscription(Flow.Subscriber<? super List<String>> subscriber) {
+			this.subscriber = subscriber;
+		}
+
+		@Override
+		public void request(long n) {
+			if (n <= 0) {
+				invalidRequest = new IllegalArgumentException("Requested number of rows is less than or equal to 0");
+			} else {
+				demand.getAndUpdate(d -> (Long.MAX_VALUE - d < n) ? Long.MAX_VALUE : d + n);
+			}
+			schedule();
+		}
+
+		@Override
+		public void cancel() {
+			cancelled = true;
+			schedule();
+		}
+
+		private void schedule() {
+			if (0 == pendingSignals.getAndIncrement()) {
+				executor.execute(this::drain);
+			}
+		}
+
+		private void drain() {
+			var missed = 1;
+
+			while (true) {
+				if (!terminated) {
+					drainOnce();
+				}
+
+				missed = pendingSignals.addAndGet(-missed);
+				if (0 == missed) {
+					break;
+				}
+			}
+		}
+
+		private void drainOnce() {
+			if (cancelled) {
+				terminate();
+				return;
+			}
+
+			if (null != invalidRequest) {
+				terminate();
+				subscriber.onError(invalidRequest);
+				return;
+			}
+
+			while (demand.get() > 0) {
+				if (cancelled) {
+					terminate();
+					return;
+				}
+
+				if (rows.isEmpty()) {
+					if (source.isExhausted()) {
+						break;
+					}
+
+					try {
+						rows.addAll(source.nextPage());
+					} catch (Exception e) {
+						terminate();
+						subscriber.onError(e);
+						return;
+					}
+
+					continue;
+				}
+
+				subscriber.onNext(Collections.unmodifiableList(rows.poll()));
+
+				if (Long.MAX_VALUE != demand.get()) {
+					demand.decrementAndGet();
+				}
+			}
+
+			if (rows.isEmpty() && source.isExhausted()) {
+				terminate();
+				subscriber.onComplete();
+			}
+		}
+
+		private void terminate() {
+			terminated = true;
+			rows.clear();
+
+			try {
+				source.close();
+			} catch (Exception e) {
+				log.debug(e.getMessage());
+			}
+		}
+
+	}
+
+}
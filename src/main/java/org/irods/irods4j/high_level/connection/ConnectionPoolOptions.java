@@ -2,6 +2,8 @@ package org.irods.irods4j.high_level.connection;
 
 import java.util.Optional;
 
+import org.irods.irods4j.high_level.vfs.ObjectStatusCache;
+
 /**
  * Defines various options for changing the behavior of a connection pool.
  * 
@@ -40,4 +42,13 @@ public class ConnectionPoolOptions {
 	 */
 	public boolean refreshConnectionsWhenResourceChangesDetected = false;
 
+	/**
+	 * Defines an {@link ObjectStatusCache} shared by all connections of the pool.
+	 * The cache is attached to a connection each time it is retrieved from the
+	 * pool, including after the connection is refreshed.
+	 * 
+	 * @since 0.8.0
+	 */
+	public Optional<ObjectStatusCache> statusCache = Optional.empty();
+
 }
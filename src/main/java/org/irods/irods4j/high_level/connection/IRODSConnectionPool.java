@@ -17,6 +17,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.irods.irods4j.common.Versioning;
 import org.irods.irods4j.high_level.catalog.IRODSQuery;
+import org.irods.irods4j.high_level.vfs.ObjectStatusCache;
 import org.irods.irods4j.low_level.api.IRODSException;
 import org.irods.irods4j.low_level.api.IRODSApi.ConnectionOptions;
 import org.irods.irods4j.low_level.api.IRODSApi.RcComm;
@@ -309,6 +310,7 @@ public class IRODSConnectionPool implements AutoCloseable {
 					if (!ctx.inUse.get()) {
 						ctx.inUse.set(true);
 						refreshConnection(ctx);
+						poolOptions.statusCache.ifPresent(c -> ObjectStatusCache.attach(ctx.conn.getRcComm(), c));
 
 						if (poolOptions.numberOfRetrievalsBeforeConnectionRefresh.isPresent()) {
 							++ctx.retrievalCount;
@@ -0,0 +1,247 @@
+package org.irods.irods4j.high_level.io;
+
+import java.util.LinkedHashMap;
+import java.util.Objects;
+
+/**
+ * A bounded cache of fixed-size, aligned blocks of data objects.
+ * <p>
+ * The cache accelerates workloads which issue many small reads at scattered
+ * offsets (e.g. Parquet footers, HDF5 B-trees, Zarr chunk indexes). Block
+ * {@code i} of a replica holds the bytes in the range
+ * {@code [i * blockSize, (i + 1) * blockSize)}. Blocks are keyed by logical
+ * path, replica number, modification time, size, and checksum, so a cache can
+ * be shared by any number of streams reading the same version of a data
+ * object. Blocks of a replica which has since been modified are not served,
+ * and are evicted as the cache fills up. Because the modification time only
+ * has a resolution of one second, a rewrite within the same second which
+ * preserves the size is only detected if the replica has a checksum. Use
+ * {@link #invalidate(String)} after modifying a data object in such cases.
+ * <p>
+ * When the cache holds more than its max number of bytes, the least recently
+ * used blocks are evicted. Readers which access blocks sequentially prefetch
+ * the blocks which follow in the same request.
+ * <p>
+ * The cache is opt-in. See
+ * {@link IRODSDataObjectInputStream#setBlockCache(BlockCache)} and
+ * {@link IRODSDataObjectChannel#setBlockCache(BlockCache)}.
+ * <p>
+ * Instances of this class are thread-safe.
+ *
+ * @since 0.8.0
+ */
+public class BlockCache {
+
+	private final int blockSize;
+	private final long maxBytes;
+	private final int prefetchBlocks;
+
+	private final LinkedHashMap<Key, byte[]> blocks = new LinkedHashMap<>(16, 0.75f, true);
+	private long bytes;
+
+	private long hits;
+	private long misses;
+
+	// Identifies a block of a specific version of a replica.
+	static final class Key {
+		final String logicalPath;
+		final long replicaNumber;
+		// The modification time, size, and checksum of the replica.
+		final String version;
+		final long index;
+
+		Key(String logicalPath, long replicaNumber, String version, long index) {
+			this.logicalPath = logicalPath;
+			this.replicaNumber = replicaNumber;
+			this.version = version;
+			this.index = index;
+		}
+
+		Key withIndex(long index) {
+			return new Key(logicalPath, replicaNumber, version, index);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+
+			if (!(o instanceof Key)) {
+				return false;
+			}
+
+			var other = (Key) o;
+			return index == other.index && replicaNumber == other.replicaNumber
+					&& logicalPath.equals(other.logicalPath) && version.equals(other.version);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(logicalPath, replicaNumber, version, index);
+		}
+	}
+
+	/**
+	 * Initializes a newly created cache.
+	 *
+	 * @param blockSize      The size of each block in bytes.
+	 * @param maxBytes       The max number of bytes held by the cache.
+	 * @param prefetchBlocks The number of blocks fetched ahead of a sequential
+	 *                       reader. A value of 0 disables prefetching.
+	 *
+	 * @throws IllegalArgumentException If {@code blockSize} is less than 1,
+	 *                                  {@code maxBytes} is less than
+	 *                                  {@code blockSize}, or
+	 *                                  {@code prefetchBlocks} is less than 0.
+	 *
+	 * @since 0.8.0
+	 */
+	public BlockCache(int blockSize, long maxBytes, int prefetchBlocks) {
+		if (blockSize < 1) {
+			throw new IllegalArgumentException("Block size is less than 1");
+		}
+
+		if (maxBytes < blockSize) {
+			throw new IllegalArgumentException("Max bytes is less than block size");
+		}
+
+		if (prefetchBlocks < 0) {
+			throw new IllegalArgumentException("Prefetch blocks is less than 0");
+		}
+
+		this.blockSize = blockSize;
+		this.maxBytes = maxBytes;
+		this.prefetchBlocks = prefetchBlocks;
+	}
+
+	/**
+	 * Returns the size of each block in bytes.
+	 *
+	 * @since 0.8.0
+	 */
+	public int getBlockSize() {
+		return blockSize;
+	}
+
+	/**
+	 * Returns the max number of bytes held by the cache.
+	 *
+	 * @since 0.8.0
+	 */
+	public long getMaxBytes() {
+		return maxBytes;
+	}
+
+	/**
+	 * Returns the number of blocks fetched ahead of a sequential reader.
+	 *
+	 * @since 0.8.0
+	 */
+	public int getPrefetchBlocks() {
+		return prefetchBlocks;
+	}
+
+	/**
+	 * Removes every block of a data object.
+	 *
+	 * @param logicalPath The absolute logical path to a data object.
+	 *
+	 * @since 0.8.0
+	 */
+	public synchronized void invalidate(String logicalPath) {
+		if (null == logicalPath) {
+			throw new IllegalArgumentException("Logical path is null");
+		}
+
+		var it = blocks.entrySet().iterator();
+		while (it.hasNext()) {
+			var e = it.next();
+			if (e.getKey().logicalPath.equals(logicalPath)) {
+				bytes -= e.getValue().length;
+				it.remove();
+			}
+		}
+	}
+
+	/**
+	 * Removes all blocks.
+	 *
+	 * @since 0.8.0
+	 */
+	public synchronized void clear() {
+		blocks.clear();
+		bytes = 0;
+	}
+
+	/**
+	 * Returns the number of blocks held by the cache.
+	 *
+	 * @since 0.8.0
+	 */
+	public synchronized int size() {
+		return blocks.size();
+	}
+
+	/**
+	 * Returns the number of bytes held by the cache.
+	 *
+	 * @since 0.8.0
+	 */
+	public synchronized long getByteCount() {
+		return bytes;
+	}
+
+	/**
+	 * Returns the number of block lookups which were satisfied by the cache.
+	 *
+	 * @since 0.8.0
+	 */
+	public synchronized long getHitCount() {
+		return hits;
+	}
+
+	/**
+	 * Returns the number of block lookups which were not satisfied by the cache.
+	 *
+	 * @since 0.8.0
+	 */
+	public synchronized long getMissCount() {
+		return misses;
+	}
+
+	// Returns the block identified by the key, or null if it is not cached. The
+	// array must not be modified.
+	synchronized byte[] get(Key key) {
+		var block = blocks.get(key);
+		if (null == block) {
+			++misses;
+		} else {
+			++hits;
+		}
+		return block;
+	}
+
+	// Returns whether a block is cached without affecting the statistics or the
+	// eviction order.
+	synchronized boolean contains(Key key) {
+		return blocks.containsKey(key);
+	}
+
+	// Stores a block. Blocks shorter than the block size mark the end of the
+	// replica.
+	synchronized void put(Key key, byte[] block) {
+		var previous = blocks.put(key, block);
+		if (null != previous) {
+			bytes -= previous.length;
+		}
+		bytes += block.length;
+
+		var it = blocks.values().iterator();
+		while (bytes > maxBytes && it.hasNext()) {
+			bytes -= it.next().length;
+			it.remove();
+		}
+	}
+
+}
@@ -0,0 +1,157 @@
+package org.irods.irods4j.high_level.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.irods.irods4j.high_level.catalog.GenQuery2Template;
+import org.irods.irods4j.high_level.vfs.LogicalPath;
+import org.irods.irods4j.low_level.api.IRODSErrorCodes;
+import org.irods.irods4j.low_level.api.IRODSException;
+
+/**
+ * Serves positional reads of an open replica from a {@link BlockCache}.
+ *
+ * @since 0.8.0
+ */
+final class BlockCacheReader {
+
+	private static final GenQuery2Template REPLICA_VERSION_BY_PATH = GenQuery2Template.compile(
+			"select DATA_MODIFY_TIME, DATA_SIZE, DATA_CHECKSUM where COLL_NAME = :coll_name and DATA_NAME = :data_name and DATA_REPL_NUM = :repl_num");
+
+	private final BlockCache cache;
+	private final IRODSDataObjectStream stream;
+	private final BlockCache.Key baseKey;
+	private final int blockSize;
+
+	// The most recently accessed block. Avoids a cache lookup for every small
+	// read within the same block.
+	private long lastIndex = -2;
+	private byte[] lastBlock;
+
+	/**
+	 * Initializes a reader for the replica opened by a stream. The modification
+	 * time, size, and checksum of the replica are fetched from the catalog.
+	 */
+	BlockCacheReader(BlockCache cache, IRODSDataObjectStream stream) throws IOException, IRODSException {
+		this.cache = cache;
+		this.stream = stream;
+		this.blockSize = cache.getBlockSize();
+
+		var comm = stream.getConnection();
+		var logicalPath = stream.getLogicalPath();
+		var replicaNumber = stream.getReplicaNumber();
+		var query = REPLICA_VERSION_BY_PATH.bind()
+				.set("coll_name", LogicalPath.parentPath(logicalPath))
+				.set("data_name", LogicalPath.objectName(logicalPath))
+				.set("repl_num", String.valueOf(replicaNumber));
+
+		var segments = LogicalPath.segments(logicalPath);
+		var rows = (segments.size() > 1) ? query.execute(comm, segments.get(1)) : query.execute(comm);
+		if (rows.isEmpty()) {
+			throw new IRODSException(IRODSErrorCodes.CAT_NO_ROWS_FOUND, "Replica not found in catalog");
+		}
+
+		// The modification time only has a resolution of one second. The size and
+		// checksum distinguish most rewrites which happen within the same second.
+		var row = rows.get(0);
+		var version = String.join(":", row.get(0), row.get(1), row.get(2));
+		baseKey = new BlockCache.Key(logicalPath, replicaNumber, version, 0);
+	}
+
+	/**
+	 * Reads bytes starting at a position.
+	 *
+	 * @return The number of bytes read, or -1 if the position is at or beyond the
+	 *         end of the replica.
+	 */
+	int read(long position, ByteBuffer dst) throws IOException, IRODSException {
+		if (!dst.hasRemaining()) {
+			return 0;
+		}
+
+		var total = 0;
+
+		while (dst.hasRemaining()) {
+			var index = position / blockSize;
+			var offsetInBlock = (int) (position % blockSize);
+
+			var block = getBlock(index);
+			if (offsetInBlock >= block.length) {
+				break;
+			}
+
+			var n = Math.min(block.length - offsetInBlock, dst.remaining());
+			dst.put(block, offsetInBlock, n);
+			position += n;
+			total += n;
+
+			// A short block is the last block of the replica.
+			if (block.length < blockSize) {
+				break;
+			}
+		}
+
+		return (0 == total) ? -1 : total;
+	}
+
+	private byte[] getBlock(long index) throws IOException, IRODSException {
+		if (index == lastIndex) {
+			return lastBlock;
+		}
+
+		var sequential = (index == lastIndex + 1);
+
+		var block = cache.get(baseKey.withIndex(index));
+		if (null == block) {
+			block = fetch(index, sequential ? cache.getPrefetchBlocks() : 0);
+		}
+
+		lastIndex = index;
+		lastBlock = block;
+
+		return block;
+	}
+
+	// Fetches a block and up to prefetchBlocks of the blocks which follow it in a
+	// single read. Blocks which are already cached end the range.
+	private byte[] fetch(long index, int prefetchBlocks) throws IOException, IRODSException {
+		var count = 1;
+		while (count <= prefetchBlocks && !cache.contains(baseKey.withIndex(index + count))) {
+			++count;
+		}
+
+		var position = index * blockSize;
+		var buffer = ByteBuffer.allocate(Math.multiplyExact(count, blockSize));
+		while (buffer.hasRemaining()) {
+			var bytesRead = stream.read(position + buffer.position(), buffer);
+			if (-1 == bytesRead) {
+				break;
+			}
+		}
+
+		var data = buffer.array();
+		var bytesRead = buffer.position();
+		byte[] first = null;
+
+		// Split the bytes into blocks. A short (possibly empty) block marks the end
+		// of the replica.
+		for (int i = 0; i < count; ++i) {
+			var start = i * blockSize;
+			var length = Math.max(0, Math.min(blockSize, bytesRead - start));
+			var block = Arrays.copyOfRange(data, start, start + length);
+			cache.put(baseKey.withIndex(index + i), block);
+
+			if (0 == i) {
+				first = block;
+			}
+
+			if (length < blockSize) {
+				break;
+			}
+		}
+
+		return first;
+	}
+
+}
@@ -0,0 +1,99 @@
+package org.irods.irods4j.high_level.io;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * The hash schemes supported by iRODS, along with the format iRODS uses to
+ * store their checksums in the catalog.
+ *
+ * @since 0.8.0
+ */
+public enum ChecksumScheme {
+
+	/**
+	 * MD5. Stored as a hexadecimal string without a prefix.
+	 */
+	MD5("MD5", ""),
+
+	/**
+	 * SHA-1. Stored as base64 with the prefix {@code sha1:}.
+	 */
+	SHA1("SHA-1", "sha1:"),
+
+	/**
+	 * SHA-256. Stored as base64 with the prefix {@code sha2:}. This is the default
+	 * scheme of iRODS.
+	 */
+	SHA256("SHA-256", "sha2:"),
+
+	/**
+	 * SHA-512. Stored as base64 with the prefix {@code sha512:}.
+	 */
+	SHA512("SHA-512", "sha512:");
+
+	private final String algorithm;
+	private final String prefix;
+
+	private ChecksumScheme(String algorithm, String prefix) {
+		this.algorithm = algorithm;
+		this.prefix = prefix;
+	}
+
+	/**
+	 * Returns the scheme used to produce a checksum stored in the catalog.
+	 *
+	 * @param checksum The checksum.
+	 *
+	 * @return The scheme, or an empty {@code Optional} if the checksum is not in a
+	 *         recognized format.
+	 *
+	 * @since 0.8.0
+	 */
+	public static Optional<ChecksumScheme> of(String checksum) {
+		if (null == checksum || checksum.isEmpty()) {
+			return Optional.empty();
+		}
+
+		for (var scheme : new ChecksumScheme[] { SHA1, SHA256, SHA512 }) {
+			if (checksum.startsWith(scheme.prefix)) {
+				return Optional.of(scheme);
+			}
+		}
+
+		if (32 == checksum.length() && checksum.chars().allMatch(c -> Character.digit(c, 16) >= 0)) {
+			return Optional.of(MD5);
+		}
+
+		return Optional.empty();
+	}
+
+	/**
+	 * Formats a digest produced by this scheme the way iRODS stores it in the
+	 * catalog.
+	 *
+	 * @param digest The digest.
+	 *
+	 * @since 0.8.0
+	 */
+	public String format(byte[] digest) {
+		if (MD5 == this) {
+			return HexFormat.of().formatHex(digest);
+		}
+
+		return prefix + Base64.getEncoder().encodeToString(digest);
+	}
+
+	MessageDigest newMessageDigest() {
+		try {
+			return MessageDigest.getInstance(algorithm);
+		} catch (NoSuchAlgorithmException e) {
+			// Every Java platform is required to support these algorithms.
+			throw new IllegalStateException(e);
+		}
+	}
+
+}
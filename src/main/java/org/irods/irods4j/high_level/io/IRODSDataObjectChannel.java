@@ -0,0 +1,291 @@
+package org.irods.irods4j.high_level.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.NonReadableChannelException;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
+import java.util.ArrayList;
+
+import org.irods.irods4j.common.Reference;
+import org.irods.irods4j.high_level.io.IRODSDataObjectStream.SeekDirection;
+import org.irods.irods4j.low_level.api.IRODSApi;
+import org.irods.irods4j.low_level.api.IRODSApi.RcComm;
+import org.irods.irods4j.low_level.api.IRODSException;
+import org.irods.irods4j.low_level.api.IRODSKeywords;
+import org.irods.irods4j.low_level.protocol.packing_instructions.DataObjInp_PI;
+import org.irods.irods4j.low_level.protocol.packing_instructions.DataObjInp_PI.OpenFlags;
+import org.irods.irods4j.low_level.protocol.packing_instructions.KeyValPair_PI;
+
+/**
+ * A {@link SeekableByteChannel} over an iRODS data object.
+ * <p>
+ * The channel is built on {@link IRODSDataObjectStream} and transfers bytes
+ * directly between {@link ByteBuffer}s and the network, without the
+ * intermediate buffer of the stream adapters. This allows iRODS data objects
+ * to be used with NIO-based libraries and with
+ * {@link java.nio.channels.FileChannel#transferFrom} and
+ * {@link java.nio.channels.FileChannel#transferTo}.
+ * <p>
+ * The position of the channel is maintained by the client. Reads and writes
+ * use the positional operations of {@link IRODSDataObjectStream}, so moving
+ * the position does not contact the server.
+ * <p>
+ * Instances of this class are not thread-safe.
+ *
+ * @since 0.8.0
+ */
+public class IRODSDataObjectChannel implements SeekableByteChannel {
+
+	private final IRODSDataObjectStream stream = new IRODSDataObjectStream();
+	private final RcComm comm;
+	private final String logicalPath;
+	private final boolean readable;
+	private final boolean writable;
+	private final boolean append;
+
+	private BlockCacheReader cacheReader;
+
+	private long position;
+	private boolean closed;
+
+	/**
+	 * Opens a data object.
+	 *
+	 * @param comm        The connection to the iRODS server.
+	 * @param logicalPath The absolute logical path to a data object.
+	 * @param openMode    The flags used to open the data object. See
+	 *                    {@link OpenFlags}.
+	 *
+	 * @throws IOException
+	 * @throws IRODSException
+	 *
+	 * @since 0.8.0
+	 */
+	public IRODSDataObjectChannel(RcComm comm, String logicalPath, int openMode)
+			throws IOException, IRODSException {
+		this(comm, logicalPath, -1, openMode);
+	}
+
+	/**
+	 * Opens a specific replica of a data object.
+	 *
+	 * @param comm          The connection to the iRODS server.
+	 * @param logicalPath   The absolute logical path to a data object.
+	 * @param replicaNumber The replica number which identifies the target replica.
+	 *                      A negative value lets the server choose the replica.
+	 * @param openMode      The flags used to open the data object. See
+	 *                      {@link OpenFlags}.
+	 *
+	 * @throws IOException
+	 * @throws IRODSException
+	 *
+	 * @since 0.8.0
+	 */
+	public IRODSDataObjectChannel(RcComm comm, String logicalPath, long replicaNumber, int openMode)
+			throws IOException, IRODSException {
+		if (null == comm) {
+			throw new IllegalArgumentException("RcComm is null");
+		}
+
+		if (replicaNumber < 0) {
+			stream.open(comm, logicalPath, openMode);
+		} else {
+			stream.open(comm, logicalPath, replicaNumber, openMode);
+		}
+
+		this.comm = comm;
+		this.logicalPath = logicalPath;
+
+		var accessMode = openMode & (OpenFlags.O_WRONLY | OpenFlags.O_RDWR);
+		readable = OpenFlags.O_WRONLY != accessMode;
+		writable = OpenFlags.O_RDONLY != accessMode;
+		append = 0 != (openMode & OpenFlags.O_APPEND);
+	}
+
+	/**
+	 * Returns the stream used by the channel.
+	 *
+	 * @since 0.8.0
+	 */
+	public IRODSDataObjectStream getStream() {
+		return stream;
+	}
+
+	/**
+	 * Attaches a block cache to the channel, or detaches it if {@code cache} is
+	 * null. While a block cache is attached, reads are served from the cache in
+	 * fixed-size aligned blocks.
+	 *
+	 * @param cache The block cache, or null.
+	 *
+	 * @throws IllegalStateException If the channel is writable.
+	 * @throws IOException
+	 * @throws IRODSException
+	 *
+	 * @since 0.8.0
+	 */
+	public void setBlockCache(BlockCache cache) throws IOException, IRODSException {
+		throwIfClosed();
+		if (null != cache && writable) {
+			throw new IllegalStateException("Block cache requires a read-only channel");
+		}
+
+		cacheReader = (null == cache) ? null : new BlockCacheReader(cache, stream);
+	}
+
+	@Override
+	public boolean isOpen() {
+		return !closed;
+	}
+
+	@Override
+	public int read(ByteBuffer dst) throws IOException {
+		throwIfClosed();
+		if (!readable) {
+			throw new NonReadableChannelException();
+		}
+
+		try {
+			var bytesRead = (null == cacheReader) ? stream.read(position, dst) : cacheReader.read(position, dst);
+			if (bytesRead > 0) {
+				position += bytesRead;
+			}
+			return bytesRead;
+		} catch (IRODSException e) {
+			throw new IOException(e);
+		}
+	}
+
+	/**
+	 * Writes bytes to the data object.
+	 * <p>
+	 * All remaining bytes of the buffer are written. If the data object was opened
+	 * for appending, the position is first moved to the end of the data object.
+	 */
+	@Override
+	public int write(ByteBuffer src) throws IOException {
+		throwIfClosed();
+		if (!writable) {
+			throw new NonWritableChannelException();
+		}
+
+		if (append) {
+			position = size();
+		}
+
+		try {
+			var total = 0;
+			while (src.hasRemaining()) {
+				var bytesWritten = stream.write(position, src);
+				if (0 == bytesWritten) {
+					throw new IOException("Server did not accept any bytes");
+				}
+
+				position += bytesWritten;
+				total += bytesWritten;
+			}
+			return total;
+		} catch (IRODSException e) {
+			throw new IOException(e);
+		}
+	}
+
+	@Override
+	public long position() throws IOException {
+		throwIfClosed();
+		return position;
+	}
+
+	@Override
+	public IRODSDataObjectChannel position(long newPosition) throws IOException {
+		throwIfClosed();
+		if (newPosition < 0) {
+			throw new IllegalArgumentException("Position is less than 0");
+		}
+
+		position = newPosition;
+		return this;
+	}
+
+	/**
+	 * Returns the size of the open replica.
+	 * <p>
+	 * The size is obtained from the server and reflects the bytes written through
+	 * this channel.
+	 */
+	@Override
+	public long size() throws IOException {
+		throwIfClosed();
+
+		try {
+			return stream.seek(0L, SeekDirection.END);
+		} catch (IRODSException e) {
+			throw new IOException(e);
+		}
+	}
+
+	/**
+	 * Truncates the replica to the given size.
+	 * <p>
+	 * If the size is greater than or equal to the current size, the replica is not
+	 * modified. If the position is greater than the size, it is set to the size.
+	 * The replica is truncated via {@link IRODSApi#rcReplicaTruncate}.
+	 */
+	@Override
+	public IRODSDataObjectChannel truncate(long size) throws IOException {
+		throwIfClosed();
+		if (size < 0) {
+			throw new IllegalArgumentException("Size is less than 0");
+		}
+
+		if (!writable) {
+			throw new NonWritableChannelException();
+		}
+
+		if (size < size()) {
+			var input = new DataObjInp_PI();
+			input.objPath = logicalPath;
+			input.dataSize = size;
+			input.KeyValPair_PI = new KeyValPair_PI();
+			input.KeyValPair_PI.keyWord = new ArrayList<>();
+			input.KeyValPair_PI.svalue = new ArrayList<>();
+
+			// Target the open replica.
+			input.KeyValPair_PI.ssLen = 2;
+			input.KeyValPair_PI.keyWord.add(IRODSKeywords.REPL_NUM);
+			input.KeyValPair_PI.svalue.add(String.valueOf(stream.getReplicaNumber()));
+			input.KeyValPair_PI.keyWord.add(IRODSKeywords.REPLICA_TOKEN);
+			input.KeyValPair_PI.svalue.add(stream.getReplicaToken());
+
+			var ec = IRODSApi.rcReplicaTruncate(comm, input, new Reference<String>());
+			if (ec < 0) {
+				throw new IOException(new IRODSException(ec, "rcReplicaTruncate error"));
+			}
+		}
+
+		if (position > size) {
+			position = size;
+		}
+
+		return this;
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+
+		closed = true;
+		stream.close(null);
+	}
+
+	private void throwIfClosed() throws ClosedChannelException {
+		if (closed) {
+			throw new ClosedChannelException();
+		}
+	}
+
+}
@@ -2,18 +2,29 @@ package org.irods.irods4j.high_level.io;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Objects;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.irods.irods4j.high_level.io.IRODSDataObjectStream.SeekDirection;
 import org.irods.irods4j.input_validation.Preconditions;
-import org.irods.irods4j.low_level.api.IRODSApi.ByteArrayReference;
 import org.irods.irods4j.low_level.api.IRODSApi.RcComm;
 import org.irods.irods4j.low_level.api.IRODSException;
 import org.irods.irods4j.low_level.protocol.packing_instructions.DataObjInp_PI.OpenFlags;
 
 /**
  * A buffered input stream that makes it easy to read iRODS data objects.
+ * <p>
+ * Reads which are at least as large as the internal buffer bypass it and are
+ * served directly into the caller's array.
+ * <p>
+ * Sequential reads can be accelerated by enabling read-ahead via
+ * {@link #setReadAheadDepth(int)}. Scattered small reads can be accelerated by
+ * attaching a {@link BlockCache} via {@link #setBlockCache(BlockCache)}.
+ * <p>
+ * The integrity of a download can be checked by enabling checksum verification
+ * via {@link #enableChecksumVerification()}.
  * 
  * @since 0.1.0
  */
@@ -26,6 +37,31 @@ public class IRODSDataObjectInputStream extends InputStream {
 	private int bytesInBuffer;
 	private int position;
 
+	// Set once the server reports fewer bytes than requested. Cleared by seek
+	// operations.
+	private boolean endOfStream;
+
+	// The max number of read requests kept in flight. 0 disables read-ahead.
+	private int readAheadDepth;
+	private ReadAheadPipeline pipeline;
+
+	// Set while the internal buffer is a block owned by the pipeline.
+	private boolean holdingBlock;
+
+	// Serves reads while a block cache is in use. The position of the stream is
+	// then tracked by the client.
+	private BlockCache blockCache;
+	private BlockCacheReader cacheReader;
+	private long cachePosition;
+	private final byte[] singleByte = new byte[1];
+
+	// Hashes the bytes fetched from the server while checksum verification is
+	// enabled.
+	private StreamChecksum checksum;
+	private String expectedChecksum;
+	private Boolean checksumMatched;
+	private long bytesFetched;
+
 	/**
 	 * Initializes a new instance with a buffer size of 65536 bytes.
 	 * 
@@ -33,7 +69,6 @@ public class IRODSDataObjectInputStream extends InputStream {
 	 */
 	public IRODSDataObjectInputStream() {
 		buffer = new byte[65536];
-		bytesInBuffer = buffer.length;
 	}
 
 	/**
@@ -46,7 +81,6 @@ public class IRODSDataObjectInputStream extends InputStream {
 	public IRODSDataObjectInputStream(int bufferSize) {
 		Preconditions.greaterThanOrEqualToValue(bufferSize, 1, "Buffer size is less than 1");
 		buffer = new byte[bufferSize];
-		this.bytesInBuffer = bufferSize;
 	}
 
 	/**
@@ -116,9 +150,12 @@ public class IRODSDataObjectInputStream extends InputStream {
 	 * @since 0.1.0
 	 */
 	public void open(RcComm comm, String logicalPath) throws IOException, IRODSException {
+		stopReadAhead();
+		resetChecksum();
 		initInternalBufferIfNecessary();
 		in.open(comm, logicalPath, OpenFlags.O_RDONLY);
-		position = bytesInBuffer;
+		discardBuffer();
+		attachBlockCacheIfNecessary();
 	}
 
 	/**
@@ -134,9 +171,12 @@ public class IRODSDataObjectInputStream extends InputStream {
 	 * @since 0.1.0
 	 */
 	public void open(RcComm comm, String logicalPath, String rootResourceName) throws IOException, IRODSException {
+		stopReadAhead();
+		resetChecksum();
 		initInternalBufferIfNecessary();
 		in.open(comm, logicalPath, rootResourceName, OpenFlags.O_RDONLY);
-		position = bytesInBuffer;
+		discardBuffer();
+		attachBlockCacheIfNecessary();
 	}
 
 	/**
@@ -152,9 +192,12 @@ public class IRODSDataObjectInputStream extends InputStream {
 	 * @since 0.1.0
 	 */
 	public void open(RcComm comm, String logicalPath, long replicaNumber) throws IOException, IRODSException {
+		stopReadAhead();
+		resetChecksum();
 		initInternalBufferIfNecessary();
 		in.open(comm, logicalPath, replicaNumber, OpenFlags.O_RDONLY);
-		position = bytesInBuffer;
+		discardBuffer();
+		attachBlockCacheIfNecessary();
 	}
 
 	/**
@@ -205,45 +248,382 @@ public class IRODSDataObjectInputStream extends InputStream {
 	 * @since 0.1.0
 	 */
 	public void seek(int offset, SeekDirection direction) throws IOException, IRODSException {
+		invalidateChecksum();
+
+		if (null != cacheReader) {
+			long newPosition = switch (direction) {
+			case BEGIN -> offset;
+			case CURRENT -> cachePosition + offset;
+			case END -> in.seek((long) offset, SeekDirection.END);
+			};
+
+			if (newPosition < 0) {
+				throw new IllegalArgumentException("Position is less than 0");
+			}
+
+			cachePosition = newPosition;
+			return;
+		}
+
+		// The server's position is ahead of the stream's position by the number of
+		// unread bytes in the buffer and the bytes fetched by read-ahead. Relative
+		// seeks must account for them.
+		long unread = bytesInBuffer - position;
+		unread += stopReadAhead();
+
+		long adjustedOffset = offset;
+		if (SeekDirection.CURRENT == direction) {
+			adjustedOffset -= unread;
+		}
+
 		// Force the next read operation to fetch new data. This guarantees the client
 		// is working with up-to-date data, especially after the seek operation
 		// succeeds.
-		position = bytesInBuffer;
-		in.seek(offset, direction);
+		discardBuffer();
+
+		if (SeekDirection.CURRENT == direction) {
+			seekRelative(adjustedOffset);
+		} else {
+			in.seek(offset, direction);
+		}
+	}
+
+	/**
+	 * Sets the number of read requests kept in flight by read-ahead.
+	 * <p>
+	 * When enabled, a background thread sends read requests ahead of the consumer
+	 * and receives the replies into a second buffer, so the consumer drains one
+	 * buffer while the next one is being filled. The server replies to the
+	 * requests in order, so the round trip time is paid once rather than once per
+	 * buffer. Every request asks for as many bytes as the internal buffer can
+	 * hold.
+	 * <p>
+	 * The connection must not be used for other operations while read-ahead is
+	 * active. Read-ahead is suspended by {@link #seek(int, SeekDirection)},
+	 * {@link #skip(long)} and {@link #close()}, and resumes on the next read. A
+	 * new depth takes effect the next time read-ahead resumes.
+	 * 
+	 * @param depth The max number of read requests in flight. 0 disables
+	 *              read-ahead.
+	 * 
+	 * @since 0.8.0
+	 */
+	public void setReadAheadDepth(int depth) {
+		Preconditions.greaterThanOrEqualToValue(depth, 0, "Read-ahead depth is less than 0");
+		readAheadDepth = depth;
+	}
+
+	/**
+	 * Returns the number of read requests kept in flight by read-ahead.
+	 * 
+	 * @since 0.8.0
+	 */
+	public int getReadAheadDepth() {
+		return readAheadDepth;
+	}
+
+	/**
+	 * Attaches a block cache to the stream, or detaches it if {@code cache} is
+	 * null.
+	 * <p>
+	 * While a block cache is attached, reads are served from the cache in
+	 * fixed-size aligned blocks. Blocks which are not cached are fetched from the
+	 * server and stored in the cache. Seeks only move the client-side position,
+	 * except for seeks relative to the end of the data object. The internal buffer
+	 * and read-ahead are not used.
+	 * <p>
+	 * If the stream is open, the cache takes effect immediately at the current
+	 * position. Otherwise, it takes effect when the stream is opened. Attaching a
+	 * cache requires fetching the modification time, size, and checksum of the
+	 * replica from the catalog.
+	 * 
+	 * @param cache The block cache, or null.
+	 * 
+	 * @throws IOException
+	 * @throws IRODSException
+	 * 
+	 * @since 0.8.0
+	 */
+	public void setBlockCache(BlockCache cache) throws IOException, IRODSException {
+		if (cache == blockCache) {
+			return;
+		}
+
+		blockCache = cache;
+
+		if (!in.isOpen()) {
+			return;
+		}
+
+		invalidateChecksum();
+
+		// Restore the server-side position before leaving the cache.
+		if (null != cacheReader) {
+			cacheReader = null;
+			in.seek(cachePosition, SeekDirection.BEGIN);
+			discardBuffer();
+		}
+
+		if (null != cache) {
+			long unread = bytesInBuffer - position;
+			unread += stopReadAhead();
+			var newPosition = in.seek(0L, SeekDirection.CURRENT) - unread;
+			discardBuffer();
+
+			cacheReader = new BlockCacheReader(cache, in);
+			cachePosition = newPosition;
+		}
+	}
+
+	/**
+	 * Returns the block cache attached to the stream, or null.
+	 * 
+	 * @since 0.8.0
+	 */
+	public BlockCache getBlockCache() {
+		return blockCache;
+	}
+
+	/**
+	 * Enables verification of the bytes read against the checksum of the replica
+	 * in the catalog.
+	 * <p>
+	 * The bytes are hashed on a background thread as they arrive from the server,
+	 * so verification does not require a second pass over the data. The hash
+	 * algorithm is derived from the format of the catalog checksum.
+	 * <p>
+	 * Verification is only possible if the data object is read sequentially from
+	 * the beginning to the end. It must be enabled before the first read and is
+	 * cancelled by {@link #seek(int, SeekDirection)}, by skips which contact the
+	 * server, and by {@link #setBlockCache(BlockCache)}. Verification must be
+	 * enabled again each time the stream is opened.
+	 * 
+	 * @throws IllegalStateException If the stream is not open.
+	 * @throws IOException           If the replica does not have a checksum or the
+	 *                               checksum is not in a recognized format.
+	 * @throws IRODSException
+	 * 
+	 * @since 0.8.0
+	 */
+	public void enableChecksumVerification() throws IOException, IRODSException {
+		if (!in.isOpen()) {
+			throw new IllegalStateException("Stream is not open");
+		}
+
+		resetChecksum();
+
+		var info = StreamChecksum.fetchCatalogInfo(in.getConnection(), in.getLogicalPath(), in.getReplicaNumber());
+		var catalogChecksum = info.isEmpty() ? "" : info.get(0);
+		var scheme = ChecksumScheme.of(catalogChecksum);
+		if (scheme.isEmpty()) {
+			throw new IOException("Replica does not have a checksum in a recognized format");
+		}
+
+		expectedChecksum = catalogChecksum;
+		checksum = new StreamChecksum(scheme.get());
+
+		if (bytesFetched > 0 || null != cacheReader) {
+			checksum.invalidate();
+		}
+	}
+
+	/**
+	 * Verifies the bytes read against the checksum of the replica in the catalog.
+	 * <p>
+	 * The data object must have been read to the end.
+	 * 
+	 * @throws IllegalStateException If checksum verification is not enabled, or
+	 *                               the stream was repositioned or has not
+	 *                               reached the end of the data object.
+	 * @throws IOException           If the checksums do not match.
+	 * 
+	 * @since 0.8.0
+	 */
+	public void verifyChecksum() throws IOException {
+		if (null == checksum) {
+			throw new IllegalStateException("Checksum verification is not enabled");
+		}
+
+		if (null == checksumMatched) {
+			if (!checksum.isValid() || !endOfStream) {
+				throw new IllegalStateException(
+						"Checksum cannot be verified because the data object was not read sequentially to the end");
+			}
+
+			checksumMatched = expectedChecksum.equals(checksum.finish());
+		}
+
+		if (!checksumMatched) {
+			throw new IOException(String.format("Checksum mismatch [expected=%s, computed=%s]", expectedChecksum,
+					checksum.finish()));
+		}
 	}
 
 	@Override
 	public int read() throws IOException {
+		if (null != cacheReader) {
+			return (-1 == read(singleByte, 0, 1)) ? -1 : singleByte[0] & 0xFF;
+		}
+
 		// If we've read all the contents of the buffer, fill it with new data.
-		if (bytesInBuffer == position) {
-			// If the last read operation did not fill the buffer, then we know
-			// there's no need to cross the network again. We can assume all bytes
-			// have been read from the replica.
-			if (bytesInBuffer < buffer.length) {
-				return -1;
-			}
+		if (bytesInBuffer == position && !fillBuffer()) {
+			return -1;
+		}
+
+		// "& 0xFF" converts the return value to an unsigned byte. This addition was
+		// recommended by the intellij IDEA IDE. See the following for more details:
+ 		// https://www.jetbrains.com/help/inspectopedia/SuspiciousReturnByteInputStream.html
+		return buffer[position++] & 0xFF;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		Objects.checkFromIndexSize(off, len, b.length);
 
+		if (0 == len) {
+			return 0;
+		}
+
+		if (null != cacheReader) {
 			try {
-				var bytesRead = in.read(buffer, buffer.length);
-				if (0 == bytesRead) {
-					return -1;
+				var bytesRead = cacheReader.read(cachePosition, ByteBuffer.wrap(b, off, len));
+				if (bytesRead > 0) {
+					cachePosition += bytesRead;
 				}
-
-				bytesInBuffer = bytesRead;
-				position = 0;
-			} catch (IOException | IRODSException e) {
+				return bytesRead;
+			} catch (IRODSException e) {
 				throw new IOException(e);
 			}
 		}
 
-		// "& 0xFF" converts the return value to an unsigned byte. This addition was
-		// recommended by the intellij IDEA IDE. See the following for more details:
- 		// https://www.jetbrains.com/help/inspectopedia/SuspiciousReturnByteInputStream.html
-		return buffer[position++] & 0xFF;
+		var total = 0;
+
+		while (total < len) {
+			// Serve as much as possible from the buffer.
+			if (position < bytesInBuffer) {
+				var n = Math.min(bytesInBuffer - position, len - total);
+				System.arraycopy(buffer, position, b, off + total, n);
+				position += n;
+				total += n;
+				continue;
+			}
+
+			if (endOfStream) {
+				break;
+			}
+
+			// Requests at least as large as the buffer are read directly into the
+			// caller's array. This avoids copying the bytes twice.
+			var remaining = len - total;
+			if (remaining >= buffer.length && 0 == readAheadDepth) {
+				try {
+					var bytesRead = in.read(b, off + total, remaining);
+					onBytesFetched(b, off + total, bytesRead);
+					total += bytesRead;
+					if (bytesRead < remaining) {
+						endOfStream = true;
+					}
+				} catch (IRODSException e) {
+					throw new IOException(e);
+				}
+				continue;
+			}
+
+			if (!fillBuffer()) {
+				break;
+			}
+		}
+
+		return (0 == total) ? -1 : total;
+	}
+
+	/**
+	 * Skips over bytes.
+	 * <p>
+	 * Bytes held by the internal buffer are skipped without contacting the server.
+	 * The remaining bytes are skipped by moving the server-side position, so no
+	 * data is transferred. Like {@link java.io.FileInputStream#skip(long)}, this
+	 * may move the position past the end of the data object, in which case the
+	 * next read reports the end of the stream.
+	 * 
+	 * @param n The number of bytes to skip.
+	 * 
+	 * @return The number of bytes skipped.
+	 * 
+	 * @since 0.8.0
+	 */
+	@Override
+	public long skip(long n) throws IOException {
+		if (n <= 0) {
+			return 0;
+		}
+
+		if (null != cacheReader) {
+			cachePosition += n;
+			return n;
+		}
+
+		var buffered = bytesInBuffer - position;
+		if (n <= buffered) {
+			position += (int) n;
+			return n;
+		}
+
+		invalidateChecksum();
+
+		// Bytes fetched by read-ahead are skipped as well.
+		var unread = buffered + stopReadAhead();
+		discardBuffer();
+
+		try {
+			seekRelative(n - unread);
+		} catch (IRODSException e) {
+			throw new IOException(e);
+		}
+
+		return n;
 	}
 
+	/**
+	 * Returns the number of bytes which can be read without contacting the
+	 * server.
+	 * 
+	 * @since 0.8.0
+	 */
+	@Override
+	public int available() {
+		return bytesInBuffer - position;
+	}
+
+	/**
+	 * Closes the stream.
+	 * <p>
+	 * If checksum verification is enabled and the data object was read to the
+	 * end, the checksum is verified before the stream is closed. A mismatch is
+	 * logged. Use {@link #verifyChecksum()} to detect it programmatically.
+	 */
 	@Override
 	public void close() {
+		cacheReader = null;
+
+		if (null != checksum) {
+			try {
+				if (checksum.isValid() && endOfStream) {
+					verifyChecksum();
+				} else {
+					checksum.cancel();
+				}
+			} catch (Exception e) {
+				log.error(e.getMessage());
+			}
+		}
+
+		try {
+			stopReadAhead();
+		} catch (Exception e) {
+			log.error(e.getMessage());
+		}
+
 		try {
 			in.close();
 		} catch (Exception e) {
@@ -257,7 +637,120 @@ public class IRODSDataObjectInputStream extends InputStream {
 		}
 
 		buffer = new byte[65536];
-		bytesInBuffer = buffer.length;
+	}
+
+	private void attachBlockCacheIfNecessary() throws IOException, IRODSException {
+		cacheReader = null;
+
+		if (null != blockCache) {
+			cacheReader = new BlockCacheReader(blockCache, in);
+			cachePosition = 0;
+		}
+	}
+
+	private void discardBuffer() {
+		bytesInBuffer = 0;
+		position = 0;
+		endOfStream = false;
+	}
+
+	// Returns false if no bytes could be read.
+	private boolean fillBuffer() throws IOException {
+		if (readAheadDepth > 0 || null != pipeline) {
+			return fillBufferFromPipeline();
+		}
+
+		// If the last read operation did not fill the buffer, then we know there's no
+		// need to cross the network again. We can assume all bytes have been read
+		// from the replica.
+		if (endOfStream) {
+			return false;
+		}
+
+		try {
+			var bytesRead = in.read(buffer, 0, buffer.length);
+			onBytesFetched(buffer, 0, bytesRead);
+			bytesInBuffer = bytesRead;
+			position = 0;
+			endOfStream = bytesRead < buffer.length;
+			return bytesRead > 0;
+		} catch (IRODSException e) {
+			throw new IOException(e);
+		}
+	}
+
+	private boolean fillBufferFromPipeline() throws IOException {
+		if (endOfStream) {
+			return false;
+		}
+
+		if (null == pipeline) {
+			pipeline = new ReadAheadPipeline(in, readAheadDepth, buffer);
+		} else if (holdingBlock) {
+			pipeline.release(buffer);
+		}
+
+		holdingBlock = false;
+		bytesInBuffer = 0;
+		position = 0;
+
+		var block = pipeline.take();
+		if (null == block) {
+			endOfStream = true;
+			return false;
+		}
+
+		buffer = block.data;
+		bytesInBuffer = block.length;
+		holdingBlock = true;
+		onBytesFetched(buffer, 0, bytesInBuffer);
+
+		return bytesInBuffer > 0;
+	}
+
+	// Stops read-ahead, if active. Returns the number of bytes which were fetched
+	// from the server but not handed to the consumer.
+	private long stopReadAhead() throws IOException {
+		if (null == pipeline) {
+			return 0;
+		}
+
+		var p = pipeline;
+		pipeline = null;
+
+		var held = holdingBlock ? buffer : null;
+		holdingBlock = false;
+
+		return p.stop(held);
+	}
+
+	private void onBytesFetched(byte[] b, int off, int len) throws IOException {
+		bytesFetched += len;
+		if (null != checksum) {
+			checksum.update(b, off, len);
+		}
+	}
+
+	private void invalidateChecksum() {
+		if (null != checksum) {
+			checksum.invalidate();
+		}
+	}
+
+	private void resetChecksum() throws IOException {
+		if (null != checksum) {
+			checksum.cancel();
+		}
+
+		checksum = null;
+		expectedChecksum = null;
+		checksumMatched = null;
+		bytesFetched = 0;
+	}
+
+	// Moves the server-side position relative to its current value.
+	private void seekRelative(long offset) throws IOException, IRODSException {
+		in.seek(offset, SeekDirection.CURRENT);
 	}
 
 }
@@ -2,6 +2,8 @@ package org.irods.irods4j.high_level.io;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Objects;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -14,6 +16,16 @@ import org.irods.irods4j.low_level.protocol.packing_instructions.DataObjInp_PI.O
 
 /**
  * A buffered output stream that makes it easy to write iRODS data objects.
+ * <p>
+ * Writes which are at least as large as the internal buffer bypass it and are
+ * sent directly from the caller's array, in chunks no larger than the chunk
+ * size.
+ * <p>
+ * Uploads can be accelerated by enabling write-behind via
+ * {@link #setWriteBehindDepth(int)}.
+ * <p>
+ * The integrity of an upload can be checked by enabling checksum verification
+ * via {@link #enableChecksumVerification(ChecksumScheme)}.
  * 
  * @since 0.1.0
  */
@@ -24,6 +36,24 @@ public class IRODSDataObjectOutputStream extends OutputStream {
 	private IRODSDataObjectStream in = new IRODSDataObjectStream();
 	private byte[] buffer;
 	private int position;
+	private int chunkSize = 4 * 1024 * 1024;
+
+	// The max number of unacknowledged write requests. 0 disables write-behind.
+	private int writeBehindDepth;
+
+	// The number of bytes of each unacknowledged write request, oldest first.
+	private final ArrayDeque<Integer> unacknowledgedWrites = new ArrayDeque<>();
+
+	// The first error reported by an acknowledgement. Once set, every operation
+	// which writes data fails.
+	private Exception writeBehindFailure;
+
+	// Hashes the bytes sent to the server while checksum verification is enabled.
+	// The result of the verification is known once the stream is closed.
+	private StreamChecksum checksum;
+	private Boolean checksumMatched;
+	private String checksumMismatchMessage;
+	private long bytesSent;
 
 	/**
 	 * Initializes a new instance with a buffer size of 65536 bytes.
@@ -155,6 +185,8 @@ public class IRODSDataObjectOutputStream extends OutputStream {
 	 */
 	public void open(RcComm comm, String logicalPath, boolean truncate, boolean append)
 			throws IOException, IRODSException {
+		awaitAcknowledgements();
+		resetChecksum();
 		initInternalBufferIfNecessary();
 		var mode = (truncate ? OpenFlags.O_TRUNC : 0);
 		mode |= (append ? OpenFlags.O_APPEND : 0);
@@ -180,6 +212,8 @@ public class IRODSDataObjectOutputStream extends OutputStream {
 	 */
 	public void open(RcComm comm, String logicalPath, String rootResourceName, boolean truncate, boolean append)
 			throws IOException, IRODSException {
+		awaitAcknowledgements();
+		resetChecksum();
 		initInternalBufferIfNecessary();
 		var mode = (truncate ? OpenFlags.O_TRUNC : 0);
 		mode |= (append ? OpenFlags.O_APPEND : 0);
@@ -205,6 +239,8 @@ public class IRODSDataObjectOutputStream extends OutputStream {
 	 */
 	public void open(RcComm comm, String logicalPath, long replicaNumber, boolean truncate, boolean append)
 			throws IOException, IRODSException {
+		awaitAcknowledgements();
+		resetChecksum();
 		initInternalBufferIfNecessary();
 		var mode = (truncate ? OpenFlags.O_TRUNC : 0);
 		mode |= (append ? OpenFlags.O_APPEND : 0);
@@ -231,6 +267,8 @@ public class IRODSDataObjectOutputStream extends OutputStream {
 	 */
 	public void open(RcComm comm, String replicaToken, String logicalPath, long replicaNumber, boolean truncate,
 			boolean append) throws IOException, IRODSException {
+		awaitAcknowledgements();
+		resetChecksum();
 		initInternalBufferIfNecessary();
 		var mode = (truncate ? OpenFlags.O_TRUNC : 0);
 		mode |= (append ? OpenFlags.O_APPEND : 0);
@@ -287,9 +325,160 @@ public class IRODSDataObjectOutputStream extends OutputStream {
 	 */
 	public void seek(int offset, SeekDirection direction) throws IOException, IRODSException {
 		flushBuffer();
+		awaitAcknowledgements();
+		throwIfWriteBehindFailed();
+
+		if (null != checksum) {
+			checksum.invalidate();
+		}
+
 		in.seek(offset, direction);
 	}
 
+	/**
+	 * Sets the max number of write requests which may be awaiting acknowledgement
+	 * from the server.
+	 * <p>
+	 * When enabled, write requests are sent without waiting for the server to
+	 * acknowledge the previous ones. This overlaps the client's buffering with the
+	 * server's I/O. Errors reported by the server surface on a later write,
+	 * {@link #flush()} or {@link #close()}. A write which the server only partially
+	 * completes is reported as an error, because the bytes which follow it have
+	 * already been sent.
+	 * <p>
+	 * {@link #flush()}, {@link #seek(int, SeekDirection)} and {@link #close()} wait
+	 * for all outstanding acknowledgements.
+	 * 
+	 * @param depth The max number of unacknowledged write requests. 0 disables
+	 *              write-behind.
+	 * 
+	 * @since 0.8.0
+	 */
+	public void setWriteBehindDepth(int depth) {
+		Preconditions.greaterThanOrEqualToValue(depth, 0, "Write-behind depth is less than 0");
+		writeBehindDepth = depth;
+	}
+
+	/**
+	 * Returns the max number of write requests which may be awaiting
+	 * acknowledgement from the server.
+	 * 
+	 * @since 0.8.0
+	 */
+	public int getWriteBehindDepth() {
+		return writeBehindDepth;
+	}
+
+	/**
+	 * Sets the max number of bytes sent to the server by a single write
+	 * operation. This only affects writes which bypass the internal buffer.
+	 * <p>
+	 * The default chunk size is 4 MiB.
+	 * 
+	 * @param chunkSize The max number of bytes per write operation.
+	 * 
+	 * @since 0.8.0
+	 */
+	public void setChunkSize(int chunkSize) {
+		Preconditions.greaterThanOrEqualToValue(chunkSize, 1, "Chunk size is less than 1");
+		this.chunkSize = chunkSize;
+	}
+
+	/**
+	 * Returns the max number of bytes sent to the server by a single write
+	 * operation.
+	 * 
+	 * @since 0.8.0
+	 */
+	public int getChunkSize() {
+		return chunkSize;
+	}
+
+	/**
+	 * Enables verification of the bytes written against the checksum computed by
+	 * the server, using the SHA-256 scheme.
+	 * 
+	 * @throws IllegalStateException If the stream is not open.
+	 * 
+	 * @see #enableChecksumVerification(ChecksumScheme)
+	 * 
+	 * @since 0.8.0
+	 */
+	public void enableChecksumVerification() {
+		enableChecksumVerification(ChecksumScheme.SHA256);
+	}
+
+	/**
+	 * Enables verification of the bytes written against the checksum computed by
+	 * the server.
+	 * <p>
+	 * The bytes are hashed on a background thread as they are sent, so
+	 * verification does not require a second pass over the data. When the stream
+	 * is closed, the server is instructed to compute the checksum of the replica
+	 * and the result is compared with the checksum computed by the client. A
+	 * mismatch is logged and reported by {@link #verifyChecksum()}.
+	 * <p>
+	 * Verification is only possible if the stream writes every byte of the
+	 * replica sequentially, starting at offset 0. It must be enabled before the
+	 * first write and is cancelled by {@link #seek(int, SeekDirection)}. If the
+	 * replica ends up larger than the number of bytes written (e.g. the stream
+	 * appended to existing data), or the server computes the checksum with a
+	 * different scheme, the checksum cannot be verified and a warning is logged.
+	 * Verification must be enabled again each time the stream is opened.
+	 * 
+	 * @param scheme The scheme used by the server to compute checksums.
+	 * 
+	 * @throws IllegalStateException If the stream is not open.
+	 * 
+	 * @since 0.8.0
+	 */
+	public void enableChecksumVerification(ChecksumScheme scheme) {
+		if (null == scheme) {
+			throw new IllegalArgumentException("Checksum scheme is null");
+		}
+
+		if (!in.isOpen()) {
+			throw new IllegalStateException("Stream is not open");
+		}
+
+		try {
+			resetChecksum();
+		} catch (IOException e) {
+			log.error(e.getMessage());
+		}
+
+		checksum = new StreamChecksum(scheme);
+
+		if (bytesSent > 0 || position > 0) {
+			checksum.invalidate();
+		}
+	}
+
+	/**
+	 * Reports the result of checksum verification.
+	 * <p>
+	 * Verification happens when the stream is closed.
+	 * 
+	 * @throws IllegalStateException If checksum verification is not enabled, or
+	 *                               the checksum could not be verified.
+	 * @throws IOException           If the checksums do not match.
+	 * 
+	 * @since 0.8.0
+	 */
+	public void verifyChecksum() throws IOException {
+		if (null == checksum) {
+			throw new IllegalStateException("Checksum verification is not enabled");
+		}
+
+		if (null == checksumMatched) {
+			throw new IllegalStateException("Checksum has not been verified");
+		}
+
+		if (!checksumMatched) {
+			throw new IOException(checksumMismatchMessage);
+		}
+	}
+
 	@Override
 	public void write(int b) throws IOException {
 		if (buffer.length == position) {
@@ -303,26 +492,64 @@ public class IRODSDataObjectOutputStream extends OutputStream {
 		buffer[position++] = (byte) b;
 	}
 
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		Objects.checkFromIndexSize(off, len, b.length);
+
+		try {
+			// Small writes are accumulated in the internal buffer.
+			if (len < buffer.length) {
+				if (len > buffer.length - position) {
+					flushBuffer();
+				}
+
+				System.arraycopy(b, off, buffer, position, len);
+				position += len;
+				return;
+			}
+
+			// Large writes are sent directly from the caller's array. The buffered bytes
+			// must be written first to preserve ordering.
+			flushBuffer();
+
+			var end = off + len;
+			while (off < end) {
+				var n = Math.min(chunkSize, end - off);
+				writeFully(b, off, n);
+				off += n;
+			}
+		} catch (IRODSException e) {
+			throw new IOException(e);
+		}
+	}
+
 	public void flushBuffer() throws IOException, IRODSException {
 		if (0 == position) {
 			return;
 		}
 
-		// TODO This is the correct way to flush the buffer.
-//        var remaining = position;
-//        while (remaining > 0) {
-//            // The write() will throw an exception if there's an error.
-//            var bytesWritten = in.write(buffer, remaining);
-//            remaining -= bytesWritten;
-//        }
-
-		// TODO While it's possible for the write() to write a subset of the bytes, no
-		// one has ever reported that happening. So for now, this is good enough. Open
-		// an issue for this.
-		in.write(buffer, position);
+		writeFully(buffer, 0, position);
 		position = 0;
 	}
 
+	/**
+	 * Writes the contents of the internal buffer to the data object and waits
+	 * until the server has acknowledged every write.
+	 * 
+	 * @since 0.8.0
+	 */
+	@Override
+	public void flush() throws IOException {
+		try {
+			flushBuffer();
+		} catch (IRODSException e) {
+			throw new IOException(e);
+		}
+
+		awaitAcknowledgements();
+		throwIfWriteBehindFailed();
+	}
+
 	/**
 	 * Closes the stream with additional instructions.
 	 * <p>
@@ -333,14 +560,56 @@ public class IRODSDataObjectOutputStream extends OutputStream {
 	 * @since 0.1.0
 	 */
 	public void close(OnCloseSuccess closeInstructions) {
+		var verify = null != checksum && checksum.isValid() && in.isOpen();
+		var comm = in.getConnection();
+		var logicalPath = in.getLogicalPath();
+		var replicaNumber = in.getReplicaNumber();
+
 		try {
 			flushBuffer();
 		} catch (IOException | IRODSException e) {
 			log.error(e.getMessage());
+			verify = false;
+		}
+
+		// The replica must not be closed until the server has acknowledged every
+		// write.
+		try {
+			awaitAcknowledgements();
+		} catch (IOException e) {
+			log.error(e.getMessage());
+			verify = false;
+		}
+
+		// The bytes sent may not match the replica if a write failed.
+		verify = verify && null == writeBehindFailure;
+
+		if (null != writeBehindFailure) {
+			log.error(writeBehindFailure.getMessage());
+			writeBehindFailure = null;
+		}
+
+		if (verify) {
+			closeInstructions = withComputeChecksum(closeInstructions);
 		}
 
 		try {
 			in.close(closeInstructions);
+		} catch (Exception e) {
+			log.error(e.getMessage());
+			verify = false;
+		}
+
+		if (null == checksum) {
+			return;
+		}
+
+		try {
+			if (verify) {
+				verifyAgainstCatalog(comm, logicalPath, replicaNumber);
+			} else {
+				checksum.cancel();
+			}
 		} catch (Exception e) {
 			log.error(e.getMessage());
 		}
@@ -351,6 +620,137 @@ public class IRODSDataObjectOutputStream extends OutputStream {
 		close(null);
 	}
 
+	// Writes all bytes of a region, retrying on partial writes.
+	private void writeFully(byte[] b, int off, int len) throws IOException, IRODSException {
+		onBytesSent(b, off, len);
+
+		if (writeBehindDepth > 0) {
+			writeBehind(b, off, len);
+			return;
+		}
+
+		// Outstanding acknowledgements must be received before a synchronous write
+		// can receive its own.
+		awaitAcknowledgements();
+		throwIfWriteBehindFailed();
+
+		while (len > 0) {
+			// The write() will throw an exception if there's an error.
+			var bytesWritten = in.write(b, off, len);
+			if (0 == bytesWritten) {
+				throw new IOException("Server did not accept any bytes");
+			}
+
+			off += bytesWritten;
+			len -= bytesWritten;
+		}
+	}
+
+	private void onBytesSent(byte[] b, int off, int len) throws IOException {
+		bytesSent += len;
+		if (null != checksum) {
+			checksum.update(b, off, len);
+		}
+	}
+
+	private void verifyAgainstCatalog(RcComm comm, String logicalPath, long replicaNumber)
+			throws IOException, IRODSException {
+		var computed = checksum.finish();
+
+		var info = StreamChecksum.fetchCatalogInfo(comm, logicalPath, replicaNumber);
+		if (info.isEmpty() || Long.parseLong(info.get(1)) != bytesSent) {
+			log.warn("Checksum of [{}] cannot be verified because the replica contains bytes not written by the stream",
+					logicalPath);
+			return;
+		}
+
+		var catalogChecksum = info.get(0);
+		if (ChecksumScheme.of(catalogChecksum).orElse(null) != checksum.getScheme()) {
+			log.warn("Checksum of [{}] cannot be verified because the server did not use the {} scheme", logicalPath,
+					checksum.getScheme());
+			return;
+		}
+
+		checksumMatched = catalogChecksum.equals(computed);
+		if (!checksumMatched) {
+			checksumMismatchMessage = String.format("Checksum mismatch for [%s] [expected=%s, computed=%s]",
+					logicalPath, catalogChecksum, computed);
+			log.error(checksumMismatchMessage);
+		}
+	}
+
+	private void resetChecksum() throws IOException {
+		if (null != checksum) {
+			checksum.cancel();
+		}
+
+		checksum = null;
+		checksumMatched = null;
+		checksumMismatchMessage = null;
+		bytesSent = 0;
+	}
+
+	private static OnCloseSuccess withComputeChecksum(OnCloseSuccess closeInstructions) {
+		var copy = new OnCloseSuccess();
+		if (null != closeInstructions) {
+			copy.updateSize = closeInstructions.updateSize;
+			copy.updateStatus = closeInstructions.updateStatus;
+			copy.sendNotifications = closeInstructions.sendNotifications;
+			copy.preserveReplicaStateTable = closeInstructions.preserveReplicaStateTable;
+		}
+		copy.computeChecksum = true;
+		return copy;
+	}
+
+	private void writeBehind(byte[] b, int off, int len) throws IOException {
+		throwIfWriteBehindFailed();
+
+		while (unacknowledgedWrites.size() >= writeBehindDepth) {
+			receiveAcknowledgement();
+		}
+
+		throwIfWriteBehindFailed();
+
+		// The bytes are fully sent once this returns, so the caller's array can be
+		// reused immediately.
+		in.sendWriteRequest(b, off, len);
+		unacknowledgedWrites.add(len);
+	}
+
+	private void receiveAcknowledgement() throws IOException {
+		var expected = unacknowledgedWrites.remove();
+
+		try {
+			var bytesWritten = in.receiveWriteReply();
+			if (bytesWritten != expected && null == writeBehindFailure) {
+				writeBehindFailure = new IOException(
+						String.format("Server wrote %d of %d bytes", bytesWritten, expected));
+			}
+		} catch (IRODSException e) {
+			if (null == writeBehindFailure) {
+				writeBehindFailure = e;
+			}
+		}
+	}
+
+	private void awaitAcknowledgements() throws IOException {
+		while (!unacknowledgedWrites.isEmpty()) {
+			receiveAcknowledgement();
+		}
+	}
+
+	private void throwIfWriteBehindFailed() throws IOException {
+		if (null == writeBehindFailure) {
+			return;
+		}
+
+		if (writeBehindFailure instanceof IOException) {
+			throw (IOException) writeBehindFailure;
+		}
+
+		throw new IOException(writeBehindFailure);
+	}
+
 	private void initInternalBufferIfNecessary() {
 		if (null == buffer) {
 			buffer = new byte[65536];
@@ -1,8 +1,12 @@
 package org.irods.irods4j.high_level.io;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 import org.apache.logging.log4j.LogManager;
@@ -12,9 +16,9 @@ import org.irods.irods4j.common.Reference;
 import org.irods.irods4j.low_level.api.IRODSApi;
 import org.irods.irods4j.low_level.api.IRODSException;
 import org.irods.irods4j.low_level.api.IRODSKeywords;
-import org.irods.irods4j.low_level.api.IRODSApi.ByteArrayReference;
 import org.irods.irods4j.low_level.api.IRODSApi.RcComm;
 import org.irods.irods4j.low_level.protocol.packing_instructions.DataObjInp_PI;
+import org.irods.irods4j.low_level.protocol.packing_instructions.DataObjInp_PI.OpenFlags;
 import org.irods.irods4j.low_level.protocol.packing_instructions.FileLseekOut_PI;
 import org.irods.irods4j.low_level.protocol.packing_instructions.KeyValPair_PI;
 import org.irods.irods4j.low_level.protocol.packing_instructions.OpenedDataObjInp_PI;
@@ -32,6 +36,15 @@ public class IRODSDataObjectStream implements AutoCloseable {
 	private int fd = -1;
 	private long replicaNumber = -1;
 	private String replicaToken;
+	private String logicalPath;
+
+	// The server-side position of the replica, or -1 if it is unknown. Used to
+	// avoid redundant seeks.
+	private long serverOffset = -1;
+
+	// The max size of the temporary byte array used when transferring bytes
+	// to/from a ByteBuffer which is not backed by an array.
+	private static final int MAX_TEMPORARY_BUFFER_SIZE = 4 * 1024 * 1024;
 
 	/**
 	 * Instructions for the iRODS server following a successful close of a data
@@ -89,6 +102,38 @@ public class IRODSDataObjectStream implements AutoCloseable {
 		BEGIN, CURRENT, END
 	}
 
+	/**
+	 * Options for {@link IRODSDataObjectStream#readRanges(long[], ByteBuffer[], RangeReadOptions)}.
+	 * 
+	 * @since 0.8.0
+	 */
+	public static class RangeReadOptions {
+
+		/**
+		 * Ranges separated by no more than this number of bytes are merged into a
+		 * single read. The bytes in the gap are transferred and discarded.
+		 * 
+		 * @since 0.8.0
+		 */
+		public int maxGap = 64 * 1024;
+
+		/**
+		 * The max number of bytes transferred by a single merged read. A range which is
+		 * larger than this value is read on its own.
+		 * 
+		 * @since 0.8.0
+		 */
+		public int maxMergedSize = 8 * 1024 * 1024;
+
+		/**
+		 * The max number of reads in flight on the connection.
+		 * 
+		 * @since 0.8.0
+		 */
+		public int maxInFlight = 16;
+
+	}
+
 	/**
 	 * Initializes a new stream.
 	 * 
@@ -227,6 +272,8 @@ public class IRODSDataObjectStream implements AutoCloseable {
 		fd = -1;
 		replicaNumber = -1;
 		replicaToken = null;
+		logicalPath = null;
+		serverOffset = -1;
 	}
 
 	/**
@@ -243,6 +290,23 @@ public class IRODSDataObjectStream implements AutoCloseable {
 	 * @since 0.1.0
 	 */
 	public long seek(int offset, SeekDirection direction) throws IOException, IRODSException {
+		return seek((long) offset, direction);
+	}
+
+	/**
+	 * Changes the position of the read/write position using a 64-bit offset.
+	 * 
+	 * @param offset    The number of bytes to move by.
+	 * @param direction Describes how the offset is to be interpreted.
+	 * 
+	 * @return The new position of the read/write pointer.
+	 * 
+	 * @throws IOException
+	 * @throws IRODSException
+	 * 
+	 * @since 0.8.0
+	 */
+	public long seek(long offset, SeekDirection direction) throws IOException, IRODSException {
 		throwIfInvalidL1Descriptor(fd);
 
 		var input = new OpenedDataObjInp_PI();
@@ -268,9 +332,11 @@ public class IRODSDataObjectStream implements AutoCloseable {
 
 		var ec = IRODSApi.rcDataObjLseek(comm, input, output);
 		if (ec < 0) {
+			serverOffset = -1;
 			throw new IRODSException(ec, "rcDataObjLseek error");
 		}
 
+		serverOffset = output.value.offset;
 		return output.value.offset;
 	}
 
@@ -288,18 +354,253 @@ public class IRODSDataObjectStream implements AutoCloseable {
 	 * @since 0.1.0
 	 */
 	public int read(byte[] buffer, int count) throws IOException, IRODSException {
-		throwIfInvalidL1Descriptor(fd);
 		throwIfInvalidBufferSize(buffer.length, count);
+		return read(buffer, 0, count);
+	}
+
+	/**
+	 * Reads bytes from a data object into a region of a byte array.
+	 * <p>
+	 * The bytes are stored directly into the byte array as they are received.
+	 * 
+	 * @param buffer The byte array to fill.
+	 * @param offset The position in the byte array at which to store the bytes.
+	 * @param count  The max number of bytes to read.
+	 * 
+	 * @return The number of bytes read. 0 indicates the end of the data object.
+	 * 
+	 * @throws IOException
+	 * @throws IRODSException
+	 * 
+	 * @since 0.8.0
+	 */
+	public int read(byte[] buffer, int offset, int count) throws IOException, IRODSException {
+		throwIfInvalidL1Descriptor(fd);
+		Objects.checkFromIndexSize(offset, count, buffer.length);
+
+		var input = new OpenedDataObjInp_PI();
+		input.l1descInx = fd;
+		input.len = count;
+		input.KeyValPair_PI = new KeyValPair_PI();
+
+		var bytesRead = IRODSApi.rcDataObjRead(comm, input, buffer, offset);
+		if (bytesRead < 0) {
+			serverOffset = -1;
+			throw new IRODSException(bytesRead, "rcDataObjRead error");
+		}
+
+		advanceServerOffset(bytesRead);
+		return bytesRead;
+	}
+
+	/**
+	 * Reads bytes from a data object starting at a specific position.
+	 * <p>
+	 * The server-side position of the stream is tracked. If it differs from
+	 * {@code position}, the seek and the read are sent to the server together, so
+	 * the operation costs a single round trip. Otherwise, no seek is sent at all.
+	 * <p>
+	 * Bytes are stored into the buffer starting at its current position, and the
+	 * buffer's position is advanced by the number of bytes read.
+	 * 
+	 * @param position The offset within the data object to read from.
+	 * @param dst      The buffer receiving the bytes.
+	 * 
+	 * @return The number of bytes read, possibly zero if {@code dst} has no space
+	 *         remaining, or -1 if {@code position} is at or beyond the end of the
+	 *         data object.
+	 * 
+	 * @throws IOException
+	 * @throws IRODSException
+	 * 
+	 * @since 0.8.0
+	 */
+	public int read(long position, ByteBuffer dst) throws IOException, IRODSException {
+		throwIfInvalidL1Descriptor(fd);
+		throwIfInvalidPosition(position);
+		if (null == dst) {
+			throw new IllegalArgumentException("Byte buffer is null");
+		}
+
+		if (!dst.hasRemaining()) {
+			return 0;
+		}
+
+		byte[] array;
+		int arrayOffset;
+		int count;
+
+		if (dst.hasArray()) {
+			array = dst.array();
+			arrayOffset = dst.arrayOffset() + dst.position();
+			count = dst.remaining();
+		} else {
+			count = Math.min(dst.remaining(), MAX_TEMPORARY_BUFFER_SIZE);
+			array = new byte[count];
+			arrayOffset = 0;
+		}
 
 		var input = new OpenedDataObjInp_PI();
 		input.l1descInx = fd;
 		input.len = count;
 		input.KeyValPair_PI = new KeyValPair_PI();
 
-		var readBuffer = new ByteArrayReference();
-		readBuffer.data = buffer;
+		var seeking = queueSeekIfNecessary(position);
+		IRODSApi.sendDataObjReadRequest(comm, input);
+
+		// Both replies must be received to keep the connection usable.
+		var ec = seeking ? IRODSApi.receiveDataObjLseekReply(comm, new Reference<>()) : 0;
+		var bytesRead = IRODSApi.receiveDataObjReadReply(comm, array, arrayOffset);
+
+		if (ec < 0) {
+			serverOffset = -1;
+			throw new IRODSException(ec, "rcDataObjLseek error");
+		}
 
-		var bytesRead = IRODSApi.rcDataObjRead(comm, input, readBuffer);
+		if (bytesRead < 0) {
+			serverOffset = -1;
+			throw new IRODSException(bytesRead, "rcDataObjRead error");
+		}
+
+		serverOffset = position + bytesRead;
+
+		if (0 == bytesRead) {
+			return -1;
+		}
+
+		if (dst.hasArray()) {
+			dst.position(dst.position() + bytesRead);
+		} else {
+			dst.put(array, 0, bytesRead);
+		}
+
+		return bytesRead;
+	}
+
+	/**
+	 * Writes bytes to a data object starting at a specific position.
+	 * <p>
+	 * The server-side position of the stream is tracked. If it differs from
+	 * {@code position}, the stream seeks and waits for the server to confirm the
+	 * new position before sending the write, so a failed seek never leaves bytes
+	 * at the wrong offset. Otherwise, no seek is sent at all. Unlike
+	 * {@link #read(long, ByteBuffer)}, the seek is not pipelined.
+	 * <p>
+	 * Bytes are taken from the buffer starting at its current position, and the
+	 * buffer's position is advanced by the number of bytes written.
+	 * 
+	 * @param position The offset within the data object to write to.
+	 * @param src      The buffer holding the bytes.
+	 * 
+	 * @return The number of bytes written.
+	 * 
+	 * @throws IOException
+	 * @throws IRODSException
+	 * 
+	 * @since 0.8.0
+	 */
+	public int write(long position, ByteBuffer src) throws IOException, IRODSException {
+		throwIfInvalidL1Descriptor(fd);
+		throwIfInvalidPosition(position);
+		if (null == src) {
+			throw new IllegalArgumentException("Byte buffer is null");
+		}
+
+		if (!src.hasRemaining()) {
+			return 0;
+		}
+
+		byte[] array;
+		int arrayOffset;
+		int count;
+
+		if (src.hasArray()) {
+			array = src.array();
+			arrayOffset = src.arrayOffset() + src.position();
+			count = src.remaining();
+		} else {
+			count = Math.min(src.remaining(), MAX_TEMPORARY_BUFFER_SIZE);
+			array = new byte[count];
+			arrayOffset = 0;
+			src.duplicate().get(array, 0, count);
+		}
+
+		var input = new OpenedDataObjInp_PI();
+		input.l1descInx = fd;
+		input.len = count;
+		input.KeyValPair_PI = new KeyValPair_PI();
+
+		// Unlike a read, a write modifies the replica. The seek must succeed before
+		// the bytes are sent, otherwise they would land at the previous offset.
+		if (position != serverOffset && seek(position, SeekDirection.BEGIN) != position) {
+			serverOffset = -1;
+			throw new IOException(String.format("Server did not seek to offset [%d]", position));
+		}
+
+		var bytesWritten = IRODSApi.rcDataObjWrite(comm, input, array, arrayOffset);
+
+		if (bytesWritten < 0) {
+			serverOffset = -1;
+			throw new IRODSException(bytesWritten, "rcDataObjWrite error");
+		}
+
+		serverOffset = position + bytesWritten;
+		src.position(src.position() + bytesWritten);
+
+		return bytesWritten;
+	}
+
+	RcComm getConnection() {
+		return comm;
+	}
+
+	String getLogicalPath() {
+		return logicalPath;
+	}
+
+	// Sends a read request without waiting for the reply. Used to keep multiple
+	// read requests in flight.
+	void sendReadRequest(int count) throws IOException {
+		throwIfInvalidL1Descriptor(fd);
+
+		var input = new OpenedDataObjInp_PI();
+		input.l1descInx = fd;
+		input.len = count;
+		input.KeyValPair_PI = new KeyValPair_PI();
+
+		// The server-side position is no longer tracked once requests are pipelined.
+		serverOffset = -1;
+		IRODSApi.sendDataObjReadRequest(comm, input);
+	}
+
+	// Sends a write request without waiting for the reply. Used to keep multiple
+	// write requests in flight.
+	void sendWriteRequest(byte[] buffer, int offset, int count) throws IOException {
+		throwIfInvalidL1Descriptor(fd);
+
+		var input = new OpenedDataObjInp_PI();
+		input.l1descInx = fd;
+		input.len = count;
+		input.KeyValPair_PI = new KeyValPair_PI();
+
+		// The server-side position is no longer tracked once requests are pipelined.
+		serverOffset = -1;
+		IRODSApi.sendDataObjWriteRequest(comm, input, buffer, offset);
+	}
+
+	// Receives the reply to the oldest write request sent via sendWriteRequest().
+	int receiveWriteReply() throws IOException, IRODSException {
+		var bytesWritten = IRODSApi.receiveDataObjWriteReply(comm);
+		if (bytesWritten < 0) {
+			throw new IRODSException(bytesWritten, "rcDataObjWrite error");
+		}
+
+		return bytesWritten;
+	}
+
+	// Receives the reply to the oldest read request sent via sendReadRequest().
+	int receiveReadReply(byte[] buffer, int offset) throws IOException, IRODSException {
+		var bytesRead = IRODSApi.receiveDataObjReadReply(comm, buffer, offset);
 		if (bytesRead < 0) {
 			throw new IRODSException(bytesRead, "rcDataObjRead error");
 		}
@@ -321,22 +622,164 @@ public class IRODSDataObjectStream implements AutoCloseable {
 	 * @since 0.1.0
 	 */
 	public int write(byte[] buffer, int count) throws IOException, IRODSException {
-		throwIfInvalidL1Descriptor(fd);
 		throwIfInvalidBufferSize(buffer.length, count);
+		return write(buffer, 0, count);
+	}
+
+	/**
+	 * Writes bytes from a region of a byte array to a data object.
+	 * <p>
+	 * The bytes are sent directly from the byte array. The server may write fewer
+	 * bytes than requested.
+	 * 
+	 * @param buffer The byte array holding the bytes.
+	 * @param offset The position in the byte array of the first byte to write.
+	 * @param count  The number of bytes to write.
+	 * 
+	 * @return The number of bytes written.
+	 * 
+	 * @throws IOException
+	 * @throws IRODSException
+	 * 
+	 * @since 0.8.0
+	 */
+	public int write(byte[] buffer, int offset, int count) throws IOException, IRODSException {
+		throwIfInvalidL1Descriptor(fd);
+		Objects.checkFromIndexSize(offset, count, buffer.length);
 
 		var input = new OpenedDataObjInp_PI();
 		input.l1descInx = fd;
 		input.len = count;
 		input.KeyValPair_PI = new KeyValPair_PI();
 
-		var bytesWritten = IRODSApi.rcDataObjWrite(comm, input, buffer);
+		var bytesWritten = IRODSApi.rcDataObjWrite(comm, input, buffer, offset);
 		if (bytesWritten < 0) {
+			serverOffset = -1;
 			throw new IRODSException(bytesWritten, "rcDataObjWrite error");
 		}
 
+		advanceServerOffset(bytesWritten);
 		return bytesWritten;
 	}
 
+	/**
+	 * Reads multiple ranges of a data object.
+	 * <p>
+	 * Range {@code i} starts at {@code offsets[i]} and is read into
+	 * {@code buffers[i]}, starting at the buffer's position and for as many bytes
+	 * as the buffer has remaining. The position of each buffer is advanced by the
+	 * number of bytes read, which is less than requested if the range extends past
+	 * the end of the data object.
+	 * <p>
+	 * The ranges are sorted and nearby ranges are merged according to the
+	 * options, so the server is asked for the minimal set of reads. Every read is
+	 * preceded by a seek, and both are pipelined with the other reads, so the whole
+	 * operation costs a single round trip when the number of merged reads does not
+	 * exceed {@link RangeReadOptions#maxInFlight}. Ranges may overlap.
+	 * 
+	 * @param offsets The offset of each range.
+	 * @param buffers The buffer receiving the bytes of each range.
+	 * @param options Options which influence how ranges are merged and read.
+	 * 
+	 * @return The total number of bytes stored into the buffers.
+	 * 
+	 * @throws IOException
+	 * @throws IRODSException
+	 * 
+	 * @since 0.8.0
+	 */
+	public long readRanges(long[] offsets, ByteBuffer[] buffers, RangeReadOptions options)
+			throws IOException, IRODSException {
+		throwIfInvalidL1Descriptor(fd);
+		if (null == offsets || null == buffers) {
+			throw new IllegalArgumentException("Offsets or buffers is null");
+		}
+		if (offsets.length != buffers.length) {
+			throw new IllegalArgumentException("Number of offsets and buffers differ");
+		}
+		if (null == options) {
+			throw new IllegalArgumentException("Range read options is null");
+		}
+		if (options.maxGap < 0 || options.maxMergedSize < 1 || options.maxInFlight < 1) {
+			throw new IllegalArgumentException("Range read options contain an invalid value");
+		}
+
+		var ranges = new ArrayList<Integer>();
+		for (int i = 0; i < offsets.length; ++i) {
+			throwIfInvalidPosition(offsets[i]);
+			if (null == buffers[i]) {
+				throw new IllegalArgumentException("Buffer is null");
+			}
+			if (buffers[i].hasRemaining()) {
+				ranges.add(i);
+			}
+		}
+
+		ranges.sort(Comparator.comparingLong(i -> offsets[i]));
+
+		// Merge nearby ranges.
+		var merged = new ArrayList<MergedRange>();
+		MergedRange current = null;
+		for (var i : ranges) {
+			var start = offsets[i];
+			var end = start + buffers[i].remaining();
+
+			if (null != current && start <= current.end + options.maxGap
+					&& Math.max(end, current.end) - current.start <= options.maxMergedSize) {
+				current.end = Math.max(end, current.end);
+			} else {
+				current = new MergedRange(start, end);
+				merged.add(current);
+			}
+
+			current.members.add(i);
+		}
+
+		// Keep up to maxInFlight seek/read pairs on the connection.
+		IRODSException failure = null;
+		long total = 0;
+		int sent = 0;
+		int received = 0;
+
+		while (received < merged.size()) {
+			while (sent < merged.size() && sent - received < options.maxInFlight) {
+				var m = merged.get(sent++);
+				m.allocate(buffers);
+
+				var input = new OpenedDataObjInp_PI();
+				input.l1descInx = fd;
+				input.len = m.length();
+				input.KeyValPair_PI = new KeyValPair_PI();
+
+				queueSeek(m.start);
+				IRODSApi.sendDataObjReadRequest(comm, input);
+			}
+
+			var m = merged.get(received++);
+			var ec = IRODSApi.receiveDataObjLseekReply(comm, new Reference<>());
+			var bytesRead = IRODSApi.receiveDataObjReadReply(comm, m.data, m.dataOffset);
+
+			if (ec < 0 || bytesRead < 0) {
+				// The remaining replies are still received to keep the connection usable.
+				if (null == failure) {
+					failure = (ec < 0) ? new IRODSException(ec, "rcDataObjLseek error")
+							: new IRODSException(bytesRead, "rcDataObjRead error");
+				}
+				continue;
+			}
+
+			total += m.scatter(offsets, buffers, bytesRead);
+			serverOffset = m.start + bytesRead;
+		}
+
+		if (null != failure) {
+			serverOffset = -1;
+			throw failure;
+		}
+
+		return total;
+	}
+
 	/**
 	 * Returns whether the stream is open.
 	 * 
@@ -427,9 +870,13 @@ public class IRODSDataObjectStream implements AutoCloseable {
 
 		fd = ec; // Remember the L1 descriptor.
 
+		// Replicas opened for appending are positioned at the end.
+		serverOffset = (0 == (openMode & OpenFlags.O_APPEND)) ? 0 : -1;
+
 		// We only maintain a reference to the RcComm if the call to rcReplicaOpen
 		// succeeded. It serves no purpose if the open() operation failed.
 		this.comm = comm;
+		this.logicalPath = logicalPath;
 
 		// Capture information from the L1 descriptor JSON payload.
 		// This information eases parallel transfer initialization.
@@ -447,6 +894,97 @@ public class IRODSDataObjectStream implements AutoCloseable {
 		}
 	}
 
+	// Queues a seek to a position unless the server is known to be there already.
+	// Returns true if a seek was queued.
+	private boolean queueSeekIfNecessary(long position) throws IOException {
+		if (position == serverOffset) {
+			return false;
+		}
+
+		queueSeek(position);
+		return true;
+	}
+
+	private void queueSeek(long position) throws IOException {
+		var input = new OpenedDataObjInp_PI();
+		input.l1descInx = fd;
+		input.offset = position;
+		input.whence = 0; // SEEK_SET
+		input.KeyValPair_PI = new KeyValPair_PI();
+
+		IRODSApi.queueDataObjLseekRequest(comm, input);
+		serverOffset = -1;
+	}
+
+	// A set of ranges which are read using a single read request.
+	private static final class MergedRange {
+		final long start;
+		long end;
+		final List<Integer> members = new ArrayList<>();
+
+		// Receives the bytes of the read.
+		byte[] data;
+		int dataOffset;
+
+		MergedRange(long start, long end) {
+			this.start = start;
+			this.end = end;
+		}
+
+		int length() {
+			return (int) (end - start);
+		}
+
+		void allocate(ByteBuffer[] buffers) {
+			// A lone range backed by an array is read directly into its buffer.
+			if (1 == members.size()) {
+				var b = buffers[members.get(0)];
+				if (b.hasArray()) {
+					data = b.array();
+					dataOffset = b.arrayOffset() + b.position();
+					return;
+				}
+			}
+
+			data = new byte[length()];
+			dataOffset = 0;
+		}
+
+		// Copies the bytes read into the buffers of the members. Returns the number of
+		// bytes copied.
+		long scatter(long[] offsets, ByteBuffer[] buffers, int bytesRead) {
+			long total = 0;
+
+			for (var i : members) {
+				var b = buffers[i];
+				var offsetInData = (int) (offsets[i] - start);
+				var n = Math.max(0, Math.min(b.remaining(), bytesRead - offsetInData));
+
+				if (b.hasArray() && b.array() == data) {
+					b.position(b.position() + n);
+				} else {
+					b.put(data, dataOffset + offsetInData, n);
+				}
+
+				total += n;
+			}
+
+			return total;
+		}
+	}
+
+	private void advanceServerOffset(int count) {
+		if (serverOffset >= 0) {
+			serverOffset += count;
+		}
+	}
+
+	private static void throwIfInvalidPosition(long position) {
+		if (position < 0) {
+			throw new IllegalArgumentException("Position is less than 0");
+		}
+	}
+
 	private static void throwIfInvalidL1Descriptor(int fd) {
 		if (-1 == fd) {
 			throw new IllegalStateException("Stream not open");
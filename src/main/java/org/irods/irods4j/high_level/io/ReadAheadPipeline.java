@@ -0,0 +1,240 @@
+package org.irods.irods4j.high_level.io;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import org.irods.irods4j.low_level.api.IRODSException;
+
+/**
+ * Keeps multiple read requests in flight on the connection of a stream.
+ * <p>
+ * A background thread owns the connection while the pipeline is running. It
+ * sends read requests ahead of the consumer and receives the replies, in
+ * order, into a pair of buffers. This allows the consumer to drain one buffer
+ * while the next one is being filled.
+ * <p>
+ * The stream must not be used for anything else until {@link #stop()} returns.
+ *
+ * @since 0.8.0
+ */
+final class ReadAheadPipeline {
+
+	static final class Block {
+		final byte[] data;
+		final int length;
+
+		private Block(byte[] data, int length) {
+			this.data = data;
+			this.length = length;
+		}
+	}
+
+	// Marks the end of the blocks produced by the background thread.
+	private static final Block END = new Block(null, 0);
+
+	private final IRODSDataObjectStream stream;
+	private final int blockSize;
+	private final int depth;
+
+	private final BlockingQueue<byte[]> free = new ArrayBlockingQueue<>(2);
+	private final BlockingQueue<Block> filled = new LinkedBlockingQueue<>();
+	private final Thread thread;
+
+	private volatile boolean stopped;
+	private volatile Exception failure;
+
+	// The number of bytes received by the background thread which were never
+	// handed to the consumer. Only valid once the thread has terminated.
+	private long bytesDiscarded;
+
+	private boolean endReached;
+
+	/**
+	 * Starts a pipeline.
+	 *
+	 * @param stream  The open stream to read from.
+	 * @param depth   The max number of read requests in flight.
+	 * @param initial A buffer handed over to the pipeline. A second buffer of the
+	 *                same size is allocated. Every read request asks for as many
+	 *                bytes as the buffer can hold.
+	 */
+	ReadAheadPipeline(IRODSDataObjectStream stream, int depth, byte[] initial) {
+		this.stream = stream;
+		this.blockSize = initial.length;
+		this.depth = depth;
+
+		free.add(initial);
+		free.add(new byte[blockSize]);
+
+		thread = new Thread(this::run, "irods4j-read-ahead");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Returns the next block, or null if the end of the data object was reached.
+	 * The buffer of the block must be returned via {@link #release(byte[])} once
+	 * it has been drained.
+	 */
+	Block take() throws IOException {
+		if (endReached) {
+			return null;
+		}
+
+		Block block;
+		try {
+			block = filled.take();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for read-ahead data");
+		}
+
+		if (END == block) {
+			endReached = true;
+			joinThread();
+
+			if (null != failure) {
+				if (failure instanceof IOException) {
+					throw (IOException) failure;
+				}
+				throw new IOException(failure);
+			}
+
+			return null;
+		}
+
+		return block;
+	}
+
+	/**
+	 * Returns a drained buffer to the pipeline.
+	 */
+	void release(byte[] buffer) {
+		free.add(buffer);
+	}
+
+	/**
+	 * Stops the pipeline and waits for the replies of all requests in flight.
+	 *
+	 * @param held A buffer owned by the pipeline which the consumer has not
+	 *             released yet, or null.
+	 *
+	 * @return The number of bytes received from the server which were not handed
+	 *         to the consumer.
+	 */
+	long stop(byte[] held) throws IOException {
+		stopped = true;
+
+		if (null != held) {
+			free.add(held);
+		}
+
+		// Drain the blocks which were not consumed so that the background thread is
+		// never blocked waiting for a free buffer.
+		var pending = 0L;
+		while (!endReached) {
+			Block block;
+			try {
+				block = filled.take();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException("Interrupted while stopping read-ahead");
+			}
+
+			if (END == block) {
+				endReached = true;
+				break;
+			}
+
+			pending += block.length;
+			free.add(block.data);
+		}
+
+		joinThread();
+
+		if (failure instanceof IOException) {
+			// The connection can no longer be trusted.
+			throw (IOException) failure;
+		}
+
+		return pending + bytesDiscarded;
+	}
+
+	private void run() {
+		var inFlight = 0;
+		var endOfData = false;
+		byte[] scratch = null;
+
+		try {
+			while (true) {
+				while (!endOfData && !stopped && inFlight < depth) {
+					stream.sendReadRequest(blockSize);
+					++inFlight;
+				}
+
+				if (0 == inFlight) {
+					break;
+				}
+
+				// Replies to requests sent before the pipeline was stopped are received into
+				// a scratch buffer and dropped.
+				byte[] buffer;
+				if (stopped) {
+					if (null == scratch) {
+						scratch = new byte[blockSize];
+					}
+					buffer = scratch;
+				} else {
+					buffer = free.take();
+				}
+
+				int bytesRead;
+				try {
+					bytesRead = stream.receiveReadReply(buffer, 0);
+				} catch (IRODSException e) {
+					// The connection is still usable. The remaining replies are drained so that
+					// the error is reported after the bytes which preceded it.
+					--inFlight;
+					failure = e;
+					endOfData = true;
+					if (buffer != scratch) {
+						free.add(buffer);
+					}
+					continue;
+				}
+
+				--inFlight;
+
+				if (bytesRead < blockSize) {
+					endOfData = true;
+				}
+
+				if (buffer == scratch) {
+					bytesDiscarded += bytesRead;
+				} else if (null != failure) {
+					bytesDiscarded += bytesRead;
+					free.add(buffer);
+				} else {
+					filled.add(new Block(buffer, bytesRead));
+				}
+			}
+		} catch (IOException | InterruptedException e) {
+			failure = e;
+		} finally {
+			filled.add(END);
+		}
+	}
+
+	private void joinThread() throws InterruptedIOException {
+		try {
+			thread.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for read-ahead thread");
+		}
+	}
+
+}
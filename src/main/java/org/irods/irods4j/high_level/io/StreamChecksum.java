@@ -0,0 +1,169 @@
+package org.irods.irods4j.high_level.io;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import org.irods.irods4j.high_level.catalog.GenQuery2Template;
+import org.irods.irods4j.high_level.vfs.LogicalPath;
+import org.irods.irods4j.low_level.api.IRODSApi.RcComm;
+import org.irods.irods4j.low_level.api.IRODSException;
+
+/**
+ * Computes the checksum of the bytes moved by a stream.
+ * <p>
+ * Hashing runs on a background thread so that it overlaps with network I/O.
+ * The bytes passed to {@link #update(byte[], int, int)} are copied into a small
+ * pool of buffers, so the caller may reuse its array immediately.
+ * <p>
+ * The checksum is only meaningful if the stream moved every byte of the
+ * replica, in order, starting at offset 0. Operations which reposition the
+ * stream must call {@link #invalidate()}.
+ *
+ * @since 0.8.0
+ */
+final class StreamChecksum {
+
+	private static final GenQuery2Template REPLICA_CHECKSUM_BY_PATH = GenQuery2Template.compile(
+			"select DATA_CHECKSUM, DATA_SIZE where COLL_NAME = :coll_name and DATA_NAME = :data_name and DATA_REPL_NUM = :repl_num");
+
+	private static final int CHUNK_SIZE = 256 * 1024;
+	private static final int CHUNK_COUNT = 4;
+
+	private static final class Chunk {
+		final byte[] data;
+		final int length;
+
+		Chunk(byte[] data, int length) {
+			this.data = data;
+			this.length = length;
+		}
+	}
+
+	// Marks the end of the bytes to hash.
+	private static final Chunk END = new Chunk(null, 0);
+
+	private final ChecksumScheme scheme;
+	private final MessageDigest digest;
+
+	private final BlockingQueue<byte[]> free = new ArrayBlockingQueue<>(CHUNK_COUNT);
+	private final BlockingQueue<Chunk> filled = new LinkedBlockingQueue<>();
+	private final Thread thread;
+
+	private boolean valid = true;
+	private String result;
+
+	StreamChecksum(ChecksumScheme scheme) {
+		this.scheme = scheme;
+		this.digest = scheme.newMessageDigest();
+
+		for (int i = 0; i < CHUNK_COUNT; ++i) {
+			free.add(new byte[CHUNK_SIZE]);
+		}
+
+		thread = new Thread(this::run, "irods4j-checksum");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	ChecksumScheme getScheme() {
+		return scheme;
+	}
+
+	boolean isValid() {
+		return valid;
+	}
+
+	// Marks the checksum as meaningless. Bytes passed to update() are ignored from
+	// now on.
+	void invalidate() {
+		valid = false;
+	}
+
+	void update(byte[] b, int off, int len) throws IOException {
+		if (!valid || null != result) {
+			return;
+		}
+
+		try {
+			while (len > 0) {
+				var buffer = free.take();
+				var n = Math.min(len, buffer.length);
+				System.arraycopy(b, off, buffer, 0, n);
+				filled.add(new Chunk(buffer, n));
+				off += n;
+				len -= n;
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for checksum buffer");
+		}
+	}
+
+	// Waits for the background thread and returns the checksum in the format used
+	// by the catalog. Subsequent calls return the same value.
+	String finish() throws IOException {
+		if (null == result) {
+			stopThread();
+			result = scheme.format(digest.digest());
+		}
+
+		return result;
+	}
+
+	// Stops the background thread without producing a checksum.
+	void cancel() throws IOException {
+		valid = false;
+		if (null == result) {
+			stopThread();
+			result = "";
+		}
+	}
+
+	// Returns the checksum and size of a replica, or an empty list if the replica
+	// does not exist.
+	static List<String> fetchCatalogInfo(RcComm comm, String logicalPath, long replicaNumber)
+			throws IOException, IRODSException {
+		var query = REPLICA_CHECKSUM_BY_PATH.bind()
+				.set("coll_name", LogicalPath.parentPath(logicalPath))
+				.set("data_name", LogicalPath.objectName(logicalPath))
+				.set("repl_num", String.valueOf(replicaNumber));
+
+		var segments = LogicalPath.segments(logicalPath);
+		var rows = (segments.size() > 1) ? query.execute(comm, segments.get(1)) : query.execute(comm);
+
+		return rows.isEmpty() ? List.of() : rows.get(0);
+	}
+
+	private void run() {
+		try {
+			while (true) {
+				var chunk = filled.take();
+				if (END == chunk) {
+					break;
+				}
+
+				digest.update(chunk.data, 0, chunk.length);
+				free.add(chunk.data);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void stopThread() throws InterruptedIOException {
+		filled.add(END);
+
+		try {
+			thread.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for checksum thread");
+		}
+	}
+
+}
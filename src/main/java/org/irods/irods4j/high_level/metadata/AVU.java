@@ -0,0 +1,64 @@
+package org.irods.irods4j.high_level.metadata;
+
+/**
+ * A single metadata triple attached to an iRODS entity.
+ * 
+ * @since 0.8.0
+ */
+public final class AVU {
+
+	private String attributeName;
+	private String attributeValue;
+	private String attributeUnits;
+
+	/**
+	 * Initializes a newly created metadata triple.
+	 * 
+	 * @param attributeName  The name of the attribute.
+	 * @param attributeValue The value of the attribute.
+	 * @param attributeUnits The units of the attribute. An empty string if the
+	 *                       attribute has no units.
+	 * 
+	 * @since 0.8.0
+	 */
+	public AVU(String attributeName, String attributeValue, String attributeUnits) {
+		this.attributeName = attributeName;
+		this.attributeValue = attributeValue;
+		this.attributeUnits = (null == attributeUnits) ? "" : attributeUnits;
+	}
+
+	/**
+	 * Returns the name of the attribute.
+	 * 
+	 * @since 0.8.0
+	 */
+	public String getAttributeName() {
+		return attributeName;
+	}
+
+	/**
+	 * Returns the value of the attribute.
+	 * 
+	 * @since 0.8.0
+	 */
+	public String getAttributeValue() {
+		return attributeValue;
+	}
+
+	/**
+	 * Returns the units of the attribute, or an empty string if the attribute has
+	 * no units.
+	 * 
+	 * @since 0.8.0
+	 */
+	public String getAttributeUnits() {
+		return attributeUnits;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("AVU{attributeName=%s, attributeValue=%s, attributeUnits=%s}", attributeName,
+				attributeValue, attributeUnits);
+	}
+
+}
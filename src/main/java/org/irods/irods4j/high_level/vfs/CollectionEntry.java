@@ -1,5 +1,11 @@
 package org.irods.irods4j.high_level.vfs;
 
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import org.irods.irods4j.high_level.metadata.AVU;
+
 /**
  * Holds information about a single logical path inside a collection.
  * 
@@ -17,6 +23,9 @@ public class CollectionEntry implements Comparable<CollectionEntry> {
 	String checksum;
 	String owner;
 	String dataType;
+	List<AVU> metadata;
+	List<EntityPermission> permissions;
+	List<ReplicaInfo> replicas;
 
 	CollectionEntry() {
 	}
@@ -152,6 +161,42 @@ public class CollectionEntry implements Comparable<CollectionEntry> {
 		return dataSize;
 	}
 
+	/**
+	 * Returns the metadata attached to the filesystem object, if it was requested
+	 * when the entry was listed.
+	 * 
+	 * @see IRODSCollectionIterator#includeDetails(IRODSCollectionIterator.EntryDetail...)
+	 * 
+	 * @since 0.8.0
+	 */
+	public Optional<List<AVU>> metadata() {
+		return Optional.ofNullable(metadata).map(Collections::unmodifiableList);
+	}
+
+	/**
+	 * Returns the permissions of the filesystem object, if they were requested
+	 * when the entry was listed.
+	 * 
+	 * @see IRODSCollectionIterator#includeDetails(IRODSCollectionIterator.EntryDetail...)
+	 * 
+	 * @since 0.8.0
+	 */
+	public Optional<List<EntityPermission>> permissions() {
+		return Optional.ofNullable(permissions).map(Collections::unmodifiableList);
+	}
+
+	/**
+	 * Returns the replicas of the data object, if they were requested when the
+	 * entry was listed. Collections never have replicas.
+	 * 
+	 * @see IRODSCollectionIterator#includeDetails(IRODSCollectionIterator.EntryDetail...)
+	 * 
+	 * @since 0.8.0
+	 */
+	public Optional<List<ReplicaInfo>> replicas() {
+		return Optional.ofNullable(replicas).map(Collections::unmodifiableList);
+	}
+
 	/**
 	 * Compares this collection entry with another using the logical path.
 	 * 
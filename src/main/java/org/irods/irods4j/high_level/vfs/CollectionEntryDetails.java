@@ -0,0 +1,162 @@
+package org.irods.irods4j.high_level.vfs;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import org.irods.irods4j.high_level.administration.IRODSUsers;
+import org.irods.irods4j.high_level.catalog.GenQuery2Template;
+import org.irods.irods4j.high_level.catalog.IRODSQuery;
+import org.irods.irods4j.high_level.metadata.AVU;
+import org.irods.irods4j.high_level.vfs.IRODSCollectionIterator.EntryDetail;
+import org.irods.irods4j.low_level.api.IRODSApi.RcComm;
+import org.irods.irods4j.low_level.api.IRODSException;
+
+/**
+ * Holds the metadata, permissions, and replicas of a collection entry which
+ * were fetched in bulk for a page of entries.
+ *
+ * @since 0.8.0
+ */
+final class CollectionEntryDetails {
+
+	// The max number of IDs passed to a single "in (...)" clause.
+	private static final int IDS_PER_QUERY = 256;
+
+	// The max number of rows fetched by a single query.
+	private static final int ROWS_PER_QUERY = 1024;
+
+	private static final GenQuery2Template DATA_OBJECT_METADATA_BY_IDS = GenQuery2Template.compile(
+			"select DATA_ID, META_DATA_ATTR_NAME, META_DATA_ATTR_VALUE, META_DATA_ATTR_UNITS, META_DATA_ATTR_ID where DATA_ID in (:ids) order by DATA_ID, META_DATA_ATTR_ID limit :limit offset :offset");
+
+	private static final GenQuery2Template COLLECTION_METADATA_BY_IDS = GenQuery2Template.compile(
+			"select COLL_ID, META_COLL_ATTR_NAME, META_COLL_ATTR_VALUE, META_COLL_ATTR_UNITS, META_COLL_ATTR_ID where COLL_ID in (:ids) order by COLL_ID, META_COLL_ATTR_ID limit :limit offset :offset");
+
+	private static final GenQuery2Template DATA_OBJECT_ACCESS_BY_IDS = GenQuery2Template.compile(
+			"select DATA_ID, DATA_ACCESS_USER_ID, DATA_ACCESS_PERM_NAME where DATA_ID in (:ids) and DATA_ACCESS_USER_ID is not null order by DATA_ID, DATA_ACCESS_USER_ID limit :limit offset :offset");
+
+	private static final GenQuery2Template COLLECTION_ACCESS_BY_IDS = GenQuery2Template.compile(
+			"select COLL_ID, COLL_ACCESS_USER_ID, COLL_ACCESS_PERM_NAME where COLL_ID in (:ids) and COLL_ACCESS_USER_ID is not null order by COLL_ID, COLL_ACCESS_USER_ID limit :limit offset :offset");
+
+	private static final GenQuery2Template REPLICAS_BY_DATA_IDS = GenQuery2Template.compile(
+			"select DATA_ID, DATA_REPL_NUM, RESC_NAME, DATA_SIZE, DATA_CHECKSUM, DATA_REPL_STATUS, DATA_MODIFY_TIME where DATA_ID in (:ids) order by DATA_ID, DATA_REPL_NUM limit :limit offset :offset");
+
+	private static final GenQuery2Template USER_INFO_BY_USER_IDS = GenQuery2Template.compile(
+			"select USER_ID, USER_NAME, USER_ZONE, USER_TYPE where USER_ID in (:ids) order by USER_ID limit :limit offset :offset");
+
+	List<AVU> metadata = new ArrayList<>();
+	List<EntityPermission> permissions = new ArrayList<>();
+	List<ReplicaInfo> replicas = new ArrayList<>();
+
+	private CollectionEntryDetails() {
+	}
+
+	/**
+	 * Fetches the requested details of every object in a page.
+	 *
+	 * @param comm        The connection to the iRODS server.
+	 * @param zone        The zone to execute the queries against.
+	 * @param collections Whether the page holds collections or data objects.
+	 * @param rows        The rows of the page. The first column of each row must
+	 *                    hold the ID of the object.
+	 * @param include     The details to fetch.
+	 *
+	 * @return The details keyed by object ID. Every object in the page has an
+	 *         entry.
+	 */
+	static Map<String, CollectionEntryDetails> fetch(RcComm comm, String zone, boolean collections,
+			List<List<String>> rows, Set<EntryDetail> include) throws IOException, IRODSException {
+		var details = new HashMap<String, CollectionEntryDetails>();
+		for (var row : rows) {
+			details.computeIfAbsent(row.get(0), k -> new CollectionEntryDetails());
+		}
+
+		if (details.isEmpty() || include.isEmpty()) {
+			return details;
+		}
+
+		var ids = new ArrayList<>(details.keySet());
+
+		if (include.contains(EntryDetail.METADATA)) {
+			var template = collections ? COLLECTION_METADATA_BY_IDS : DATA_OBJECT_METADATA_BY_IDS;
+			execute(comm, zone, template, ids, row -> {
+				details.get(row.get(0)).metadata.add(new AVU(row.get(1), row.get(2), row.get(3)));
+			});
+		}
+
+		if (include.contains(EntryDetail.PERMISSIONS)) {
+			// The permissions are resolved in two steps. The first step collects the ID
+			// of each user having access to an object. The second step resolves the IDs
+			// to user information.
+			var template = collections ? COLLECTION_ACCESS_BY_IDS : DATA_OBJECT_ACCESS_BY_IDS;
+			var access = new ArrayList<List<String>>();
+			var userIds = new LinkedHashSet<String>();
+			execute(comm, zone, template, ids, row -> {
+				access.add(row);
+				userIds.add(row.get(1));
+			});
+
+			var users = new HashMap<String, List<String>>();
+			if (!userIds.isEmpty()) {
+				execute(comm, zone, USER_INFO_BY_USER_IDS, userIds, row -> users.put(row.get(0), row));
+			}
+
+			for (var row : access) {
+				var user = users.get(row.get(1));
+				if (null == user) {
+					continue;
+				}
+
+				var ep = new EntityPermission();
+				ep.name = user.get(1);
+				ep.zone = user.get(2);
+				ep.prms = IRODSFilesystem.toPermissionEnum(row.get(2));
+				ep.type = IRODSUsers.toUserType(user.get(3));
+				details.get(row.get(0)).permissions.add(ep);
+			}
+		}
+
+		if (include.contains(EntryDetail.REPLICAS) && !collections) {
+			execute(comm, zone, REPLICAS_BY_DATA_IDS, ids, row -> {
+				var r = new ReplicaInfo();
+				r.replicaNumber = Long.parseLong(row.get(1));
+				r.leafResourceName = row.get(2);
+				r.size = Long.parseLong(row.get(3));
+				r.checksum = row.get(4);
+				r.status = Integer.parseInt(row.get(5));
+				r.mtime = Long.parseLong(row.get(6));
+				details.get(row.get(0)).replicas.add(r);
+			});
+		}
+
+		return details;
+	}
+
+	// Executes a template against chunks of IDs, paging through the results of
+	// each chunk.
+	private static void execute(RcComm comm, String zone, GenQuery2Template template, Collection<String> ids,
+			Consumer<List<String>> rowHandler) throws IOException, IRODSException {
+		var query = template.bind().set("limit", ROWS_PER_QUERY);
+		var idList = new ArrayList<>(ids);
+
+		for (int i = 0; i < idList.size(); i += IDS_PER_QUERY) {
+			query.set("ids", idList.subList(i, Math.min(i + IDS_PER_QUERY, idList.size())));
+
+			for (int offset = 0;; offset += ROWS_PER_QUERY) {
+				var rows = IRODSQuery.executeGenQuery2(comm, zone, query.set("offset", offset).toQueryString());
+				rows.forEach(rowHandler);
+
+				if (rows.size() < ROWS_PER_QUERY) {
+					break;
+				}
+			}
+		}
+	}
+
+}
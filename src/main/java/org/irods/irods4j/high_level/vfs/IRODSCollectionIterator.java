@@ -1,12 +1,21 @@
 package org.irods.irods4j.high_level.vfs;
 
 import java.io.IOException;
+import java.util.EnumSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.irods.irods4j.high_level.catalog.GenQuery2Template;
 import org.irods.irods4j.high_level.catalog.IRODSQuery;
+import org.irods.irods4j.high_level.connection.IRODSConnectionPool;
 import org.irods.irods4j.high_level.vfs.ObjectStatus.ObjectType;
 import org.irods.irods4j.low_level.api.IRODSException;
 import org.irods.irods4j.low_level.api.IRODSApi.RcComm;
@@ -24,34 +33,119 @@ public class IRODSCollectionIterator implements Iterable<CollectionEntry> {
 
 	private static final int DEFAULT_NUMBER_OF_ROWS_PER_PAGE = 512;
 
+	static final GenQuery2Template DATA_OBJECTS_FIRST_PAGE = GenQuery2Template.compile(
+			"select DATA_ID, DATA_NAME, DATA_SIZE, DATA_CHECKSUM, DATA_MODE, DATA_CREATE_TIME, DATA_MODIFY_TIME, DATA_REPL_STATUS where COLL_NAME = :coll_name order by DATA_ID, DATA_REPL_STATUS desc, DATA_MODIFY_TIME desc limit :limit");
+
+	static final GenQuery2Template DATA_OBJECTS_NEXT_PAGE = GenQuery2Template.compile(
+			"select DATA_ID, DATA_NAME, DATA_SIZE, DATA_CHECKSUM, DATA_MODE, DATA_CREATE_TIME, DATA_MODIFY_TIME, DATA_REPL_STATUS where COLL_NAME = :coll_name and DATA_ID > :last_id order by DATA_ID, DATA_REPL_STATUS desc, DATA_MODIFY_TIME desc limit :limit");
+
+	static final GenQuery2Template COLLECTIONS_FIRST_PAGE = GenQuery2Template.compile(
+			"select COLL_ID, COLL_NAME, COLL_CREATE_TIME, COLL_MODIFY_TIME where COLL_PARENT_NAME = :coll_name order by COLL_ID limit :limit");
+
+	static final GenQuery2Template COLLECTIONS_NEXT_PAGE = GenQuery2Template.compile(
+			"select COLL_ID, COLL_NAME, COLL_CREATE_TIME, COLL_MODIFY_TIME where COLL_PARENT_NAME = :coll_name and COLL_ID > :last_id order by COLL_ID limit :limit");
+
 	private RcComm comm;
+	private IRODSConnectionPool pool;
+	private Executor executor;
 	private String logicalPath;
 	private int rowsPerPage;
+	private PagingOptions pagingOptions;
 
 	@SuppressWarnings("unused")
 	private CollectionOptions collOptions;
 
+	// The details fetched in bulk for each page.
+	private EnumSet<EntryDetail> includedDetails = EnumSet.noneOf(EntryDetail.class);
+
+	// Holds the details of the objects in the current page, keyed by object ID.
+	private Map<String, CollectionEntryDetails> details;
+
+	// Describes the page held by the iterator.
+	private PageRequest currentRequest;
+
 	// Holds a reference to the current query results.
 	private List<List<String>> rows;
 
 	// The index of a row within the query results.
 	private int rowIndex = 0;
 
-	// Instructs the iterator to include a condition which allows the query to
-	// return the next set of rows.
-	private boolean addPivotCondition = false;
+	// Indicates whether the row at the current index has been returned by the
+	// iterator. This allows hasNext() to be called any number of times.
+	private boolean rowConsumed = true;
 
-	// Instructs the iterator to query for collections. See the iterator
-	// implementation for details on when this gets set to true.
-	private boolean searchForCollections = false;
+	// The page being fetched in the background, if any.
+	private PrefetchedPage prefetchedPage;
 
-	// Used to build up a query string efficiently. The query which exists in the
-	// buffer is used to fetch the next page.
-	private StringBuilder querySb;
+	// Used to build up the query strings efficiently. Each binding reuses its
+	// buffer when the next page is fetched.
+	private GenQuery2Template.Binding dataObjectsFirstPageQuery;
+	private GenQuery2Template.Binding dataObjectsNextPageQuery;
+	private GenQuery2Template.Binding collectionsFirstPageQuery;
+	private GenQuery2Template.Binding collectionsNextPageQuery;
 
 	// Aids in deduplication of data objects during iteration.
 	private String lastObjectId = "";
 
+	// Identifies a page of rows. Pages of data objects are fetched first, followed
+	// by pages of collections. A null last ID identifies the first page.
+	private static record PageRequest(boolean collections, String lastId, int limit) {
+	}
+
+	private static record FetchedPage(List<List<String>> rows, Map<String, CollectionEntryDetails> details,
+			long elapsedNanos) {
+	}
+
+	private static record PrefetchedPage(PageRequest request, CompletableFuture<FetchedPage> page) {
+	}
+
+	/**
+	 * Identifies information which can be fetched alongside each page of entries.
+	 * 
+	 * @since 0.8.0
+	 */
+	public static enum EntryDetail {
+		/**
+		 * The metadata attached to each entry. See {@link CollectionEntry#metadata()}.
+		 */
+		METADATA,
+
+		/**
+		 * The permissions of each entry. See {@link CollectionEntry#permissions()}.
+		 * The permissions are also made available through the entry's status.
+		 */
+		PERMISSIONS,
+
+		/**
+		 * The replicas of each data object. See {@link CollectionEntry#replicas()}.
+		 */
+		REPLICAS
+	}
+
+	/**
+	 * Options which control how pages are fetched.
+	 * 
+	 * @since 0.8.0
+	 */
+	public static final class PagingOptions {
+		/**
+		 * The number of rows requested by the first page.
+		 */
+		public int initialRowsPerPage = DEFAULT_NUMBER_OF_ROWS_PER_PAGE;
+
+		/**
+		 * Instructs the iterator to adjust the number of rows per page based on how
+		 * long each page takes to arrive. The number of rows is doubled when a full
+		 * page arrives in less than half of the target latency and halved when a page
+		 * takes longer than the target latency.
+		 */
+		public boolean adaptivePageSize = true;
+
+		public int minRowsPerPage = 128;
+		public int maxRowsPerPage = 16384;
+		public long targetPageLatencyMillis = 250;
+	}
+
 	/**
 	 * Options which affect the behavior of the iterator.
 	 * 
@@ -162,8 +256,116 @@ public class IRODSCollectionIterator implements Iterable<CollectionEntry> {
 		collOptions = options;
 	}
 
+	/**
+	 * Initializes a newly created iterator which adjusts the number of rows per
+	 * page as described by the paging options.
+	 * 
+	 * @param comm          The connection to the iRODS server.
+	 * @param logicalPath   The absolute path to a collection.
+	 * @param options       Options affecting the behavior of the iterator.
+	 *                      Currently unused.
+	 * @param pagingOptions Options which control how pages are fetched.
+	 * 
+	 * @throws IRODSException
+	 * @throws IOException
+	 * @throws IRODSFilesystemException
+	 * 
+	 * @since 0.8.0
+	 */
+	public IRODSCollectionIterator(RcComm comm, String logicalPath, CollectionOptions options,
+			PagingOptions pagingOptions) throws IRODSFilesystemException, IOException, IRODSException {
+		this(comm, logicalPath, throwIfInvalidPagingOptions(pagingOptions).initialRowsPerPage, options);
+		this.pagingOptions = pagingOptions;
+	}
+
+	/**
+	 * Initializes a newly created iterator which fetches pages in the background.
+	 * <p>
+	 * As soon as a page arrives, the query for the following page is submitted to
+	 * the executor and runs on a connection borrowed from the pool. This allows the
+	 * next page to be fetched while the current page is being consumed. At most
+	 * one page is fetched ahead.
+	 * 
+	 * @param pool          The connection pool providing connections for the
+	 *                      queries.
+	 * @param executor      The executor used to fetch the pages.
+	 * @param logicalPath   The absolute path to a collection.
+	 * @param options       Options affecting the behavior of the iterator.
+	 *                      Currently unused.
+	 * @param pagingOptions Options which control how pages are fetched.
+	 * 
+	 * @throws IRODSException
+	 * @throws IOException
+	 * @throws IRODSFilesystemException
+	 * 
+	 * @since 0.8.0
+	 */
+	public IRODSCollectionIterator(IRODSConnectionPool pool, Executor executor, String logicalPath,
+			CollectionOptions options, PagingOptions pagingOptions)
+			throws IRODSFilesystemException, IOException, IRODSException {
+		if (null == pool) {
+			throw new IllegalArgumentException("Connection pool is null");
+		}
+
+		if (null == executor) {
+			throw new IllegalArgumentException("Executor is null");
+		}
+
+		if (null == logicalPath || logicalPath.isEmpty()) {
+			throw new IllegalArgumentException("Logical path is null or empty");
+		}
+
+		if (null == options) {
+			throw new IllegalArgumentException("Collection options is null");
+		}
+
+		throwIfInvalidPagingOptions(pagingOptions);
+
+		this.pool = pool;
+		this.executor = executor;
+		this.logicalPath = logicalPath;
+		this.rowsPerPage = pagingOptions.initialRowsPerPage;
+		this.pagingOptions = pagingOptions;
+		collOptions = options;
+	}
+
+	/**
+	 * Instructs the iterator to fetch additional information about the entries.
+	 * <p>
+	 * The information is fetched in bulk for each page of entries using a small
+	 * number of queries, rather than one query per entry. This function must be
+	 * called before iteration begins.
+	 * 
+	 * @param details The information to fetch.
+	 * 
+	 * @return This iterator.
+	 * 
+	 * @since 0.8.0
+	 */
+	public IRODSCollectionIterator includeDetails(EntryDetail... details) {
+		if (null == details) {
+			throw new IllegalArgumentException("Entry details is null");
+		}
+
+		if (null != currentRequest) {
+			throw new IllegalStateException("Iteration has already begun");
+		}
+
+		for (var d : details) {
+			if (null == d) {
+				throw new IllegalArgumentException("Entry detail is null");
+			}
+			includedDetails.add(d);
+		}
+
+		return this;
+	}
+
 	/**
 	 * Returns the max number of rows a single page may contain.
+	 * <p>
+	 * If the iterator adjusts the page size, the value returned reflects the size
+	 * of the next page to be requested.
 	 * 
 	 * @since 0.1.0
 	 */
@@ -189,19 +391,22 @@ public class IRODSCollectionIterator implements Iterable<CollectionEntry> {
 			this.iter = iter;
 
 			// Return immediately if the iterator has been previously constructed.
-			if (null != iter.rows) {
+			if (null != iter.dataObjectsFirstPageQuery) {
 				return;
 			}
 
-			iter.rows = null;
-			iter.rowIndex = 0;
-			iter.addPivotCondition = false;
-			iter.searchForCollections = false;
-			iter.querySb = new StringBuilder(512);
+			iter.dataObjectsFirstPageQuery = DATA_OBJECTS_FIRST_PAGE.bind();
+			iter.dataObjectsNextPageQuery = DATA_OBJECTS_NEXT_PAGE.bind();
+			iter.collectionsFirstPageQuery = COLLECTIONS_FIRST_PAGE.bind();
+			iter.collectionsNextPageQuery = COLLECTIONS_NEXT_PAGE.bind();
 		}
 
 		@Override
 		public boolean hasNext() {
+			if (!iter.rowConsumed) {
+				return true;
+			}
+
 			// We're working with an existing set of rows.
 			if (null != iter.rows) {
 				// Find the next object, skipping over objects sharing the same object ID.
@@ -210,140 +415,274 @@ public class IRODSCollectionIterator implements Iterable<CollectionEntry> {
 					var objectId = iter.rows.get(iter.rowIndex).get(0);
 					if (!iter.lastObjectId.equals(objectId)) {
 						iter.lastObjectId = objectId;
+						iter.rowConsumed = false;
 						return true;
 					}
 				}
-
-				// This is an optimization which avoids an unnecessary network call to the
-				// server just to detect an empty resultset. If the number of rows in the
-				// current page is less than the max number of rows that can be held by a page,
-				// then we know there's no point in querying the catalog again. The query would
-				// simply return an empty resultset.
-				if (iter.rows.size() < iter.rowsPerPage) {
-					if (iter.searchForCollections) {
-						return false;
-					} else {
-						iter.searchForCollections = true;
-						iter.addPivotCondition = false;
-					}
-				} else {
-					// At this point, we know we need the next page of data.
-					iter.addPivotCondition = true;
-				}
-
-				// Unlike the constructor, the row index must be set to the first row since it
-				// will be used to retrieve an entry from the page, if rows exist.
-				iter.rowIndex = 0;
 			}
 
 			//
 			// We've iterated over all rows of the current page and need more data.
 			//
 
-			if (!iter.searchForCollections) {
-				iter.querySb.delete(0, iter.querySb.length());
-				iter.querySb.append(
-						"select DATA_ID, DATA_NAME, DATA_SIZE, DATA_CHECKSUM, DATA_MODE, DATA_CREATE_TIME, DATA_MODIFY_TIME, DATA_REPL_STATUS where COLL_NAME = '");
-				iter.querySb.append(iter.logicalPath);
-				iter.querySb.append("'");
-
-				// All rows have been visited within the current page.
-				if (iter.addPivotCondition) {
-					iter.addPivotCondition = false;
-
-					// Update the query to find the next page of rows. The next page begins after
-					// the ID of the last row within the current set of rows.
-					iter.querySb.append(" and DATA_ID > '");
-					iter.querySb.append(iter.rows.get(iter.rows.size() - 1).get(0));
-					iter.querySb.append("' order by DATA_ID, DATA_REPL_STATUS desc, DATA_MODIFY_TIME desc limit ");
-					iter.querySb.append(iter.rowsPerPage);
-				} else {
-					iter.querySb.append(" order by DATA_ID, DATA_REPL_STATUS desc, DATA_MODIFY_TIME desc limit ");
-					iter.querySb.append(iter.rowsPerPage);
+			while (true) {
+				var request = iter.nextRequest();
+				if (null == request) {
+					return false;
 				}
 
+				FetchedPage page;
 				try {
-					iter.rows = IRODSQuery.executeGenQuery2(iter.comm, iter.comm.proxyUserZone,
-							iter.querySb.toString());
-					if (!iter.rows.isEmpty()) {
-						iter.lastObjectId = iter.rows.get(0).get(0);
-						return true;
-					}
-
-					iter.searchForCollections = true;
-					iter.rowIndex = 0;
+					page = iter.fetchPage(request);
 				} catch (IOException | IRODSException e) {
 					log.error(e.getMessage());
-				}
-			}
-
-			if (iter.searchForCollections) {
-				iter.querySb.delete(0, iter.querySb.length());
-				iter.querySb.append(
-						"select COLL_ID, COLL_NAME, COLL_CREATE_TIME, COLL_MODIFY_TIME where COLL_PARENT_NAME = '");
-				iter.querySb.append(iter.logicalPath);
-				iter.querySb.append("'");
-
-				// All rows have been visited within the current page.
-				if (iter.addPivotCondition) {
-					iter.addPivotCondition = false;
-
-					// Update the query to find the next page of rows. The next page begins after
-					// the ID of the last row within the current set of rows.
-					iter.querySb.append(" and COLL_ID > '");
-					iter.querySb.append(iter.rows.get(iter.rows.size() - 1).get(0));
-					iter.querySb.append("' order by COLL_ID limit ");
-					iter.querySb.append(iter.rowsPerPage);
-				} else {
-					iter.querySb.append(" order by COLL_ID limit ");
-					iter.querySb.append(iter.rowsPerPage);
+					return false;
 				}
 
-				try {
-					iter.rows = IRODSQuery.executeGenQuery2(iter.comm, iter.comm.proxyUserZone,
-							iter.querySb.toString());
-					// Terminate because collections are processed after data objects.
-					if (!iter.rows.isEmpty()) {
-						iter.lastObjectId = iter.rows.get(0).get(0);
-						return true;
-					}
-				} catch (IOException | IRODSException e) {
-					log.error(e.getMessage());
+				iter.currentRequest = request;
+				iter.rows = page.rows();
+				iter.details = page.details();
+				iter.rowIndex = 0;
+				iter.adjustRowsPerPage(request, page);
+				iter.prefetchNextPage();
+
+				// A new page never begins with the object which ended the previous page, so
+				// the first row can be returned without checking for duplicates.
+				if (!iter.rows.isEmpty()) {
+					iter.lastObjectId = iter.rows.get(0).get(0);
+					iter.rowConsumed = false;
+					return true;
 				}
 			}
-
-			return false;
 		}
 
 		@Override
 		public CollectionEntry next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+
+			iter.rowConsumed = true;
+
 			var row = iter.rows.get(iter.rowIndex);
-			var e = new CollectionEntry();
+			var entry = iter.currentRequest.collections() ? toCollectionEntry(row)
+					: toDataObjectEntry(iter.logicalPath, row);
+
+			if (null != iter.details) {
+				iter.attachDetails(entry);
+			}
 
-			if (iter.searchForCollections) {
-				e.dataId = row.get(0);
-				e.path = row.get(1);
-				e.ctime = Long.parseLong(row.get(2));
-				e.mtime = Long.parseLong(row.get(3));
-				e.status = new ObjectStatus();
-				e.status.setType(ObjectType.COLLECTION);
+			return entry;
+		}
+
+	}
 
-				return e;
+	// Returns the page which follows the current page, or null if all pages have
+	// been visited.
+	private PageRequest nextRequest() {
+		if (null == currentRequest) {
+			return new PageRequest(false, null, rowsPerPage);
+		}
+
+		// This is an optimization which avoids an unnecessary network call to the
+		// server just to detect an empty resultset. If the number of rows in the
+		// current page is less than the max number of rows that can be held by a page,
+		// then we know there's no point in querying the catalog again. The query would
+		// simply return an empty resultset.
+		if (rows.size() < currentRequest.limit()) {
+			return currentRequest.collections() ? null : new PageRequest(true, null, rowsPerPage);
+		}
+
+		// The next page begins after the ID of the last row within the current page.
+		return new PageRequest(currentRequest.collections(), rows.get(rows.size() - 1).get(0), rowsPerPage);
+	}
+
+	private String toQueryString(PageRequest request) {
+		GenQuery2Template.Binding query;
+
+		if (null == request.lastId()) {
+			query = request.collections() ? collectionsFirstPageQuery : dataObjectsFirstPageQuery;
+		} else {
+			query = request.collections() ? collectionsNextPageQuery : dataObjectsNextPageQuery;
+			query.set("last_id", request.lastId());
+		}
+
+		return query.set("coll_name", logicalPath).set("limit", request.limit()).toQueryString();
+	}
+
+	private FetchedPage fetchPage(PageRequest request) throws IOException, IRODSException {
+		if (null != prefetchedPage) {
+			var prefetched = prefetchedPage;
+			prefetchedPage = null;
+
+			if (prefetched.request().equals(request)) {
+				return awaitPage(prefetched.page());
 			}
+		}
+
+		var query = toQueryString(request);
+
+		if (null != pool) {
+			return awaitPage(
+					CompletableFuture.supplyAsync(() -> executeOnPooledConnection(request, query), executor));
+		}
 
-			e.dataId = row.get(0);
-			e.path = String.join("/", iter.logicalPath, row.get(1));
-			e.dataSize = Long.parseLong(row.get(2));
-			e.checksum = row.get(3);
-			e.dataMode = Integer.parseInt(row.get(4));
-			e.ctime = Long.parseLong(row.get(5));
-			e.mtime = Long.parseLong(row.get(6));
-			e.status = new ObjectStatus();
-			e.status.setType(ObjectType.DATA_OBJECT);
+		return executeQuery(comm, request, query);
+	}
+
+	private FetchedPage executeQuery(RcComm comm, PageRequest request, String query)
+			throws IOException, IRODSException {
+		var start = System.nanoTime();
+		var rows = IRODSQuery.executeGenQuery2(comm, comm.proxyUserZone, query);
+		var elapsed = System.nanoTime() - start;
+
+		Map<String, CollectionEntryDetails> details = null;
+		if (!includedDetails.isEmpty()) {
+			details = CollectionEntryDetails.fetch(comm, comm.proxyUserZone, request.collections(), rows,
+					includedDetails);
+		}
+
+		return new FetchedPage(rows, details, elapsed);
+	}
+
+	private void attachDetails(CollectionEntry entry) {
+		var d = details.get(entry.dataId);
+		if (null == d) {
+			return;
+		}
+
+		if (includedDetails.contains(EntryDetail.METADATA)) {
+			entry.metadata = d.metadata;
+		}
 
-			return e;
+		if (includedDetails.contains(EntryDetail.PERMISSIONS)) {
+			entry.permissions = d.permissions;
+			entry.status.setPermissions(d.permissions);
 		}
 
+		if (includedDetails.contains(EntryDetail.REPLICAS) && entry.isDataObject()) {
+			entry.replicas = d.replicas;
+		}
+	}
+
+	private void prefetchNextPage() {
+		if (null == pool) {
+			return;
+		}
+
+		var request = nextRequest();
+		if (null == request) {
+			return;
+		}
+
+		// The query string is rendered on the calling thread because the bindings are
+		// not thread-safe.
+		var query = toQueryString(request);
+		prefetchedPage = new PrefetchedPage(request,
+				CompletableFuture.supplyAsync(() -> executeOnPooledConnection(request, query), executor));
+	}
+
+	private FetchedPage executeOnPooledConnection(PageRequest request, String query) {
+		try (var conn = pool.getConnection()) {
+			return executeQuery(conn.getRcComm(), request, query);
+		} catch (RuntimeException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new PageFetchException(e);
+		}
+	}
+
+	private static FetchedPage awaitPage(CompletableFuture<FetchedPage> future) throws IOException, IRODSException {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException(e);
+		} catch (ExecutionException e) {
+			var cause = (e.getCause() instanceof PageFetchException pfe) ? pfe.getCause() : e.getCause();
+			if (cause instanceof IOException ioe) {
+				throw ioe;
+			}
+			if (cause instanceof IRODSException ie) {
+				throw ie;
+			}
+			throw new IOException(cause);
+		}
+	}
+
+	private void adjustRowsPerPage(PageRequest request, FetchedPage page) {
+		if (null == pagingOptions || !pagingOptions.adaptivePageSize) {
+			return;
+		}
+
+		var targetNanos = TimeUnit.MILLISECONDS.toNanos(pagingOptions.targetPageLatencyMillis);
+
+		if (page.elapsedNanos() > targetNanos) {
+			rowsPerPage = Math.max(pagingOptions.minRowsPerPage, request.limit() / 2);
+		} else if (page.rows().size() == request.limit() && page.elapsedNanos() < targetNanos / 2) {
+			rowsPerPage = (int) Math.min(pagingOptions.maxRowsPerPage, 2L * request.limit());
+		}
+	}
+
+	// Carries checked exceptions out of the background tasks.
+	private static final class PageFetchException extends RuntimeException {
+		private static final long serialVersionUID = 1L;
+
+		PageFetchException(Throwable cause) {
+			super(cause);
+		}
+	}
+
+	private static PagingOptions throwIfInvalidPagingOptions(PagingOptions options) {
+		if (null == options) {
+			throw new IllegalArgumentException("Paging options is null");
+		}
+
+		if (options.minRowsPerPage < 1) {
+			throw new IllegalArgumentException("Min rows per page is less than 1");
+		}
+
+		if (options.maxRowsPerPage < options.minRowsPerPage) {
+			throw new IllegalArgumentException("Max rows per page is less than min rows per page");
+		}
+
+		if (options.initialRowsPerPage < options.minRowsPerPage
+				|| options.initialRowsPerPage > options.maxRowsPerPage) {
+			throw new IllegalArgumentException("Initial rows per page is outside of the min/max range");
+		}
+
+		if (options.targetPageLatencyMillis < 1) {
+			throw new IllegalArgumentException("Target page latency is less than 1");
+		}
+
+		return options;
+	}
+
+	// Converts a row produced by the COLLECTIONS_* templates.
+	static CollectionEntry toCollectionEntry(List<String> row) {
+		var e = new CollectionEntry();
+		e.dataId = row.get(0);
+		e.path = row.get(1);
+		e.ctime = Long.parseLong(row.get(2));
+		e.mtime = Long.parseLong(row.get(3));
+		e.status = new ObjectStatus();
+		e.status.setType(ObjectType.COLLECTION);
+		return e;
+	}
+
+	// Converts a row produced by the DATA_OBJECTS_* templates.
+	static CollectionEntry toDataObjectEntry(String collection, List<String> row) {
+		var e = new CollectionEntry();
+		e.dataId = row.get(0);
+		e.path = String.join("/", collection, row.get(1));
+		e.dataSize = Long.parseLong(row.get(2));
+		e.checksum = row.get(3);
+		e.dataMode = Integer.parseInt(row.get(4));
+		e.ctime = Long.parseLong(row.get(5));
+		e.mtime = Long.parseLong(row.get(6));
+		e.status = new ObjectStatus();
+		e.status.setType(ObjectType.DATA_OBJECT);
+		return e;
 	}
 
 }
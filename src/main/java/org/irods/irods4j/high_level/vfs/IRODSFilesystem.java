@@ -1,15 +1,26 @@
 package org.irods.irods4j.high_level.vfs;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.irods.irods4j.common.Reference;
 import org.irods.irods4j.high_level.administration.IRODSUsers;
+import org.irods.irods4j.high_level.catalog.GenQuery2Template;
 import org.irods.irods4j.high_level.catalog.IRODSQuery;
 import org.irods.irods4j.high_level.common.AdminTag;
+import org.irods.irods4j.high_level.io.IRODSDataObjectInputStream;
+import org.irods.irods4j.high_level.io.IRODSDataObjectOutputStream;
+import org.irods.irods4j.high_level.vfs.IRODSCollectionIterator.EntryDetail;
 import org.irods.irods4j.high_level.vfs.ObjectStatus.ObjectType;
 import org.irods.irods4j.low_level.api.IRODSApi;
 import org.irods.irods4j.low_level.api.IRODSApi.RcComm;
@@ -44,6 +55,16 @@ public class IRODSFilesystem {
 		NONE, NO_TRASH
 	}
 
+	/**
+	 * Defines the fields of an {@link ObjectStatus} which require additional
+	 * catalog queries to fetch.
+	 * 
+	 * @since 0.8.0
+	 */
+	public static enum StatusField {
+		PERMISSIONS, INHERITANCE
+	}
+
 	/**
 	 * Defines bitmask values which influence the behavior of a copy operation.
 	 * 
@@ -61,6 +82,38 @@ public class IRODSFilesystem {
 		private static final int IN_RECURSIVE_COPY = 32;
 	}
 
+	/**
+	 * Defines values which influence the behavior of an upload or download.
+	 * 
+	 * @since 0.8.0
+	 */
+	public static final class TransferOptions {
+
+		/**
+		 * The number of bytes moved per request. A value of 0 lets the implementation
+		 * choose a size based on the size of the data.
+		 * 
+		 * @since 0.8.0
+		 */
+		public int bufferSize = 0;
+
+		/**
+		 * The max number of requests in flight on the connection. A value of 0
+		 * disables pipelining.
+		 * 
+		 * @since 0.8.0
+		 */
+		public int pipelineDepth = 4;
+
+		/**
+		 * Replace the target if it already exists.
+		 * 
+		 * @since 0.8.0
+		 */
+		public boolean overwrite = false;
+
+	}
+
 	/**
 	 * Instructs the server to execute operations using rodsadmin level privileges.
 	 * 
@@ -68,6 +121,49 @@ public class IRODSFilesystem {
 	 */
 	public static final AdminTag asAdmin = AdminTag.instance;
 
+	// Used by functions which only need the type of an object.
+	private static final Set<StatusField> NO_STATUS_FIELDS = Collections
+			.unmodifiableSet(EnumSet.noneOf(StatusField.class));
+
+	private static final GenQuery2Template COLL_ID_BY_COLL_NAME = GenQuery2Template
+			.compile("select COLL_ID where COLL_NAME = :coll_name");
+
+	private static final GenQuery2Template DATA_ID_BY_PATH = GenQuery2Template
+			.compile("select DATA_ID where COLL_NAME = :coll_name and DATA_NAME = :data_name");
+
+	private static final GenQuery2Template GOOD_REPLICA_SIZES_BY_PATH = GenQuery2Template.compile(
+			"select DATA_SIZE, DATA_MODIFY_TIME where COLL_NAME = :coll_name and DATA_NAME = :data_name and DATA_REPL_STATUS = '1'");
+
+	private static final GenQuery2Template GOOD_REPLICA_CHECKSUMS_BY_PATH = GenQuery2Template.compile(
+			"select DATA_CHECKSUM, DATA_MODIFY_TIME where COLL_NAME = :coll_name and DATA_NAME = :data_name and DATA_REPL_STATUS = '1'");
+
+	private static final GenQuery2Template GOOD_REPLICA_MAX_MTIME_BY_PATH = GenQuery2Template.compile(
+			"select max(DATA_MODIFY_TIME) where COLL_NAME = :coll_name and DATA_NAME = :data_name and DATA_REPL_STATUS = '1'");
+
+	private static final GenQuery2Template SPECIAL_COLL_INFO_BY_COLL_NAME = GenQuery2Template
+			.compile("select COLL_TYPE, COLL_INFO1, COLL_INFO2 where COLL_NAME = :coll_name");
+
+	private static final GenQuery2Template COLL_MTIME_BY_COLL_NAME = GenQuery2Template
+			.compile("select COLL_MODIFY_TIME where COLL_NAME = :coll_name");
+
+	private static final GenQuery2Template COLL_MTIMES_BY_COLL_NAMES = GenQuery2Template
+			.compile("select COLL_NAME, COLL_MODIFY_TIME where COLL_NAME in (:coll_names) limit :limit");
+
+	private static final GenQuery2Template COLL_INHERITANCE_BY_COLL_NAME = GenQuery2Template
+			.compile("select COLL_INHERITANCE where COLL_NAME = :coll_name");
+
+	private static final GenQuery2Template COLL_INFO_BY_COLL_NAMES = GenQuery2Template.compile(
+			"select COLL_ID, COLL_NAME, COLL_INHERITANCE where COLL_NAME in (:coll_names) order by COLL_ID limit :limit offset :offset");
+
+	private static final GenQuery2Template DATA_IDS_BY_COLL_AND_DATA_NAMES = GenQuery2Template.compile(
+			"select DATA_ID, COLL_NAME, DATA_NAME where COLL_NAME in (:coll_names) and DATA_NAME in (:data_names) order by DATA_ID limit :limit offset :offset");
+
+	private static final GenQuery2Template DATA_ACCESS_BY_PATH = GenQuery2Template.compile(
+			"select DATA_ACCESS_USER_ID, DATA_ACCESS_PERM_NAME where COLL_NAME = :coll_name and DATA_NAME = :data_name and DATA_ACCESS_USER_ID is not null limit 10000");
+
+	private static final GenQuery2Template USER_INFO_BY_USER_IDS = GenQuery2Template
+			.compile("select USER_ID, USER_NAME, USER_ZONE, USER_TYPE where USER_ID in (:user_ids) limit 10000");
+
 	/**
 	 * 
 	 * @param comm
@@ -89,13 +185,13 @@ public class IRODSFilesystem {
 		throwIfPathLengthExceedsLimit(from);
 		throwIfPathLengthExceedsLimit(to);
 
-		var fromStatus = status(comm, from);
+		var fromStatus = statusImpl(comm, from, NO_STATUS_FIELDS);
 		if (!exists(fromStatus)) {
 			throw new IRODSFilesystemException(IRODSErrorCodes.OBJ_PATH_DOES_NOT_EXIST, from,
 					"From/Source path does not exist");
 		}
 
-		var toStatus = status(comm, to);
+		var toStatus = statusImpl(comm, to, NO_STATUS_FIELDS);
 		if (exists(toStatus) && equivalent(comm, from, to)) {
 			throw new IRODSFilesystemException(IRODSErrorCodes.SAME_SRC_DEST_PATHS_ERR, to,
 					"Paths identify the same object");
@@ -204,7 +300,7 @@ public class IRODSFilesystem {
 //		dstInput.oprType = 9; // COPY_DEST - see dataObjInpOut.h
 		dstInput.KeyValPair_PI = new KeyValPair_PI();
 
-		var s = status(comm, to);
+		var s = statusImpl(comm, to, NO_STATUS_FIELDS);
 		if (exists(s)) {
 			if (equivalent(comm, from, to)) {
 				throw new IRODSFilesystemException(IRODSErrorCodes.SAME_SRC_DEST_PATHS_ERR,
@@ -242,6 +338,7 @@ public class IRODSFilesystem {
 		var output = new Reference<TransferStat_PI>();
 
 		var ec = IRODSApi.rcDataObjCopy(comm, input, output);
+		invalidateCachedStatus(comm, to, false);
 		if (ec < 0) {
 			throw new IRODSFilesystemException(ec, "rcDataObjCopy error", from, to);
 		}
@@ -268,6 +365,175 @@ public class IRODSFilesystem {
 		return copyDataObject(comm, from, to, CopyOptions.NONE);
 	}
 
+	/**
+	 * Uploads a local file to a data object.
+	 * <p>
+	 * The file is read through a {@link FileChannel} into a single reusable
+	 * buffer whose contents are sent directly to the connection. Writes are
+	 * pipelined according to {@link TransferOptions#pipelineDepth}.
+	 * 
+	 * @param comm        The connection to the iRODS server.
+	 * @param localPath   The local file to upload.
+	 * @param logicalPath The absolute logical path of the target data object.
+	 * @param options     Options which influence the transfer.
+	 * 
+	 * @return The number of bytes uploaded.
+	 * 
+	 * @throws IRODSFilesystemException If the data object exists and
+	 *                                  {@link TransferOptions#overwrite} is not
+	 *                                  set.
+	 * @throws IOException
+	 * @throws IRODSException
+	 * 
+	 * @since 0.8.0
+	 */
+	public static long upload(RcComm comm, Path localPath, String logicalPath, TransferOptions options)
+			throws IRODSFilesystemException, IOException, IRODSException {
+		throwIfNull(localPath, "Local path is null");
+
+		try (var fc = FileChannel.open(localPath, StandardOpenOption.READ)) {
+			return uploadImpl(comm, logicalPath, options, fc.size(), buffer -> fc.read(ByteBuffer.wrap(buffer)));
+		}
+	}
+
+	/**
+	 * Uploads the remaining bytes of a buffer to a data object.
+	 * <p>
+	 * This is intended for use with a {@link java.nio.MappedByteBuffer}. The
+	 * position of the buffer is advanced by the number of bytes uploaded.
+	 * 
+	 * @param comm        The connection to the iRODS server.
+	 * @param src         The bytes to upload.
+	 * @param logicalPath The absolute logical path of the target data object.
+	 * @param options     Options which influence the transfer.
+	 * 
+	 * @return The number of bytes uploaded.
+	 * 
+	 * @throws IRODSFilesystemException If the data object exists and
+	 *                                  {@link TransferOptions#overwrite} is not
+	 *                                  set.
+	 * @throws IOException
+	 * @throws IRODSException
+	 * 
+	 * @since 0.8.0
+	 */
+	public static long upload(RcComm comm, ByteBuffer src, String logicalPath, TransferOptions options)
+			throws IRODSFilesystemException, IOException, IRODSException {
+		throwIfNull(src, "Byte buffer is null");
+
+		return uploadImpl(comm, logicalPath, options, src.remaining(), buffer -> {
+			if (!src.hasRemaining()) {
+				return -1;
+			}
+			var n = Math.min(buffer.length, src.remaining());
+			src.get(buffer, 0, n);
+			return n;
+		});
+	}
+
+	/**
+	 * Downloads a data object to a local file.
+	 * <p>
+	 * Reads are pipelined according to {@link TransferOptions#pipelineDepth}. The
+	 * bytes are received into the read-ahead buffers of an
+	 * {@link IRODSDataObjectInputStream}, copied into a reusable transfer buffer,
+	 * and written through a {@link FileChannel}.
+	 * <p>
+	 * If the download fails after the local file has been opened, the local file
+	 * is deleted.
+	 * 
+	 * @param comm        The connection to the iRODS server.
+	 * @param logicalPath The absolute logical path of the data object.
+	 * @param localPath   The local file to create.
+	 * @param options     Options which influence the transfer.
+	 * 
+	 * @return The number of bytes downloaded.
+	 * 
+	 * @throws java.nio.file.FileAlreadyExistsException If the local file exists
+	 *                                                   and
+	 *                                                   {@link TransferOptions#overwrite}
+	 *                                                   is not set.
+	 * @throws IRODSFilesystemException                  If the logical path does
+	 *                                                   not identify a data
+	 *                                                   object.
+	 * @throws IOException
+	 * @throws IRODSException
+	 * 
+	 * @since 0.8.0
+	 */
+	public static long download(RcComm comm, String logicalPath, Path localPath, TransferOptions options)
+			throws IRODSFilesystemException, IOException, IRODSException {
+		throwIfNull(localPath, "Local path is null");
+		throwIfNull(options, "Transfer options is null");
+
+		var size = dataObjectSize(comm, logicalPath);
+
+		var openOptions = options.overwrite
+				? EnumSet.of(StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)
+				: EnumSet.of(StandardOpenOption.WRITE, StandardOpenOption.CREATE_NEW);
+
+		// The file is opened outside of the try-block so that an existing file is not
+		// deleted when CREATE_NEW fails.
+		var fc = FileChannel.open(localPath, openOptions);
+
+		try (fc) {
+			return downloadImpl(comm, logicalPath, options, size, (buffer, count) -> {
+				var bb = ByteBuffer.wrap(buffer, 0, count);
+				while (bb.hasRemaining()) {
+					fc.write(bb);
+				}
+			});
+		} catch (IOException | IRODSException | RuntimeException e) {
+			try {
+				Files.deleteIfExists(localPath);
+			} catch (IOException e2) {
+				e.addSuppressed(e2);
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Downloads a data object into a buffer.
+	 * <p>
+	 * This is intended for use with a {@link java.nio.MappedByteBuffer}. The
+	 * position of the buffer is advanced by the number of bytes downloaded. Reads
+	 * are pipelined as described in
+	 * {@link #download(RcComm, String, Path, TransferOptions)}.
+	 * 
+	 * @param comm        The connection to the iRODS server.
+	 * @param logicalPath The absolute logical path of the data object.
+	 * @param dst         The buffer receiving the bytes.
+	 * @param options     Options which influence the transfer.
+	 * 
+	 * @return The number of bytes downloaded.
+	 * 
+	 * @throws IllegalArgumentException If the buffer cannot hold the data object.
+	 * @throws IRODSFilesystemException If the logical path does not identify a
+	 *                                  data object.
+	 * @throws IOException
+	 * @throws IRODSException
+	 * 
+	 * @since 0.8.0
+	 */
+	public static long download(RcComm comm, String logicalPath, ByteBuffer dst, TransferOptions options)
+			throws IRODSFilesystemException, IOException, IRODSException {
+		throwIfNull(dst, "Byte buffer is null");
+		throwIfNull(options, "Transfer options is null");
+
+		var size = dataObjectSize(comm, logicalPath);
+		if (size > dst.remaining()) {
+			throw new IllegalArgumentException("Byte buffer cannot hold the data object");
+		}
+
+		return downloadImpl(comm, logicalPath, options, size, (buffer, count) -> {
+			if (count > dst.remaining()) {
+				throw new IOException("Data object grew during the download");
+			}
+			dst.put(buffer, 0, count);
+		});
+	}
+
 	/**
 	 * 
 	 * @param comm
@@ -290,6 +556,7 @@ public class IRODSFilesystem {
 		input.KeyValPair_PI = new KeyValPair_PI();
 
 		var ec = IRODSApi.rcCollCreate(comm, input);
+		invalidateCachedStatus(comm, path, false);
 		if (ec < 0) {
 			throw new IRODSFilesystemException(ec, "rcCollCreate error", path);
 		}
@@ -319,7 +586,7 @@ public class IRODSFilesystem {
 		throwIfPathLengthExceedsLimit(path);
 		throwIfPathLengthExceedsLimit(existingPath);
 
-		var s = status(comm, existingPath);
+		var s = status(comm, existingPath, StatusField.PERMISSIONS);
 
 		if (!isCollection(s)) {
 			throw new IRODSFilesystemException(IRODSErrorCodes.INVALID_OBJECT_TYPE,
@@ -371,7 +638,15 @@ public class IRODSFilesystem {
 		input.KeyValPair_PI.keyWord.add(IRODSKeywords.RECURSIVE_OPR);
 		input.KeyValPair_PI.svalue.add("");
 
-		return IRODSApi.rcCollCreate(comm, input) == 0;
+		var ec = IRODSApi.rcCollCreate(comm, input);
+
+		// Missing parent collections are created as well, so any negative entries
+		// for them must be dropped.
+		for (var p = path; !p.isEmpty() && !"/".equals(p); p = LogicalPath.parentPath(p)) {
+			invalidateCachedStatus(comm, p, false);
+		}
+
+		return ec == 0;
 	}
 
 	/**
@@ -399,7 +674,7 @@ public class IRODSFilesystem {
 	 */
 	public static boolean exists(RcComm comm, String path)
 			throws IRODSFilesystemException, IOException, IRODSException {
-		return exists(status(comm, path));
+		return exists(statusImpl(comm, path, NO_STATUS_FIELDS));
 	}
 
 	/**
@@ -419,7 +694,7 @@ public class IRODSFilesystem {
 		throwIfNullOrEmpty(path, "Path is null or empty");
 		throwIfPathLengthExceedsLimit(path);
 
-		var query = String.format("select COLL_ID where COLL_NAME = '%s'", LogicalPath.singleQuotesToHex(LogicalPath.parentPath(path)));
+		var query = COLL_ID_BY_COLL_NAME.bind().set("coll_name", LogicalPath.parentPath(path)).toQueryString();
 		var zone = extractZoneFromPath(path);
 		return zone.isPresent()
 			? !IRODSQuery.executeGenQuery2(comm, zone.get(), query).isEmpty()
@@ -443,8 +718,10 @@ public class IRODSFilesystem {
 		throwIfNullOrEmpty(path, "Path is null or empty");
 		throwIfPathLengthExceedsLimit(path);
 
-		var query = String.format("select DATA_ID where COLL_NAME = '%s' and DATA_NAME = '%s'",
-				LogicalPath.singleQuotesToHex(LogicalPath.parentPath(path)), LogicalPath.singleQuotesToHex(LogicalPath.objectName(path)));
+		var query = DATA_ID_BY_PATH.bind()
+				.set("coll_name", LogicalPath.parentPath(path))
+				.set("data_name", LogicalPath.objectName(path))
+				.toQueryString();
 		var zone = extractZoneFromPath(path);
 		return zone.isPresent()
 			? !IRODSQuery.executeGenQuery2(comm, zone.get(), query).isEmpty()
@@ -469,7 +746,7 @@ public class IRODSFilesystem {
 		throwIfNullOrEmpty(path1, "Path 1 is null or empty");
 		throwIfNullOrEmpty(path1, "Path 2 is null or empty");
 
-		var p1Info = stat(comm, path1);
+		var p1Info = stat(comm, path1, NO_STATUS_FIELDS);
 
 		if (p1Info.error < 0) {
 			throw new IRODSFilesystemException(p1Info.error, "Stat error", path1);
@@ -478,7 +755,7 @@ public class IRODSFilesystem {
 		if (0 /* UNKNOWN_OBJ_T */ == p1Info.type) {
 			throw new IRODSFilesystemException(IRODSErrorCodes.OBJ_PATH_DOES_NOT_EXIST, "Path 1 does not exist", path1);
 		}
-		var p2Info = stat(comm, path1);
+		var p2Info = stat(comm, path1, NO_STATUS_FIELDS);
 
 		if (p2Info.error < 0) {
 			throw new IRODSFilesystemException(p2Info.error, "Stat error", path2);
@@ -515,9 +792,10 @@ public class IRODSFilesystem {
 		}
 
 		var zone = extractZoneFromPath(path);
-		var query = String.format(
-				"select DATA_SIZE, DATA_MODIFY_TIME where COLL_NAME = '%s' and DATA_NAME = '%s' and DATA_REPL_STATUS = '1'",
-				LogicalPath.singleQuotesToHex(LogicalPath.parentPath(path)), LogicalPath.singleQuotesToHex(LogicalPath.objectName(path)));
+		var query = GOOD_REPLICA_SIZES_BY_PATH.bind()
+				.set("coll_name", LogicalPath.parentPath(path))
+				.set("data_name", LogicalPath.objectName(path))
+				.toQueryString();
 		var rows = zone.isPresent()
 			? IRODSQuery.executeGenQuery2(comm, zone.get(), query)
 			: IRODSQuery.executeGenQuery2(comm, query);
@@ -544,6 +822,45 @@ public class IRODSFilesystem {
 		return size;
 	}
 
+	/**
+	 * Returns the size of many data objects using a small number of queries.
+	 * <p>
+	 * The paths are grouped by parent collection and looked up in chunks. Only good
+	 * replicas are considered. When a data object has multiple good replicas, the
+	 * size of the most recently modified one is returned.
+	 * <p>
+	 * Paths which do not identify a data object with at least one good replica are
+	 * not included in the result.
+	 *
+	 * @param comm  A connection to the iRODS server.
+	 * @param paths The absolute logical paths identifying data objects.
+	 *
+	 * @return A map containing the size of each data object, keyed by path.
+	 *
+	 * @throws IOException
+	 * @throws IRODSException
+	 *
+	 * @since 0.8.0
+	 */
+	public static Map<String, Long> dataObjectSize(RcComm comm, Collection<String> paths)
+			throws IOException, IRODSException {
+		throwIfNull(comm, "RcComm is null");
+		throwIfNull(paths, "Paths is null");
+
+		var mtimes = new HashMap<String, Long>();
+		var sizes = new HashMap<String, Long>();
+
+		executeBatchDataObjectQuery(comm, paths, "DATA_SIZE, DATA_MODIFY_TIME", (path, row) -> {
+			var mtime = Long.parseLong(row.get(1));
+			if (mtime >= mtimes.getOrDefault(path, 0L)) {
+				mtimes.put(path, mtime);
+				sizes.put(path, Long.parseLong(row.get(0)));
+			}
+		});
+
+		return sizes;
+	}
+
 	/**
 	 * Checks if the filesystem object is a collection.
 	 * 
@@ -572,7 +889,7 @@ public class IRODSFilesystem {
 			throws IRODSFilesystemException, IOException, IRODSException {
 		throwIfNull(comm, "RcComm is null");
 		throwIfNullOrEmpty(path, "Path is null or empty");
-		return isCollection(status(comm, path));
+		return isCollection(statusImpl(comm, path, NO_STATUS_FIELDS));
 	}
 
 	/**
@@ -602,7 +919,7 @@ public class IRODSFilesystem {
 			throws IRODSFilesystemException, IOException, IRODSException {
 		throwIfNull(comm, "RcComm is null");
 		throwIfNullOrEmpty(path, "Path is null or empty");
-		return isDataObject(status(comm, path));
+		return isDataObject(statusImpl(comm, path, NO_STATUS_FIELDS));
 	}
 
 	/**
@@ -632,7 +949,7 @@ public class IRODSFilesystem {
 			throws IRODSFilesystemException, IOException, IRODSException {
 		throwIfNull(comm, "RcComm is null");
 		throwIfNullOrEmpty(path, "Path is null or empty");
-		return isOther(status(comm, path));
+		return isOther(statusImpl(comm, path, NO_STATUS_FIELDS));
 	}
 
 	/**
@@ -651,7 +968,7 @@ public class IRODSFilesystem {
 		throwIfNull(comm, "RcComm is null");
 		throwIfNullOrEmpty(path, "Path is null or empty");
 
-		var query = String.format("select COLL_TYPE, COLL_INFO1, COLL_INFO2 where COLL_NAME = '%s'", LogicalPath.singleQuotesToHex(path));
+		var query = SPECIAL_COLL_INFO_BY_COLL_NAME.bind().set("coll_name", path).toQueryString();
 		var zone = extractZoneFromPath(path);
 
 		var rows = zone.isPresent()
@@ -682,7 +999,7 @@ public class IRODSFilesystem {
 		throwIfNull(comm, "RcComm is null");
 		throwIfNullOrEmpty(path, "Path is null or empty");
 
-		var s = status(comm, path);
+		var s = statusImpl(comm, path, NO_STATUS_FIELDS);
 
 		if (!isCollection(s)) {
 			throw new IRODSFilesystemException(IRODSErrorCodes.CAT_NOT_A_DATAOBJ_AND_NOT_A_COLLECTION,
@@ -715,16 +1032,17 @@ public class IRODSFilesystem {
 		throwIfNull(comm, "RcComm is null");
 		throwIfNullOrEmpty(path, "Path is null or empty");
 
-		var s = status(comm, path);
+		var s = statusImpl(comm, path, NO_STATUS_FIELDS);
 		String query = null;
 
 		if (isDataObject(s)) {
 			// Fetch information for good replicas only.
-			query = String.format(
-					"select max(DATA_MODIFY_TIME) where COLL_NAME = '%s' and DATA_NAME = '%s' and DATA_REPL_STATUS = '1'",
-					LogicalPath.singleQuotesToHex(LogicalPath.parentPath(path)), LogicalPath.singleQuotesToHex(LogicalPath.objectName(path)));
+			query = GOOD_REPLICA_MAX_MTIME_BY_PATH.bind()
+					.set("coll_name", LogicalPath.parentPath(path))
+					.set("data_name", LogicalPath.objectName(path))
+					.toQueryString();
 		} else if (isCollection(s)) {
-			query = String.format("select COLL_MODIFY_TIME where COLL_NAME = '%s'", LogicalPath.singleQuotesToHex(path));
+			query = COLL_MTIME_BY_COLL_NAME.bind().set("coll_name", path).toQueryString();
 		} else {
 			throw new IRODSFilesystemException(IRODSErrorCodes.INVALID_OBJECT_TYPE,
 					"Path does not identify a data object or collection", path);
@@ -741,6 +1059,78 @@ public class IRODSFilesystem {
 		throw new IRODSFilesystemException(IRODSErrorCodes.CAT_NO_ROWS_FOUND, "Modify time unavailable", path);
 	}
 
+	/**
+	 * Returns the time of the last modification to many filesystem objects as epoch
+	 * seconds, using a small number of queries.
+	 * <p>
+	 * Data objects are looked up first, grouped by parent collection. Only good
+	 * replicas are considered. Paths which are not resolved as data objects are then
+	 * looked up as collections, grouped by zone.
+	 * <p>
+	 * Paths which do not identify a collection or a data object with at least one
+	 * good replica are not included in the result.
+	 *
+	 * @param comm  A connection to the iRODS server.
+	 * @param paths The absolute logical paths identifying collections or data
+	 *              objects.
+	 *
+	 * @return A map containing the modification time of each filesystem object,
+	 *         keyed by path.
+	 *
+	 * @throws IOException
+	 * @throws IRODSException
+	 *
+	 * @since 0.8.0
+	 */
+	public static Map<String, Long> lastWriteTime(RcComm comm, Collection<String> paths)
+			throws IOException, IRODSException {
+		throwIfNull(comm, "RcComm is null");
+		throwIfNull(paths, "Paths is null");
+
+		var mtimes = new HashMap<String, Long>();
+
+		executeBatchDataObjectQuery(comm, paths, "DATA_MODIFY_TIME",
+				(path, row) -> mtimes.merge(path, Long.parseLong(row.get(0)), Math::max));
+
+		// Group the remaining paths by zone so that collections can be resolved using
+		// one query per chunk. The catalog only knows normalized paths.
+		var originalPaths = new HashMap<String, List<String>>();
+		for (var path : paths) {
+			if (!mtimes.containsKey(path)) {
+				originalPaths.computeIfAbsent(lexicallyNormal(path), k -> new ArrayList<>()).add(path);
+			}
+		}
+
+		var pathsByZone = new HashMap<String, List<String>>();
+		for (var path : originalPaths.keySet()) {
+			var zone = extractZoneFromPath(path);
+			pathsByZone.computeIfAbsent(zone.orElse(""), k -> new ArrayList<>()).add(path);
+		}
+
+		var binding = COLL_MTIMES_BY_COLL_NAMES.bind();
+
+		for (var entry : pathsByZone.entrySet()) {
+			var zone = entry.getKey();
+			var zonePaths = entry.getValue();
+
+			for (int i = 0; i < zonePaths.size(); i += BATCH_LOOKUP_CHUNK_SIZE) {
+				var chunk = zonePaths.subList(i, Math.min(i + BATCH_LOOKUP_CHUNK_SIZE, zonePaths.size()));
+				var query = binding.set("coll_names", chunk).set("limit", chunk.size()).toQueryString();
+				var rows = zone.isEmpty()
+					? IRODSQuery.executeGenQuery2(comm, query)
+					: IRODSQuery.executeGenQuery2(comm, zone, query);
+				for (var row : rows) {
+					var mtime = Long.parseLong(row.get(1));
+					for (var path : originalPaths.getOrDefault(row.get(0), List.of())) {
+						mtimes.put(path, mtime);
+					}
+				}
+			}
+		}
+
+		return mtimes;
+	}
+
 	/**
 	 * 
 	 * @param comm
@@ -919,6 +1309,8 @@ public class IRODSFilesystem {
 		input.DataObjInp_PI[1].KeyValPair_PI = new KeyValPair_PI();
 
 		var ec = IRODSApi.rcDataObjRename(comm, input);
+		invalidateCachedStatus(comm, oldPath, true);
+		invalidateCachedStatus(comm, newPath, true);
 		if (ec < 0) {
 			throw new IRODSFilesystemException(ec, "rcDataObjRename error", oldPath, newPath);
 		}
@@ -940,19 +1332,82 @@ public class IRODSFilesystem {
 	 */
 	public static ObjectStatus status(RcComm comm, String path)
 			throws IOException, IRODSException, IRODSFilesystemException {
+		return statusImpl(comm, path, EnumSet.allOf(StatusField.class));
+	}
+
+	/**
+	 * Returns the status of a filesystem object, fetching only the fields
+	 * requested.
+	 * <p>
+	 * The type of the object is always fetched. Fields which are not requested
+	 * are fetched from the catalog on first access (e.g. via
+	 * {@link ObjectStatus#getPermissions()}) using the connection passed to this
+	 * function. The connection must therefore remain open and must not be in use
+	 * by another thread when a pending field is accessed. Passing no fields
+	 * reduces the cost of the call to a single round trip, which is ideal for
+	 * existence and type checks.
+	 * 
+	 * @param comm   A connection to the iRODS server.
+	 * @param path   A path identifying the filesystem object.
+	 * @param fields The fields to fetch in addition to the object type.
+	 * 
+	 * @throws IOException
+	 * @throws IRODSException
+	 * @throws IRODSFilesystemException
+	 * 
+	 * @since 0.8.0
+	 */
+	public static ObjectStatus status(RcComm comm, String path, StatusField... fields)
+			throws IOException, IRODSException, IRODSFilesystemException {
+		throwIfNull(fields, "Status fields is null");
+
+		var requestedFields = EnumSet.noneOf(StatusField.class);
+		for (var f : fields) {
+			throwIfNull(f, "Status field is null");
+			requestedFields.add(f);
+		}
+
+		return statusImpl(comm, path, requestedFields);
+	}
+
+	private static ObjectStatus statusImpl(RcComm comm, String path, Set<StatusField> fields)
+			throws IOException, IRODSException, IRODSFilesystemException {
 		throwIfNull(comm, "RcComm is null");
 		throwIfNullOrEmpty(path, "Path is null or empty");
 		throwIfPathLengthExceedsLimit(path);
 
-		var s = stat(comm, path);
+		var cached = getCachedStatus(comm, path, fields);
+		if (cached.isPresent()) {
+			return cached.get();
+		}
+
+		var s = stat(comm, path, fields);
 		if (s.error < 0) {
 			throw new IRODSFilesystemException(s.error, "Stat error");
 		}
 
 		var status = new ObjectStatus();
-		status.setPermissions(s.prms);
+		status.setPermissions(null != s.prms ? s.prms : new ArrayList<>());
 		status.setInheritance(s.inheritance);
 
+		// Fields which were not requested are loaded on first access. Inheritance only
+		// applies to collections, so it is never pending for data objects.
+		var pendingFields = EnumSet.noneOf(StatusField.class);
+		if (1 /* DATA_OBJ_T */ == s.type || 2 /* COLL_OBJ_T */ == s.type) {
+			for (var f : StatusField.values()) {
+				if (!fields.contains(f)) {
+					pendingFields.add(f);
+				}
+			}
+
+			if (2 /* COLL_OBJ_T */ != s.type) {
+				pendingFields.remove(StatusField.INHERITANCE);
+			}
+		}
+		if (!pendingFields.isEmpty()) {
+			status.setPendingFields(pendingFields, statusFieldLoader(comm, path, s.type));
+		}
+
 		// TODO From the C++ implementation:
 		//
 		// This does not handle the case of ObjectType.UNKNOWN. This type means a file
@@ -981,9 +1436,31 @@ public class IRODSFilesystem {
 			break;
 		}
 
+		ObjectStatusCache.attachedTo(comm).ifPresent(c -> c.put(path, status));
+
 		return status;
 	}
 
+	// Returns the status held by the cache attached to the connection. Fields the
+	// cached status does not hold are loaded on first access using the connection.
+	private static Optional<ObjectStatus> getCachedStatus(RcComm comm, String path, Set<StatusField> fields) {
+		var cache = ObjectStatusCache.attachedTo(comm);
+		if (cache.isEmpty()) {
+			return Optional.empty();
+		}
+
+		var cached = cache.get().get(path, fields);
+		cached.ifPresent(status -> {
+			var pendingFields = status.getPendingFields();
+			if (!pendingFields.isEmpty()) {
+				var objectType = isCollection(status) ? 2 /* COLL_OBJ_T */ : 1 /* DATA_OBJ_T */;
+				status.setPendingFields(pendingFields, statusFieldLoader(comm, path, objectType));
+			}
+		});
+
+		return cached;
+	}
+
 	/**
 	 * Checks if the filesystem object's type is known.
 	 * 
@@ -1020,9 +1497,10 @@ public class IRODSFilesystem {
 					"Logical path does not point to a data object", path);
 		}
 
-		var query = String.format(
-				"select DATA_CHECKSUM, DATA_MODIFY_TIME where COLL_NAME = '%s' and DATA_NAME = '%s' and DATA_REPL_STATUS = '1'",
-				LogicalPath.singleQuotesToHex(LogicalPath.parentPath(path)), LogicalPath.singleQuotesToHex(LogicalPath.objectName(path)));
+		var query = GOOD_REPLICA_CHECKSUMS_BY_PATH.bind()
+				.set("coll_name", LogicalPath.parentPath(path))
+				.set("data_name", LogicalPath.objectName(path))
+				.toQueryString();
 		var zone = extractZoneFromPath(path);
 
 		var latestMtime = 0L;
@@ -1048,6 +1526,457 @@ public class IRODSFilesystem {
 		return checksum;
 	}
 
+	/**
+	 * Returns the checksum of many data objects using a small number of queries.
+	 * <p>
+	 * The paths are grouped by parent collection and looked up in chunks. Only good
+	 * replicas are considered. When a data object has multiple good replicas, the
+	 * checksum of the most recently modified one is returned. The checksum will be
+	 * empty if that replica does not have one.
+	 * <p>
+	 * Paths which do not identify a data object with at least one good replica are
+	 * not included in the result.
+	 *
+	 * @param comm  A connection to the iRODS server.
+	 * @param paths The absolute logical paths identifying data objects.
+	 *
+	 * @return A map containing the checksum of each data object, keyed by path.
+	 *
+	 * @throws IOException
+	 * @throws IRODSException
+	 *
+	 * @since 0.8.0
+	 */
+	public static Map<String, String> dataObjectChecksum(RcComm comm, Collection<String> paths)
+			throws IOException, IRODSException {
+		throwIfNull(comm, "RcComm is null");
+		throwIfNull(paths, "Paths is null");
+
+		var mtimes = new HashMap<String, Long>();
+		var checksums = new HashMap<String, String>();
+
+		executeBatchDataObjectQuery(comm, paths, "DATA_CHECKSUM, DATA_MODIFY_TIME", (path, row) -> {
+			var mtime = Long.parseLong(row.get(1));
+			if (mtime >= mtimes.getOrDefault(path, 0L)) {
+				mtimes.put(path, mtime);
+				checksums.put(path, row.get(0));
+			}
+		});
+
+		return checksums;
+	}
+
+	/**
+	 * Returns the status of many filesystem objects using a small number of
+	 * queries.
+	 * <p>
+	 * The paths are looked up in chunks. Each chunk costs one query for the
+	 * collections and one query for the data objects, no matter how many parent
+	 * collections the chunk spans. The inheritance flag of collections is fetched
+	 * by the same queries. When {@link StatusField#PERMISSIONS} is requested, the
+	 * permissions of each chunk are fetched in bulk. Otherwise, they are fetched on
+	 * first access as described by {@link #status(RcComm, String, StatusField...)}.
+	 * <p>
+	 * The lookups are made against the catalog, so objects the user is not allowed
+	 * to see and objects within special collections (e.g. mounted collections) are
+	 * reported as {@link ObjectType#NOT_FOUND}. Use
+	 * {@link #status(RcComm, String, StatusField...)} for such paths.
+	 * <p>
+	 * Paths are normalized before they are looked up (e.g. trailing slashes are
+	 * removed), and statuses are cached by normalized path. The returned map is
+	 * keyed by the paths as given.
+	 *
+	 * @param comm   A connection to the iRODS server.
+	 * @param paths  The absolute logical paths identifying filesystem objects.
+	 * @param fields The fields to fetch in addition to the object type.
+	 *
+	 * @return A map containing the status of each path, keyed by path.
+	 *
+	 * @throws IOException
+	 * @throws IRODSException
+	 *
+	 * @since 0.8.0
+	 */
+	public static Map<String, ObjectStatus> status(RcComm comm, Collection<String> paths, StatusField... fields)
+			throws IOException, IRODSException {
+		throwIfNull(comm, "RcComm is null");
+		throwIfNull(paths, "Paths is null");
+		throwIfNull(fields, "Status fields is null");
+
+		var requestedFields = EnumSet.noneOf(StatusField.class);
+		for (var f : fields) {
+			throwIfNull(f, "Status field is null");
+			requestedFields.add(f);
+		}
+
+		var cache = ObjectStatusCache.attachedTo(comm);
+		var pathsByZone = new HashMap<String, List<String>>();
+
+		// The catalog only knows normalized paths. Statuses are resolved and cached
+		// by normalized path, and returned keyed by the caller's paths.
+		var statuses = new HashMap<String, ObjectStatus>();
+		var normalizedPaths = new HashMap<String, String>();
+
+		for (var originalPath : paths) {
+			throwIfNullOrEmpty(originalPath, "Path is null or empty");
+			throwIfPathLengthExceedsLimit(originalPath);
+
+			if (normalizedPaths.containsKey(originalPath)) {
+				continue;
+			}
+
+			var path = lexicallyNormal(originalPath);
+			normalizedPaths.put(originalPath, path);
+
+			if (statuses.containsKey(path)) {
+				continue;
+			}
+
+			var cached = getCachedStatus(comm, path, requestedFields);
+			if (cached.isPresent()) {
+				statuses.put(path, cached.get());
+				continue;
+			}
+
+			// The root collection does not belong to a zone, so it cannot be part of a
+			// batch.
+			var zone = extractZoneFromPath(path);
+			if (zone.isEmpty()) {
+				statuses.put(path, statusImpl(comm, path, requestedFields));
+				continue;
+			}
+
+			// Placeholder which prevents duplicate paths from being queried twice.
+			statuses.put(path, null);
+			pathsByZone.computeIfAbsent(zone.get(), k -> new ArrayList<>()).add(path);
+		}
+
+		for (var entry : pathsByZone.entrySet()) {
+			var zonePaths = entry.getValue();
+			for (int i = 0; i < zonePaths.size(); i += BATCH_LOOKUP_CHUNK_SIZE) {
+				var chunk = zonePaths.subList(i, Math.min(i + BATCH_LOOKUP_CHUNK_SIZE, zonePaths.size()));
+				lookupStatuses(comm, entry.getKey(), chunk, requestedFields, statuses);
+			}
+
+			for (var path : zonePaths) {
+				var status = statuses.get(path);
+				if (null == status) {
+					status = new ObjectStatus(ObjectType.NOT_FOUND, new ArrayList<>());
+					statuses.put(path, status);
+				}
+
+				var st = status;
+				cache.ifPresent(c -> c.put(path, st));
+			}
+		}
+
+		var result = new HashMap<String, ObjectStatus>();
+		normalizedPaths.forEach((originalPath, path) -> result.put(originalPath, statuses.get(path)));
+		return result;
+	}
+
+	/**
+	 * Checks if many filesystem objects are known to the catalog using a small
+	 * number of queries.
+	 * <p>
+	 * See {@link #status(RcComm, Collection, StatusField...)} for details.
+	 *
+	 * @param comm  A connection to the iRODS server.
+	 * @param paths The absolute logical paths identifying filesystem objects.
+	 *
+	 * @return A map containing whether each path exists, keyed by path.
+	 *
+	 * @throws IOException
+	 * @throws IRODSException
+	 *
+	 * @since 0.8.0
+	 */
+	public static Map<String, Boolean> exists(RcComm comm, Collection<String> paths)
+			throws IOException, IRODSException {
+		var result = new HashMap<String, Boolean>();
+		for (var entry : status(comm, paths).entrySet()) {
+			result.put(entry.getKey(), exists(entry.getValue()));
+		}
+		return result;
+	}
+
+	// Resolves the status of a chunk of paths belonging to the same zone. Statuses
+	// are only added to the map for paths which exist.
+	private static void lookupStatuses(RcComm comm, String zone, List<String> paths, Set<StatusField> fields,
+			Map<String, ObjectStatus> statuses) throws IOException, IRODSException {
+		var remaining = new HashSet<>(paths);
+		var includePermissions = fields.contains(StatusField.PERMISSIONS);
+
+		// Collections first. Inheritance only applies to collections and is fetched by
+		// the same query.
+		var collRows = new ArrayList<List<String>>();
+		var collQuery = COLL_INFO_BY_COLL_NAMES.bind().set("coll_names", paths);
+		executePagedQuery(comm, zone, collQuery, row -> {
+			if (remaining.remove(row.get(1))) {
+				collRows.add(row);
+			}
+		});
+
+		// Data objects are matched against the cross product of the parent
+		// collections and names in the chunk. Rows which do not correspond to a
+		// requested path are discarded.
+		var dataRows = new ArrayList<List<String>>();
+		if (!remaining.isEmpty()) {
+			var parents = new HashSet<String>();
+			var names = new HashSet<String>();
+			for (var path : remaining) {
+				parents.add(LogicalPath.parentPath(path));
+				names.add(LogicalPath.objectName(path));
+			}
+
+			var dataQuery = DATA_IDS_BY_COLL_AND_DATA_NAMES.bind()
+					.set("coll_names", parents)
+					.set("data_names", names);
+			var lastDataId = new Reference<String>("");
+			executePagedQuery(comm, zone, dataQuery, row -> {
+				// Skip the rows of additional replicas.
+				if (lastDataId.value.equals(row.get(0))) {
+					return;
+				}
+				lastDataId.value = row.get(0);
+
+				var collPrefix = row.get(1).endsWith("/") ? row.get(1) : row.get(1) + '/';
+				var path = collPrefix + row.get(2);
+				if (remaining.remove(path)) {
+					dataRows.add(List.of(row.get(0), path));
+				}
+			});
+		}
+
+		var collDetails = includePermissions
+				? CollectionEntryDetails.fetch(comm, zone, true, collRows, EnumSet.of(EntryDetail.PERMISSIONS))
+				: null;
+		for (var row : collRows) {
+			var path = row.get(1);
+			var status = new ObjectStatus(ObjectType.COLLECTION, new ArrayList<>());
+			status.setInheritance("1".equals(row.get(2)));
+			if (includePermissions) {
+				status.setPermissions(collDetails.get(row.get(0)).permissions);
+			} else {
+				status.setPendingFields(EnumSet.of(StatusField.PERMISSIONS),
+						statusFieldLoader(comm, path, 2 /* COLL_OBJ_T */));
+			}
+			statuses.put(path, status);
+		}
+
+		var dataDetails = includePermissions
+				? CollectionEntryDetails.fetch(comm, zone, false, dataRows, EnumSet.of(EntryDetail.PERMISSIONS))
+				: null;
+		for (var row : dataRows) {
+			var path = row.get(1);
+			var status = new ObjectStatus(ObjectType.DATA_OBJECT, new ArrayList<>());
+			if (includePermissions) {
+				status.setPermissions(dataDetails.get(row.get(0)).permissions);
+			} else {
+				status.setPendingFields(EnumSet.of(StatusField.PERMISSIONS),
+						statusFieldLoader(comm, path, 1 /* DATA_OBJ_T */));
+			}
+			statuses.put(path, status);
+		}
+	}
+
+	// Executes a query containing ":limit" and ":offset" parameters, paging through
+	// the results.
+	private static void executePagedQuery(RcComm comm, String zone, GenQuery2Template.Binding binding,
+			Consumer<List<String>> rowHandler) throws IOException, IRODSException {
+		binding.set("limit", BATCH_LOOKUP_PAGE_SIZE);
+
+		for (int offset = 0;; offset += BATCH_LOOKUP_PAGE_SIZE) {
+			var rows = binding.set("offset", offset).execute(comm, zone);
+			rows.forEach(rowHandler);
+
+			if (rows.size() < BATCH_LOOKUP_PAGE_SIZE) {
+				break;
+			}
+		}
+	}
+
+	// The maximum number of names placed in a single "in" clause. This keeps the
+	// query string and the generated SQL within the limits of the server.
+	private static final int BATCH_LOOKUP_CHUNK_SIZE = 256;
+
+	// The number of rows requested per page when resolving a chunk of names. A
+	// chunk can produce more rows than names because each good replica is a row.
+	private static final int BATCH_LOOKUP_PAGE_SIZE = 1024;
+
+	/**
+	 * Executes a GenQuery2 query against the good replicas of many data objects.
+	 * <p>
+	 * The paths are grouped by parent collection and each group is queried in
+	 * chunks of at most {@code BATCH_LOOKUP_CHUNK_SIZE} names. The row handler
+	 * receives the logical path of the data object along with the values of the
+	 * requested columns, in order. Paths are normalized before they are queried,
+	 * but the row handler receives the paths as they were passed in.
+	 */
+	private static void executeBatchDataObjectQuery(RcComm comm, Collection<String> paths, String columns,
+			BiConsumer<String, List<String>> rowHandler) throws IOException, IRODSException {
+		// The selected columns vary by caller, so the template is compiled per call.
+		// It is still only parsed once for all chunks and pages.
+		var binding = GenQuery2Template.compile("select DATA_NAME, " + columns
+				+ " where COLL_NAME = :coll_name and DATA_NAME in (:data_names) and DATA_REPL_STATUS = '1'"
+				+ " order by DATA_NAME, DATA_REPL_NUM limit :limit offset :offset").bind();
+
+		var originalPaths = new HashMap<String, List<String>>();
+		for (var path : paths) {
+			throwIfNullOrEmpty(path, "Path is null or empty");
+			originalPaths.computeIfAbsent(lexicallyNormal(path), k -> new ArrayList<>()).add(path);
+		}
+
+		var namesByCollection = new HashMap<String, List<String>>();
+		for (var path : originalPaths.keySet()) {
+			namesByCollection.computeIfAbsent(LogicalPath.parentPath(path), k -> new ArrayList<>())
+					.add(LogicalPath.objectName(path));
+		}
+
+		for (var entry : namesByCollection.entrySet()) {
+			var collection = entry.getKey();
+			var names = entry.getValue();
+			var zone = extractZoneFromPath(collection);
+			var collPrefix = collection.endsWith("/") ? collection : collection + '/';
+
+			for (int i = 0; i < names.size(); i += BATCH_LOOKUP_CHUNK_SIZE) {
+				var chunk = names.subList(i, Math.min(i + BATCH_LOOKUP_CHUNK_SIZE, names.size()));
+
+				// The rows are ordered so that paging through them with an offset is
+				// deterministic.
+				binding.set("coll_name", collection).set("data_names", chunk).set("limit", BATCH_LOOKUP_PAGE_SIZE);
+
+				for (int offset = 0;; offset += BATCH_LOOKUP_PAGE_SIZE) {
+					var query = binding.set("offset", offset).toQueryString();
+					var rows = zone.isPresent()
+						? IRODSQuery.executeGenQuery2(comm, zone.get(), query)
+						: IRODSQuery.executeGenQuery2(comm, query);
+
+					for (var row : rows) {
+						var values = row.subList(1, row.size());
+						for (var path : originalPaths.getOrDefault(collPrefix + row.get(0), List.of())) {
+							rowHandler.accept(path, values);
+						}
+					}
+
+					if (rows.size() < BATCH_LOOKUP_PAGE_SIZE) {
+						break;
+					}
+				}
+			}
+		}
+	}
+
+	// Fills a byte array with the next bytes to upload. Returns -1 once all bytes
+	// have been read.
+	@FunctionalInterface
+	private static interface ChunkReader {
+		int read(byte[] buffer) throws IOException;
+	}
+
+	// Consumes bytes which were downloaded.
+	@FunctionalInterface
+	private static interface ChunkWriter {
+		void write(byte[] buffer, int count) throws IOException;
+	}
+
+	private static int chooseTransferBufferSize(TransferOptions options, long size) {
+		if (options.bufferSize > 0) {
+			return options.bufferSize;
+		}
+
+		// Small transfers use a small buffer. Large transfers use buffers large enough
+		// to amortize the cost of each request, without exceeding 4 MiB.
+		return (int) Math.min(Math.max(size / 16, 64 * 1024), 4 * 1024 * 1024);
+	}
+
+	private static long uploadImpl(RcComm comm, String logicalPath, TransferOptions options, long size,
+			ChunkReader reader) throws IRODSFilesystemException, IOException, IRODSException {
+		throwIfNull(comm, "RcComm is null");
+		throwIfNullOrEmpty(logicalPath, "Path is null or empty");
+		throwIfNull(options, "Transfer options is null");
+
+		if (!options.overwrite && exists(comm, logicalPath)) {
+			throw new IRODSFilesystemException(IRODSErrorCodes.OVERWRITE_WITHOUT_FORCE_FLAG,
+					"Data object already exists", logicalPath);
+		}
+
+		var bufferSize = chooseTransferBufferSize(options, size);
+		var total = 0L;
+
+		// Every write is at least as large as the internal buffer of the stream, so
+		// all writes are sent directly from the transfer buffer.
+		try (var out = new IRODSDataObjectOutputStream(1)) {
+			out.open(comm, logicalPath, true, false);
+			out.setChunkSize(bufferSize);
+			out.setWriteBehindDepth(options.pipelineDepth);
+
+			var buffer = new byte[bufferSize];
+			int n;
+			while ((n = reader.read(buffer)) != -1) {
+				out.write(buffer, 0, n);
+				total += n;
+			}
+
+			// Surfaces errors reported by pipelined writes.
+			out.flush();
+		} finally {
+			invalidateCachedStatus(comm, logicalPath, false);
+		}
+
+		return total;
+	}
+
+	private static long downloadImpl(RcComm comm, String logicalPath, TransferOptions options, long size,
+			ChunkWriter writer) throws IOException, IRODSException {
+		throwIfNull(comm, "RcComm is null");
+
+		var bufferSize = chooseTransferBufferSize(options, size);
+		var total = 0L;
+
+		// With read-ahead, the bytes are received into the buffers of the pipeline
+		// and copied into the transfer buffer once. Without it, reads which are at
+		// least as large as the stream's buffer go directly into the transfer buffer.
+		try (var in = new IRODSDataObjectInputStream(bufferSize)) {
+			in.open(comm, logicalPath);
+			in.setReadAheadDepth(options.pipelineDepth);
+
+			var buffer = new byte[bufferSize];
+			int n;
+			while ((n = in.read(buffer, 0, buffer.length)) != -1) {
+				writer.write(buffer, n);
+				total += n;
+			}
+		}
+
+		return total;
+	}
+
+	// Returns the lexically normal form of an absolute logical path. Empty and "."
+	// segments are removed, ".." segments are resolved, and trailing slashes are
+	// dropped. This matches the form in which paths are stored in the catalog.
+	private static String lexicallyNormal(String path) {
+		if (!LogicalPath.isAbsolute(path)) {
+			throw new IllegalArgumentException("Path is not absolute");
+		}
+
+		var segments = new ArrayDeque<String>();
+		for (var segment : path.split("/")) {
+			if (segment.isEmpty() || ".".equals(segment)) {
+				continue;
+			}
+
+			if ("..".equals(segment)) {
+				segments.pollLast();
+				continue;
+			}
+
+			segments.add(segment);
+		}
+
+		return "/" + String.join("/", segments);
+	}
+
 	private static Optional<String> extractZoneFromPath(String path) {
 		if (!LogicalPath.isAbsolute(path)) {
 			throw new IllegalArgumentException("Path is not absolute");
@@ -1086,6 +2015,18 @@ public class IRODSFilesystem {
 		}
 	}
 
+	// Removes the status of a path (and optionally, the statuses of the paths under
+	// it) from the cache attached to the connection.
+	private static void invalidateCachedStatus(RcComm comm, String path, boolean includeDescendants) {
+		ObjectStatusCache.attachedTo(comm).ifPresent(cache -> {
+			if (includeDescendants) {
+				cache.invalidateTree(path);
+			} else {
+				cache.invalidate(path);
+			}
+		});
+	}
+
 	private static final class StatInfo {
 		int error;
 		long size;
@@ -1098,7 +2039,7 @@ public class IRODSFilesystem {
 		boolean inheritance;
 	}
 
-	private static Permission toPermissionEnum(String perm) {
+	static Permission toPermissionEnum(String perm) {
 		switch (perm) {
 		case "null":
 			return Permission.NULL;
@@ -1165,9 +2106,10 @@ public class IRODSFilesystem {
 
 			// First, get the user id and permissions on the data object.
 			var map = new HashMap<String, String>();
-			var query = String.format(
-					"select DATA_ACCESS_USER_ID, DATA_ACCESS_PERM_NAME where COLL_NAME = '%s' and DATA_NAME = '%s' and DATA_ACCESS_USER_ID is not null limit 10000",
-					LogicalPath.singleQuotesToHex(LogicalPath.parentPath(path)), LogicalPath.singleQuotesToHex(LogicalPath.objectName(path)));
+			var query = DATA_ACCESS_BY_PATH.bind()
+					.set("coll_name", LogicalPath.parentPath(path))
+					.set("data_name", LogicalPath.objectName(path))
+					.toQueryString();
 			var rows = zone.isPresent()
 				? IRODSQuery.executeGenQuery2(comm, zone.get(), query)
 				: IRODSQuery.executeGenQuery2(comm, query);
@@ -1180,8 +2122,7 @@ public class IRODSFilesystem {
 			}
 
 			// Now, retrieve the user information using the user id of each user.
-			query = String.format("select USER_ID, USER_NAME, USER_ZONE, USER_TYPE where USER_ID in ('%s') limit 10000",
-					String.join("', '", map.keySet()));
+			query = USER_INFO_BY_USER_IDS.bind().set("user_ids", map.keySet()).toQueryString();
 			log.debug("Query for data object permissions = [{}]", query);
 			rows = zone.isPresent()
 				? IRODSQuery.executeGenQuery2(comm, zone.get(), query)
@@ -1232,7 +2173,7 @@ public class IRODSFilesystem {
 		}
 
 		var zone = extractZoneFromPath(path);
-		var query = String.format("select COLL_INHERITANCE where COLL_NAME = '%s'", LogicalPath.singleQuotesToHex(path));
+		var query = COLL_INHERITANCE_BY_COLL_NAME.bind().set("coll_name", path).toQueryString();
 		var rows = zone.isPresent()
 			? IRODSQuery.executeGenQuery2(comm, zone.get(), query)
 			: IRODSQuery.executeGenQuery2(comm, query);
@@ -1243,7 +2184,22 @@ public class IRODSFilesystem {
 		return false;
 	}
 
-	private static StatInfo stat(RcComm comm, String logicalPath) throws IOException, IRODSException {
+	private static ObjectStatus.FieldLoader statusFieldLoader(RcComm comm, String path, int objectType) {
+		return (status, field) -> {
+			switch (field) {
+			case PERMISSIONS:
+				status.setPermissions(toEntityPermissionsList(comm, path, objectType));
+				break;
+
+			case INHERITANCE:
+				status.setInheritance(getInheritance(comm, path, objectType));
+				break;
+			}
+		};
+	}
+
+	private static StatInfo stat(RcComm comm, String logicalPath, Set<StatusField> fields)
+			throws IOException, IRODSException {
 		var input = new DataObjInp_PI();
 		input.objPath = logicalPath;
 		input.KeyValPair_PI = new KeyValPair_PI();
@@ -1260,8 +2216,12 @@ public class IRODSFilesystem {
 			statInfo.size = output.value.objSize;
 			statInfo.type = output.value.objType;
 			statInfo.mode = output.value.dataMode;
-			statInfo.inheritance = getInheritance(comm, logicalPath, statInfo.type);
-			statInfo.prms = toEntityPermissionsList(comm, logicalPath, statInfo.type);
+			if (fields.contains(StatusField.INHERITANCE)) {
+				statInfo.inheritance = getInheritance(comm, logicalPath, statInfo.type);
+			}
+			if (fields.contains(StatusField.PERMISSIONS)) {
+				statInfo.prms = toEntityPermissionsList(comm, logicalPath, statInfo.type);
+			}
 		} else if (IRODSErrorCodes.USER_FILE_DOES_NOT_EXIST == statInfo.error) {
 			statInfo.error = 0;
 			statInfo.type = 0; // UNKNOWN_OBJ_T
@@ -1294,6 +2254,7 @@ public class IRODSFilesystem {
 		input.accessLevel = access.toString();
 
 		var ec = IRODSApi.rcModAccessControl(comm, input);
+		invalidateCachedStatus(comm, logicalPath, false);
 		if (ec < 0) {
 			throw new IRODSFilesystemException(ec, "rcModAccessControl error", logicalPath);
 		}
@@ -1362,6 +2323,7 @@ public class IRODSFilesystem {
 		input.accessLevel = access.toString();
 
 		var ec = IRODSApi.rcModAccessControl(comm, input);
+		invalidateCachedStatus(comm, logicalPath, false);
 		if (ec < 0) {
 			throw new IRODSFilesystemException(ec, "rcModAccessControl error", logicalPath);
 		}
@@ -1381,27 +2343,14 @@ public class IRODSFilesystem {
 		throwIfNullOrEmpty(path, "Path is null or empty");
 		throwIfPathLengthExceedsLimit(path);
 
-		var s = status(comm, path);
+		var s = statusImpl(comm, path, NO_STATUS_FIELDS);
 
 		if (!exists(s)) {
 			return false;
 		}
 
 		if (isDataObject(s)) {
-			var input = new DataObjInp_PI();
-			input.objPath = path;
-			input.oprType = removeOptions.unregister ? 26 /* UNREG_OPR */ : 0;
-			input.KeyValPair_PI = new KeyValPair_PI();
-
-			if (removeOptions.noTrash) {
-				input.KeyValPair_PI.ssLen = 1;
-				input.KeyValPair_PI.keyWord = new ArrayList<>();
-				input.KeyValPair_PI.svalue = new ArrayList<>();
-				input.KeyValPair_PI.keyWord.add(IRODSKeywords.FORCE_FLAG);
-				input.KeyValPair_PI.svalue.add("");
-			}
-
-			return IRODSApi.rcDataObjUnlink(comm, input) == 0;
+			return unlinkDataObject(comm, path, removeOptions.noTrash, removeOptions.unregister) == 0;
 		}
 
 		if (isCollection(s)) {
@@ -1425,13 +2374,36 @@ public class IRODSFilesystem {
 
 			var output = new Reference<CollOprStat_PI>();
 
-			return IRODSApi.rcRmColl(comm, input, output) == 0;
+			var ec = IRODSApi.rcRmColl(comm, input, output);
+			invalidateCachedStatus(comm, path, true);
+			return ec == 0;
 		}
 
 		throw new IRODSFilesystemException(IRODSErrorCodes.CAT_NOT_A_DATAOBJ_AND_NOT_A_COLLECTION,
 				"Object type is not supported", path);
 	}
 
+	// Removes a data object without checking its type first. Returns the error code
+	// of the API call.
+	static int unlinkDataObject(RcComm comm, String path, boolean noTrash, boolean unregister) throws IOException {
+		var input = new DataObjInp_PI();
+		input.objPath = path;
+		input.oprType = unregister ? 26 /* UNREG_OPR */ : 0;
+		input.KeyValPair_PI = new KeyValPair_PI();
+
+		if (noTrash) {
+			input.KeyValPair_PI.ssLen = 1;
+			input.KeyValPair_PI.keyWord = new ArrayList<>();
+			input.KeyValPair_PI.svalue = new ArrayList<>();
+			input.KeyValPair_PI.keyWord.add(IRODSKeywords.FORCE_FLAG);
+			input.KeyValPair_PI.svalue.add("");
+		}
+
+		var ec = IRODSApi.rcDataObjUnlink(comm, input);
+		invalidateCachedStatus(comm, path, false);
+		return ec;
+	}
+
 	private static boolean isCollectionEmpty(RcComm comm, String path) throws IRODSException, IOException {
 		return new IRODSCollectionIterator(comm, path).iterator().hasNext();
 	}
@@ -0,0 +1,534 @@
+package org.irods.irods4j.high_level.vfs;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.irods.irods4j.high_level.catalog.GenQuery2Template;
+import org.irods.irods4j.high_level.connection.IRODSConnectionPool;
+import org.irods.irods4j.high_level.vfs.IRODSCollectionIterator.CollectionOptions;
+import org.irods.irods4j.low_level.api.IRODSErrorCodes;
+import org.irods.irods4j.low_level.api.IRODSException;
+
+/**
+ * A class which visits the contents of a collection, including
+ * subcollections, using multiple connections in parallel.
+ * <p>
+ * Unlike {@link IRODSRecursiveCollectionIterator}, which lists one collection
+ * at a time on a single connection, the walker lists sibling collections
+ * concurrently. Each collection is listed by a task running in a
+ * {@link ForkJoinPool} and every page of results is fetched on a connection
+ * borrowed from an {@link IRODSConnectionPool}. Connections are returned to the
+ * pool between pages, so a connection is never held while entries are being
+ * delivered.
+ * <p>
+ * Entries are delivered in no particular order, except that a collection is
+ * always delivered before any of its contents. The starting collection is not
+ * delivered.
+ * <p>
+ * The amount of pending work is bounded. Once the number of collections waiting
+ * to be listed reaches {@link WalkerOptions#maxPendingCollections}, newly
+ * discovered collections are listed by the task which discovered them instead
+ * of being forked.
+ *
+ * @since 0.8.0
+ */
+public class IRODSParallelCollectionWalker {
+
+	private static final Logger log = LogManager.getLogger();
+
+	/**
+	 * Options affecting the behavior of the walker.
+	 *
+	 * @since 0.8.0
+	 */
+	public static final class WalkerOptions {
+		/**
+		 * The max number of rows to fetch when a new page of data is needed.
+		 */
+		public int rowsPerPage = 512;
+
+		/**
+		 * The max number of queries which may be in flight at the same time. A value
+		 * less than or equal to 0 means the size of the connection pool.
+		 */
+		public int maxConcurrentQueries = 0;
+
+		/**
+		 * The max number of discovered collections which may wait to be listed.
+		 */
+		public int maxPendingCollections = 1024;
+
+		/**
+		 * The max number of entries buffered by {@link #stream}.
+		 */
+		public int queueCapacity = 8192;
+
+		/**
+		 * {@link CollectionOptions#SKIP_PERMISSION_DENIED} causes collections which
+		 * cannot be listed due to insufficient permissions to be skipped. Otherwise,
+		 * the walk stops and the error is reported.
+		 */
+		public CollectionOptions collectionOptions = CollectionOptions.NONE;
+	}
+
+	/**
+	 * Visits every entry under a collection.
+	 * <p>
+	 * The consumer is invoked concurrently by the threads of the executor and
+	 * therefore must be thread-safe. This function returns after all entries have
+	 * been delivered or an error has occurred.
+	 *
+	 * @param pool        The connection pool providing connections for the queries.
+	 * @param executor    The executor used to list the collections.
+	 * @param logicalPath The absolute path to a collection.
+	 * @param options     The options affecting the behavior of the walker.
+	 * @param consumer    The function which receives each entry.
+	 *
+	 * @throws IOException              If a network error occurs.
+	 * @throws IRODSException           If a collection cannot be listed.
+	 * @throws IRODSFilesystemException If the logical path does not identify a
+	 *                                  collection.
+	 *
+	 * @since 0.8.0
+	 */
+	public static void walk(IRODSConnectionPool pool, ForkJoinPool executor, String logicalPath,
+			WalkerOptions options, Consumer<CollectionEntry> consumer) throws IOException, IRODSException {
+		throwIfNull(consumer, "Consumer is null");
+		throwIfInvalidArgs(pool, executor, logicalPath, options);
+		throwIfNotCollection(pool, logicalPath);
+
+		var walk = new Walk(pool, options, e -> {
+			consumer.accept(e);
+			return true;
+		});
+		executor.invoke(new ListCollectionTask(walk, logicalPath, false));
+
+		var error = walk.error.get();
+		if (null == error) {
+			return;
+		}
+
+		if (error instanceof IOException e) {
+			throw e;
+		}
+
+		if (error instanceof IRODSException e) {
+			throw e;
+		}
+
+		if (error instanceof RuntimeException e) {
+			throw e;
+		}
+
+		throw new IllegalStateException(error);
+	}
+
+	/**
+	 * Returns a stream over every entry under a collection.
+	 * <p>
+	 * Collections are listed in the background and the entries are buffered in a
+	 * bounded queue. Listing pauses while the queue is full. Closing the stream
+	 * stops the walk. Errors are rethrown by the stream as an
+	 * {@link IllegalStateException}.
+	 *
+	 * @param pool        The connection pool providing connections for the queries.
+	 * @param executor    The executor used to list the collections.
+	 * @param logicalPath The absolute path to a collection.
+	 * @param options     The options affecting the behavior of the walker.
+	 *
+	 * @throws IOException              If a network error occurs.
+	 * @throws IRODSException           If the iRODS API operation fails.
+	 * @throws IRODSFilesystemException If the logical path does not identify a
+	 *                                  collection.
+	 *
+	 * @since 0.8.0
+	 */
+	public static Stream<CollectionEntry> stream(IRODSConnectionPool pool, ForkJoinPool executor,
+			String logicalPath, WalkerOptions options) throws IOException, IRODSException {
+		throwIfInvalidArgs(pool, executor, logicalPath, options);
+
+		if (options.queueCapacity <= 0) {
+			throw new IllegalArgumentException("Queue capacity is less than or equal to 0");
+		}
+
+		throwIfNotCollection(pool, logicalPath);
+
+		var iter = new QueueIterator(options.queueCapacity);
+		var walk = new Walk(pool, options, iter::offer);
+		iter.walk = walk;
+
+		executor.execute(() -> {
+			try {
+				new ListCollectionTask(walk, logicalPath, false).invoke();
+			} finally {
+				iter.done();
+			}
+		});
+
+		var spliterator = Spliterators.spliteratorUnknownSize(iter, Spliterator.NONNULL);
+		return StreamSupport.stream(spliterator, false).onClose(() -> walk.stop.set(true));
+	}
+
+	@FunctionalInterface
+	private static interface EntrySink {
+		// Returns false when the receiver is no longer interested in entries.
+		boolean accept(CollectionEntry entry);
+	}
+
+	// The state shared by all tasks of a single walk.
+	private static final class Walk {
+		IRODSConnectionPool pool;
+		WalkerOptions options;
+		EntrySink sink;
+		Semaphore permits;
+		AtomicInteger pendingCollections = new AtomicInteger();
+		AtomicBoolean stop = new AtomicBoolean();
+		AtomicReference<Exception> error = new AtomicReference<>();
+
+		Walk(IRODSConnectionPool pool, WalkerOptions options, EntrySink sink) {
+			this.pool = pool;
+			this.options = options;
+			this.sink = sink;
+
+			var n = (options.maxConcurrentQueries > 0) ? options.maxConcurrentQueries : pool.getPoolSize();
+			permits = new Semaphore(Math.max(1, n));
+		}
+
+		boolean deliver(CollectionEntry entry) {
+			if (stop.get()) {
+				return false;
+			}
+
+			try {
+				if (sink.accept(entry)) {
+					return true;
+				}
+			} catch (RuntimeException e) {
+				fail(e);
+				return false;
+			}
+
+			stop.set(true);
+			return false;
+		}
+
+		void fail(Exception e) {
+			error.compareAndSet(null, e);
+			stop.set(true);
+		}
+	}
+
+	private static final class ListCollectionTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private transient Walk walk;
+		private String logicalPath;
+		private boolean pending;
+
+		ListCollectionTask(Walk walk, String logicalPath, boolean pending) {
+			this.walk = walk;
+			this.logicalPath = logicalPath;
+			this.pending = pending;
+		}
+
+		@Override
+		protected void compute() {
+			if (pending) {
+				walk.pendingCollections.decrementAndGet();
+			}
+
+			var forked = new ArrayList<ListCollectionTask>();
+
+			try {
+				listDataObjects();
+				listCollections(forked);
+			} catch (IRODSException e) {
+				if (isPermissionDenied(e)
+						&& CollectionOptions.SKIP_PERMISSION_DENIED == walk.options.collectionOptions) {
+					log.debug("Skipping collection [{}] due to insufficient permissions.", logicalPath);
+				} else {
+					walk.fail(e);
+				}
+			} catch (Exception e) {
+				walk.fail(e);
+			}
+
+			for (var task : forked) {
+				task.join();
+			}
+		}
+
+		private void listDataObjects() throws Exception {
+			var rowsPerPage = walk.options.rowsPerPage;
+			var query = IRODSCollectionIterator.DATA_OBJECTS_FIRST_PAGE.bind()
+					.set("coll_name", logicalPath)
+					.set("limit", rowsPerPage);
+			GenQuery2Template.Binding nextPageQuery = null;
+
+			// Rows are ordered such that the first row of each DATA_ID identifies the
+			// replica to report. The remaining rows for the same DATA_ID are skipped.
+			var lastObjectId = "";
+
+			while (!walk.stop.get()) {
+				var rows = execute(query);
+
+				for (var row : rows) {
+					var objectId = row.get(0);
+					if (lastObjectId.equals(objectId)) {
+						continue;
+					}
+					lastObjectId = objectId;
+
+					if (!walk.deliver(IRODSCollectionIterator.toDataObjectEntry(logicalPath, row))) {
+						return;
+					}
+				}
+
+				if (rows.size() < rowsPerPage) {
+					return;
+				}
+
+				if (null == nextPageQuery) {
+					nextPageQuery = IRODSCollectionIterator.DATA_OBJECTS_NEXT_PAGE.bind()
+							.set("coll_name", logicalPath)
+							.set("limit", rowsPerPage);
+				}
+				query = nextPageQuery.set("last_id", lastObjectId);
+			}
+		}
+
+		private void listCollections(List<ListCollectionTask> forked) throws Exception {
+			var rowsPerPage = walk.options.rowsPerPage;
+			var query = IRODSCollectionIterator.COLLECTIONS_FIRST_PAGE.bind()
+					.set("coll_name", logicalPath)
+					.set("limit", rowsPerPage);
+			GenQuery2Template.Binding nextPageQuery = null;
+
+			while (!walk.stop.get()) {
+				var rows = execute(query);
+
+				for (var row : rows) {
+					var entry = IRODSCollectionIterator.toCollectionEntry(row);
+
+					// The collection must be delivered before its contents.
+					if (!walk.deliver(entry)) {
+						return;
+					}
+
+					if (walk.pendingCollections.incrementAndGet() <= walk.options.maxPendingCollections) {
+						var task = new ListCollectionTask(walk, entry.path, true);
+						task.fork();
+						forked.add(task);
+					} else {
+						walk.pendingCollections.decrementAndGet();
+						new ListCollectionTask(walk, entry.path, false).compute();
+					}
+				}
+
+				// Keep the list of outstanding tasks from growing with the size of the
+				// collection.
+				forked.removeIf(ForkJoinTask::isDone);
+
+				if (rows.size() < rowsPerPage) {
+					return;
+				}
+
+				if (null == nextPageQuery) {
+					nextPageQuery = IRODSCollectionIterator.COLLECTIONS_NEXT_PAGE.bind()
+							.set("coll_name", logicalPath)
+							.set("limit", rowsPerPage);
+				}
+				query = nextPageQuery.set("last_id", rows.get(rows.size() - 1).get(0));
+			}
+		}
+
+		private List<List<String>> execute(GenQuery2Template.Binding query) throws Exception {
+			acquirePermit();
+			try (var conn = walk.pool.getConnection()) {
+				var comm = conn.getRcComm();
+				return query.execute(comm, comm.proxyUserZone);
+			} finally {
+				walk.permits.release();
+			}
+		}
+
+		// Waits for a query slot without starving the executor of threads.
+		private void acquirePermit() throws InterruptedException {
+			if (walk.permits.tryAcquire()) {
+				return;
+			}
+
+			ForkJoinPool.managedBlock(new ForkJoinPool.ManagedBlocker() {
+				private boolean acquired;
+
+				@Override
+				public boolean block() throws InterruptedException {
+					if (!acquired) {
+						walk.permits.acquire();
+						acquired = true;
+					}
+					return true;
+				}
+
+				@Override
+				public boolean isReleasable() {
+					if (!acquired) {
+						acquired = walk.permits.tryAcquire();
+					}
+					return acquired;
+				}
+			});
+		}
+
+	}
+
+	private static final class QueueIterator implements Iterator<CollectionEntry> {
+
+		// Signals the end of the walk.
+		private static final CollectionEntry END_OF_WALK = new CollectionEntry();
+
+		private BlockingQueue<CollectionEntry> queue;
+		private Walk walk;
+		private CollectionEntry next;
+		private boolean finished;
+
+		QueueIterator(int capacity) {
+			queue = new ArrayBlockingQueue<>(capacity);
+		}
+
+		// Invoked by the tasks.
+		boolean offer(CollectionEntry entry) {
+			try {
+				while (!walk.stop.get()) {
+					if (queue.offer(entry, 100, TimeUnit.MILLISECONDS)) {
+						return true;
+					}
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return false;
+		}
+
+		void done() {
+			// The marker must always be delivered so that the consumer can detect
+			// completion. Once the stream has been stopped, the entries still in the
+			// queue are of no interest and can be discarded.
+			try {
+				while (!queue.offer(END_OF_WALK, 100, TimeUnit.MILLISECONDS)) {
+					if (walk.stop.get()) {
+						queue.clear();
+					}
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			while (null == next) {
+				if (finished) {
+					var error = walk.error.get();
+					if (null != error) {
+						throw new IllegalStateException(error);
+					}
+					return false;
+				}
+
+				try {
+					var entry = queue.take();
+					if (END_OF_WALK == entry) {
+						finished = true;
+					} else {
+						next = entry;
+					}
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					walk.stop.set(true);
+					throw new IllegalStateException(e);
+				}
+			}
+
+			return true;
+		}
+
+		@Override
+		public CollectionEntry next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			var entry = next;
+			next = null;
+			return entry;
+		}
+
+	}
+
+	private static boolean isPermissionDenied(IRODSException e) {
+		var ec = e.getErrorCode();
+		return IRODSErrorCodes.CAT_NO_ACCESS_PERMISSION == ec || IRODSErrorCodes.SYS_NO_API_PRIV == ec;
+	}
+
+	private static void throwIfNotCollection(IRODSConnectionPool pool, String logicalPath)
+			throws IOException, IRODSException {
+		try (var conn = pool.getConnection()) {
+			if (!IRODSFilesystem.isCollection(conn.getRcComm(), logicalPath)) {
+				throw new IRODSFilesystemException(IRODSErrorCodes.NOT_A_COLLECTION, "Logical path is not a collection",
+						logicalPath);
+			}
+		} catch (IOException | IRODSException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static void throwIfNull(Object object, String msg) {
+		if (null == object) {
+			throw new IllegalArgumentException(msg);
+		}
+	}
+
+	private static void throwIfInvalidArgs(IRODSConnectionPool pool, ForkJoinPool executor, String logicalPath,
+			WalkerOptions options) {
+		throwIfNull(pool, "Connection pool is null");
+		throwIfNull(executor, "Executor is null");
+		throwIfNull(options, "Walker options is null");
+		throwIfNull(options.collectionOptions, "Collection options is null");
+
+		if (null == logicalPath || logicalPath.isEmpty()) {
+			throw new IllegalArgumentException("Logical path is null or empty");
+		}
+
+		if (options.rowsPerPage < 1) {
+			throw new IllegalArgumentException("Rows per page is less than 1");
+		}
+
+		if (options.maxPendingCollections < 0) {
+			throw new IllegalArgumentException("Max pending collections is less than 0");
+		}
+	}
+
+}
@@ -0,0 +1,517 @@
+package org.irods.irods4j.high_level.vfs;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.irods.irods4j.high_level.connection.IRODSConnectionPool;
+import org.irods.irods4j.high_level.vfs.IRODSFilesystem.CopyOptions;
+import org.irods.irods4j.high_level.vfs.IRODSFilesystem.RemoveOptions;
+import org.irods.irods4j.high_level.vfs.IRODSFilesystem.StatusField;
+import org.irods.irods4j.high_level.vfs.IRODSParallelCollectionWalker.WalkerOptions;
+import org.irods.irods4j.low_level.api.IRODSApi.RcComm;
+import org.irods.irods4j.low_level.api.IRODSErrorCodes;
+import org.irods.irods4j.low_level.api.IRODSException;
+
+/**
+ * A class providing recursive filesystem operations which process the entries
+ * of a collection in parallel using the connections of an
+ * {@link IRODSConnectionPool}.
+ * <p>
+ * Each function lists the collection with an
+ * {@link IRODSParallelCollectionWalker} and hands the entries to a fixed number
+ * of worker threads. Every worker borrows a connection from the pool for each
+ * entry it processes. The number of entries waiting to be processed is bounded,
+ * so listing pauses when the workers fall behind.
+ * <p>
+ * A failure to process an entry does not stop the operation. Failures are
+ * collected and returned in an {@link OperationResult} once every entry has
+ * been processed. Failures to list a collection do stop the operation and are
+ * rethrown after the entries already listed have been processed.
+ *
+ * @since 0.8.0
+ */
+public class IRODSParallelFilesystem {
+
+	private static final Logger log = LogManager.getLogger();
+
+	// Copy options which control how existing data objects are handled. These are
+	// the only options which are forwarded to IRODSFilesystem.copyDataObject.
+	private static final int EXISTING_DATA_OBJECT_OPTIONS = CopyOptions.SKIP_EXISTING | CopyOptions.OVERWRITE_EXISTING
+			| CopyOptions.UPDATE_EXISTING;
+
+	/**
+	 * Receives progress notifications from a parallel operation.
+	 * <p>
+	 * Notifications are delivered from the worker threads and therefore
+	 * implementations must be thread-safe.
+	 *
+	 * @since 0.8.0
+	 */
+	@FunctionalInterface
+	public static interface ProgressListener {
+		/**
+		 * Invoked after an entry has been processed.
+		 *
+		 * @param path      The logical path of the entry.
+		 * @param succeeded Whether the entry was processed successfully.
+		 * @param completed The number of entries processed successfully so far.
+		 * @param failed    The number of entries which failed so far.
+		 *
+		 * @since 0.8.0
+		 */
+		void onProgress(String path, boolean succeeded, long completed, long failed);
+	}
+
+	/**
+	 * Options affecting the behavior of a parallel operation.
+	 *
+	 * @since 0.8.0
+	 */
+	public static final class ParallelOptions {
+		/**
+		 * The number of entries processed concurrently. A value less than or equal to
+		 * 0 means the size of the connection pool.
+		 */
+		public int concurrency = 0;
+
+		/**
+		 * The number of threads used to list collections.
+		 */
+		public int listingThreads = 4;
+
+		/**
+		 * The max number of listed entries which may wait to be processed.
+		 */
+		public int maxPendingEntries = 1024;
+
+		/**
+		 * The listener notified after each entry is processed. May be null.
+		 */
+		public ProgressListener progressListener;
+	}
+
+	/**
+	 * Holds the outcome of a parallel operation.
+	 *
+	 * @since 0.8.0
+	 */
+	public static final class OperationResult {
+		private long completed;
+		private long failed;
+		private List<EntryError> errors;
+
+		private OperationResult(long completed, long failed, List<EntryError> errors) {
+			this.completed = completed;
+			this.failed = failed;
+			this.errors = Collections.unmodifiableList(errors);
+		}
+
+		/**
+		 * Returns the number of entries processed successfully.
+		 *
+		 * @since 0.8.0
+		 */
+		public long getCompletedCount() {
+			return completed;
+		}
+
+		/**
+		 * Returns the number of entries which could not be processed.
+		 *
+		 * @since 0.8.0
+		 */
+		public long getFailedCount() {
+			return failed;
+		}
+
+		/**
+		 * Returns the failures in the order they occurred.
+		 *
+		 * @since 0.8.0
+		 */
+		public List<EntryError> getErrors() {
+			return errors;
+		}
+
+		/**
+		 * Checks whether every entry was processed successfully.
+		 *
+		 * @since 0.8.0
+		 */
+		public boolean succeeded() {
+			return 0 == failed;
+		}
+	}
+
+	/**
+	 * Describes the failure to process a single entry.
+	 *
+	 * @since 0.8.0
+	 */
+	public static final class EntryError {
+		private String path;
+		private Exception exception;
+
+		private EntryError(String path, Exception exception) {
+			this.path = path;
+			this.exception = exception;
+		}
+
+		/**
+		 * Returns the logical path of the entry.
+		 *
+		 * @since 0.8.0
+		 */
+		public String getPath() {
+			return path;
+		}
+
+		/**
+		 * Returns the exception which caused the failure.
+		 *
+		 * @since 0.8.0
+		 */
+		public Exception getException() {
+			return exception;
+		}
+	}
+
+	/**
+	 * Copies a collection and its contents in parallel.
+	 * <p>
+	 * Collections are created (with the permissions of their source) as they are
+	 * discovered, before any of their contents are copied. Data objects are copied
+	 * by the worker threads. {@link CopyOptions#SKIP_EXISTING},
+	 * {@link CopyOptions#OVERWRITE_EXISTING}, and
+	 * {@link CopyOptions#UPDATE_EXISTING} are honored for each data object, and
+	 * {@link CopyOptions#COLLECTIONS_ONLY} copies the collections only.
+	 * <p>
+	 * If {@code from} identifies a data object, it is copied on the calling
+	 * thread.
+	 *
+	 * @param pool        The connection pool providing the connections.
+	 * @param from        The absolute logical path of the source.
+	 * @param to          The absolute logical path of the destination collection.
+	 * @param copyOptions A bitmask of {@link CopyOptions} values.
+	 * @param options     The options affecting the behavior of the operation.
+	 *
+	 * @return The outcome of the operation.
+	 *
+	 * @throws IOException              If a network error occurs.
+	 * @throws IRODSException           If a collection cannot be listed.
+	 * @throws IRODSFilesystemException If the source does not exist or the
+	 *                                  destination cannot be created.
+	 *
+	 * @since 0.8.0
+	 */
+	public static OperationResult copy(IRODSConnectionPool pool, String from, String to, int copyOptions,
+			ParallelOptions options) throws IOException, IRODSException {
+		throwIfInvalidArgs(pool, from, options);
+		throwIfNullOrEmpty(to, "To/Destination path is null or empty");
+
+		ObjectStatus fromStatus;
+		try (var conn = pool.getConnection()) {
+			var comm = conn.getRcComm();
+			fromStatus = IRODSFilesystem.status(comm, from, new StatusField[0]);
+
+			if (!IRODSFilesystem.exists(fromStatus)) {
+				throw new IRODSFilesystemException(IRODSErrorCodes.OBJ_PATH_DOES_NOT_EXIST,
+						"From/Source path does not exist", from);
+			}
+
+			if (IRODSFilesystem.isDataObject(fromStatus)) {
+				IRODSFilesystem.copy(comm, from, to, copyOptions);
+				return new OperationResult(1, 0, new ArrayList<>());
+			}
+
+			if (!IRODSFilesystem.exists(comm, to) && !IRODSFilesystem.createCollection(comm, to, from)) {
+				throw new IRODSFilesystemException(IRODSErrorCodes.FILE_CREATE_ERROR, "Cannot create collection", to);
+			}
+		} catch (IOException | IRODSException | RuntimeException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+
+		var collectionsOnly = CopyOptions.COLLECTIONS_ONLY == (CopyOptions.COLLECTIONS_ONLY & copyOptions);
+		var dataObjectOptions = copyOptions & EXISTING_DATA_OBJECT_OPTIONS;
+
+		return run(pool, from, options, (execution, entry) -> {
+			var toPath = to + entry.path().substring(from.length());
+
+			if (entry.isCollection()) {
+				// Collections are created by the listing thread so that they exist before
+				// any of their contents are delivered.
+				execution.execute(entry.path(), comm -> {
+					if (!IRODSFilesystem.exists(comm, toPath)) {
+						IRODSFilesystem.createCollection(comm, toPath, entry.path());
+					}
+				});
+			} else if (!collectionsOnly) {
+				execution.submit(entry.path(), comm -> {
+					IRODSFilesystem.copyDataObject(comm, entry.path(), toPath, dataObjectOptions);
+				});
+			}
+		});
+	}
+
+	/**
+	 * Removes a collection and its contents in parallel.
+	 * <p>
+	 * With {@link RemoveOptions#NO_TRASH}, the data objects are unlinked by the
+	 * worker threads and the remaining collections are removed afterwards with a
+	 * single API call. Otherwise, the objects must be moved to the trash as a
+	 * single tree, so the removal is delegated to the server in a single API call
+	 * and no parallelism is involved.
+	 *
+	 * @param pool          The connection pool providing the connections.
+	 * @param path          The absolute logical path of the collection.
+	 * @param removeOptions The options affecting the removal.
+	 * @param options       The options affecting the behavior of the operation.
+	 *
+	 * @return The outcome of the operation.
+	 *
+	 * @throws IOException    If a network error occurs.
+	 * @throws IRODSException If a collection cannot be listed.
+	 *
+	 * @since 0.8.0
+	 */
+	public static OperationResult removeAll(IRODSConnectionPool pool, String path, RemoveOptions removeOptions,
+			ParallelOptions options) throws IOException, IRODSException {
+		throwIfInvalidArgs(pool, path, options);
+		throwIfNull(removeOptions, "Remove options is null");
+
+		var noTrash = RemoveOptions.NO_TRASH == removeOptions;
+		var result = new OperationResult(0, 0, new ArrayList<>());
+
+		if (noTrash && isCollection(pool, path)) {
+			result = run(pool, path, options, (execution, entry) -> {
+				if (entry.isDataObject()) {
+					execution.submit(entry.path(), comm -> {
+						var ec = IRODSFilesystem.unlinkDataObject(comm, entry.path(), true, false);
+						if (ec < 0) {
+							throw new IRODSFilesystemException(ec, "rcDataObjUnlink error", entry.path());
+						}
+					});
+				}
+			});
+		}
+
+		// Remove what remains. When the data objects have been unlinked, this removes
+		// the empty collections.
+		try (var conn = pool.getConnection()) {
+			IRODSFilesystem.removeAll(conn.getRcComm(), path, removeOptions);
+		} catch (IOException | IRODSException | RuntimeException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Sets the permission of a user or group on a collection and all of its
+	 * contents in parallel.
+	 * <p>
+	 * If {@code path} identifies a data object, only the data object is updated.
+	 *
+	 * @param pool        The connection pool providing the connections.
+	 * @param path        The absolute logical path of the collection.
+	 * @param userOrGroup The name of the user or group, optionally qualified with
+	 *                    a zone (e.g. {@code name#zone}).
+	 * @param prms        The permission to set.
+	 * @param options     The options affecting the behavior of the operation.
+	 *
+	 * @return The outcome of the operation.
+	 *
+	 * @throws IOException    If a network error occurs.
+	 * @throws IRODSException If a collection cannot be listed.
+	 *
+	 * @since 0.8.0
+	 */
+	public static OperationResult permissions(IRODSConnectionPool pool, String path, String userOrGroup,
+			Permission prms, ParallelOptions options) throws IOException, IRODSException {
+		throwIfInvalidArgs(pool, path, options);
+		throwIfNullOrEmpty(userOrGroup, "User or group is null or empty");
+		throwIfNull(prms, "Permission is null");
+
+		var collection = isCollection(pool, path);
+
+		try (var conn = pool.getConnection()) {
+			IRODSFilesystem.permissions(conn.getRcComm(), path, userOrGroup, prms);
+		} catch (IOException | IRODSException | RuntimeException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+
+		if (!collection) {
+			return new OperationResult(1, 0, new ArrayList<>());
+		}
+
+		var result = run(pool, path, options, (execution, entry) -> {
+			execution.submit(entry.path(), comm -> IRODSFilesystem.permissions(comm, entry.path(), userOrGroup, prms));
+		});
+
+		// Account for the root collection.
+		return new OperationResult(result.completed + 1, result.failed, new ArrayList<>(result.errors));
+	}
+
+	@FunctionalInterface
+	private static interface EntryOperation {
+		void apply(RcComm comm) throws Exception;
+	}
+
+	@FunctionalInterface
+	private static interface EntryHandler {
+		void handle(Execution execution, CollectionEntry entry);
+	}
+
+	// Tracks the entries processed by a single operation.
+	private static final class Execution {
+		IRODSConnectionPool pool;
+		ProgressListener listener;
+		ExecutorService workers;
+		Semaphore pendingEntries;
+		AtomicLong completed = new AtomicLong();
+		AtomicLong failed = new AtomicLong();
+		List<EntryError> errors = Collections.synchronizedList(new ArrayList<>());
+
+		Execution(IRODSConnectionPool pool, ParallelOptions options) {
+			this.pool = pool;
+			this.listener = options.progressListener;
+
+			var n = (options.concurrency > 0) ? options.concurrency : pool.getPoolSize();
+			workers = Executors.newFixedThreadPool(n);
+			pendingEntries = new Semaphore(options.maxPendingEntries);
+		}
+
+		// Hands an entry to the workers. Blocks while the max number of pending
+		// entries has been reached.
+		void submit(String path, EntryOperation op) {
+			pendingEntries.acquireUninterruptibly();
+			try {
+				workers.execute(() -> {
+					try {
+						execute(path, op);
+					} finally {
+						pendingEntries.release();
+					}
+				});
+			} catch (RuntimeException e) {
+				pendingEntries.release();
+				throw e;
+			}
+		}
+
+		// Processes an entry on the calling thread.
+		void execute(String path, EntryOperation op) {
+			boolean succeeded;
+
+			try (var conn = pool.getConnection()) {
+				op.apply(conn.getRcComm());
+				succeeded = true;
+			} catch (Exception e) {
+				log.debug("Failed to process [{}]: {}", path, e.getMessage());
+				errors.add(new EntryError(path, e));
+				succeeded = false;
+			}
+
+			var c = succeeded ? completed.incrementAndGet() : completed.get();
+			var f = succeeded ? failed.get() : failed.incrementAndGet();
+
+			if (null != listener) {
+				try {
+					listener.onProgress(path, succeeded, c, f);
+				} catch (RuntimeException e) {
+					log.error("Progress listener error: {}", e.getMessage());
+				}
+			}
+		}
+
+		OperationResult finish() {
+			workers.shutdown();
+
+			try {
+				while (!workers.awaitTermination(1, TimeUnit.SECONDS)) {
+					// Keep waiting. Every pending entry must be accounted for.
+				}
+			} catch (InterruptedException e) {
+				workers.shutdownNow();
+				Thread.currentThread().interrupt();
+			}
+
+			return new OperationResult(completed.get(), failed.get(), new ArrayList<>(errors));
+		}
+	}
+
+	// Walks the collection and passes each entry to the handler. Returns once every
+	// entry handed to the workers has been processed.
+	private static OperationResult run(IRODSConnectionPool pool, String path, ParallelOptions options,
+			EntryHandler handler) throws IOException, IRODSException {
+		var walkerOptions = new WalkerOptions();
+		walkerOptions.maxConcurrentQueries = options.listingThreads;
+
+		var execution = new Execution(pool, options);
+		var listing = new ForkJoinPool(options.listingThreads);
+		OperationResult result;
+
+		try {
+			IRODSParallelCollectionWalker.walk(pool, listing, path, walkerOptions,
+					entry -> handler.handle(execution, entry));
+		} finally {
+			listing.shutdown();
+			result = execution.finish();
+		}
+
+		return result;
+	}
+
+	private static boolean isCollection(IRODSConnectionPool pool, String path) throws IOException, IRODSException {
+		try (var conn = pool.getConnection()) {
+			return IRODSFilesystem.isCollection(conn.getRcComm(), path);
+		} catch (IOException | IRODSException | RuntimeException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static void throwIfInvalidArgs(IRODSConnectionPool pool, String path, ParallelOptions options) {
+		throwIfNull(pool, "Connection pool is null");
+		throwIfNullOrEmpty(path, "Path is null or empty");
+		throwIfNull(options, "Parallel options is null");
+
+		if (options.listingThreads <= 0) {
+			throw new IllegalArgumentException("Listing threads is less than or equal to 0");
+		}
+
+		if (options.maxPendingEntries <= 0) {
+			throw new IllegalArgumentException("Max pending entries is less than or equal to 0");
+		}
+	}
+
+	private static void throwIfNull(Object object, String message) {
+		if (null == object) {
+			throw new IllegalArgumentException(message);
+		}
+	}
+
+	private static void throwIfNullOrEmpty(String s, String message) {
+		if (null == s || s.isEmpty()) {
+			throw new IllegalArgumentException(message);
+		}
+	}
+
+}
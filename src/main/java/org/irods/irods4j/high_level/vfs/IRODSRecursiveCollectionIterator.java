@@ -2,10 +2,14 @@ package org.irods.irods4j.high_level.vfs;
 
 import java.io.IOException;
 import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Stack;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.irods.irods4j.high_level.catalog.GenQuery2Template;
+import org.irods.irods4j.high_level.catalog.IRODSQuery;
 import org.irods.irods4j.high_level.vfs.IRODSCollectionIterator.CollectionOptions;
 import org.irods.irods4j.low_level.api.IRODSException;
 import org.irods.irods4j.low_level.api.IRODSApi.RcComm;
@@ -22,11 +26,47 @@ public class IRODSRecursiveCollectionIterator implements Iterable<CollectionEntr
 
 	private static final int DEFAULT_NUMBER_OF_ROWS_PER_PAGE = 512;
 
+	private static final GenQuery2Template SUBTREE_DATA_OBJECTS_FIRST_PAGE = GenQuery2Template.compile(
+			"select DATA_ID, DATA_NAME, DATA_SIZE, DATA_CHECKSUM, DATA_MODE, DATA_CREATE_TIME, DATA_MODIFY_TIME, DATA_REPL_STATUS, COLL_NAME where (COLL_NAME = :coll_name or COLL_NAME like :coll_pattern) order by DATA_ID, DATA_REPL_STATUS desc, DATA_MODIFY_TIME desc limit :limit");
+
+	private static final GenQuery2Template SUBTREE_DATA_OBJECTS_NEXT_PAGE = GenQuery2Template.compile(
+			"select DATA_ID, DATA_NAME, DATA_SIZE, DATA_CHECKSUM, DATA_MODE, DATA_CREATE_TIME, DATA_MODIFY_TIME, DATA_REPL_STATUS, COLL_NAME where (COLL_NAME = :coll_name or COLL_NAME like :coll_pattern) and DATA_ID > :last_id order by DATA_ID, DATA_REPL_STATUS desc, DATA_MODIFY_TIME desc limit :limit");
+
+	private static final GenQuery2Template SUBTREE_COLLECTIONS_FIRST_PAGE = GenQuery2Template.compile(
+			"select COLL_ID, COLL_NAME, COLL_CREATE_TIME, COLL_MODIFY_TIME where COLL_NAME like :coll_pattern order by COLL_ID limit :limit");
+
+	private static final GenQuery2Template SUBTREE_COLLECTIONS_NEXT_PAGE = GenQuery2Template.compile(
+			"select COLL_ID, COLL_NAME, COLL_CREATE_TIME, COLL_MODIFY_TIME where COLL_NAME like :coll_pattern and COLL_ID > :last_id order by COLL_ID limit :limit");
+
+	/**
+	 * Defines how the iterator discovers the contents of subcollections.
+	 * 
+	 * @since 0.8.0
+	 */
+	public static enum RecursionMode {
+		/**
+		 * Lists each collection individually as it is visited. Entries are visited in
+		 * depth-first order and all functions of the iterator are supported.
+		 */
+		PER_COLLECTION,
+
+		/**
+		 * Lists the entire subtree using two paged queries, one for data objects and
+		 * one for collections, regardless of the number of collections. All data
+		 * objects are visited before any collections, in no particular order.
+		 * {@link IRODSRecursiveCollectionIterator#pop()} and
+		 * {@link IRODSRecursiveCollectionIterator#disableRecursionPending()} are not
+		 * supported.
+		 */
+		SUBTREE
+	}
+
 	private RcComm comm;
 	private Stack<IRODSCollectionIterator> stack;
 	private IRODSCollectionIterator.CollectionEntryIterator curIter;
 	private CollectionOptions options;
 	private boolean recurse = true;
+	private SubtreeState subtree;
 
 	/**
 	 * Initializes a newly created recursive iterator such that all entries within
@@ -102,10 +142,42 @@ public class IRODSRecursiveCollectionIterator implements Iterable<CollectionEntr
 	 */
 	public IRODSRecursiveCollectionIterator(RcComm comm, String logicalPath, int rowsPerPage, CollectionOptions options)
 			throws IRODSFilesystemException, IOException, IRODSException {
+		this(comm, logicalPath, rowsPerPage, options, RecursionMode.PER_COLLECTION);
+	}
+
+	/**
+	 * Initializes a newly created recursive iterator.
+	 * 
+	 * @param comm          The connection to the iRODS server.
+	 * @param logicalPath   The absolute path to a collection.
+	 * @param rowsPerPage   The max number of rows to fetch when a new page of data
+	 *                      is needed.
+	 * @param options       Options affecting the behavior of the iterator.
+	 *                      Currently unused.
+	 * @param recursionMode Defines how the contents of subcollections are
+	 *                      discovered.
+	 * 
+	 * @throws IRODSException
+	 * @throws IOException
+	 * @throws IRODSFilesystemException
+	 * 
+	 * @since 0.8.0
+	 */
+	public IRODSRecursiveCollectionIterator(RcComm comm, String logicalPath, int rowsPerPage, CollectionOptions options,
+			RecursionMode recursionMode) throws IRODSFilesystemException, IOException, IRODSException {
+		if (null == recursionMode) {
+			throw new IllegalArgumentException("Recursion mode is null");
+		}
+
 		var iter = new IRODSCollectionIterator(comm, logicalPath, rowsPerPage, options);
-		curIter = (IRODSCollectionIterator.CollectionEntryIterator) iter.iterator();
 		stack = new Stack<>();
-		stack.push(iter);
+
+		if (RecursionMode.SUBTREE == recursionMode) {
+			subtree = new SubtreeState(comm, logicalPath, rowsPerPage);
+		} else {
+			curIter = (IRODSCollectionIterator.CollectionEntryIterator) iter.iterator();
+			stack.push(iter);
+		}
 
 		this.comm = comm;
 		this.options = options;
@@ -120,6 +192,15 @@ public class IRODSRecursiveCollectionIterator implements Iterable<CollectionEntr
 		return options;
 	}
 
+	/**
+	 * Returns the recursion mode used to construct the iterator.
+	 * 
+	 * @since 0.8.0
+	 */
+	public RecursionMode getRecursionMode() {
+		return (null == subtree) ? RecursionMode.PER_COLLECTION : RecursionMode.SUBTREE;
+	}
+
 	/**
 	 * Returns the recursion depth from the starting collection.
 	 * 
@@ -128,6 +209,9 @@ public class IRODSRecursiveCollectionIterator implements Iterable<CollectionEntr
 	 * @since 0.1.0
 	 */
 	public int getDepth() {
+		if (null != subtree) {
+			return subtree.depth;
+		}
 		return stack.size() - 1;
 	}
 
@@ -146,6 +230,8 @@ public class IRODSRecursiveCollectionIterator implements Iterable<CollectionEntr
 	 * @since 0.1.0
 	 */
 	public void pop() {
+		throwIfSubtreeMode();
+
 		if (stack.isEmpty()) {
 			return;
 		}
@@ -161,6 +247,7 @@ public class IRODSRecursiveCollectionIterator implements Iterable<CollectionEntr
 	 * @since 0.1.0
 	 */
 	public void disableRecursionPending() {
+		throwIfSubtreeMode();
 		recurse = false;
 	}
 
@@ -184,6 +271,10 @@ public class IRODSRecursiveCollectionIterator implements Iterable<CollectionEntr
 
 		@Override
 		public boolean hasNext() {
+			if (null != iter.subtree) {
+				return iter.subtree.hasNext();
+			}
+
 			// Find the next iterator in the stack which has entries.
 			while (true) {
 				if (null == iter.curIter) {
@@ -215,6 +306,10 @@ public class IRODSRecursiveCollectionIterator implements Iterable<CollectionEntr
 
 		@Override
 		public CollectionEntry next() {
+			if (null != iter.subtree) {
+				return iter.subtree.next();
+			}
+
 			var addedNewCollection = false;
 			var entry = iter.curIter.next();
 
@@ -253,4 +348,131 @@ public class IRODSRecursiveCollectionIterator implements Iterable<CollectionEntr
 
 	}
 
+	// Holds the state of an iterator constructed with RecursionMode.SUBTREE.
+	//
+	// The subtree is listed using two keyset-paginated queries. The first finds
+	// the data objects of the collection and all of its descendants. The second
+	// finds all descendant collections. Because "_" and "%" in the logical path
+	// are treated as wildcards by "like", the results are filtered against the
+	// logical path on the client.
+	private static final class SubtreeState {
+
+		private RcComm comm;
+		private String logicalPath;
+		private String prefix;
+		private int rowsPerPage;
+
+		private GenQuery2Template.Binding firstPageQuery;
+		private GenQuery2Template.Binding nextPageQuery;
+
+		private List<List<String>> rows = List.of();
+		private int rowIndex = 0;
+		private boolean lastPageFetched = false;
+		private boolean searchForCollections = false;
+		private String lastRowId;
+		private String lastObjectId = "";
+		private CollectionEntry next;
+		private int depth = 0;
+
+		SubtreeState(RcComm comm, String logicalPath, int rowsPerPage) {
+			this.comm = comm;
+			this.logicalPath = logicalPath;
+			this.prefix = logicalPath.endsWith("/") ? logicalPath : logicalPath + "/";
+			this.rowsPerPage = rowsPerPage;
+
+			firstPageQuery = bind(SUBTREE_DATA_OBJECTS_FIRST_PAGE).set("coll_name", logicalPath);
+			nextPageQuery = bind(SUBTREE_DATA_OBJECTS_NEXT_PAGE).set("coll_name", logicalPath);
+		}
+
+		boolean hasNext() {
+			while (null == next) {
+				if (rowIndex < rows.size()) {
+					next = toEntry(rows.get(rowIndex++));
+					continue;
+				}
+
+				if (lastPageFetched) {
+					if (searchForCollections) {
+						return false;
+					}
+
+					searchForCollections = true;
+					lastPageFetched = false;
+					lastRowId = null;
+					firstPageQuery = bind(SUBTREE_COLLECTIONS_FIRST_PAGE);
+					nextPageQuery = bind(SUBTREE_COLLECTIONS_NEXT_PAGE);
+				}
+
+				var query = (null == lastRowId) ? firstPageQuery : nextPageQuery.set("last_id", lastRowId);
+
+				try {
+					rows = IRODSQuery.executeGenQuery2(comm, comm.proxyUserZone, query.toQueryString());
+				} catch (IOException | IRODSException e) {
+					log.error(e.getMessage());
+					return false;
+				}
+
+				rowIndex = 0;
+				lastPageFetched = rows.size() < rowsPerPage;
+				if (!rows.isEmpty()) {
+					lastRowId = rows.get(rows.size() - 1).get(0);
+				}
+			}
+
+			return true;
+		}
+
+		CollectionEntry next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+
+			var e = next;
+			next = null;
+
+			// The depth is derived from the number of path segments between the
+			// starting collection and the entry.
+			depth = (int) e.path.substring(prefix.length()).chars().filter(c -> '/' == c).count();
+
+			return e;
+		}
+
+		// Returns null if the row does not belong to the subtree.
+		private CollectionEntry toEntry(List<String> row) {
+			if (searchForCollections) {
+				var collName = row.get(1);
+				if (collName.length() > prefix.length() && collName.startsWith(prefix)) {
+					return IRODSCollectionIterator.toCollectionEntry(row);
+				}
+				return null;
+			}
+
+			// Only the first row of each data object is of interest. The rows are ordered
+			// such that it identifies the best replica.
+			var objectId = row.get(0);
+			if (lastObjectId.equals(objectId)) {
+				return null;
+			}
+			lastObjectId = objectId;
+
+			var collName = row.get(8);
+			if (collName.equals(logicalPath) || collName.startsWith(prefix)) {
+				return IRODSCollectionIterator.toDataObjectEntry(collName, row);
+			}
+
+			return null;
+		}
+
+		private GenQuery2Template.Binding bind(GenQuery2Template template) {
+			return template.bind().set("coll_pattern", prefix + "%").set("limit", rowsPerPage);
+		}
+
+	}
+
+	private void throwIfSubtreeMode() {
+		if (null != subtree) {
+			throw new UnsupportedOperationException("Operation not supported in subtree recursion mode");
+		}
+	}
+
 }
@@ -6,6 +6,7 @@ import java.util.HashMap;
 
 import org.irods.irods4j.common.JsonUtil;
 import org.irods.irods4j.common.Reference;
+import org.irods.irods4j.high_level.catalog.GenQuery2Template;
 import org.irods.irods4j.high_level.catalog.IRODSQuery;
 import org.irods.irods4j.high_level.common.AdminTag;
 import org.irods.irods4j.low_level.api.IRODSApi;
@@ -42,6 +43,30 @@ public class IRODSReplicas {
 	 */
 	public static final AdminTag asAdmin = AdminTag.instance;
 
+	private static final GenQuery2Template DATA_SIZE_BY_REPLICA_NUMBER = GenQuery2Template
+			.compile("select DATA_SIZE where COLL_NAME = :coll_name and DATA_NAME = :data_name and DATA_REPL_NUM = :replica_number");
+
+	private static final GenQuery2Template DATA_SIZE_BY_LEAF_RESOURCE = GenQuery2Template
+			.compile("select DATA_SIZE where COLL_NAME = :coll_name and DATA_NAME = :data_name and RESC_NAME = :resc_name");
+
+	private static final GenQuery2Template DATA_MODIFY_TIME_BY_REPLICA_NUMBER = GenQuery2Template
+			.compile("select DATA_MODIFY_TIME where COLL_NAME = :coll_name and DATA_NAME = :data_name and DATA_REPL_NUM = :replica_number");
+
+	private static final GenQuery2Template DATA_MODIFY_TIME_BY_LEAF_RESOURCE = GenQuery2Template
+			.compile("select DATA_MODIFY_TIME where COLL_NAME = :coll_name and DATA_NAME = :data_name and RESC_NAME = :resc_name");
+
+	private static final GenQuery2Template DATA_REPL_NUM_BY_LEAF_RESOURCE = GenQuery2Template
+			.compile("select DATA_REPL_NUM where COLL_NAME = :coll_name and DATA_NAME = :data_name and RESC_NAME = :resc_name");
+
+	private static final GenQuery2Template RESC_NAME_BY_REPLICA_NUMBER = GenQuery2Template
+			.compile("select RESC_NAME where COLL_NAME = :coll_name and DATA_NAME = :data_name and DATA_REPL_NUM = :replica_number");
+
+	private static final GenQuery2Template DATA_ID_BY_REPLICA_NUMBER = GenQuery2Template
+			.compile("select DATA_ID where COLL_NAME = :coll_name and DATA_NAME = :data_name and DATA_REPL_NUM = :replica_number");
+
+	private static final GenQuery2Template DATA_ID_BY_LEAF_RESOURCE = GenQuery2Template
+			.compile("select DATA_ID where COLL_NAME = :coll_name and DATA_NAME = :data_name and RESC_NAME = :resc_name");
+
 	/**
 	 * Returns the size of a replica in the catalog.
 	 * 
@@ -62,11 +87,12 @@ public class IRODSReplicas {
 		throwIfNullOrEmpty(logicalPath, "Path is null or empty");
 		throwIfLessThanLowerBound(replicaNumber, 0, "Replica number is less than 0");
 
-		var collName = LogicalPath.singleQuotesToHex(LogicalPath.parentPath(logicalPath));
-		var dataName = LogicalPath.singleQuotesToHex(LogicalPath.objectName(logicalPath));
-
-		var query = "select DATA_SIZE where COLL_NAME = '%s' and DATA_NAME = '%s' and DATA_REPL_NUM = '%d'";
-		var rows = IRODSQuery.executeGenQuery2(comm, String.format(query, collName, dataName, replicaNumber));
+		var query = DATA_SIZE_BY_REPLICA_NUMBER.bind()
+				.set("coll_name", LogicalPath.parentPath(logicalPath))
+				.set("data_name", LogicalPath.objectName(logicalPath))
+				.set("replica_number", String.valueOf(replicaNumber))
+				.toQueryString();
+		var rows = IRODSQuery.executeGenQuery2(comm, query);
 		if (rows.isEmpty()) {
 			throw new IllegalStateException("Replica does not exist");
 		}
@@ -94,11 +120,12 @@ public class IRODSReplicas {
 		throwIfNullOrEmpty(logicalPath, "Path is null or empty");
 		throwIfNullOrEmpty(leafResourceName, "Leaf resource is null or empty");
 
-		var collName = LogicalPath.singleQuotesToHex(LogicalPath.parentPath(logicalPath));
-		var dataName = LogicalPath.singleQuotesToHex(LogicalPath.objectName(logicalPath));
-
-		var query = "select DATA_SIZE where COLL_NAME = '%s' and DATA_NAME = '%s' and RESC_NAME = '%s'";
-		var rows = IRODSQuery.executeGenQuery2(comm, String.format(query, collName, dataName, leafResourceName));
+		var query = DATA_SIZE_BY_LEAF_RESOURCE.bind()
+				.set("coll_name", LogicalPath.parentPath(logicalPath))
+				.set("data_name", LogicalPath.objectName(logicalPath))
+				.set("resc_name", leafResourceName)
+				.toQueryString();
+		var rows = IRODSQuery.executeGenQuery2(comm, query);
 		if (rows.isEmpty()) {
 			throw new IllegalStateException("Replica does not exist");
 		}
@@ -711,11 +738,12 @@ public class IRODSReplicas {
 		throwIfNullOrEmpty(logicalPath, "Path is null or empty");
 		throwIfLessThanLowerBound(replicaNumber, 0, "Replica number is less than 0");
 
-		var collName = LogicalPath.singleQuotesToHex(LogicalPath.parentPath(logicalPath));
-		var dataName = LogicalPath.singleQuotesToHex(LogicalPath.objectName(logicalPath));
-
-		var query = "select DATA_MODIFY_TIME where COLL_NAME = '%s' and DATA_NAME = '%s' and DATA_REPL_NUM = '%d'";
-		var rows = IRODSQuery.executeGenQuery2(comm, String.format(query, collName, dataName, replicaNumber));
+		var query = DATA_MODIFY_TIME_BY_REPLICA_NUMBER.bind()
+				.set("coll_name", LogicalPath.parentPath(logicalPath))
+				.set("data_name", LogicalPath.objectName(logicalPath))
+				.set("replica_number", String.valueOf(replicaNumber))
+				.toQueryString();
+		var rows = IRODSQuery.executeGenQuery2(comm, query);
 		if (rows.isEmpty()) {
 			throw new IllegalStateException("Replica does not exist");
 		}
@@ -744,11 +772,12 @@ public class IRODSReplicas {
 		throwIfNullOrEmpty(logicalPath, "Path is null or empty");
 		throwIfNullOrEmpty(leafResourceName, "Resource is null or empty");
 
-		var collName = LogicalPath.singleQuotesToHex(LogicalPath.parentPath(logicalPath));
-		var dataName = LogicalPath.singleQuotesToHex(LogicalPath.objectName(logicalPath));
-
-		var query = "select DATA_MODIFY_TIME where COLL_NAME = '%s' and DATA_NAME = '%s' and RESC_NAME = '%s'";
-		var rows = IRODSQuery.executeGenQuery2(comm, String.format(query, collName, dataName, leafResourceName));
+		var query = DATA_MODIFY_TIME_BY_LEAF_RESOURCE.bind()
+				.set("coll_name", LogicalPath.parentPath(logicalPath))
+				.set("data_name", LogicalPath.objectName(logicalPath))
+				.set("resc_name", leafResourceName)
+				.toQueryString();
+		var rows = IRODSQuery.executeGenQuery2(comm, query);
 		if (rows.isEmpty()) {
 			throw new IllegalStateException("Replica does not exist");
 		}
@@ -853,11 +882,12 @@ public class IRODSReplicas {
 		throwIfNullOrEmpty(logicalPath, "Path is null or empty");
 		throwIfNullOrEmpty(leafResourceName, "Resource is null or empty");
 
-		var collName = LogicalPath.singleQuotesToHex(LogicalPath.parentPath(logicalPath));
-		var dataName = LogicalPath.singleQuotesToHex(LogicalPath.objectName(logicalPath));
-
-		var query = "select DATA_REPL_NUM where COLL_NAME = '%s' and DATA_NAME = '%s' and RESC_NAME = '%s'";
-		var rows = IRODSQuery.executeGenQuery2(comm, String.format(query, collName, dataName, leafResourceName));
+		var query = DATA_REPL_NUM_BY_LEAF_RESOURCE.bind()
+				.set("coll_name", LogicalPath.parentPath(logicalPath))
+				.set("data_name", LogicalPath.objectName(logicalPath))
+				.set("resc_name", leafResourceName)
+				.toQueryString();
+		var rows = IRODSQuery.executeGenQuery2(comm, query);
 		if (rows.isEmpty()) {
 			throw new IllegalStateException("Replica does not exist");
 		}
@@ -886,11 +916,12 @@ public class IRODSReplicas {
 		throwIfNullOrEmpty(logicalPath, "Path is null or empty");
 		throwIfLessThanLowerBound(replicaNumber, 0, "Replica number is less than 0");
 
-		var collName = LogicalPath.singleQuotesToHex(LogicalPath.parentPath(logicalPath));
-		var dataName = LogicalPath.singleQuotesToHex(LogicalPath.objectName(logicalPath));
-
-		var query = "select RESC_NAME where COLL_NAME = '%s' and DATA_NAME = '%s' and DATA_REPL_NUM = '%d'";
-		var rows = IRODSQuery.executeGenQuery2(comm, String.format(query, collName, dataName, replicaNumber));
+		var query = RESC_NAME_BY_REPLICA_NUMBER.bind()
+				.set("coll_name", LogicalPath.parentPath(logicalPath))
+				.set("data_name", LogicalPath.objectName(logicalPath))
+				.set("replica_number", String.valueOf(replicaNumber))
+				.toQueryString();
+		var rows = IRODSQuery.executeGenQuery2(comm, query);
 		if (rows.isEmpty()) {
 			throw new IllegalStateException("Replica does not exist");
 		}
@@ -919,11 +950,12 @@ public class IRODSReplicas {
 		throwIfNullOrEmpty(logicalPath, "Path is null or empty");
 		throwIfLessThanLowerBound(replicaNumber, 0, "Replica number is less than 0");
 
-		var collName = LogicalPath.singleQuotesToHex(LogicalPath.parentPath(logicalPath));
-		var dataName = LogicalPath.singleQuotesToHex(LogicalPath.objectName(logicalPath));
-
-		var query = "select DATA_ID where COLL_NAME = '%s' and DATA_NAME = '%s' and DATA_REPL_NUM = '%d'";
-		return !IRODSQuery.executeGenQuery2(comm, String.format(query, collName, dataName, replicaNumber)).isEmpty();
+		var query = DATA_ID_BY_REPLICA_NUMBER.bind()
+				.set("coll_name", LogicalPath.parentPath(logicalPath))
+				.set("data_name", LogicalPath.objectName(logicalPath))
+				.set("replica_number", String.valueOf(replicaNumber))
+				.toQueryString();
+		return !IRODSQuery.executeGenQuery2(comm, query).isEmpty();
 	}
 
 	/**
@@ -947,11 +979,12 @@ public class IRODSReplicas {
 		throwIfNullOrEmpty(logicalPath, "Path is null or empty");
 		throwIfNullOrEmpty(leafResourceName, "Resource is null or empty");
 
-		var collName = LogicalPath.singleQuotesToHex(LogicalPath.parentPath(logicalPath));
-		var dataName = LogicalPath.singleQuotesToHex(LogicalPath.objectName(logicalPath));
-
-		var query = "select DATA_ID where COLL_NAME = '%s' and DATA_NAME = '%s' and RESC_NAME = '%s'";
-		return !IRODSQuery.executeGenQuery2(comm, String.format(query, collName, dataName, leafResourceName)).isEmpty();
+		var query = DATA_ID_BY_LEAF_RESOURCE.bind()
+				.set("coll_name", LogicalPath.parentPath(logicalPath))
+				.set("data_name", LogicalPath.objectName(logicalPath))
+				.set("resc_name", leafResourceName)
+				.toQueryString();
+		return !IRODSQuery.executeGenQuery2(comm, query).isEmpty();
 	}
 
 	private static void throwIfNull(Object object, String msg) {
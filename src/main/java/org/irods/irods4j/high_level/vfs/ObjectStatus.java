@@ -1,8 +1,15 @@
 package org.irods.irods4j.high_level.vfs;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
+
+import org.irods.irods4j.high_level.vfs.IRODSFilesystem.StatusField;
+import org.irods.irods4j.low_level.api.IRODSException;
 
 /**
  * Holds information describing the status of a filesystem object.
@@ -15,6 +22,16 @@ public class ObjectStatus {
 	private List<EntityPermission> perms;
 	private boolean inheritance;
 
+	// The fields which have not been fetched from the catalog yet. These are loaded
+	// on first access.
+	private Set<StatusField> pendingFields = EnumSet.noneOf(StatusField.class);
+	private FieldLoader loader;
+
+	// Fetches a field from the catalog and stores it in the status via its setter.
+	interface FieldLoader {
+		void load(ObjectStatus status, StatusField field) throws IOException, IRODSException;
+	}
+
 	/**
 	 * Values which define the type of a filesystem object.
 	 * 
@@ -61,22 +78,47 @@ public class ObjectStatus {
 
 	/**
 	 * Returns the list of permissions for the filesystem object.
+	 * <p>
+	 * If the status was obtained without {@link StatusField#PERMISSIONS}, the
+	 * permissions are fetched from the catalog on first access using the
+	 * connection which produced the status.
+	 * 
+	 * @throws UncheckedIOException If the permissions cannot be fetched.
 	 * 
 	 * @since 0.1.0
 	 */
 	public List<EntityPermission> getPermissions() {
+		loadIfPending(StatusField.PERMISSIONS);
 		return Collections.unmodifiableList(perms);
 	}
 
 	/**
 	 * Checks whether the inheritance flag is enabled.
+	 * <p>
+	 * If the status was obtained without {@link StatusField#INHERITANCE}, the
+	 * inheritance flag is fetched from the catalog on first access using the
+	 * connection which produced the status.
+	 * 
+	 * @throws UncheckedIOException If the inheritance flag cannot be fetched.
 	 * 
 	 * @since 0.1.0
 	 */
 	public boolean isInheritanceEnabled() {
+		loadIfPending(StatusField.INHERITANCE);
 		return inheritance;
 	}
 
+	/**
+	 * Checks whether a field has been fetched from the catalog.
+	 * 
+	 * @param field The field to check.
+	 * 
+	 * @since 0.8.0
+	 */
+	public boolean isLoaded(StatusField field) {
+		return !pendingFields.contains(field);
+	}
+
 	/**
 	 * Sets the object type of this {@code ObjectStatus} instance. This operation
 	 * does not update the catalog.
@@ -99,6 +141,7 @@ public class ObjectStatus {
 	 */
 	public void setPermissions(List<EntityPermission> perms) {
 		this.perms = perms;
+		pendingFields.remove(StatusField.PERMISSIONS);
 	}
 
 	/**
@@ -111,6 +154,50 @@ public class ObjectStatus {
 	 */
 	public void setInheritance(boolean value) {
 		inheritance = value;
+		pendingFields.remove(StatusField.INHERITANCE);
+	}
+
+	// Marks fields as pending. The loader is invoked on first access of each field.
+	void setPendingFields(Set<StatusField> fields, FieldLoader loader) {
+		pendingFields = fields.isEmpty() ? EnumSet.noneOf(StatusField.class) : EnumSet.copyOf(fields);
+		this.loader = loader;
+	}
+
+	Set<StatusField> getPendingFields() {
+		return Collections.unmodifiableSet(pendingFields);
+	}
+
+	// Returns a copy of the status without fetching pending fields. The copy has no
+	// loader, so its pending fields must be given a new one before they are
+	// accessed.
+	ObjectStatus copyWithoutLoader() {
+		var copy = new ObjectStatus(type, new ArrayList<>(perms));
+		copy.inheritance = inheritance;
+		copy.pendingFields = EnumSet.copyOf(pendingFields);
+		return copy;
+	}
+
+	private void loadIfPending(StatusField field) {
+		if (!pendingFields.contains(field)) {
+			return;
+		}
+
+		if (null == loader) {
+			throw new IllegalStateException(String.format("Status field [%s] has not been loaded", field));
+		}
+
+		try {
+			loader.load(this, field);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} catch (IRODSException e) {
+			throw new UncheckedIOException(new IOException(e));
+		}
+
+		pendingFields.remove(field);
+		if (pendingFields.isEmpty()) {
+			loader = null;
+		}
 	}
 
 }
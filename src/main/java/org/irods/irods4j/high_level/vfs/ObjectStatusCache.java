@@ -0,0 +1,294 @@
+package org.irods.irods4j.high_level.vfs;
+
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.irods.irods4j.high_level.vfs.IRODSFilesystem.StatusField;
+import org.irods.irods4j.high_level.vfs.ObjectStatus.ObjectType;
+import org.irods.irods4j.low_level.api.IRODSApi.RcComm;
+
+/**
+ * A bounded cache of {@link ObjectStatus} instances keyed by logical path.
+ * <p>
+ * Once attached to a connection via {@link #attach(RcComm, ObjectStatusCache)},
+ * {@link IRODSFilesystem#status(RcComm, String)} consults the cache before
+ * contacting the server and stores the results it fetches. Paths which do not
+ * exist are cached as well (negative entries) and can be given a shorter
+ * lifetime than paths which do exist. When the cache is full, the least
+ * recently used entry is evicted.
+ * <p>
+ * The functions of {@link IRODSFilesystem} which modify the catalog (e.g.
+ * {@code rename}, {@code remove}, {@code copy}, {@code createCollection},
+ * {@code permissions}) invalidate the affected entries automatically. Changes
+ * made through other means (other clients, the low-level API, etc.) are only
+ * observed once the affected entries expire.
+ * <p>
+ * Instances of this class are thread-safe. A single instance can be attached to
+ * multiple connections, which is how a cache is shared by the connections of an
+ * {@link org.irods.irods4j.high_level.connection.IRODSConnectionPool}.
+ *
+ * @since 0.8.0
+ */
+public class ObjectStatusCache {
+
+	// Tracks which cache is attached to a connection. Weak keys allow connections
+	// to be garbage collected without being detached.
+	private static final Map<RcComm, ObjectStatusCache> attachedCaches = new WeakHashMap<>();
+
+	private final int maxEntries;
+	private final long ttlNanos;
+	private final long negativeTtlNanos;
+
+	private final LinkedHashMap<String, Entry> entries;
+
+	private long hits;
+	private long misses;
+
+	private static final class Entry {
+		ObjectStatus status;
+		long expiresAt;
+	}
+
+	/**
+	 * Initializes a newly created cache.
+	 *
+	 * @param maxEntries  The max number of entries held by the cache.
+	 * @param ttl         The lifetime of an entry for a path which exists.
+	 * @param negativeTtl The lifetime of an entry for a path which does not exist.
+	 *                    A value of 0 disables negative entries.
+	 * @param unit        The unit of {@code ttl} and {@code negativeTtl}.
+	 *
+	 * @throws IllegalArgumentException If {@code maxEntries} or {@code ttl} is
+	 *                                  less than or equal to 0, or
+	 *                                  {@code negativeTtl} is less than 0.
+	 *
+	 * @since 0.8.0
+	 */
+	public ObjectStatusCache(int maxEntries, long ttl, long negativeTtl, TimeUnit unit) {
+		if (maxEntries <= 0) {
+			throw new IllegalArgumentException("Max entries is less than or equal to 0");
+		}
+
+		if (ttl <= 0) {
+			throw new IllegalArgumentException("TTL is less than or equal to 0");
+		}
+
+		if (negativeTtl < 0) {
+			throw new IllegalArgumentException("Negative TTL is less than 0");
+		}
+
+		if (null == unit) {
+			throw new IllegalArgumentException("Time unit is null");
+		}
+
+		this.maxEntries = maxEntries;
+		this.ttlNanos = unit.toNanos(ttl);
+		this.negativeTtlNanos = unit.toNanos(negativeTtl);
+		this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+				return size() > ObjectStatusCache.this.maxEntries;
+			}
+		};
+	}
+
+	/**
+	 * Attaches a cache to a connection. Any cache previously attached to the
+	 * connection is replaced.
+	 *
+	 * @param comm  The connection to attach the cache to.
+	 * @param cache The cache.
+	 *
+	 * @since 0.8.0
+	 */
+	public static void attach(RcComm comm, ObjectStatusCache cache) {
+		throwIfNull(comm, "RcComm is null");
+		throwIfNull(cache, "Object status cache is null");
+
+		synchronized (attachedCaches) {
+			attachedCaches.put(comm, cache);
+		}
+	}
+
+	/**
+	 * Detaches the cache attached to a connection, if any.
+	 *
+	 * @param comm The connection to detach the cache from.
+	 *
+	 * @since 0.8.0
+	 */
+	public static void detach(RcComm comm) {
+		throwIfNull(comm, "RcComm is null");
+
+		synchronized (attachedCaches) {
+			attachedCaches.remove(comm);
+		}
+	}
+
+	/**
+	 * Returns the cache attached to a connection.
+	 *
+	 * @param comm The connection.
+	 *
+	 * @since 0.8.0
+	 */
+	public static Optional<ObjectStatusCache> attachedTo(RcComm comm) {
+		throwIfNull(comm, "RcComm is null");
+
+		synchronized (attachedCaches) {
+			return Optional.ofNullable(attachedCaches.get(comm));
+		}
+	}
+
+	/**
+	 * Returns a copy of the cached status of a path, or an empty
+	 * {@code Optional} if the path is not cached, its entry has expired, or its
+	 * entry does not hold every {@link StatusField}.
+	 *
+	 * @param path The logical path.
+	 *
+	 * @since 0.8.0
+	 */
+	public Optional<ObjectStatus> get(String path) {
+		return get(path, EnumSet.allOf(StatusField.class));
+	}
+
+	// Returns a copy of the cached status of a path if its entry holds the required
+	// fields. The copy has no loader for the fields it does not hold.
+	synchronized Optional<ObjectStatus> get(String path, Set<StatusField> requiredFields) {
+		throwIfNull(path, "Path is null");
+
+		var e = entries.get(path);
+		if (null == e) {
+			++misses;
+			return Optional.empty();
+		}
+
+		if (System.nanoTime() - e.expiresAt >= 0) {
+			entries.remove(path);
+			++misses;
+			return Optional.empty();
+		}
+
+		for (var field : requiredFields) {
+			if (!e.status.isLoaded(field)) {
+				++misses;
+				return Optional.empty();
+			}
+		}
+
+		++hits;
+		return Optional.of(e.status.copyWithoutLoader());
+	}
+
+	/**
+	 * Stores a copy of the status of a path. Fields of the status which have not
+	 * been loaded are not fetched and are not held by the entry. Statuses of type
+	 * {@link ObjectType#NONE} are not cached, and statuses of type
+	 * {@link ObjectType#NOT_FOUND} are only cached if negative entries are
+	 * enabled.
+	 *
+	 * @param path   The logical path.
+	 * @param status The status of the path.
+	 *
+	 * @since 0.8.0
+	 */
+	public synchronized void put(String path, ObjectStatus status) {
+		throwIfNull(path, "Path is null");
+		throwIfNull(status, "Object status is null");
+
+		var ttl = ttlNanos;
+		if (ObjectType.NOT_FOUND == status.getType()) {
+			ttl = negativeTtlNanos;
+		} else if (ObjectType.NONE == status.getType()) {
+			ttl = 0;
+		}
+
+		if (0 == ttl) {
+			entries.remove(path);
+			return;
+		}
+
+		var e = new Entry();
+		e.status = status.copyWithoutLoader();
+		e.expiresAt = System.nanoTime() + ttl;
+		entries.put(path, e);
+	}
+
+	/**
+	 * Removes the entry of a path.
+	 *
+	 * @param path The logical path.
+	 *
+	 * @since 0.8.0
+	 */
+	public synchronized void invalidate(String path) {
+		throwIfNull(path, "Path is null");
+		entries.remove(path);
+	}
+
+	/**
+	 * Removes the entry of a path and the entries of all paths under it.
+	 *
+	 * @param path The logical path.
+	 *
+	 * @since 0.8.0
+	 */
+	public synchronized void invalidateTree(String path) {
+		throwIfNull(path, "Path is null");
+
+		var prefix = path.endsWith("/") ? path : path + '/';
+		entries.keySet().removeIf(p -> p.equals(path) || p.startsWith(prefix));
+	}
+
+	/**
+	 * Removes all entries.
+	 *
+	 * @since 0.8.0
+	 */
+	public synchronized void clear() {
+		entries.clear();
+	}
+
+	/**
+	 * Returns the number of entries held by the cache, including entries which
+	 * have expired but have not been removed yet.
+	 *
+	 * @since 0.8.0
+	 */
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	/**
+	 * Returns the number of lookups which were satisfied by the cache.
+	 *
+	 * @since 0.8.0
+	 */
+	public synchronized long getHitCount() {
+		return hits;
+	}
+
+	/**
+	 * Returns the number of lookups which were not satisfied by the cache.
+	 *
+	 * @since 0.8.0
+	 */
+	public synchronized long getMissCount() {
+		return misses;
+	}
+
+	private static void throwIfNull(Object object, String message) {
+		if (null == object) {
+			throw new IllegalArgumentException(message);
+		}
+	}
+
+}
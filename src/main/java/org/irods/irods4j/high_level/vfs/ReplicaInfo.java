@@ -0,0 +1,76 @@
+package org.irods.irods4j.high_level.vfs;
+
+/**
+ * Holds information about a single replica of a data object.
+ * 
+ * @since 0.8.0
+ */
+public class ReplicaInfo {
+
+	long replicaNumber;
+	String leafResourceName;
+	long size;
+	String checksum;
+	int status;
+	long mtime;
+
+	ReplicaInfo() {
+	}
+
+	/**
+	 * Returns the replica number.
+	 * 
+	 * @since 0.8.0
+	 */
+	public long replicaNumber() {
+		return replicaNumber;
+	}
+
+	/**
+	 * Returns the name of the leaf resource holding the replica.
+	 * 
+	 * @since 0.8.0
+	 */
+	public String leafResourceName() {
+		return leafResourceName;
+	}
+
+	/**
+	 * Returns the size of the replica.
+	 * 
+	 * @since 0.8.0
+	 */
+	public long size() {
+		return size;
+	}
+
+	/**
+	 * Returns the checksum of the replica. An empty string if the replica does
+	 * not have a checksum.
+	 * 
+	 * @since 0.8.0
+	 */
+	public String checksum() {
+		return checksum;
+	}
+
+	/**
+	 * Returns the status of the replica (e.g. 0 for stale, 1 for good).
+	 * 
+	 * @since 0.8.0
+	 */
+	public int status() {
+		return status;
+	}
+
+	/**
+	 * Returns the epoch seconds representing the time the replica was last
+	 * modified.
+	 * 
+	 * @since 0.8.0
+	 */
+	public long modifiedAt() {
+		return mtime;
+	}
+
+}
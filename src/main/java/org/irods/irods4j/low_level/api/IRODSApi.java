@@ -11,6 +11,7 @@ import java.net.Socket;
 import java.nio.charset.StandardCharsets;
 import java.security.KeyStore;
 import java.security.SecureRandom;
+import java.util.Objects;
 import java.util.Optional;
 
 import javax.net.ssl.SSLContext;
@@ -177,6 +178,13 @@ public class IRODSApi {
 	}
 
 	private static void sendApiRequest(OutputStream out, int apiNumber, Object data) throws IOException {
+		sendApiRequest(out, apiNumber, data, true);
+	}
+
+	// Writes a request to the output stream. If flush is false, the request is
+	// sent along with the next request which is flushed.
+	private static void sendApiRequest(OutputStream out, int apiNumber, Object data, boolean flush)
+			throws IOException {
 		var msgbody = XmlUtil.toXmlString(data).getBytes(StandardCharsets.UTF_8);
 
 		// Create the header describing the message.
@@ -188,10 +196,17 @@ public class IRODSApi {
 		// Send request.
 		Network.write(out, mh);
 		Network.writeBytes(out, msgbody);
-		out.flush();
+		if (flush) {
+			out.flush();
+		}
 	}
 
 	private static void sendApiRequest(OutputStream out, int apiNumber, Object data, byte[] bytes, int byteCount) throws IOException {
+		sendApiRequest(out, apiNumber, data, bytes, 0, byteCount);
+	}
+
+	private static void sendApiRequest(OutputStream out, int apiNumber, Object data, byte[] bytes, int byteOffset,
+			int byteCount) throws IOException {
 		var msgbody = XmlUtil.toXmlString(data).getBytes(StandardCharsets.UTF_8);
 
 		// Create the header describing the message.
@@ -204,14 +219,47 @@ public class IRODSApi {
 		// Send request.
 		Network.write(out, mh);
 		Network.writeBytes(out, msgbody);
-		Network.writeBytes(out, bytes, byteCount);
+		Network.writeBytes(out, bytes, byteOffset, byteCount);
 		out.flush();
 	}
 
 	private static <T> int receiveServerResponse(RcComm comm, Class<T> targetClass, Reference<T> output,
 												 ByteArrayReference bsBuffer) throws IOException {
+		return receiveServerResponse(comm, targetClass, output, bsBuffer, null);
+	}
+
+	// Receives a response whose byte stream is stored directly into a region of a
+	// byte array. Byte streams larger than the region are rejected and the
+	// connection is left unusable.
+	private static int receiveServerResponse(RcComm comm, byte[] bsBuffer, int bsOffset) throws IOException {
+		var mh = Network.readMsgHeader_PI(comm.sin);
+
+		if (mh.msgLen > 0) {
+			Network.readBytes(comm.sin, mh.msgLen);
+		}
+
+		if (mh.errorLen > 0) {
+			comm.rError = Network.readObject(comm.sin, mh.errorLen, RError_PI.class);
+		}
+
+		if (mh.bsLen > 0) {
+			if (mh.bsLen > bsBuffer.length - bsOffset) {
+				throw new IOException("Byte stream exceeds the space available in the buffer");
+			}
+			Network.readBytes(comm.sin, bsBuffer, bsOffset, mh.bsLen);
+		}
+
+		return mh.intInfo;
+	}
+
+	private static <T> int receiveServerResponse(RcComm comm, Class<T> targetClass, Reference<T> output,
+												 ByteArrayReference bsBuffer, Reference<Long> responseSize) throws IOException {
 		var mh = Network.readMsgHeader_PI(comm.sin);
 
+		if (null != responseSize) {
+			responseSize.value = (long) mh.msgLen + mh.errorLen + mh.bsLen;
+		}
+
 		if (mh.msgLen > 0 && null != targetClass) {
 			output.value = Network.readObject(comm.sin, mh.msgLen, targetClass);
 		}
@@ -642,17 +690,38 @@ public class IRODSApi {
 
 	public static int rcGenQuery(RcComm comm, GenQueryInp_PI input, Reference<GenQueryOut_PI> output)
 			throws IOException {
+		if (!QueryProfiler.isEnabled()) {
+			sendApiRequest(comm.sout, 702, input);
+			return receiveServerResponse(comm, GenQueryOut_PI.class, output, null);
+		}
+
+		var maxRows = input.maxRows;
+		var start = System.nanoTime();
+		var responseSize = new Reference<Long>();
 		sendApiRequest(comm.sout, 702, input);
-		return receiveServerResponse(comm, GenQueryOut_PI.class, output, null);
+		var ec = receiveServerResponse(comm, GenQueryOut_PI.class, output, null, responseSize);
+		var rowCount = (ec < 0 || null == output.value) ? 0 : output.value.rowCnt;
+		QueryProfiler.recordGenQuery1(input, maxRows, rowCount, ec, start, responseSize.value);
+		return ec;
 	}
 
 	public static int rcGenQuery2(RcComm comm, Genquery2Input_PI input, Reference<String> output) throws IOException {
+		var profile = QueryProfiler.isEnabled() && 0 == input.sql_only && 0 == input.column_mappings;
+		var start = profile ? System.nanoTime() : 0;
+		var responseSize = profile ? new Reference<Long>() : null;
+
 		sendApiRequest(comm.sout, 10221, input);
 		var outputPI = new Reference<STR_PI>();
-		var ec = receiveServerResponse(comm, STR_PI.class, outputPI, null);
+		var ec = receiveServerResponse(comm, STR_PI.class, outputPI, null, responseSize);
 		if (null != outputPI.value) {
 			output.value = outputPI.value.myStr;
 		}
+
+		if (profile) {
+			QueryProfiler.recordGenQuery2(input.query_string, (ec < 0) ? null : output.value, ec, start,
+					responseSize.value);
+		}
+
 		return ec;
 	}
 
@@ -682,17 +751,182 @@ public class IRODSApi {
 		return receiveServerResponse(comm, FileLseekOut_PI.class, output, null);
 	}
 
+	/**
+	 * Queues an lseek request without sending it.
+	 * <p>
+	 * The request is sent along with the next request written to the connection,
+	 * which allows a seek and a read or write to be sent in a single flush. The
+	 * server replies to requests in the order they were sent. The reply must be
+	 * received via {@link #receiveDataObjLseekReply(RcComm, Reference)} before the
+	 * reply to the request which follows it.
+	 *
+	 * @param comm  The connection to the iRODS server.
+	 * @param input The lseek request.
+	 *
+	 * @throws IOException If a network error occurs.
+	 *
+	 * @since 0.8.0
+	 */
+	public static void queueDataObjLseekRequest(RcComm comm, OpenedDataObjInp_PI input) throws IOException {
+		sendApiRequest(comm.sout, 674, input, false);
+	}
+
+	/**
+	 * Receives the reply to the oldest lseek request queued via
+	 * {@link #queueDataObjLseekRequest(RcComm, OpenedDataObjInp_PI)}.
+	 *
+	 * @param comm   The connection to the iRODS server.
+	 * @param output Holds the new offset on success.
+	 *
+	 * @return An iRODS error code.
+	 *
+	 * @throws IOException If a network error occurs.
+	 *
+	 * @since 0.8.0
+	 */
+	public static int receiveDataObjLseekReply(RcComm comm, Reference<FileLseekOut_PI> output) throws IOException {
+		return receiveServerResponse(comm, FileLseekOut_PI.class, output, null);
+	}
+
 	public static int rcDataObjRead(RcComm comm, OpenedDataObjInp_PI input, ByteArrayReference byteArray)
 			throws IOException {
 		sendApiRequest(comm.sout, 675, input);
 		return receiveServerResponse(comm, null, null, byteArray);
 	}
 
+	/**
+	 * Reads bytes from an open replica directly into a region of a byte array.
+	 * <p>
+	 * At most {@code input.len} bytes are read. The region starting at
+	 * {@code offset} must be large enough to hold them.
+	 *
+	 * @param comm   The connection to the iRODS server.
+	 * @param input  The read request.
+	 * @param buffer The byte array receiving the bytes.
+	 * @param offset The position in the byte array at which to store the bytes.
+	 *
+	 * @return The number of bytes read, or an iRODS error code.
+	 *
+	 * @throws IOException If a network error occurs.
+	 *
+	 * @since 0.8.0
+	 */
+	public static int rcDataObjRead(RcComm comm, OpenedDataObjInp_PI input, byte[] buffer, int offset)
+			throws IOException {
+		Objects.checkFromIndexSize(offset, input.len, buffer.length);
+		sendDataObjReadRequest(comm, input);
+		return receiveDataObjReadReply(comm, buffer, offset);
+	}
+
+	/**
+	 * Sends a read request without waiting for the reply.
+	 * <p>
+	 * The server replies to requests in the order they were sent. This allows
+	 * multiple read requests to be in flight on a connection. Every request must
+	 * be matched by a call to
+	 * {@link #receiveDataObjReadReply(RcComm, byte[], int)} before any other
+	 * operation is performed on the connection.
+	 *
+	 * @param comm  The connection to the iRODS server.
+	 * @param input The read request.
+	 *
+	 * @throws IOException If a network error occurs.
+	 *
+	 * @since 0.8.0
+	 */
+	public static void sendDataObjReadRequest(RcComm comm, OpenedDataObjInp_PI input) throws IOException {
+		sendApiRequest(comm.sout, 675, input);
+	}
+
+	/**
+	 * Receives the reply to the oldest read request sent via
+	 * {@link #sendDataObjReadRequest(RcComm, OpenedDataObjInp_PI)}.
+	 * <p>
+	 * The bytes are stored directly into the byte array. The region starting at
+	 * {@code offset} must be large enough to hold the number of bytes requested.
+	 *
+	 * @param comm   The connection to the iRODS server.
+	 * @param buffer The byte array receiving the bytes.
+	 * @param offset The position in the byte array at which to store the bytes.
+	 *
+	 * @return The number of bytes read, or an iRODS error code.
+	 *
+	 * @throws IOException If a network error occurs.
+	 *
+	 * @since 0.8.0
+	 */
+	public static int receiveDataObjReadReply(RcComm comm, byte[] buffer, int offset) throws IOException {
+		return receiveServerResponse(comm, buffer, offset);
+	}
+
 	public static int rcDataObjWrite(RcComm comm, OpenedDataObjInp_PI input, byte[] buffer) throws IOException {
 		sendApiRequest(comm.sout, 676, input, buffer, input.len);
 		return receiveServerResponse(comm, null, null, null);
 	}
 
+	/**
+	 * Writes bytes from a region of a byte array to an open replica.
+	 * <p>
+	 * {@code input.len} bytes starting at {@code offset} are sent to the server.
+	 *
+	 * @param comm   The connection to the iRODS server.
+	 * @param input  The write request.
+	 * @param buffer The byte array holding the bytes.
+	 * @param offset The position in the byte array of the first byte to write.
+	 *
+	 * @return The number of bytes written, or an iRODS error code.
+	 *
+	 * @throws IOException If a network error occurs.
+	 *
+	 * @since 0.8.0
+	 */
+	public static int rcDataObjWrite(RcComm comm, OpenedDataObjInp_PI input, byte[] buffer, int offset)
+			throws IOException {
+		Objects.checkFromIndexSize(offset, input.len, buffer.length);
+		sendDataObjWriteRequest(comm, input, buffer, offset);
+		return receiveDataObjWriteReply(comm);
+	}
+
+	/**
+	 * Sends a write request without waiting for the reply.
+	 * <p>
+	 * The server replies to requests in the order they were sent. This allows
+	 * multiple write requests to be in flight on a connection. Every request must
+	 * be matched by a call to {@link #receiveDataObjWriteReply(RcComm)} before any
+	 * other operation is performed on the connection. The byte array can be reused
+	 * as soon as this function returns.
+	 *
+	 * @param comm   The connection to the iRODS server.
+	 * @param input  The write request.
+	 * @param buffer The byte array holding the bytes.
+	 * @param offset The position in the byte array of the first byte to write.
+	 *
+	 * @throws IOException If a network error occurs.
+	 *
+	 * @since 0.8.0
+	 */
+	public static void sendDataObjWriteRequest(RcComm comm, OpenedDataObjInp_PI input, byte[] buffer, int offset)
+			throws IOException {
+		Objects.checkFromIndexSize(offset, input.len, buffer.length);
+		sendApiRequest(comm.sout, 676, input, buffer, offset, input.len);
+	}
+
+	/**
+	 * Receives the reply to the oldest write request sent via
+	 * {@link #sendDataObjWriteRequest(RcComm, OpenedDataObjInp_PI, byte[], int)}.
+	 *
+	 * @param comm The connection to the iRODS server.
+	 *
+	 * @return The number of bytes written, or an iRODS error code.
+	 *
+	 * @throws IOException If a network error occurs.
+	 *
+	 * @since 0.8.0
+	 */
+	public static int receiveDataObjWriteReply(RcComm comm) throws IOException {
+		return receiveServerResponse(comm, null, null, null);
+	}
+
 	public static int rcReplicaClose(RcComm comm, String closeOptions) throws IOException {
 		var input = new BinBytesBuf_PI();
 		input.buf = closeOptions;
@@ -966,8 +1200,18 @@ public class IRODSApi {
 
 	public static int rcSpecificQuery(RcComm comm, SpecificQueryInp_PI input, Reference<GenQueryOut_PI> output)
 			throws IOException {
+		if (!QueryProfiler.isEnabled()) {
+			sendApiRequest(comm.sout, 722, input);
+			return receiveServerResponse(comm, GenQueryOut_PI.class, output, null);
+		}
+
+		var start = System.nanoTime();
+		var responseSize = new Reference<Long>();
 		sendApiRequest(comm.sout, 722, input);
-		return receiveServerResponse(comm, GenQueryOut_PI.class, output, null);
+		var ec = receiveServerResponse(comm, GenQueryOut_PI.class, output, null, responseSize);
+		var rowCount = (ec < 0 || null == output.value) ? 0 : output.value.rowCnt;
+		QueryProfiler.recordSpecificQuery(input, rowCount, ec, start, responseSize.value);
+		return ec;
 	}
 
 	public static int rcGetResourceInfoForOperation(RcComm comm, DataObjInp_PI input, Reference<String> output)
@@ -0,0 +1,587 @@
+package org.irods.irods4j.low_level.api;
+
+import java.lang.reflect.Modifier;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.irods.irods4j.low_level.protocol.packing_instructions.GenQueryInp_PI;
+import org.irods.irods4j.low_level.protocol.packing_instructions.SpecificQueryInp_PI;
+
+/**
+ * A class which records the latency of catalog queries issued by this client.
+ * <p>
+ * When enabled, every call to {@link IRODSApi#rcGenQuery},
+ * {@link IRODSApi#rcGenQuery2}, and {@link IRODSApi#rcSpecificQuery} is timed.
+ * Query strings are normalized into templates by replacing literals with
+ * {@code ?}, so that queries which only differ by their values are grouped
+ * together. For each template, the profiler records the number of calls, the
+ * number of failed calls, a latency histogram, the number of rows returned, and
+ * the number of bytes in the server's responses.
+ * <p>
+ * Queries which take longer than the slow query threshold are additionally
+ * recorded, with their original query string, in a bounded log.
+ * <p>
+ * The number of templates tracked is bounded as well. Once the limit is
+ * reached, calls whose template is not already tracked are recorded under
+ * {@link #OVERFLOW_TEMPLATE}.
+ * <p>
+ * The profiler is disabled by default and is shared by all connections. All
+ * functions are thread-safe.
+ *
+ * @since 0.8.0
+ */
+public final class QueryProfiler {
+
+	private static final Logger log = LogManager.getLogger();
+
+	/**
+	 * The number of buckets in each latency histogram.
+	 *
+	 * @since 0.8.0
+	 */
+	public static final int NUMBER_OF_HISTOGRAM_BUCKETS = 32;
+
+	/**
+	 * The template under which calls are recorded once the maximum number of
+	 * templates has been reached.
+	 *
+	 * @since 0.8.0
+	 */
+	public static final String OVERFLOW_TEMPLATE = "<other>";
+
+	/**
+	 * Identifies the API used to execute a query.
+	 *
+	 * @since 0.8.0
+	 */
+	public static enum QueryApi {
+		GENQUERY1, GENQUERY2, SPECIFIC_QUERY
+	}
+
+	/**
+	 * A snapshot of the statistics recorded for a single query template.
+	 *
+	 * @since 0.8.0
+	 */
+	public static final class QueryStatistics {
+		public QueryApi api;
+		public String template;
+		public long callCount;
+		public long errorCount;
+		public long totalNanos;
+		public long maxNanos;
+		public long rowCount;
+		public long responseBytes;
+
+		/**
+		 * The latency histogram. Bucket {@code i} holds the number of calls which took
+		 * less than {@link #getBucketUpperBoundMicros(int)} microseconds and at least
+		 * as long as the upper bound of the previous bucket.
+		 */
+		public long[] histogram;
+
+		/**
+		 * Returns the mean latency in nanoseconds.
+		 *
+		 * @since 0.8.0
+		 */
+		public long getMeanNanos() {
+			return (0 == callCount) ? 0 : totalNanos / callCount;
+		}
+
+		/**
+		 * Returns an upper bound on the latency of the given percentile of calls, in
+		 * microseconds, as derived from the histogram.
+		 *
+		 * @param percentile A value between 0 and 100.
+		 *
+		 * @since 0.8.0
+		 */
+		public long getPercentileUpperBoundMicros(double percentile) {
+			if (percentile < 0 || percentile > 100) {
+				throw new IllegalArgumentException("Percentile must be between 0 and 100");
+			}
+
+			var total = 0L;
+			for (var c : histogram) {
+				total += c;
+			}
+
+			if (0 == total) {
+				return 0;
+			}
+
+			var target = (long) Math.ceil(total * (percentile / 100.0));
+			var seen = 0L;
+			for (int i = 0; i < histogram.length; ++i) {
+				seen += histogram[i];
+				if (seen >= target) {
+					return getBucketUpperBoundMicros(i);
+				}
+			}
+
+			return getBucketUpperBoundMicros(histogram.length - 1);
+		}
+	}
+
+	/**
+	 * A single entry in the slow query log.
+	 *
+	 * @since 0.8.0
+	 */
+	public static final class SlowQuery {
+		public QueryApi api;
+		public String template;
+		public String query;
+		public Instant startTime;
+		public long durationNanos;
+		public long rowCount;
+		public long responseBytes;
+		public int errorCode;
+	}
+
+	private static final class Accumulator {
+		LongAdder callCount = new LongAdder();
+		LongAdder errorCount = new LongAdder();
+		LongAdder totalNanos = new LongAdder();
+		LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+		LongAdder rowCount = new LongAdder();
+		LongAdder responseBytes = new LongAdder();
+		AtomicLongArray histogram = new AtomicLongArray(NUMBER_OF_HISTOGRAM_BUCKETS);
+	}
+
+	private static record Key(QueryApi api, String template) {
+	}
+
+	private static final Pattern LIST_OF_PLACEHOLDERS = Pattern.compile("\\?( ?, ?\\?)+");
+
+	private static final Map<Integer, String> genQuery1ColumnNames = mapGenQuery1ColumnNames();
+
+	private static volatile boolean enabled = false;
+	private static volatile long slowQueryThresholdNanos = TimeUnit.MILLISECONDS.toNanos(500);
+	private static volatile int slowQueryLogCapacity = 100;
+	private static volatile int maxTemplates = 1000;
+
+	private static final ConcurrentHashMap<Key, Accumulator> statistics = new ConcurrentHashMap<>();
+	private static final ArrayDeque<SlowQuery> slowQueries = new ArrayDeque<>();
+
+	private QueryProfiler() {
+	}
+
+	/**
+	 * Enables or disables the profiler. Statistics recorded so far are kept.
+	 *
+	 * @since 0.8.0
+	 */
+	public static void setEnabled(boolean enable) {
+		enabled = enable;
+	}
+
+	/**
+	 * Checks if the profiler is enabled.
+	 *
+	 * @since 0.8.0
+	 */
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Sets the minimum latency a query must have to be recorded in the slow query
+	 * log. Defaults to 500 milliseconds.
+	 *
+	 * @param threshold The threshold.
+	 * @param unit      The unit of the threshold.
+	 *
+	 * @since 0.8.0
+	 */
+	public static void setSlowQueryThreshold(long threshold, TimeUnit unit) {
+		if (threshold < 0) {
+			throw new IllegalArgumentException("Slow query threshold is less than 0");
+		}
+
+		if (null == unit) {
+			throw new IllegalArgumentException("Time unit is null");
+		}
+
+		slowQueryThresholdNanos = unit.toNanos(threshold);
+	}
+
+	/**
+	 * Returns the slow query threshold in nanoseconds.
+	 *
+	 * @since 0.8.0
+	 */
+	public static long getSlowQueryThresholdNanos() {
+		return slowQueryThresholdNanos;
+	}
+
+	/**
+	 * Sets the maximum number of entries held by the slow query log. Once full, the
+	 * oldest entry is discarded. Defaults to 100.
+	 *
+	 * @since 0.8.0
+	 */
+	public static void setSlowQueryLogCapacity(int capacity) {
+		if (capacity < 0) {
+			throw new IllegalArgumentException("Slow query log capacity is less than 0");
+		}
+
+		synchronized (slowQueries) {
+			slowQueryLogCapacity = capacity;
+			while (slowQueries.size() > capacity) {
+				slowQueries.poll();
+			}
+		}
+	}
+
+	/**
+	 * Sets the maximum number of templates tracked. Calls whose template is not
+	 * already tracked are recorded under {@link #OVERFLOW_TEMPLATE} once the limit
+	 * is reached. Templates which are already tracked are kept until
+	 * {@link #reset()} is called. Defaults to 1000.
+	 *
+	 * @since 0.8.0
+	 */
+	public static void setMaxTemplates(int max) {
+		if (max < 0) {
+			throw new IllegalArgumentException("Maximum number of templates is less than 0");
+		}
+
+		maxTemplates = max;
+	}
+
+	/**
+	 * Returns the maximum number of templates tracked.
+	 *
+	 * @since 0.8.0
+	 */
+	public static int getMaxTemplates() {
+		return maxTemplates;
+	}
+
+	/**
+	 * Returns a snapshot of the statistics of every query template, ordered by
+	 * total latency, highest first.
+	 *
+	 * @since 0.8.0
+	 */
+	public static List<QueryStatistics> getStatistics() {
+		var list = new ArrayList<QueryStatistics>(statistics.size());
+
+		statistics.forEach((key, acc) -> {
+			var s = new QueryStatistics();
+			s.api = key.api();
+			s.template = key.template();
+			s.callCount = acc.callCount.sum();
+			s.errorCount = acc.errorCount.sum();
+			s.totalNanos = acc.totalNanos.sum();
+			s.maxNanos = acc.maxNanos.get();
+			s.rowCount = acc.rowCount.sum();
+			s.responseBytes = acc.responseBytes.sum();
+			s.histogram = new long[NUMBER_OF_HISTOGRAM_BUCKETS];
+			for (int i = 0; i < s.histogram.length; ++i) {
+				s.histogram[i] = acc.histogram.get(i);
+			}
+			list.add(s);
+		});
+
+		list.sort(Comparator.comparingLong((QueryStatistics s) -> s.totalNanos).reversed());
+
+		return list;
+	}
+
+	/**
+	 * Returns a copy of the slow query log, oldest entry first.
+	 *
+	 * @since 0.8.0
+	 */
+	public static List<SlowQuery> getSlowQueries() {
+		synchronized (slowQueries) {
+			return Collections.unmodifiableList(new ArrayList<>(slowQueries));
+		}
+	}
+
+	/**
+	 * Discards all recorded statistics and the slow query log.
+	 *
+	 * @since 0.8.0
+	 */
+	public static void reset() {
+		statistics.clear();
+		synchronized (slowQueries) {
+			slowQueries.clear();
+		}
+	}
+
+	/**
+	 * Returns the exclusive upper bound, in microseconds, of a histogram bucket.
+	 *
+	 * @param bucket The index of the bucket.
+	 *
+	 * @since 0.8.0
+	 */
+	public static long getBucketUpperBoundMicros(int bucket) {
+		if (bucket < 0 || bucket >= NUMBER_OF_HISTOGRAM_BUCKETS) {
+			throw new IllegalArgumentException("Bucket index is out of range");
+		}
+
+		return 1L << (bucket + 1);
+	}
+
+	/**
+	 * Normalizes a query string into a template.
+	 * <p>
+	 * Single-quoted literals and numbers are replaced with {@code ?}, lists of
+	 * literals are collapsed into {@code ?, ...}, and runs of whitespace are
+	 * collapsed into a single space.
+	 *
+	 * @param query The query string.
+	 *
+	 * @since 0.8.0
+	 */
+	public static String normalize(String query) {
+		if (null == query) {
+			return "";
+		}
+
+		var sb = new StringBuilder(query.length());
+		var n = query.length();
+
+		for (int i = 0; i < n; ++i) {
+			var c = query.charAt(i);
+
+			if ('\'' == c) {
+				var end = query.indexOf('\'', i + 1);
+				i = (-1 == end) ? n : end;
+				sb.append('?');
+				continue;
+			}
+
+			if (Character.isDigit(c) && !endsWithIdentifierPart(sb)) {
+				while (i + 1 < n && (Character.isDigit(query.charAt(i + 1)) || '.' == query.charAt(i + 1))) {
+					++i;
+				}
+				sb.append('?');
+				continue;
+			}
+
+			if (Character.isWhitespace(c)) {
+				if (sb.length() > 0 && ' ' != sb.charAt(sb.length() - 1)) {
+					sb.append(' ');
+				}
+				continue;
+			}
+
+			sb.append(c);
+		}
+
+		var len = sb.length();
+		if (len > 0 && ' ' == sb.charAt(len - 1)) {
+			sb.setLength(len - 1);
+		}
+
+		// Collapse lists of literals (e.g. "in ('a', 'b', 'c')") so that they map to
+		// the same template regardless of their length.
+		return LIST_OF_PLACEHOLDERS.matcher(sb).replaceAll("?, ...");
+	}
+
+	static void recordGenQuery1(GenQueryInp_PI input, int maxRowsRequested, int rowCount, int ec, long startNanos,
+			long responseBytes) {
+		// Requests which only close a query are not interesting.
+		if (maxRowsRequested <= 0) {
+			return;
+		}
+
+		var query = renderGenQuery1(input);
+		record(QueryApi.GENQUERY1, query, rowCount, ec, startNanos, responseBytes);
+	}
+
+	static void recordGenQuery2(String query, String output, int ec, long startNanos, long responseBytes) {
+		record(QueryApi.GENQUERY2, query, (ec < 0) ? 0 : countJsonRows(output), ec, startNanos, responseBytes);
+	}
+
+	static void recordSpecificQuery(SpecificQueryInp_PI input, int rowCount, int ec, long startNanos,
+			long responseBytes) {
+		if (input.maxRows <= 0) {
+			return;
+		}
+
+		record(QueryApi.SPECIFIC_QUERY, input.sql, rowCount, ec, startNanos, responseBytes);
+	}
+
+	private static void record(QueryApi api, String query, long rowCount, int ec, long startNanos,
+			long responseBytes) {
+		var elapsed = System.nanoTime() - startNanos;
+		var template = normalize(query);
+
+		var key = new Key(api, template);
+		var acc = statistics.get(key);
+		if (null == acc) {
+			// The overflow entries are exempt from the limit, so the map holds at most
+			// one of them per API in addition to the tracked templates.
+			if (statistics.size() >= maxTemplates) {
+				key = new Key(api, OVERFLOW_TEMPLATE);
+			}
+			acc = statistics.computeIfAbsent(key, k -> new Accumulator());
+		}
+		acc.callCount.increment();
+		if (ec < 0) {
+			acc.errorCount.increment();
+		}
+		acc.totalNanos.add(elapsed);
+		acc.maxNanos.accumulate(elapsed);
+		acc.rowCount.add(rowCount);
+		acc.responseBytes.add(responseBytes);
+		acc.histogram.incrementAndGet(toBucket(elapsed));
+
+		if (elapsed < slowQueryThresholdNanos) {
+			return;
+		}
+
+		log.debug("Slow query detected [api={}, duration={}ms, query={}].", api,
+				TimeUnit.NANOSECONDS.toMillis(elapsed), query);
+
+		var entry = new SlowQuery();
+		entry.api = api;
+		entry.template = template;
+		entry.query = query;
+		entry.startTime = Instant.now().minusNanos(elapsed);
+		entry.durationNanos = elapsed;
+		entry.rowCount = rowCount;
+		entry.responseBytes = responseBytes;
+		entry.errorCode = ec;
+
+		synchronized (slowQueries) {
+			if (0 == slowQueryLogCapacity) {
+				return;
+			}
+			if (slowQueries.size() == slowQueryLogCapacity) {
+				slowQueries.poll();
+			}
+			slowQueries.add(entry);
+		}
+	}
+
+	private static int toBucket(long elapsedNanos) {
+		var micros = TimeUnit.NANOSECONDS.toMicros(elapsedNanos);
+		if (micros < 2) {
+			return 0;
+		}
+		var bucket = 63 - Long.numberOfLeadingZeros(micros);
+		return Math.min(bucket, NUMBER_OF_HISTOGRAM_BUCKETS - 1);
+	}
+
+	private static String renderGenQuery1(GenQueryInp_PI input) {
+		var sb = new StringBuilder(128);
+		sb.append("select ");
+
+		if (null != input.InxIvalPair_PI && null != input.InxIvalPair_PI.inx) {
+			var first = true;
+			for (var inx : input.InxIvalPair_PI.inx) {
+				if (!first) {
+					sb.append(", ");
+				}
+				sb.append(genQuery1ColumnNames.getOrDefault(inx, String.valueOf(inx)));
+				first = false;
+			}
+		}
+
+		if (null != input.InxValPair_PI && null != input.InxValPair_PI.inx && !input.InxValPair_PI.inx.isEmpty()) {
+			sb.append(" where ");
+			var conditions = input.InxValPair_PI;
+			for (int i = 0; i < conditions.inx.size(); ++i) {
+				if (i > 0) {
+					sb.append(" and ");
+				}
+				var inx = conditions.inx.get(i);
+				sb.append(genQuery1ColumnNames.getOrDefault(inx, String.valueOf(inx)));
+				sb.append(' ');
+				if (null != conditions.svalue && i < conditions.svalue.size()) {
+					sb.append(conditions.svalue.get(i));
+				}
+			}
+		}
+
+		return sb.toString();
+	}
+
+	// Counts the number of rows in a GenQuery2 resultset without deserializing it.
+	// The resultset is a JSON array of arrays of strings.
+	private static long countJsonRows(String json) {
+		if (null == json) {
+			return 0;
+		}
+
+		var rows = 0L;
+		var depth = 0;
+		var inString = false;
+
+		for (int i = 0; i < json.length(); ++i) {
+			var c = json.charAt(i);
+
+			if (inString) {
+				if ('\\' == c) {
+					++i;
+				} else if ('"' == c) {
+					inString = false;
+				}
+				continue;
+			}
+
+			if ('"' == c) {
+				inString = true;
+			} else if ('[' == c) {
+				// Rows are the arrays nested directly inside the outermost array.
+				if (2 == ++depth) {
+					++rows;
+				}
+			} else if (']' == c) {
+				--depth;
+			}
+		}
+
+		return rows;
+	}
+
+	private static boolean endsWithIdentifierPart(StringBuilder sb) {
+		if (sb.isEmpty()) {
+			return false;
+		}
+		var c = sb.charAt(sb.length() - 1);
+		return Character.isLetterOrDigit(c) || '_' == c;
+	}
+
+	private static Map<Integer, String> mapGenQuery1ColumnNames() {
+		var map = new HashMap<Integer, String>();
+
+		for (var field : GenQuery1Columns.class.getFields()) {
+			if (int.class != field.getType() || !Modifier.isStatic(field.getModifiers())) {
+				continue;
+			}
+
+			try {
+				map.putIfAbsent(field.getInt(null), field.getName());
+			} catch (IllegalAccessException e) {
+				log.debug(e.getMessage());
+			}
+		}
+
+		return map;
+	}
+
+}
@@ -1,5 +1,6 @@
 package org.irods.irods4j.low_level.network;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -81,6 +82,12 @@ public class Network {
 		in.readNBytes(buffer, 0, size);
 	}
 
+	public static void readBytes(InputStream in, byte[] buffer, int offset, int size) throws IOException {
+		if (in.readNBytes(buffer, offset, size) < size) {
+			throw new EOFException("Connection closed before all bytes were received");
+		}
+	}
+
 	public static void writeBytes(OutputStream out, byte[] bytes) throws IOException {
 		out.write(bytes);
 	}
@@ -89,4 +96,8 @@ public class Network {
 		out.write(bytes, 0, count);
 	}
 
+	public static void writeBytes(OutputStream out, byte[] bytes, int offset, int count) throws IOException {
+		out.write(bytes, offset, count);
+	}
+
 }
@@ -0,0 +1,31 @@
+package org.irods.irods4j.high_level;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.irods.irods4j.high_level.io.BlockCache;
+import org.junit.jupiter.api.Test;
+
+class BlockCacheTest {
+
+	@Test
+	void testInvalidArgumentsAreRejected() {
+		assertThrows(IllegalArgumentException.class, () -> new BlockCache(0, 1024, 0));
+		assertThrows(IllegalArgumentException.class, () -> new BlockCache(1024, 1023, 0));
+		assertThrows(IllegalArgumentException.class, () -> new BlockCache(1024, 4096, -1));
+		assertThrows(IllegalArgumentException.class, () -> new BlockCache(1024, 4096, 0).invalidate(null));
+	}
+
+	@Test
+	void testNewCacheIsEmpty() {
+		var cache = new BlockCache(4096, 1 << 20, 4);
+		assertEquals(4096, cache.getBlockSize());
+		assertEquals(1 << 20, cache.getMaxBytes());
+		assertEquals(4, cache.getPrefetchBlocks());
+		assertEquals(0, cache.size());
+		assertEquals(0, cache.getByteCount());
+		assertEquals(0, cache.getHitCount());
+		assertEquals(0, cache.getMissCount());
+	}
+
+}
@@ -0,0 +1,38 @@
+package org.irods.irods4j.high_level;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.security.MessageDigest;
+import java.util.Optional;
+
+import org.irods.irods4j.high_level.io.ChecksumScheme;
+import org.junit.jupiter.api.Test;
+
+class ChecksumSchemeTest {
+
+	@Test
+	void testSchemeIsDerivedFromCatalogFormat() {
+		assertEquals(Optional.of(ChecksumScheme.MD5), ChecksumScheme.of("d41d8cd98f00b204e9800998ecf8427e"));
+		assertEquals(Optional.of(ChecksumScheme.SHA1), ChecksumScheme.of("sha1:2jmj7l5rSw0yVb/vlWAYkK/YBwk="));
+		assertEquals(Optional.of(ChecksumScheme.SHA256),
+				ChecksumScheme.of("sha2:47DEQpj8HBSa+/TImW+5JCeuQeRkm5NMpJWZG3hSuFU="));
+		assertEquals(Optional.of(ChecksumScheme.SHA512), ChecksumScheme.of(
+				"sha512:z4PhNX7vuL3xVChQ1m2AB9Yg5AULVxXcg/SpIdNs6c5H0NE8XYXysP+DGNKHfuwvY7kxvUdBeoGlODJ6+SfaPg=="));
+
+		assertTrue(ChecksumScheme.of(null).isEmpty());
+		assertTrue(ChecksumScheme.of("").isEmpty());
+		assertTrue(ChecksumScheme.of("not a checksum").isEmpty());
+	}
+
+	@Test
+	void testDigestsAreFormattedLikeTheCatalog() throws Exception {
+		var empty = new byte[0];
+
+		assertEquals("d41d8cd98f00b204e9800998ecf8427e",
+				ChecksumScheme.MD5.format(MessageDigest.getInstance("MD5").digest(empty)));
+		assertEquals("sha2:47DEQpj8HBSa+/TImW+5JCeuQeRkm5NMpJWZG3hSuFU=",
+				ChecksumScheme.SHA256.format(MessageDigest.getInstance("SHA-256").digest(empty)));
+	}
+
+}
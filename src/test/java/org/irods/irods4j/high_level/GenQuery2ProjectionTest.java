@@ -0,0 +1,78 @@
+package org.irods.irods4j.high_level;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.time.Instant;
+
+import org.irods.irods4j.high_level.catalog.GenQuery2Projection;
+import org.junit.jupiter.api.Test;
+
+class GenQuery2ProjectionTest {
+
+	static record Replica(long id, String name, Integer replicaNumber, Long size, Instant mtime) {
+	}
+
+	@Test
+	void testProjectionDerivesSelectClauseFromColumns() {
+		var builder = new GenQuery2Projection.Builder();
+		builder.int64("DATA_ID");
+		builder.string("DATA_NAME");
+		builder.int64("max(DATA_SIZE)");
+		var projection = builder.bind(row -> row.getString(0));
+
+		assertEquals("select DATA_ID, DATA_NAME, max(DATA_SIZE)", projection.getSelectClause());
+		assertEquals(3, projection.getColumns().size());
+	}
+
+	@Test
+	void testProjectionDecodesRowsIntoRecords() throws IOException {
+		var builder = new GenQuery2Projection.Builder();
+		var id = builder.int64("DATA_ID");
+		var name = builder.string("DATA_NAME");
+		var replicaNumber = builder.int32("DATA_REPL_NUM");
+		var size = builder.int64("DATA_SIZE");
+		var mtime = builder.epochSeconds("DATA_MODIFY_TIME");
+		var projection = builder.bind(row -> new Replica(row.get(id), row.get(name), row.get(replicaNumber),
+				row.get(size), row.get(mtime)));
+
+		var json = "[[\"10010\",\"foo.txt\",\"0\",\"42\",\"01700000000\"],[\"10011\",\"b\\\"ar\",\"3\",\"\",\"\"]]";
+		var replicas = projection.decode(json);
+
+		assertEquals(2, replicas.size());
+		assertEquals(new Replica(10010, "foo.txt", 0, 42L, Instant.ofEpochSecond(1700000000)), replicas.get(0));
+
+		// Empty values are decoded as null for numeric columns.
+		var r = replicas.get(1);
+		assertEquals("b\"ar", r.name());
+		assertEquals(3, r.replicaNumber());
+		assertNull(r.size());
+		assertNull(r.mtime());
+
+		// An empty resultset produces no rows.
+		assertEquals(0, projection.decode("[]").size());
+	}
+
+	@Test
+	void testProjectionRejectsMismatchedRowsAndForeignColumns() {
+		var builder = new GenQuery2Projection.Builder();
+		var id = builder.int64("DATA_ID");
+		var projection = builder.bind(row -> row.get(id));
+
+		assertThrows(IOException.class, () -> projection.decode("[[\"1\",\"2\"]]"));
+		assertThrows(IOException.class, () -> projection.decode("[[]]"));
+		assertThrows(IOException.class, () -> projection.decode("{}"));
+
+		// Columns cannot be added once the projection has been bound.
+		assertThrows(IllegalStateException.class, () -> builder.string("DATA_NAME"));
+
+		// Columns from a different builder cannot be used to read rows.
+		var otherBuilder = new GenQuery2Projection.Builder();
+		otherBuilder.int64("COLL_ID");
+		var mixed = otherBuilder.bind(row -> row.get(id));
+		assertThrows(IllegalArgumentException.class, () -> mixed.decode("[[\"1\"]]"));
+	}
+
+}
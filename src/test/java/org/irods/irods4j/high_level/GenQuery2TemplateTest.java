@@ -0,0 +1,77 @@
+package org.irods.irods4j.high_level;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.irods.irods4j.high_level.catalog.GenQuery2Template;
+import org.junit.jupiter.api.Test;
+
+class GenQuery2TemplateTest {
+
+	@Test
+	void testTemplateParsesParametersInOrderOfFirstAppearance() {
+		var template = GenQuery2Template.compile(
+				"select DATA_ID where COLL_NAME = :coll_name and DATA_NAME = :data_name or COLL_NAME = :coll_name");
+		assertEquals(List.of("coll_name", "data_name"), template.getParameterNames());
+	}
+
+	@Test
+	void testColonsInsideLiteralsAreNotParameters() {
+		var template = GenQuery2Template
+				.compile("select DATA_ID where META_DATA_ATTR_VALUE = 'a:b' and DATA_NAME = :data_name");
+		assertEquals(List.of("data_name"), template.getParameterNames());
+
+		var query = template.bind().set("data_name", "foo").toQueryString();
+		assertEquals("select DATA_ID where META_DATA_ATTR_VALUE = 'a:b' and DATA_NAME = 'foo'", query);
+	}
+
+	@Test
+	void testBindingRendersEscapedLiteralsListsAndIntegers() {
+		var template = GenQuery2Template.compile(
+				"select DATA_ID where COLL_NAME = :coll_name and DATA_NAME in (:data_names) limit :limit");
+
+		var query = template.bind()
+				.set("coll_name", "/tempZone/home/it's")
+				.set("data_names", List.of("a", "b'c"))
+				.set("limit", 256)
+				.toQueryString();
+
+		assertEquals(
+				"select DATA_ID where COLL_NAME = '/tempZone/home/it\\x27s' and DATA_NAME in ('a', 'b\\x27c') limit 256",
+				query);
+	}
+
+	@Test
+	void testBindingCanBeReusedWithNewValues() {
+		var template = GenQuery2Template.compile("select COLL_ID where COLL_NAME = :coll_name");
+		var binding = template.bind();
+
+		assertEquals("select COLL_ID where COLL_NAME = '/a'", binding.set("coll_name", "/a").toQueryString());
+		assertEquals("select COLL_ID where COLL_NAME = '/b'", binding.set("coll_name", "/b").toQueryString());
+	}
+
+	@Test
+	void testCachedGeneratedSQLDependsOnListLengthsAndIntegers() {
+		var template = GenQuery2Template.compile("select DATA_ID where DATA_NAME in (:data_names) limit :limit");
+
+		// Nothing has been generated yet, regardless of shape.
+		assertTrue(template.bind().set("data_names", List.of("a")).set("limit", 1).getCachedGeneratedSQL().isEmpty());
+		assertThrows(IllegalStateException.class, () -> template.bind().getCachedGeneratedSQL());
+	}
+
+	@Test
+	void testInvalidTemplatesAndBindingsAreRejected() {
+		assertThrows(IllegalArgumentException.class, () -> GenQuery2Template.compile(""));
+		assertThrows(IllegalArgumentException.class,
+				() -> GenQuery2Template.compile("select COLL_ID where COLL_NAME = 'unterminated"));
+
+		var template = GenQuery2Template.compile("select COLL_ID where COLL_NAME = :coll_name");
+		assertThrows(IllegalArgumentException.class, () -> template.bind().set("unknown", "x"));
+		assertThrows(IllegalArgumentException.class, () -> template.bind().set("coll_name", List.of()));
+		assertThrows(IllegalStateException.class, () -> template.bind().toQueryString());
+	}
+
+}
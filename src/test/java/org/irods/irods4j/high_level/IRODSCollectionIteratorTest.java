@@ -4,6 +4,8 @@ import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.Optional;
+import java.util.concurrent.Executors;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -13,11 +15,18 @@ import org.irods.irods4j.common.XmlUtil;
 import org.irods.irods4j.high_level.administration.IRODSResources;
 import org.irods.irods4j.high_level.catalog.IRODSQuery;
 import org.irods.irods4j.high_level.connection.IRODSConnection;
+import org.irods.irods4j.high_level.connection.IRODSConnectionPool;
 import org.irods.irods4j.high_level.connection.QualifiedUsername;
 import org.irods.irods4j.high_level.io.IRODSDataObjectOutputStream;
 import org.irods.irods4j.high_level.io.IRODSDataObjectStream;
+import org.irods.irods4j.high_level.metadata.IRODSMetadata;
 import org.irods.irods4j.high_level.vfs.IRODSCollectionIterator;
+import org.irods.irods4j.high_level.vfs.IRODSCollectionIterator.CollectionOptions;
+import org.irods.irods4j.high_level.vfs.IRODSCollectionIterator.EntryDetail;
+import org.irods.irods4j.high_level.vfs.IRODSCollectionIterator.PagingOptions;
 import org.irods.irods4j.high_level.vfs.IRODSFilesystem;
+import org.irods.irods4j.high_level.vfs.IRODSFilesystem.RemoveOptions;
+import org.irods.irods4j.high_level.vfs.Permission;
 import org.irods.irods4j.high_level.vfs.IRODSReplicas;
 import org.irods.irods4j.low_level.api.IRODSApi;
 import org.irods.irods4j.low_level.api.IRODSException;
@@ -174,4 +183,127 @@ class IRODSCollectionIteratorTest {
 		}
 	}
 
+	@Test
+	void testPrefetchingAndAdaptivePagingVisitEveryEntryExactlyOnce() throws Exception {
+		var comm = conn.getRcComm();
+		var collection = '/' + String.join("/", zone, "home", username,
+				"testPrefetchingAndAdaptivePagingVisitEveryEntryExactlyOnce");
+
+		var threadPool = Executors.newFixedThreadPool(2);
+		var pool = new IRODSConnectionPool(2);
+
+		try {
+			assertTrue(IRODSFilesystem.createCollection(comm, collection));
+			for (var i = 0; i < 10; ++i) {
+				assertTrue(IRODSFilesystem.createCollection(comm, collection + "/coll_" + i));
+				try (var stream = new IRODSDataObjectStream()) {
+					stream.open(comm, collection + "/data_object_" + i, OpenFlags.O_CREAT | OpenFlags.O_WRONLY);
+				}
+			}
+
+			var expected = new HashSet<String>();
+			for (var e : new IRODSCollectionIterator(comm, collection)) {
+				expected.add(e.path());
+			}
+			assertEquals(20, expected.size());
+
+			// Start with tiny pages and let the iterator grow them.
+			var pagingOptions = new PagingOptions();
+			pagingOptions.initialRowsPerPage = 1;
+			pagingOptions.minRowsPerPage = 1;
+			pagingOptions.maxRowsPerPage = 8;
+
+			var adaptive = new IRODSCollectionIterator(comm, collection, CollectionOptions.NONE, pagingOptions);
+			var paths = new ArrayList<String>();
+			var iter = adaptive.iterator();
+			while (iter.hasNext()) {
+				// Calling hasNext() more than once must not skip entries.
+				assertTrue(iter.hasNext());
+				paths.add(iter.next().path());
+			}
+			assertEquals(expected.size(), paths.size());
+			assertEquals(expected, new HashSet<>(paths));
+
+			pool.start(host, port, new QualifiedUsername(username, zone), c -> {
+				try {
+					IRODSApi.rcAuthenticateClient(c, new NativeAuthPlugin(), password);
+					return true;
+				} catch (Exception e) {
+					return false;
+				}
+			});
+
+			paths.clear();
+			for (var e : new IRODSCollectionIterator(pool, threadPool, collection, CollectionOptions.NONE,
+					pagingOptions)) {
+				paths.add(e.path());
+			}
+			assertEquals(expected.size(), paths.size());
+			assertEquals(expected, new HashSet<>(paths));
+		} finally {
+			pool.close();
+			threadPool.shutdown();
+			IRODSFilesystem.removeAll(comm, collection, RemoveOptions.NO_TRASH);
+		}
+	}
+
+	@Test
+	void testEntriesIncludeMetadataPermissionsAndReplicasWhenRequested() throws Exception {
+		var comm = conn.getRcComm();
+		var collection = '/' + String.join("/", zone, "home", username,
+				"testEntriesIncludeMetadataPermissionsAndReplicasWhenRequested");
+		var dataObject = collection + "/data_object";
+		var subcollection = collection + "/subcollection";
+
+		try {
+			assertTrue(IRODSFilesystem.createCollection(comm, collection));
+			assertTrue(IRODSFilesystem.createCollection(comm, subcollection));
+			try (var stream = new IRODSDataObjectStream()) {
+				stream.open(comm, dataObject, OpenFlags.O_CREAT | OpenFlags.O_WRONLY);
+			}
+
+			IRODSMetadata.addMetadataToDataObject(comm, dataObject, "a1", "v1", Optional.of("u1"));
+			IRODSMetadata.addMetadataToDataObject(comm, dataObject, "a2", "v2", Optional.empty());
+			IRODSMetadata.addMetadataToCollection(comm, subcollection, "c1", "v1", Optional.empty());
+
+			// Without details, nothing is attached.
+			for (var e : new IRODSCollectionIterator(comm, collection)) {
+				assertTrue(e.metadata().isEmpty());
+				assertTrue(e.permissions().isEmpty());
+				assertTrue(e.replicas().isEmpty());
+			}
+
+			var iter = new IRODSCollectionIterator(comm, collection).includeDetails(EntryDetail.METADATA,
+					EntryDetail.PERMISSIONS, EntryDetail.REPLICAS);
+			var count = 0;
+			for (var e : iter) {
+				++count;
+
+				assertTrue(e.permissions().isPresent());
+				assertTrue(e.permissions().get().stream()
+						.anyMatch(p -> username.equals(p.getName()) && Permission.OWN == p.getPermission()));
+				assertEquals(e.permissions().get(), e.status().getPermissions());
+
+				if (e.isDataObject()) {
+					var avus = e.metadata().get();
+					assertEquals(2, avus.size());
+					assertTrue(avus.stream().anyMatch(avu -> "a1".equals(avu.getAttributeName())
+							&& "v1".equals(avu.getAttributeValue()) && "u1".equals(avu.getAttributeUnits())));
+
+					var replicas = e.replicas().get();
+					assertEquals(1, replicas.size());
+					assertEquals(0, replicas.get(0).replicaNumber());
+					assertFalse(replicas.get(0).leafResourceName().isEmpty());
+				} else {
+					assertEquals(1, e.metadata().get().size());
+					assertEquals("c1", e.metadata().get().get(0).getAttributeName());
+					assertTrue(e.replicas().isEmpty());
+				}
+			}
+			assertEquals(2, count);
+		} finally {
+			IRODSFilesystem.removeAll(comm, collection, RemoveOptions.NO_TRASH);
+		}
+	}
+
 }
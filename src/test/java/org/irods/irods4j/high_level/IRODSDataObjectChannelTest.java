@@ -0,0 +1,138 @@
+package org.irods.irods4j.high_level;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+import org.irods.irods4j.authentication.NativeAuthPlugin;
+import org.irods.irods4j.common.JsonUtil;
+import org.irods.irods4j.common.XmlUtil;
+import org.irods.irods4j.high_level.io.IRODSDataObjectChannel;
+import org.irods.irods4j.high_level.vfs.IRODSFilesystem;
+import org.irods.irods4j.high_level.vfs.IRODSFilesystem.RemoveOptions;
+import org.irods.irods4j.low_level.api.IRODSApi;
+import org.irods.irods4j.low_level.api.IRODSApi.RcComm;
+import org.irods.irods4j.low_level.protocol.packing_instructions.DataObjInp_PI.OpenFlags;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class IRODSDataObjectChannelTest {
+
+	static String host = "localhost";
+	static int port = 1247;
+	static String zone = "tempZone";
+	static String username = "rods";
+	static String password = "rods";
+	static RcComm comm;
+
+	@BeforeAll
+	static void setUpBeforeClass() throws Exception {
+		XmlUtil.enablePrettyPrinting();
+		JsonUtil.enablePrettyPrinting();
+
+		comm = IRODSApi.rcConnect(host, port, username, zone, Optional.empty(), Optional.empty(), Optional.empty(),
+				Optional.empty());
+		assertNotNull(comm);
+		IRODSApi.rcAuthenticateClient(comm, new NativeAuthPlugin(), password);
+	}
+
+	@AfterAll
+	static void tearDownAfterClass() throws Exception {
+		IRODSApi.rcDisconnect(comm);
+
+		XmlUtil.disablePrettyPrinting();
+		JsonUtil.disablePrettyPrinting();
+	}
+
+	@Test
+	void testReadingWritingAndPositioning() throws Exception {
+		var logicalPath = '/' + String.join("/", zone, "home", username, "testChannelReadingWritingAndPositioning");
+
+		try {
+			try (var channel = new IRODSDataObjectChannel(comm, logicalPath,
+					OpenFlags.O_CREAT | OpenFlags.O_TRUNC | OpenFlags.O_RDWR)) {
+				assertTrue(channel.isOpen());
+
+				assertEquals(10, channel.write(ByteBuffer.wrap("0123456789".getBytes(StandardCharsets.UTF_8))));
+				assertEquals(10, channel.position());
+				assertEquals(10, channel.size());
+
+				// Overwrite a range in the middle.
+				channel.position(3).write(ByteBuffer.wrap("abc".getBytes(StandardCharsets.UTF_8)));
+				assertEquals(6, channel.position());
+
+				var dst = ByteBuffer.allocate(20);
+				assertEquals(10, channel.position(0).read(dst));
+				assertEquals("012abc6789", new String(dst.array(), 0, 10, StandardCharsets.UTF_8));
+				assertEquals(-1, channel.read(ByteBuffer.allocate(1)));
+
+				// Truncating to a larger size does not modify the data object.
+				channel.truncate(100);
+				assertEquals(10, channel.size());
+				assertEquals(10, channel.position());
+			}
+		} finally {
+			IRODSFilesystem.remove(comm, logicalPath, RemoveOptions.NO_TRASH);
+		}
+	}
+
+	@Test
+	void testTransferringBetweenFileChannelsAndDataObjectChannels() throws Exception {
+		var logicalPath = '/' + String.join("/", zone, "home", username, "testChannelTransfers");
+		var source = Files.createTempFile("irods4j-channel-source", ".bin");
+		var target = Files.createTempFile("irods4j-channel-target", ".bin");
+
+		try {
+			var data = new byte[300_000];
+			for (int i = 0; i < data.length; ++i) {
+				data[i] = (byte) (i * 17);
+			}
+			Files.write(source, data);
+
+			// Upload.
+			try (var fc = FileChannel.open(source, StandardOpenOption.READ);
+					var channel = new IRODSDataObjectChannel(comm, logicalPath,
+							OpenFlags.O_CREAT | OpenFlags.O_TRUNC | OpenFlags.O_WRONLY)) {
+				var transferred = 0L;
+				while (transferred < data.length) {
+					transferred += fc.transferTo(transferred, data.length - transferred, channel);
+				}
+			}
+
+			// Download.
+			try (var fc = FileChannel.open(target, StandardOpenOption.WRITE);
+					var channel = new IRODSDataObjectChannel(comm, logicalPath, OpenFlags.O_RDONLY)) {
+				var transferred = 0L;
+				while (transferred < data.length) {
+					transferred += fc.transferFrom(channel, transferred, data.length - transferred);
+				}
+
+				assertThrows(NonWritableChannelException.class, () -> channel.write(ByteBuffer.allocate(1)));
+
+				channel.close();
+				assertFalse(channel.isOpen());
+				assertThrows(ClosedChannelException.class, () -> channel.position());
+			}
+
+			assertArrayEquals(data, Files.readAllBytes(target));
+		} finally {
+			Files.deleteIfExists(source);
+			Files.deleteIfExists(target);
+			IRODSFilesystem.remove(comm, logicalPath, RemoveOptions.NO_TRASH);
+		}
+	}
+
+}
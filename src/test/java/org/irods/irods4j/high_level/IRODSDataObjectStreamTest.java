@@ -4,10 +4,14 @@ import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.util.Arrays;
 import java.util.Optional;
 import java.util.concurrent.Executors;
@@ -20,10 +24,14 @@ import org.irods.irods4j.common.JsonUtil;
 import org.irods.irods4j.common.XmlUtil;
 import org.irods.irods4j.high_level.connection.IRODSConnectionPool;
 import org.irods.irods4j.high_level.connection.QualifiedUsername;
+import org.irods.irods4j.high_level.io.BlockCache;
+import org.irods.irods4j.high_level.io.ChecksumScheme;
+import org.irods.irods4j.high_level.io.IRODSDataObjectChannel;
 import org.irods.irods4j.high_level.io.IRODSDataObjectInputStream;
 import org.irods.irods4j.high_level.io.IRODSDataObjectOutputStream;
 import org.irods.irods4j.high_level.io.IRODSDataObjectStream;
 import org.irods.irods4j.high_level.io.IRODSDataObjectStream.OnCloseSuccess;
+import org.irods.irods4j.high_level.io.IRODSDataObjectStream.RangeReadOptions;
 import org.irods.irods4j.high_level.io.IRODSDataObjectStream.SeekDirection;
 import org.irods.irods4j.high_level.vfs.IRODSFilesystem;
 import org.irods.irods4j.high_level.vfs.IRODSFilesystem.RemoveOptions;
@@ -152,6 +160,382 @@ class IRODSDataObjectStreamTest {
 		}
 	}
 
+	@Test
+	void testBulkReadSkipAndSeekUsingInputStream() throws IOException, IRODSException {
+		var logicalPath = '/' + String.join("/", zone, "home", username, "testBulkReadSkipAndSeekUsingInputStream");
+
+		try {
+			var internalBufferSize = 16;
+
+			var data = new byte[1000];
+			for (int i = 0; i < data.length; ++i) {
+				data[i] = (byte) i;
+			}
+
+			try (var out = new IRODSDataObjectOutputStream(comm, logicalPath, true, false)) {
+				out.write(data);
+			}
+
+			try (var in = new IRODSDataObjectInputStream(internalBufferSize)) {
+				in.open(comm, logicalPath);
+
+				// Fill the internal buffer and consume part of it.
+				assertEquals(data[0] & 0xFF, in.read());
+				assertEquals(internalBufferSize - 1, in.available());
+
+				// Skip bytes held by the buffer and bytes beyond it.
+				assertEquals(99, in.skip(99));
+				assertEquals(data[100] & 0xFF, in.read());
+
+				// Read a range larger than the internal buffer.
+				var buffer = new byte[300];
+				assertEquals(buffer.length, in.readNBytes(buffer, 0, buffer.length));
+				assertArrayEquals(Arrays.copyOfRange(data, 101, 401), buffer);
+
+				// Relative seeks must account for the bytes held by the buffer.
+				in.seek(-1, SeekDirection.CURRENT);
+				assertEquals(data[400] & 0xFF, in.read());
+
+				// Reads must succeed after reaching the end of the stream and seeking back.
+				in.seek(990, SeekDirection.BEGIN);
+				assertEquals(10, in.readAllBytes().length);
+				assertEquals(-1, in.read());
+				in.seek(0, SeekDirection.BEGIN);
+				assertArrayEquals(data, in.readAllBytes());
+			}
+		} finally {
+			IRODSFilesystem.remove(comm, logicalPath, RemoveOptions.NO_TRASH);
+		}
+	}
+
+	@Test
+	void testBulkWritesUsingOutputStream() throws IOException, IRODSException {
+		var logicalPath = '/' + String.join("/", zone, "home", username, "testBulkWritesUsingOutputStream");
+
+		try {
+			var data = new byte[10_000];
+			for (int i = 0; i < data.length; ++i) {
+				data[i] = (byte) (i * 31);
+			}
+
+			try (var out = new IRODSDataObjectOutputStream(64)) {
+				out.open(comm, logicalPath, true, false);
+				out.setChunkSize(1000);
+
+				// Mix buffered writes with writes which bypass the internal buffer.
+				out.write(data, 0, 10);
+				out.write(data, 10, 5000);
+				out.write(data[5010]);
+				new ByteArrayInputStream(data, 5011, data.length - 5011).transferTo(out);
+			}
+
+			try (var in = new IRODSDataObjectInputStream(comm, logicalPath)) {
+				assertArrayEquals(data, in.readAllBytes());
+			}
+		} finally {
+			IRODSFilesystem.remove(comm, logicalPath, RemoveOptions.NO_TRASH);
+		}
+	}
+
+	@Test
+	void testReadAheadUsingInputStream() throws IOException, IRODSException {
+		var logicalPath = '/' + String.join("/", zone, "home", username, "testReadAheadUsingInputStream");
+
+		try {
+			var data = new byte[5000];
+			for (int i = 0; i < data.length; ++i) {
+				data[i] = (byte) (i * 7);
+			}
+
+			try (var out = new IRODSDataObjectOutputStream(comm, logicalPath, true, false)) {
+				out.write(data);
+			}
+
+			try (var in = new IRODSDataObjectInputStream(64)) {
+				in.open(comm, logicalPath);
+				in.setReadAheadDepth(4);
+
+				var buffer = new byte[100];
+				assertEquals(buffer.length, in.readNBytes(buffer, 0, buffer.length));
+				assertArrayEquals(Arrays.copyOfRange(data, 0, 100), buffer);
+
+				// Relative seeks and skips must account for the bytes fetched ahead of the
+				// consumer.
+				in.seek(-50, SeekDirection.CURRENT);
+				assertEquals(data[50] & 0xFF, in.read());
+				assertEquals(1000, in.skip(1000));
+				assertEquals(data[1051] & 0xFF, in.read());
+
+				assertArrayEquals(Arrays.copyOfRange(data, 1052, data.length), in.readAllBytes());
+				assertEquals(-1, in.read());
+
+				// Reading from the beginning after reaching the end must succeed.
+				in.seek(0, SeekDirection.BEGIN);
+				assertArrayEquals(data, in.readAllBytes());
+			}
+		} finally {
+			IRODSFilesystem.remove(comm, logicalPath, RemoveOptions.NO_TRASH);
+		}
+	}
+
+	@Test
+	void testWriteBehindUsingOutputStream() throws IOException, IRODSException {
+		var logicalPath = '/' + String.join("/", zone, "home", username, "testWriteBehindUsingOutputStream");
+
+		try {
+			var data = new byte[5000];
+			for (int i = 0; i < data.length; ++i) {
+				data[i] = (byte) (i * 13);
+			}
+
+			try (var out = new IRODSDataObjectOutputStream(64)) {
+				out.open(comm, logicalPath, true, false);
+				out.setWriteBehindDepth(4);
+
+				for (var b : Arrays.copyOfRange(data, 0, 1000)) {
+					out.write(b);
+				}
+				out.write(data, 1000, data.length - 1000);
+
+				// Waits for every write to be acknowledged.
+				out.flush();
+
+				// Seeking must wait for outstanding writes. The zeros are appended and then
+				// the first bytes are rewritten.
+				out.write(new byte[100]);
+				out.seek(0, SeekDirection.BEGIN);
+				out.write(data, 0, 100);
+			}
+
+			try (var in = new IRODSDataObjectInputStream(comm, logicalPath)) {
+				assertArrayEquals(Arrays.copyOf(data, data.length + 100), in.readAllBytes());
+			}
+		} finally {
+			IRODSFilesystem.remove(comm, logicalPath, RemoveOptions.NO_TRASH);
+		}
+	}
+
+	@Test
+	void testPositionalReadsAndWrites() throws Exception {
+		var logicalPath = '/' + String.join("/", zone, "home", username, "testPositionalReadsAndWrites");
+
+		try (var stream = new IRODSDataObjectStream()) {
+			stream.open(comm, logicalPath, OpenFlags.O_CREAT | OpenFlags.O_TRUNC | OpenFlags.O_RDWR);
+
+			// Write out of order. The second write requires a seek.
+			assertEquals(5, stream.write(5, ByteBuffer.wrap("world".getBytes(StandardCharsets.UTF_8))));
+			assertEquals(5, stream.write(0, ByteBuffer.wrap("hello".getBytes(StandardCharsets.UTF_8))));
+
+			// Heap buffer.
+			var dst = ByteBuffer.allocate(10);
+			assertEquals(10, stream.read(0, dst));
+			assertEquals("helloworld", new String(dst.array(), StandardCharsets.UTF_8));
+
+			// Direct buffer with a random position.
+			var direct = ByteBuffer.allocateDirect(3);
+			assertEquals(3, stream.read(4, direct));
+			direct.flip();
+			var bytes = new byte[3];
+			direct.get(bytes);
+			assertEquals("owo", new String(bytes, StandardCharsets.UTF_8));
+
+			// Reading at the end of the data object.
+			assertEquals(-1, stream.read(10, ByteBuffer.allocate(1)));
+
+			// 64-bit seeks.
+			assertEquals(7L, stream.seek(7L, SeekDirection.BEGIN));
+		} finally {
+			IRODSFilesystem.remove(comm, logicalPath, RemoveOptions.NO_TRASH);
+		}
+	}
+
+	@Test
+	void testRandomReadsUsingBlockCache() throws Exception {
+		var logicalPath = '/' + String.join("/", zone, "home", username, "testRandomReadsUsingBlockCache");
+
+		try {
+			var data = new byte[10_000];
+			for (int i = 0; i < data.length; ++i) {
+				data[i] = (byte) (i * 11);
+			}
+
+			try (var out = new IRODSDataObjectOutputStream(comm, logicalPath, true, false)) {
+				out.write(data);
+			}
+
+			var cache = new BlockCache(1024, 4096, 2);
+
+			try (var in = new IRODSDataObjectInputStream(64)) {
+				in.setBlockCache(cache);
+				in.open(comm, logicalPath);
+
+				// Scattered reads within the same block only fetch the block once.
+				in.seek(5000, SeekDirection.BEGIN);
+				assertEquals(data[5000] & 0xFF, in.read());
+				in.seek(5100, SeekDirection.BEGIN);
+				assertEquals(data[5100] & 0xFF, in.read());
+				assertEquals(1, cache.size());
+
+				// Reads spanning blocks and the end of the data object.
+				in.seek(-20, SeekDirection.END);
+				assertArrayEquals(Arrays.copyOfRange(data, data.length - 20, data.length), in.readAllBytes());
+				assertEquals(-1, in.read());
+
+				// The cache never exceeds its size limit.
+				in.seek(0, SeekDirection.BEGIN);
+				assertArrayEquals(data, in.readAllBytes());
+				assertTrue(cache.getByteCount() <= cache.getMaxBytes());
+			}
+
+			// A second stream reading the same version of the data object shares the
+			// cached blocks.
+			var hits = cache.getHitCount();
+			try (var channel = new IRODSDataObjectChannel(comm, logicalPath, OpenFlags.O_RDONLY)) {
+				channel.setBlockCache(cache);
+				var dst = ByteBuffer.allocate(10);
+				assertEquals(10, channel.position(data.length - 10).read(dst));
+				assertArrayEquals(Arrays.copyOfRange(data, data.length - 10, data.length), dst.array());
+			}
+			assertTrue(cache.getHitCount() > hits);
+
+			// Rewriting the data object, likely within the same second, must not serve
+			// stale blocks. The new size distinguishes the versions.
+			var rewritten = Arrays.copyOf(data, 5000);
+			Arrays.fill(rewritten, (byte) 'x');
+			try (var out = new IRODSDataObjectOutputStream(comm, logicalPath, true, false)) {
+				out.write(rewritten);
+			}
+
+			try (var in = new IRODSDataObjectInputStream(64)) {
+				in.setBlockCache(cache);
+				in.open(comm, logicalPath);
+				assertArrayEquals(rewritten, in.readAllBytes());
+			}
+		} finally {
+			IRODSFilesystem.remove(comm, logicalPath, RemoveOptions.NO_TRASH);
+		}
+	}
+
+	@Test
+	void testReadingMultipleRanges() throws Exception {
+		var logicalPath = '/' + String.join("/", zone, "home", username, "testReadingMultipleRanges");
+
+		try (var stream = new IRODSDataObjectStream()) {
+			var data = new byte[100_000];
+			for (int i = 0; i < data.length; ++i) {
+				data[i] = (byte) (i * 3);
+			}
+
+			stream.open(comm, logicalPath, OpenFlags.O_CREAT | OpenFlags.O_TRUNC | OpenFlags.O_RDWR);
+			assertEquals(data.length, stream.write(0, ByteBuffer.wrap(data)));
+
+			// Unsorted, overlapping, far apart, and past the end of the data object.
+			long[] offsets = { 50_000, 100, 120, 90_000, 99_990, 110 };
+			ByteBuffer[] buffers = {
+				ByteBuffer.allocate(1000),
+				ByteBuffer.allocate(10),
+				ByteBuffer.allocateDirect(30),
+				ByteBuffer.allocate(5000),
+				ByteBuffer.allocate(100),
+				ByteBuffer.allocate(20)
+			};
+
+			var options = new RangeReadOptions();
+			options.maxGap = 1024;
+			options.maxInFlight = 2;
+
+			assertEquals(1000 + 10 + 30 + 5000 + 10 + 20, stream.readRanges(offsets, buffers, options));
+
+			for (int i = 0; i < offsets.length; ++i) {
+				var b = buffers[i].flip();
+				var actual = new byte[b.remaining()];
+				b.get(actual);
+				var from = (int) offsets[i];
+				assertArrayEquals(Arrays.copyOfRange(data, from, from + actual.length), actual);
+			}
+		} finally {
+			IRODSFilesystem.remove(comm, logicalPath, RemoveOptions.NO_TRASH);
+		}
+	}
+
+	@Test
+	void testVerifyingChecksumsOfTransfers() throws Exception {
+		var logicalPath = '/' + String.join("/", zone, "home", username, "testVerifyingChecksumsOfTransfers");
+
+		try {
+			var data = new byte[1_000_000];
+			for (int i = 0; i < data.length; ++i) {
+				data[i] = (byte) (i * 31);
+			}
+
+			// Upload the data. The server computes the checksum of the replica on close.
+			var out = new IRODSDataObjectOutputStream(comm, logicalPath, true, false);
+			out.enableChecksumVerification(ChecksumScheme.SHA256);
+			out.setWriteBehindDepth(4);
+			out.write(data);
+			out.close();
+			out.verifyChecksum();
+
+			// Download the data using read-ahead and verify it against the catalog.
+			try (var in = new IRODSDataObjectInputStream(comm, logicalPath)) {
+				in.enableChecksumVerification();
+				in.setReadAheadDepth(2);
+				assertArrayEquals(data, in.readAllBytes());
+				in.verifyChecksum();
+			}
+
+			// Seeking makes verification impossible.
+			try (var in = new IRODSDataObjectInputStream(comm, logicalPath)) {
+				in.enableChecksumVerification();
+				in.seek(10, SeekDirection.BEGIN);
+				in.readAllBytes();
+				assertThrows(IllegalStateException.class, () -> in.verifyChecksum());
+			}
+		} finally {
+			IRODSFilesystem.remove(comm, logicalPath, RemoveOptions.NO_TRASH);
+		}
+	}
+
+	@Test
+	void testChecksumVerificationUsesCatalogInfoOfOpenReplica() throws Exception {
+		var logicalPath = '/' + String.join("/", zone, "home", username,
+				"testChecksumVerificationUsesCatalogInfoOfOpenReplica");
+
+		try {
+			var data = "checksum verification".getBytes(StandardCharsets.UTF_8);
+
+			try (var out = new IRODSDataObjectOutputStream(comm, logicalPath, true, false)) {
+				out.write(data);
+			}
+
+			// The replica exists but has no checksum. The lookup by replica number must
+			// succeed and report the missing checksum.
+			try (var in = new IRODSDataObjectInputStream(comm, logicalPath, 0)) {
+				var e = assertThrows(IOException.class, () -> in.enableChecksumVerification());
+				assertTrue(e.getMessage().contains("checksum"));
+			}
+
+			// Have the server compute the checksum of the replica on close.
+			var closeInstructions = new OnCloseSuccess();
+			closeInstructions.computeChecksum = true;
+			var out = new IRODSDataObjectOutputStream(comm, logicalPath, 0, true, false);
+			out.write(data);
+			out.close(closeInstructions);
+
+			var expected = ChecksumScheme.SHA256.format(MessageDigest.getInstance("SHA-256").digest(data));
+			assertEquals(expected, IRODSFilesystem.dataObjectChecksum(comm, logicalPath));
+
+			// Verification compares against the checksum of the open replica.
+			try (var in = new IRODSDataObjectInputStream(comm, logicalPath, 0)) {
+				in.enableChecksumVerification();
+				assertArrayEquals(data, in.readAllBytes());
+				in.verifyChecksum();
+			}
+		} finally {
+			IRODSFilesystem.remove(comm, logicalPath, RemoveOptions.NO_TRASH);
+		}
+	}
+
 	@Test
 	void testParallelTransferOverPort1247() throws Exception {
 		var logicalPath = '/' + String.join("/", zone, "home", username, "testParallelTransferOverPort1247.txt");
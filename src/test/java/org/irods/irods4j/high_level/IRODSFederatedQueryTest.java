@@ -0,0 +1,92 @@
+package org.irods.irods4j.high_level;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.irods.irods4j.authentication.NativeAuthPlugin;
+import org.irods.irods4j.common.JsonUtil;
+import org.irods.irods4j.common.XmlUtil;
+import org.irods.irods4j.high_level.catalog.IRODSFederatedQuery;
+import org.irods.irods4j.high_level.connection.IRODSConnectionPool;
+import org.irods.irods4j.high_level.connection.QualifiedUsername;
+import org.irods.irods4j.low_level.api.IRODSApi;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class IRODSFederatedQueryTest {
+
+	static final Logger log = LogManager.getLogger();
+
+	static String host = "localhost";
+	static int port = 1247;
+	static String zone = "tempZone";
+	static String username = "rods";
+	static String password = "rods";
+	static IRODSConnectionPool pool;
+	static ExecutorService threadPool;
+
+	@BeforeAll
+	static void setUpBeforeClass() throws Exception {
+		XmlUtil.enablePrettyPrinting();
+		JsonUtil.enablePrettyPrinting();
+
+		threadPool = Executors.newFixedThreadPool(2);
+
+		pool = new IRODSConnectionPool(3);
+		pool.start(host, port, new QualifiedUsername(username, zone), comm -> {
+			try {
+				IRODSApi.rcAuthenticateClient(comm, new NativeAuthPlugin(), password);
+				return true;
+			} catch (Exception e) {
+				return false;
+			}
+		});
+	}
+
+	@AfterAll
+	static void tearDownAfterClass() throws Exception {
+		pool.close();
+		threadPool.shutdown();
+
+		XmlUtil.disablePrettyPrinting();
+		JsonUtil.disablePrettyPrinting();
+	}
+
+	@Test
+	void testFanOutAcrossAllZones() throws Exception {
+		var result = IRODSFederatedQuery.execute(pool, threadPool, "select ZONE_NAME where ZONE_TYPE = 'local'", 30,
+				TimeUnit.SECONDS);
+		assertTrue(result.isComplete());
+		assertTrue(result.getRows().containsKey(zone));
+
+		var rows = result.getRowsTaggedByZone();
+		assertFalse(rows.isEmpty());
+		rows.forEach(row -> log.debug("zone=[{}], row=[{}]", row.get(0), row.subList(1, row.size())));
+		assertTrue(rows.stream().anyMatch(row -> zone.equals(row.get(0)) && zone.equals(row.get(1))));
+	}
+
+	@Test
+	void testFailuresAreReportedPerZone() throws Exception {
+		var unknownZone = "zone_does_not_exist";
+		var zones = Arrays.asList(zone, unknownZone);
+		var result = IRODSFederatedQuery.execute(pool, threadPool, "select COLL_NAME where COLL_NAME = '/'", zones, 30,
+				TimeUnit.SECONDS);
+
+		// The local zone must succeed even though the other zone fails.
+		assertFalse(result.isComplete());
+		assertEquals(1, result.getRows().size());
+		assertTrue(result.getRows().containsKey(zone));
+		assertTrue(result.getFailures().containsKey(unknownZone));
+		assertTrue(result.getTimedOutZones().isEmpty());
+	}
+
+}
@@ -1,9 +1,17 @@
 package org.irods.irods4j.high_level;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -19,7 +27,12 @@ import org.irods.irods4j.high_level.io.IRODSDataObjectOutputStream;
 import org.irods.irods4j.high_level.io.IRODSDataObjectStream;
 import org.irods.irods4j.high_level.vfs.IRODSFilesystem;
 import org.irods.irods4j.high_level.vfs.IRODSFilesystem.RemoveOptions;
+import org.irods.irods4j.high_level.vfs.IRODSFilesystem.StatusField;
+import org.irods.irods4j.high_level.vfs.IRODSFilesystem.TransferOptions;
+import org.irods.irods4j.high_level.vfs.IRODSFilesystemException;
 import org.irods.irods4j.high_level.vfs.IRODSReplicas;
+import org.irods.irods4j.high_level.vfs.ObjectStatus.ObjectType;
+import org.irods.irods4j.high_level.vfs.ObjectStatusCache;
 import org.irods.irods4j.high_level.vfs.Permission;
 import org.irods.irods4j.low_level.api.IRODSException;
 import org.irods.irods4j.low_level.protocol.packing_instructions.DataObjInp_PI.OpenFlags;
@@ -148,6 +161,66 @@ class IRODSFilesystemTest {
 		}
 	}
 
+	@Test
+	void testBatchLookupsOfSizesChecksumsAndModifyTimes() throws Exception {
+		var sandbox = '/' + String.join("/", zone, "home", username, "testBatchLookupsOfSizesChecksumsAndModifyTimes");
+
+		try {
+			assertTrue(IRODSFilesystem.createCollection(conn.getRcComm(), sandbox));
+
+			// Create several data objects of different sizes. One of the names contains
+			// an embedded single quote.
+			var paths = new ArrayList<String>();
+			for (int i = 0; i < 5; ++i) {
+				var path = String.join("/", sandbox, "data'object." + i);
+				try (var out = new IRODSDataObjectOutputStream(conn.getRcComm(), path, true, false)) {
+					out.write("x".repeat(i).getBytes(StandardCharsets.UTF_8));
+				}
+				paths.add(path);
+			}
+
+			// Include a path which does not exist and the sandbox collection.
+			var doesNotExist = String.join("/", sandbox, "does_not_exist");
+			var lookups = new ArrayList<>(paths);
+			lookups.add(doesNotExist);
+			lookups.add(sandbox);
+
+			// Show that the sizes match the single-path lookups and that unresolved
+			// paths are not included.
+			var sizes = IRODSFilesystem.dataObjectSize(conn.getRcComm(), lookups);
+			assertEquals(paths.size(), sizes.size());
+			for (int i = 0; i < paths.size(); ++i) {
+				assertEquals(i, sizes.get(paths.get(i)));
+			}
+			assertFalse(sizes.containsKey(doesNotExist));
+
+			// None of the replicas have a checksum yet.
+			var checksums = IRODSFilesystem.dataObjectChecksum(conn.getRcComm(), lookups);
+			assertEquals(paths.size(), checksums.size());
+			checksums.values().forEach(c -> assertEquals("", c));
+
+			// Modify times are resolved for data objects and collections.
+			var mtimes = IRODSFilesystem.lastWriteTime(conn.getRcComm(), lookups);
+			assertEquals(paths.size() + 1, mtimes.size());
+			assertEquals(IRODSFilesystem.lastWriteTime(conn.getRcComm(), sandbox), mtimes.get(sandbox));
+			for (var path : paths) {
+				assertEquals(IRODSFilesystem.lastWriteTime(conn.getRcComm(), path), mtimes.get(path));
+			}
+
+			// Paths which are not normalized are resolved and returned as given.
+			var unnormalizedDataObject = sandbox + "//./data'object.3";
+			var unnormalizedSandbox = sandbox + "/";
+			var unnormalized = List.of(unnormalizedDataObject, unnormalizedSandbox);
+			assertEquals(3, IRODSFilesystem.dataObjectSize(conn.getRcComm(), unnormalized).get(unnormalizedDataObject));
+			mtimes = IRODSFilesystem.lastWriteTime(conn.getRcComm(), unnormalized);
+			assertEquals(IRODSFilesystem.lastWriteTime(conn.getRcComm(), sandbox), mtimes.get(unnormalizedSandbox));
+			assertEquals(IRODSFilesystem.lastWriteTime(conn.getRcComm(), paths.get(3)),
+					mtimes.get(unnormalizedDataObject));
+		} finally {
+			IRODSFilesystem.removeAll(conn.getRcComm(), sandbox, RemoveOptions.NO_TRASH);
+		}
+	}
+
 	@Test
 	void testListPermissionsOnDataObject() throws Exception {
 		var path = '/' + String.join("/", zone, "home", username, "testListPermissionsOnDataObject");
@@ -262,4 +335,159 @@ class IRODSFilesystemTest {
 		}
 	}
 
+	@Test
+	void testStatusCacheIsInvalidatedByFilesystemOperations() throws Exception {
+		var collection = '/' + String.join("/", zone, "home", username, "testStatusCacheIsInvalidatedByFilesystemOperations");
+		var renamed = collection + "_renamed";
+		var cache = new ObjectStatusCache(64, 1, 1, TimeUnit.HOURS);
+		ObjectStatusCache.attach(conn.getRcComm(), cache);
+
+		try {
+			// The negative entry must be dropped once the collection is created.
+			assertFalse(IRODSFilesystem.exists(conn.getRcComm(), collection));
+			assertTrue(IRODSFilesystem.createCollection(conn.getRcComm(), collection));
+			assertTrue(IRODSFilesystem.isCollection(conn.getRcComm(), collection));
+
+			// Show that repeated lookups are served by the cache.
+			var hits = cache.getHitCount();
+			IRODSFilesystem.status(conn.getRcComm(), collection);
+			assertEquals(hits + 1, cache.getHitCount());
+
+			// Show that renames invalidate both paths.
+			assertFalse(IRODSFilesystem.exists(conn.getRcComm(), renamed));
+			IRODSFilesystem.rename(conn.getRcComm(), collection, renamed);
+			assertFalse(IRODSFilesystem.exists(conn.getRcComm(), collection));
+			assertTrue(IRODSFilesystem.exists(conn.getRcComm(), renamed));
+
+			// Show that removals invalidate the removed path.
+			assertTrue(IRODSFilesystem.remove(conn.getRcComm(), renamed, RemoveOptions.NO_TRASH));
+			assertFalse(IRODSFilesystem.exists(conn.getRcComm(), renamed));
+		}
+		finally {
+			ObjectStatusCache.detach(conn.getRcComm());
+			try { IRODSFilesystem.removeAll(conn.getRcComm(), collection, RemoveOptions.NO_TRASH); } catch (Exception ignored) {}
+			try { IRODSFilesystem.removeAll(conn.getRcComm(), renamed, RemoveOptions.NO_TRASH); } catch (Exception ignored) {}
+		}
+	}
+
+	@Test
+	void testStatusFieldsNotRequestedAreLoadedOnFirstAccess() throws Exception {
+		var collection = '/' + String.join("/", zone, "home", username, "testStatusFieldsNotRequestedAreLoadedOnFirstAccess");
+
+		try {
+			assertTrue(IRODSFilesystem.createCollection(conn.getRcComm(), collection));
+
+			var status = IRODSFilesystem.status(conn.getRcComm(), collection);
+			assertTrue(status.isLoaded(StatusField.PERMISSIONS));
+			assertTrue(status.isLoaded(StatusField.INHERITANCE));
+
+			status = IRODSFilesystem.status(conn.getRcComm(), collection, StatusField.INHERITANCE);
+			assertEquals(ObjectType.COLLECTION, status.getType());
+			assertFalse(status.isLoaded(StatusField.PERMISSIONS));
+			assertTrue(status.isLoaded(StatusField.INHERITANCE));
+
+			// Show that the permissions are fetched on first access.
+			assertFalse(status.getPermissions().isEmpty());
+			assertTrue(status.isLoaded(StatusField.PERMISSIONS));
+		}
+		finally {
+			try { IRODSFilesystem.removeAll(conn.getRcComm(), collection, RemoveOptions.NO_TRASH); } catch (Exception ignored) {}
+		}
+	}
+
+	@Test
+	void testBatchStatusMatchesSingleStatus() throws Exception {
+		var collection = '/' + String.join("/", zone, "home", username, "testBatchStatusMatchesSingleStatus");
+		var subcollection = collection + "/sub";
+		var dataObject = collection + "/data_object";
+		var missing = collection + "/missing";
+
+		try {
+			assertTrue(IRODSFilesystem.createCollections(conn.getRcComm(), subcollection));
+			try (var out = new IRODSDataObjectOutputStream(conn.getRcComm(), dataObject, true, false)) {
+				out.write("batch".getBytes(StandardCharsets.UTF_8));
+			}
+
+			var paths = List.of(collection, subcollection, dataObject, missing);
+			var statuses = IRODSFilesystem.status(conn.getRcComm(), paths, StatusField.PERMISSIONS);
+			assertEquals(paths.size(), statuses.size());
+
+			for (var path : paths) {
+				var expected = IRODSFilesystem.status(conn.getRcComm(), path);
+				var actual = statuses.get(path);
+				assertEquals(expected.getType(), actual.getType(), path);
+				assertEquals(expected.isInheritanceEnabled(), actual.isInheritanceEnabled(), path);
+				assertEquals(expected.getPermissions().size(), actual.getPermissions().size(), path);
+			}
+
+			var exists = IRODSFilesystem.exists(conn.getRcComm(), paths);
+			assertTrue(exists.get(collection));
+			assertTrue(exists.get(subcollection));
+			assertTrue(exists.get(dataObject));
+			assertFalse(exists.get(missing));
+
+			// Paths which are not normalized are resolved and returned as given.
+			var unnormalized = List.of(collection + "/", subcollection + "/../sub", collection + "//data_object");
+			statuses = IRODSFilesystem.status(conn.getRcComm(), unnormalized);
+			assertEquals(unnormalized.size(), statuses.size());
+			assertTrue(IRODSFilesystem.isCollection(statuses.get(collection + "/")));
+			assertTrue(IRODSFilesystem.isCollection(statuses.get(subcollection + "/../sub")));
+			assertTrue(IRODSFilesystem.isDataObject(statuses.get(collection + "//data_object")));
+		}
+		finally {
+			try { IRODSFilesystem.removeAll(conn.getRcComm(), collection, RemoveOptions.NO_TRASH); } catch (Exception ignored) {}
+		}
+	}
+
+	@Test
+	void testUploadAndDownloadOfLocalFilesAndBuffers() throws Exception {
+		var comm = conn.getRcComm();
+		var logicalPath = '/' + String.join("/", zone, "home", username, "testUploadAndDownload.bin");
+		var source = Files.createTempFile("irods4j-upload", ".bin");
+		var target = Files.createTempFile("irods4j-download", ".bin");
+
+		try {
+			var data = new byte[3_000_000];
+			for (int i = 0; i < data.length; ++i) {
+				data[i] = (byte) (i * 29);
+			}
+			Files.write(source, data);
+
+			var options = new TransferOptions();
+			options.bufferSize = 256 * 1024;
+
+			assertEquals(data.length, IRODSFilesystem.upload(comm, source, logicalPath, options));
+			assertEquals(data.length, IRODSFilesystem.dataObjectSize(comm, logicalPath));
+
+			// Targets are not replaced unless requested.
+			assertThrows(IRODSFilesystemException.class,
+					() -> IRODSFilesystem.upload(comm, source, logicalPath, new TransferOptions()));
+			assertThrows(FileAlreadyExistsException.class,
+					() -> IRODSFilesystem.download(comm, logicalPath, target, new TransferOptions()));
+
+			var overwrite = new TransferOptions();
+			overwrite.overwrite = true;
+			assertEquals(data.length, IRODSFilesystem.download(comm, logicalPath, target, overwrite));
+			assertArrayEquals(data, Files.readAllBytes(target));
+
+			// Buffers, including memory-mapped files.
+			try (var fc = FileChannel.open(source, StandardOpenOption.READ)) {
+				var mapped = fc.map(FileChannel.MapMode.READ_ONLY, 0, 1000);
+				assertEquals(1000, IRODSFilesystem.upload(comm, mapped, logicalPath, overwrite));
+				assertFalse(mapped.hasRemaining());
+			}
+
+			var dst = ByteBuffer.allocateDirect(2000);
+			assertEquals(1000, IRODSFilesystem.download(comm, logicalPath, dst, overwrite));
+			dst.flip();
+			var downloaded = new byte[dst.remaining()];
+			dst.get(downloaded);
+			assertArrayEquals(Arrays.copyOf(data, 1000), downloaded);
+		} finally {
+			Files.deleteIfExists(source);
+			Files.deleteIfExists(target);
+			IRODSFilesystem.remove(comm, logicalPath, RemoveOptions.NO_TRASH);
+		}
+	}
+
 }
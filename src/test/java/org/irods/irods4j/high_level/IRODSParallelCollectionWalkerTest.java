@@ -0,0 +1,132 @@
+package org.irods.irods4j.high_level;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.irods.irods4j.authentication.NativeAuthPlugin;
+import org.irods.irods4j.common.JsonUtil;
+import org.irods.irods4j.common.XmlUtil;
+import org.irods.irods4j.high_level.connection.IRODSConnectionPool;
+import org.irods.irods4j.high_level.connection.QualifiedUsername;
+import org.irods.irods4j.high_level.io.IRODSDataObjectStream;
+import org.irods.irods4j.high_level.vfs.IRODSFilesystem;
+import org.irods.irods4j.high_level.vfs.IRODSFilesystem.RemoveOptions;
+import org.irods.irods4j.high_level.vfs.IRODSFilesystemException;
+import org.irods.irods4j.high_level.vfs.IRODSParallelCollectionWalker;
+import org.irods.irods4j.high_level.vfs.IRODSParallelCollectionWalker.WalkerOptions;
+import org.irods.irods4j.high_level.vfs.IRODSRecursiveCollectionIterator;
+import org.irods.irods4j.low_level.api.IRODSApi;
+import org.irods.irods4j.low_level.protocol.packing_instructions.DataObjInp_PI.OpenFlags;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class IRODSParallelCollectionWalkerTest {
+
+	static final Logger log = LogManager.getLogger();
+
+	static String host = "localhost";
+	static int port = 1247;
+	static String zone = "tempZone";
+	static String username = "rods";
+	static String password = "rods";
+	static IRODSConnectionPool pool;
+	static ForkJoinPool forkJoinPool;
+
+	@BeforeAll
+	static void setUpBeforeClass() throws Exception {
+		XmlUtil.enablePrettyPrinting();
+		JsonUtil.enablePrettyPrinting();
+
+		forkJoinPool = new ForkJoinPool(4);
+
+		pool = new IRODSConnectionPool(4);
+		pool.start(host, port, new QualifiedUsername(username, zone), comm -> {
+			try {
+				IRODSApi.rcAuthenticateClient(comm, new NativeAuthPlugin(), password);
+				return true;
+			} catch (Exception e) {
+				return false;
+			}
+		});
+	}
+
+	@AfterAll
+	static void tearDownAfterClass() throws Exception {
+		pool.close();
+		forkJoinPool.shutdown();
+
+		XmlUtil.disablePrettyPrinting();
+		JsonUtil.disablePrettyPrinting();
+	}
+
+	@Test
+	void testWalkerVisitsTheSameEntriesAsTheRecursiveIterator() throws Exception {
+		var root = '/' + String.join("/", zone, "home", username, "testWalkerVisitsTheSameEntriesAsTheRecursiveIterator");
+
+		try (var conn = pool.getConnection()) {
+			var comm = conn.getRcComm();
+
+			try {
+				// Build a small tree containing collections and data objects.
+				for (var a = 0; a < 3; ++a) {
+					for (var b = 0; b < 3; ++b) {
+						var coll = String.join("/", root, "a" + a, "b" + b);
+						assertTrue(IRODSFilesystem.createCollections(comm, coll));
+
+						try (var stream = new IRODSDataObjectStream()) {
+							stream.open(comm, coll + "/data_object", OpenFlags.O_CREAT | OpenFlags.O_WRONLY);
+						}
+					}
+				}
+
+				var expected = new HashSet<String>();
+				for (var e : new IRODSRecursiveCollectionIterator(comm, root)) {
+					expected.add(e.path());
+				}
+				assertEquals(21, expected.size());
+
+				var options = new WalkerOptions();
+				options.rowsPerPage = 2; // Force the use of multiple pages.
+				options.maxPendingCollections = 2; // Force some collections to be listed inline.
+
+				// Use the callback.
+				var visited = ConcurrentHashMap.<String>newKeySet();
+				IRODSParallelCollectionWalker.walk(pool, forkJoinPool, root, options, e -> {
+					assertTrue(visited.add(e.path()));
+				});
+				assertEquals(expected, visited);
+
+				// Use the stream and verify collections are delivered before their contents.
+				var ordered = new ArrayList<String>();
+				try (var entries = IRODSParallelCollectionWalker.stream(pool, forkJoinPool, root, options)) {
+					entries.forEach(e -> {
+						var parent = e.path().substring(0, e.path().lastIndexOf('/'));
+						assertTrue(root.equals(parent) || ordered.contains(parent));
+						ordered.add(e.path());
+					});
+				}
+				assertEquals(expected, new HashSet<>(ordered));
+			} finally {
+				IRODSFilesystem.removeAll(comm, root, RemoveOptions.NO_TRASH);
+			}
+		}
+	}
+
+	@Test
+	void testWalkerRejectsPathsWhichAreNotCollections() {
+		var path = '/' + String.join("/", zone, "home", username, "testWalkerRejectsPathsWhichAreNotCollections");
+		assertThrows(IRODSFilesystemException.class,
+				() -> IRODSParallelCollectionWalker.walk(pool, forkJoinPool, path, new WalkerOptions(), e -> {
+				}));
+	}
+
+}
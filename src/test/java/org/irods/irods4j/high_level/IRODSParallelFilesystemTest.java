@@ -0,0 +1,140 @@
+package org.irods.irods4j.high_level;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.irods.irods4j.authentication.NativeAuthPlugin;
+import org.irods.irods4j.common.JsonUtil;
+import org.irods.irods4j.common.XmlUtil;
+import org.irods.irods4j.high_level.connection.IRODSConnectionPool;
+import org.irods.irods4j.high_level.connection.QualifiedUsername;
+import org.irods.irods4j.high_level.io.IRODSDataObjectStream;
+import org.irods.irods4j.high_level.vfs.IRODSFilesystem;
+import org.irods.irods4j.high_level.vfs.IRODSFilesystem.CopyOptions;
+import org.irods.irods4j.high_level.vfs.IRODSFilesystem.RemoveOptions;
+import org.irods.irods4j.high_level.vfs.IRODSParallelFilesystem;
+import org.irods.irods4j.high_level.vfs.IRODSParallelFilesystem.ParallelOptions;
+import org.irods.irods4j.high_level.vfs.IRODSRecursiveCollectionIterator;
+import org.irods.irods4j.high_level.vfs.Permission;
+import org.irods.irods4j.low_level.api.IRODSApi;
+import org.irods.irods4j.low_level.protocol.packing_instructions.DataObjInp_PI.OpenFlags;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class IRODSParallelFilesystemTest {
+
+	static final Logger log = LogManager.getLogger();
+
+	static String host = "localhost";
+	static int port = 1247;
+	static String zone = "tempZone";
+	static String username = "rods";
+	static String password = "rods";
+	static IRODSConnectionPool pool;
+
+	@BeforeAll
+	static void setUpBeforeClass() throws Exception {
+		XmlUtil.enablePrettyPrinting();
+		JsonUtil.enablePrettyPrinting();
+
+		pool = new IRODSConnectionPool(4);
+		pool.start(host, port, new QualifiedUsername(username, zone), comm -> {
+			try {
+				IRODSApi.rcAuthenticateClient(comm, new NativeAuthPlugin(), password);
+				return true;
+			} catch (Exception e) {
+				return false;
+			}
+		});
+	}
+
+	@AfterAll
+	static void tearDownAfterClass() throws Exception {
+		pool.close();
+
+		XmlUtil.disablePrettyPrinting();
+		JsonUtil.disablePrettyPrinting();
+	}
+
+	@Test
+	void testParallelCopyPermissionsAndRemove() throws Exception {
+		var home = '/' + String.join("/", zone, "home", username);
+		var source = home + "/testParallelCopyPermissionsAndRemove_src";
+		var target = home + "/testParallelCopyPermissionsAndRemove_dst";
+
+		try {
+			// Build a small tree containing collections and data objects.
+			try (var conn = pool.getConnection()) {
+				var comm = conn.getRcComm();
+				for (var a = 0; a < 3; ++a) {
+					var coll = String.join("/", source, "a" + a, "b");
+					assertTrue(IRODSFilesystem.createCollections(comm, coll));
+
+					for (var i = 0; i < 3; ++i) {
+						try (var stream = new IRODSDataObjectStream()) {
+							stream.open(comm, coll + "/data_object_" + i, OpenFlags.O_CREAT | OpenFlags.O_WRONLY);
+						}
+					}
+				}
+			}
+
+			var progress = new AtomicLong();
+			var options = new ParallelOptions();
+			options.concurrency = 2;
+			options.listingThreads = 2;
+			options.maxPendingEntries = 2; // Force the listing to wait on the workers.
+			options.progressListener = (path, succeeded, completed, failed) -> progress.incrementAndGet();
+
+			// Copy the tree and show that both trees contain the same entries.
+			var result = IRODSParallelFilesystem.copy(pool, source, target, CopyOptions.RECURSIVE, options);
+			assertTrue(result.succeeded(), () -> result.getErrors().toString());
+			assertEquals(15, result.getCompletedCount());
+			assertEquals(15, progress.get());
+
+			try (var conn = pool.getConnection()) {
+				var comm = conn.getRcComm();
+
+				var expected = new HashSet<String>();
+				for (var e : new IRODSRecursiveCollectionIterator(comm, source)) {
+					expected.add(e.path().substring(source.length()));
+				}
+
+				var actual = new HashSet<String>();
+				for (var e : new IRODSRecursiveCollectionIterator(comm, target)) {
+					actual.add(e.path().substring(target.length()));
+				}
+
+				assertEquals(expected, actual);
+			}
+
+			// Change the permissions of every entry in the copy.
+			var permsResult = IRODSParallelFilesystem.permissions(pool, target, "public", Permission.READ_OBJECT,
+					options);
+			assertTrue(permsResult.succeeded());
+			assertEquals(16, permsResult.getCompletedCount());
+
+			// Remove the copy.
+			var removeResult = IRODSParallelFilesystem.removeAll(pool, target, RemoveOptions.NO_TRASH, options);
+			assertTrue(removeResult.succeeded());
+			assertEquals(9, removeResult.getCompletedCount());
+
+			try (var conn = pool.getConnection()) {
+				assertFalse(IRODSFilesystem.exists(conn.getRcComm(), target));
+			}
+		} finally {
+			try (var conn = pool.getConnection()) {
+				var comm = conn.getRcComm();
+				try { IRODSFilesystem.removeAll(comm, source, RemoveOptions.NO_TRASH); } catch (Exception ignored) {}
+				try { IRODSFilesystem.removeAll(comm, target, RemoveOptions.NO_TRASH); } catch (Exception ignored) {}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,181 @@
+package org.irods.irods4j.high_level;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.irods.irods4j.authentication.NativeAuthPlugin;
+import org.irods.irods4j.common.JsonUtil;
+import org.irods.irods4j.common.XmlUtil;
+import org.irods.irods4j.high_level.catalog.IRODSPartitionedQuery;
+import org.irods.irods4j.high_level.catalog.IRODSPartitionedQuery.PartitionedQueryArgs;
+import org.irods.irods4j.high_level.catalog.IRODSQuery;
+import org.irods.irods4j.high_level.connection.IRODSConnectionPool;
+import org.irods.irods4j.high_level.connection.QualifiedUsername;
+import org.irods.irods4j.high_level.io.IRODSDataObjectOutputStream;
+import org.irods.irods4j.high_level.vfs.IRODSFilesystem;
+import org.irods.irods4j.high_level.vfs.IRODSFilesystem.RemoveOptions;
+import org.irods.irods4j.low_level.api.IRODSApi;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class IRODSPartitionedQueryTest {
+
+	static final Logger log = LogManager.getLogger();
+
+	static String host = "localhost";
+	static int port = 1247;
+	static String zone = "tempZone";
+	static String username = "rods";
+	static String password = "rods";
+	static IRODSConnectionPool pool;
+	static ExecutorService threadPool;
+
+	@BeforeAll
+	static void setUpBeforeClass() throws Exception {
+		XmlUtil.enablePrettyPrinting();
+		JsonUtil.enablePrettyPrinting();
+
+		threadPool = Executors.newFixedThreadPool(4);
+
+		pool = new IRODSConnectionPool(5);
+		pool.start(host, port, new QualifiedUsername(username, zone), comm -> {
+			try {
+				IRODSApi.rcAuthenticateClient(comm, new NativeAuthPlugin(), password);
+				return true;
+			} catch (Exception e) {
+				return false;
+			}
+		});
+	}
+
+	@AfterAll
+	static void tearDownAfterClass() throws Exception {
+		pool.close();
+		threadPool.shutdown();
+
+		XmlUtil.disablePrettyPrinting();
+		JsonUtil.disablePrettyPrinting();
+	}
+
+	@Test
+	void testPartitionedScanVisitsEveryCollectionExactlyOnce() throws Exception {
+		var expectedCount = 0;
+		try (var conn = pool.getConnection()) {
+			var rows = IRODSQuery.executeGenQuery2(conn.getRcComm(), "select count(COLL_ID)");
+			expectedCount = Integer.parseInt(rows.get(0).get(0));
+		}
+		assertTrue(expectedCount > 0);
+
+		var args = new PartitionedQueryArgs();
+		args.keyColumn = "COLL_ID";
+		args.columns = "COLL_NAME";
+		args.numberOfPartitions = 3;
+		args.rowsPerPage = 2; // Force the use of multiple pages.
+
+		// Use the per-partition callback.
+		var seen = ConcurrentHashMap.<String>newKeySet();
+		IRODSPartitionedQuery.execute(pool, threadPool, args, (partition, row) -> {
+			log.debug("partition=[{}], id=[{}], name=[{}]", partition, row.get(0), row.get(1));
+			assertTrue(seen.add(row.get(0)));
+			return true;
+		});
+		assertEquals(expectedCount, seen.size());
+
+		// Use the merged stream.
+		try (var rows = IRODSPartitionedQuery.stream(pool, threadPool, args)) {
+			assertEquals(expectedCount, rows.count());
+		}
+	}
+
+	@Test
+	void testConditionsContainingOrDoNotEscapeThePartitionRange() throws Exception {
+		var condition = String.format("COLL_NAME = '/%s' or COLL_NAME = '/%s/home'", zone, zone);
+
+		var expectedCount = 0;
+		try (var conn = pool.getConnection()) {
+			var rows = IRODSQuery.executeGenQuery2(conn.getRcComm(), "select count(COLL_ID) where " + condition);
+			expectedCount = Integer.parseInt(rows.get(0).get(0));
+		}
+		assertEquals(2, expectedCount);
+
+		var args = new PartitionedQueryArgs();
+		args.keyColumn = "COLL_ID";
+		args.columns = "COLL_NAME";
+		args.condition = condition;
+		args.numberOfPartitions = 4;
+
+		var seen = ConcurrentHashMap.<String>newKeySet();
+		IRODSPartitionedQuery.execute(pool, threadPool, args, (partition, row) -> {
+			assertTrue(seen.add(row.get(0)));
+			return true;
+		});
+		assertEquals(expectedCount, seen.size());
+
+		try (var rows = IRODSPartitionedQuery.stream(pool, threadPool, args)) {
+			assertEquals(expectedCount, rows.map(row -> row.get(0)).distinct().count());
+		}
+		try (var rows = IRODSPartitionedQuery.stream(pool, threadPool, args)) {
+			assertEquals(expectedCount, rows.count());
+		}
+	}
+
+	@Test
+	void testRowsSharingAKeyArePagedWithoutSkipsOrRepeats() throws Exception {
+		var collection = '/' + String.join("/", zone, "home", username, "testPartitionedQueryTies");
+
+		try (var conn = pool.getConnection()) {
+			var comm = conn.getRcComm();
+			IRODSFilesystem.createCollection(comm, collection);
+
+			// Every data object has a replica number of 0, so all rows share a key.
+			for (int i = 0; i < 7; ++i) {
+				try (var out = new IRODSDataObjectOutputStream(comm, collection + "/data_object_" + i, true, false)) {
+					out.write(i);
+				}
+			}
+
+			var args = new PartitionedQueryArgs();
+			args.keyColumn = "DATA_REPL_NUM";
+			args.columns = "DATA_ID, DATA_NAME";
+			args.condition = String.format("COLL_NAME = '%s'", collection);
+			args.rowsPerPage = 2; // Force paging through the group of ties.
+
+			var seen = ConcurrentHashMap.<String>newKeySet();
+			IRODSPartitionedQuery.execute(pool, threadPool, args, (partition, row) -> {
+				assertTrue(seen.add(row.get(1)));
+				return true;
+			});
+			assertEquals(7, seen.size());
+		} finally {
+			try (var conn = pool.getConnection()) {
+				IRODSFilesystem.removeAll(conn.getRcComm(), collection, RemoveOptions.NO_TRASH);
+			}
+		}
+	}
+
+	@Test
+	void testPartitionsCoverTheKeySpace() throws Exception {
+		var args = new PartitionedQueryArgs();
+		args.keyColumn = "COLL_ID";
+		args.numberOfPartitions = 4;
+
+		try (var conn = pool.getConnection()) {
+			var partitions = IRODSPartitionedQuery.computePartitions(conn.getRcComm(), args);
+			assertFalse(partitions.isEmpty());
+			assertTrue(partitions.size() <= args.numberOfPartitions);
+
+			for (int i = 1; i < partitions.size(); ++i) {
+				assertEquals(partitions.get(i - 1).upperBound() + 1, partitions.get(i).lowerBound());
+			}
+		}
+	}
+
+}
@@ -1,7 +1,14 @@
 package org.irods.irods4j.high_level;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -9,6 +16,7 @@ import org.irods.irods4j.authentication.NativeAuthPlugin;
 import org.irods.irods4j.common.JsonUtil;
 import org.irods.irods4j.common.Versioning;
 import org.irods.irods4j.common.XmlUtil;
+import org.irods.irods4j.high_level.catalog.GenQuery2Template;
 import org.irods.irods4j.high_level.catalog.IRODSQuery;
 import org.irods.irods4j.high_level.catalog.IRODSQuery.GenQuery1QueryArgs;
 import org.irods.irods4j.high_level.connection.IRODSConnection;
@@ -86,6 +94,28 @@ class IRODSQueryTest {
 		assertTrue(sql.contains(" R_COLL_MAIN t0 "));
 	}
 
+	@Test
+	void testGenQuery2TemplateCachesGeneratedSQLPerQueryShape() throws Exception {
+		var template = GenQuery2Template.compile("select COLL_NAME where COLL_NAME in (:coll_names) limit :limit");
+
+		var one = template.bind().set("coll_names", List.of("/a")).set("limit", 10);
+		var three = template.bind().set("coll_names", List.of("/a", "/b", "/c")).set("limit", 10);
+		var otherLimit = template.bind().set("coll_names", List.of("/a")).set("limit", 20);
+
+		var sqlForOne = one.getGeneratedSQL(conn.getRcComm());
+		assertEquals(Optional.of(sqlForOne), one.getCachedGeneratedSQL());
+
+		// Bindings with a different list length or limit must not reuse the SQL.
+		assertTrue(three.getCachedGeneratedSQL().isEmpty());
+		assertTrue(otherLimit.getCachedGeneratedSQL().isEmpty());
+		assertNotEquals(sqlForOne, three.getGeneratedSQL(conn.getRcComm()));
+		assertNotEquals(sqlForOne, otherLimit.getGeneratedSQL(conn.getRcComm()));
+
+		// Bindings which only differ by string values share the SQL.
+		var same = template.bind().set("coll_names", List.of("/x")).set("limit", 10);
+		assertEquals(Optional.of(sqlForOne), same.getCachedGeneratedSQL());
+	}
+
 	@Test
 	void testIRODSQueryHandlesSpecificQueries() throws Exception {
 		var bindArgs = Arrays.asList(username);
@@ -229,4 +259,94 @@ class IRODSQueryTest {
 		}
 	}
 
+	@Test
+	void testIRODSQueryPublishesGenQuery2ResultsOnDemand() throws Exception {
+		var expectedCount = Integer.parseInt(
+				IRODSQuery.executeGenQuery2(conn.getRcComm(), "select count(COLL_ID)").get(0).get(0));
+
+		var executor = Executors.newSingleThreadExecutor();
+		try {
+			var rows = new ArrayList<List<String>>();
+			var done = new CompletableFuture<Void>();
+
+			// Request one row at a time. This results in one page being fetched from the
+			// server for every two rows consumed.
+			var publisher = IRODSQuery.publishGenQuery2(conn.getRcComm(), "select COLL_ID order by COLL_ID", 2, executor);
+			publisher.subscribe(new Flow.Subscriber<List<String>>() {
+				private Flow.Subscription subscription;
+
+				@Override
+				public void onSubscribe(Flow.Subscription subscription) {
+					this.subscription = subscription;
+					subscription.request(1);
+				}
+
+				@Override
+				public void onNext(List<String> row) {
+					rows.add(row);
+					subscription.request(1);
+				}
+
+				@Override
+				public void onError(Throwable throwable) {
+					done.completeExceptionally(throwable);
+				}
+
+				@Override
+				public void onComplete() {
+					done.complete(null);
+				}
+			});
+
+			done.get(30, TimeUnit.SECONDS);
+			assertEquals(expectedCount, rows.size());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	void testIRODSQueryPublisherStopsPagingGenQuery1ResultsOnCancel() throws Exception {
+		var input = new GenQuery1QueryArgs();
+		input.addColumnToSelectClause(GenQuery1Columns.COL_COLL_NAME);
+		input.setMaxRowsPerPage(1);
+
+		var executor = Executors.newSingleThreadExecutor();
+		try {
+			var rows = new ArrayList<List<String>>();
+			var cancelled = new CompletableFuture<Void>();
+
+			IRODSQuery.publishGenQuery1(conn.getRcComm(), input, executor).subscribe(new Flow.Subscriber<List<String>>() {
+				@Override
+				public void onSubscribe(Flow.Subscription subscription) {
+					subscription.request(1);
+					subscription.cancel();
+					executor.execute(() -> cancelled.complete(null));
+				}
+
+				@Override
+				public void onNext(List<String> row) {
+					rows.add(row);
+				}
+
+				@Override
+				public void onError(Throwable throwable) {
+					cancelled.completeExceptionally(throwable);
+				}
+
+				@Override
+				public void onComplete() {
+				}
+			});
+
+			cancelled.get(30, TimeUnit.SECONDS);
+			assertTrue(rows.size() <= 1);
+
+			// Show that the connection is still usable after the query was closed.
+			assertFalse(IRODSQuery.executeGenQuery2(conn.getRcComm(), "select COLL_NAME").isEmpty());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
 }
@@ -3,9 +3,11 @@ package org.irods.irods4j.high_level;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -15,7 +17,11 @@ import org.irods.irods4j.common.XmlUtil;
 import org.irods.irods4j.high_level.connection.IRODSConnection;
 import org.irods.irods4j.high_level.connection.QualifiedUsername;
 import org.irods.irods4j.high_level.io.IRODSDataObjectStream;
+import org.irods.irods4j.high_level.vfs.IRODSCollectionIterator.CollectionOptions;
+import org.irods.irods4j.high_level.vfs.IRODSFilesystem;
+import org.irods.irods4j.high_level.vfs.IRODSFilesystem.RemoveOptions;
 import org.irods.irods4j.high_level.vfs.IRODSRecursiveCollectionIterator;
+import org.irods.irods4j.high_level.vfs.IRODSRecursiveCollectionIterator.RecursionMode;
 import org.irods.irods4j.low_level.api.IRODSApi;
 import org.irods.irods4j.low_level.api.IRODSKeywords;
 import org.irods.irods4j.low_level.protocol.packing_instructions.DataObjInp_PI;
@@ -104,4 +110,53 @@ class IRODSRecursiveCollectionIteratorTest {
 		}
 	}
 
+	@Test
+	void testSubtreeModeVisitsTheSameEntriesAsPerCollectionMode() throws Exception {
+		var comm = conn.getRcComm();
+		var root = '/' + String.join("/", zone, "home", username, "testSubtreeMode_VisitsTheSameEntries");
+
+		// A sibling whose name matches the "like" pattern of the root when "_" is
+		// treated as a wildcard. Its contents must not be visited.
+		var sibling = '/' + String.join("/", zone, "home", username, "testSubtreeModeXVisitsTheSameEntries");
+
+		try {
+			for (var a = 0; a < 3; ++a) {
+				for (var b = 0; b < 2; ++b) {
+					var coll = String.join("/", root, "a" + a, "b" + b);
+					assertTrue(IRODSFilesystem.createCollections(comm, coll));
+
+					try (var stream = new IRODSDataObjectStream()) {
+						stream.open(comm, coll + "/data_object", OpenFlags.O_CREAT | OpenFlags.O_WRONLY);
+					}
+				}
+			}
+			assertTrue(IRODSFilesystem.createCollections(comm, sibling + "/child"));
+
+			var expected = new HashSet<String>();
+			for (var e : new IRODSRecursiveCollectionIterator(comm, root)) {
+				expected.add(e.path());
+			}
+			assertEquals(15, expected.size());
+
+			// Use a small page size to force the use of multiple pages.
+			var iter = new IRODSRecursiveCollectionIterator(comm, root, 2, CollectionOptions.NONE,
+					RecursionMode.SUBTREE);
+			assertEquals(RecursionMode.SUBTREE, iter.getRecursionMode());
+
+			var paths = new ArrayList<String>();
+			for (var e : iter) {
+				paths.add(e.path());
+				assertEquals(e.path().substring(root.length() + 1).split("/").length - 1, iter.getDepth());
+			}
+			assertEquals(expected.size(), paths.size());
+			assertEquals(expected, new HashSet<>(paths));
+
+			assertThrows(UnsupportedOperationException.class, () -> iter.pop());
+			assertThrows(UnsupportedOperationException.class, () -> iter.disableRecursionPending());
+		} finally {
+			IRODSFilesystem.removeAll(comm, root, RemoveOptions.NO_TRASH);
+			IRODSFilesystem.removeAll(comm, sibling, RemoveOptions.NO_TRASH);
+		}
+	}
+
 }
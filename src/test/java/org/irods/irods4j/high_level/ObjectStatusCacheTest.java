@@ -0,0 +1,90 @@
+package org.irods.irods4j.high_level;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.irods.irods4j.high_level.vfs.ObjectStatus;
+import org.irods.irods4j.high_level.vfs.ObjectStatus.ObjectType;
+import org.irods.irods4j.high_level.vfs.ObjectStatusCache;
+import org.junit.jupiter.api.Test;
+
+class ObjectStatusCacheTest {
+
+	@Test
+	void testLeastRecentlyUsedEntryIsEvictedWhenCacheIsFull() {
+		var cache = new ObjectStatusCache(2, 1, 1, TimeUnit.HOURS);
+		cache.put("/tempZone/a", statusOf(ObjectType.COLLECTION));
+		cache.put("/tempZone/b", statusOf(ObjectType.DATA_OBJECT));
+
+		// Touch "a" so that "b" becomes the least recently used entry.
+		assertTrue(cache.get("/tempZone/a").isPresent());
+
+		cache.put("/tempZone/c", statusOf(ObjectType.DATA_OBJECT));
+		assertEquals(2, cache.size());
+		assertTrue(cache.get("/tempZone/a").isPresent());
+		assertFalse(cache.get("/tempZone/b").isPresent());
+		assertTrue(cache.get("/tempZone/c").isPresent());
+	}
+
+	@Test
+	void testEntriesExpire() throws InterruptedException {
+		var cache = new ObjectStatusCache(8, 50, 0, TimeUnit.MILLISECONDS);
+		cache.put("/tempZone/a", statusOf(ObjectType.COLLECTION));
+		assertTrue(cache.get("/tempZone/a").isPresent());
+
+		Thread.sleep(100);
+		assertFalse(cache.get("/tempZone/a").isPresent());
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	void testNegativeEntriesAreOnlyCachedWhenEnabled() {
+		var cache = new ObjectStatusCache(8, 1, 0, TimeUnit.HOURS);
+		cache.put("/tempZone/missing", statusOf(ObjectType.NOT_FOUND));
+		assertFalse(cache.get("/tempZone/missing").isPresent());
+
+		cache = new ObjectStatusCache(8, 1, 1, TimeUnit.HOURS);
+		cache.put("/tempZone/missing", statusOf(ObjectType.NOT_FOUND));
+		assertEquals(ObjectType.NOT_FOUND, cache.get("/tempZone/missing").get().getType());
+	}
+
+	@Test
+	void testInvalidateTreeRemovesDescendantsOnly() {
+		var cache = new ObjectStatusCache(8, 1, 1, TimeUnit.HOURS);
+		cache.put("/tempZone/coll", statusOf(ObjectType.COLLECTION));
+		cache.put("/tempZone/coll/data", statusOf(ObjectType.DATA_OBJECT));
+		cache.put("/tempZone/coll/sub/data", statusOf(ObjectType.DATA_OBJECT));
+		cache.put("/tempZone/collection", statusOf(ObjectType.COLLECTION));
+
+		cache.invalidateTree("/tempZone/coll");
+		assertEquals(1, cache.size());
+		assertTrue(cache.get("/tempZone/collection").isPresent());
+	}
+
+	@Test
+	void testCacheReturnsCopies() {
+		var cache = new ObjectStatusCache(8, 1, 1, TimeUnit.HOURS);
+		cache.put("/tempZone/a", statusOf(ObjectType.COLLECTION));
+
+		cache.get("/tempZone/a").get().setType(ObjectType.DATA_OBJECT);
+		assertEquals(ObjectType.COLLECTION, cache.get("/tempZone/a").get().getType());
+		assertEquals(2, cache.getHitCount());
+	}
+
+	@Test
+	void testInvalidArgumentsAreRejected() {
+		assertThrows(IllegalArgumentException.class, () -> new ObjectStatusCache(0, 1, 1, TimeUnit.SECONDS));
+		assertThrows(IllegalArgumentException.class, () -> new ObjectStatusCache(1, 0, 1, TimeUnit.SECONDS));
+		assertThrows(IllegalArgumentException.class, () -> new ObjectStatusCache(1, 1, -1, TimeUnit.SECONDS));
+	}
+
+	private static ObjectStatus statusOf(ObjectType type) {
+		return new ObjectStatus(type, new ArrayList<>());
+	}
+
+}
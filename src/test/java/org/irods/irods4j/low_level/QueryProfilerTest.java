@@ -0,0 +1,158 @@
+package org.irods.irods4j.low_level;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.irods.irods4j.authentication.NativeAuthPlugin;
+import org.irods.irods4j.common.Reference;
+import org.irods.irods4j.low_level.api.IRODSApi;
+import org.irods.irods4j.low_level.api.IRODSApi.RcComm;
+import org.irods.irods4j.low_level.api.IRODSException;
+import org.irods.irods4j.low_level.api.QueryProfiler;
+import org.irods.irods4j.low_level.api.QueryProfiler.QueryApi;
+import org.irods.irods4j.low_level.protocol.packing_instructions.Genquery2Input_PI;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class QueryProfilerTest {
+
+	static String host = "localhost";
+	static int port = 1247;
+	static String zone = "tempZone";
+	static String username = "rods";
+	static String password = "rods";
+
+	@AfterEach
+	void tearDown() {
+		QueryProfiler.setEnabled(false);
+		QueryProfiler.setSlowQueryThreshold(500, TimeUnit.MILLISECONDS);
+		QueryProfiler.setMaxTemplates(1000);
+		QueryProfiler.reset();
+	}
+
+	@Test
+	void testNormalizeReplacesLiteralsAndCollapsesLists() {
+		assertEquals("select DATA_ID where COLL_NAME = ? and DATA_NAME in (?, ...) limit ?",
+				QueryProfiler.normalize(
+						"select DATA_ID  where COLL_NAME = '/tempZone/home/rods'\n and DATA_NAME in ('a', 'b', 'c') limit 256"));
+		assertEquals("select DATA_ID where DATA_NAME in (?)",
+				QueryProfiler.normalize("select DATA_ID where DATA_NAME in ('x')"));
+		assertEquals("select max(DATA_SIZE) where DATA_REPL_NUM = ?",
+				QueryProfiler.normalize("select max(DATA_SIZE) where DATA_REPL_NUM = '2'"));
+		assertEquals(QueryProfiler.normalize("select COLL_ID where COLL_NAME = '/a'"),
+				QueryProfiler.normalize("select COLL_ID where COLL_NAME = '/b/c'"));
+	}
+
+	@Test
+	void testHistogramBucketBoundsDoubleInSize() {
+		assertEquals(2, QueryProfiler.getBucketUpperBoundMicros(0));
+		assertEquals(4, QueryProfiler.getBucketUpperBoundMicros(1));
+		assertEquals(1L << 32, QueryProfiler.getBucketUpperBoundMicros(QueryProfiler.NUMBER_OF_HISTOGRAM_BUCKETS - 1));
+	}
+
+	@Test
+	void testProfilerRecordsGenQuery2StatisticsPerTemplate() throws Exception {
+		RcComm comm = IRODSApi.rcConnect(host, port, username, zone, Optional.empty(), Optional.empty(),
+				Optional.empty(), Optional.empty());
+		assertNotNull(comm);
+
+		try {
+			IRODSApi.rcAuthenticateClient(comm, new NativeAuthPlugin(), password);
+
+			QueryProfiler.reset();
+			QueryProfiler.setEnabled(true);
+			QueryProfiler.setSlowQueryThreshold(0, TimeUnit.NANOSECONDS);
+
+			executeGenQuery2(comm, "select COLL_NAME where COLL_NAME = '/tempZone/home/rods'");
+			executeGenQuery2(comm, "select COLL_NAME where COLL_NAME = '/tempZone/home'");
+
+			var stats = QueryProfiler.getStatistics();
+			assertEquals(1, stats.size());
+
+			var s = stats.get(0);
+			assertEquals(QueryApi.GENQUERY2, s.api);
+			assertEquals("select COLL_NAME where COLL_NAME = ?", s.template);
+			assertEquals(2, s.callCount);
+			assertEquals(0, s.errorCount);
+			assertEquals(2, s.rowCount);
+			assertTrue(s.responseBytes > 0);
+			assertTrue(s.getPercentileUpperBoundMicros(100) > 0);
+
+			var slowQueries = QueryProfiler.getSlowQueries();
+			assertEquals(2, slowQueries.size());
+			assertEquals("select COLL_NAME where COLL_NAME = '/tempZone/home'", slowQueries.get(1).query);
+		} finally {
+			IRODSApi.rcDisconnect(comm);
+		}
+	}
+
+	@Test
+	void testMaxTemplatesRejectsNegativeValues() {
+		assertThrows(IllegalArgumentException.class, () -> QueryProfiler.setMaxTemplates(-1));
+		QueryProfiler.setMaxTemplates(0);
+		assertEquals(0, QueryProfiler.getMaxTemplates());
+	}
+
+	@Test
+	void testProfilerRecordsUntrackedTemplatesUnderOverflowTemplateOnceFull() throws Exception {
+		RcComm comm = IRODSApi.rcConnect(host, port, username, zone, Optional.empty(), Optional.empty(),
+				Optional.empty(), Optional.empty());
+		assertNotNull(comm);
+
+		try {
+			IRODSApi.rcAuthenticateClient(comm, new NativeAuthPlugin(), password);
+
+			QueryProfiler.reset();
+			QueryProfiler.setEnabled(true);
+			QueryProfiler.setMaxTemplates(1);
+
+			executeGenQuery2(comm, "select COLL_NAME where COLL_NAME = '/tempZone/home'");
+			executeGenQuery2(comm, "select COLL_ID where COLL_NAME = '/tempZone/home'");
+			executeGenQuery2(comm, "select COLL_OWNER_NAME where COLL_NAME = '/tempZone/home'");
+			executeGenQuery2(comm, "select COLL_NAME where COLL_NAME = '/tempZone'");
+
+			var stats = QueryProfiler.getStatistics();
+			assertEquals(2, stats.size());
+
+			var calls = new HashMap<String, Long>();
+			stats.forEach(s -> calls.put(s.template, s.callCount));
+			assertEquals(2, calls.get("select COLL_NAME where COLL_NAME = ?"));
+			assertEquals(2, calls.get(QueryProfiler.OVERFLOW_TEMPLATE));
+		} finally {
+			IRODSApi.rcDisconnect(comm);
+		}
+	}
+
+	@Test
+	void testProfilerDoesNotRecordWhenDisabled() throws Exception {
+		RcComm comm = IRODSApi.rcConnect(host, port, username, zone, Optional.empty(), Optional.empty(),
+				Optional.empty(), Optional.empty());
+		assertNotNull(comm);
+
+		try {
+			IRODSApi.rcAuthenticateClient(comm, new NativeAuthPlugin(), password);
+
+			assertFalse(QueryProfiler.isEnabled());
+			executeGenQuery2(comm, "select COLL_NAME where COLL_NAME = '/tempZone/home'");
+			assertTrue(QueryProfiler.getStatistics().isEmpty());
+		} finally {
+			IRODSApi.rcDisconnect(comm);
+		}
+	}
+
+	static void executeGenQuery2(RcComm comm, String query) throws IOException, IRODSException {
+		var input = new Genquery2Input_PI();
+		input.query_string = query;
+		var output = new Reference<String>();
+		assertEquals(0, IRODSApi.rcGenQuery2(comm, input, output));
+	}
+
+}